@@ -19,6 +19,9 @@ import org.codehaus.groovy.reflection.ReflectionCache;
 import org.codehaus.groovy.reflection.stdclasses.CachedClosureClass;
 import org.codehaus.groovy.runtime.CurriedClosure;
 import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codehaus.groovy.runtime.InvokerInvocationException;
+import org.codehaus.groovy.runtime.metaclass.ClosureMetaClass;
+import org.codehaus.groovy.runtime.wrappers.Wrapper;
 import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
 
 import java.io.IOException;
@@ -95,6 +98,7 @@ public abstract class Closure extends GroovyObjectSupport implements Cloneable,
     private int directive;
     protected Class[] parameterTypes;
     protected int maximumNumberOfParameters;
+    private boolean directlyCallable;
     private static final long serialVersionUID = 4368710879820278874L;
 
     public Closure(Object owner, Object thisObject) {
@@ -105,6 +109,7 @@ public abstract class Closure extends GroovyObjectSupport implements Cloneable,
         final CachedClosureClass cachedClass = (CachedClosureClass) ReflectionCache.getCachedClass(getClass());
         parameterTypes = cachedClass.getParameterTypes();
         maximumNumberOfParameters = cachedClass.getMaximumNumberOfParameters();
+        directlyCallable = cachedClass.isDirectlyCallable();
     }
     
     public Closure(Object owner) {
@@ -276,6 +281,18 @@ public abstract class Closure extends GroovyObjectSupport implements Cloneable,
     }
     
     public Object call(Object[] args) {
+        if (args != null && args.length == maximumNumberOfParameters && isDirectlyCallable()) {
+            boolean wrapped = false;
+            for (int i = 0; i != args.length; i++)
+                wrapped |= args[i] instanceof Wrapper;
+            if (!wrapped) {
+                try {
+                    return doCallDirectly(args);
+                } catch (Throwable t) {
+                    throw new InvokerInvocationException(t);
+                }
+            }
+        }
         try {
             return getMetaClass().invokeMethod(this,"doCall",args);
         } catch (Exception e) {
@@ -290,8 +307,65 @@ public abstract class Closure extends GroovyObjectSupport implements Cloneable,
      * @return the value if applicable or null if there is no return statement in the closure
      */
     public Object call(final Object arguments) {
+        if (maximumNumberOfParameters == 1 && !(arguments instanceof Wrapper) && isDirectlyCallable()) {
+            try {
+                return doCallDirectly(arguments);
+            } catch (Throwable t) {
+                throw new InvokerInvocationException(t);
+            }
+        }
         return call(new Object[]{arguments});
     }
+
+    /**
+     * Invokes the closure with two arguments, returning any value if applicable.
+     *
+     * @param argument1 the first argument
+     * @param argument2 the second argument
+     * @return the value if applicable or null if there is no return statement in the closure
+     */
+    public Object call(final Object argument1, final Object argument2) {
+        if (maximumNumberOfParameters == 2 && !(argument1 instanceof Wrapper) && !(argument2 instanceof Wrapper) && isDirectlyCallable()) {
+            try {
+                return doCallDirectly(argument1, argument2);
+            } catch (Throwable t) {
+                throw new InvokerInvocationException(t);
+            }
+        }
+        return call(new Object[]{argument1, argument2});
+    }
+
+    // doCall can be called without the meta class, which would select the same method
+    private boolean isDirectlyCallable() {
+        return directlyCallable && getMetaClass() instanceof ClosureMetaClass;
+    }
+
+    /**
+     * Calls the doCall method taking all parameters directly. The compiler overrides these
+     * methods for closures whose parameters are all untyped, see
+     * {@link CachedClosureClass#isDirectlyCallable()}. They are used by the call methods
+     * while the closure has its default meta class, so exceptions are wrapped the same way.
+     * Closures without such an override call doCall through the meta class.
+     *
+     * @param args as many arguments as the closure has parameters
+     * @return the result of doCall
+     * @throws Throwable the exception thrown by doCall, unwrapped
+     */
+    protected Object doCallDirectly(Object[] args) throws Throwable {
+        try {
+            return getMetaClass().invokeMethod(this, "doCall", args);
+        } catch (InvokerInvocationException e) {
+            throw e.getCause();
+        }
+    }
+
+    protected Object doCallDirectly(Object argument) throws Throwable {
+        return doCallDirectly(new Object[]{argument});
+    }
+
+    protected Object doCallDirectly(Object argument1, Object argument2) throws Throwable {
+        return doCallDirectly(new Object[]{argument1, argument2});
+    }
     
     protected static Object throwRuntimeException(Throwable throwable) {
         if (throwable instanceof RuntimeException) {
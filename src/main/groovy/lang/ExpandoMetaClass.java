@@ -665,7 +665,8 @@ public class ExpandoMetaClass extends MetaClassImpl implements GroovyObject {
                     expandoProperties.put(mbp.getName(),mbp);
 
 					addMetaBeanProperty(mbp);
-                    performRegistryCallbacks();
+                    invalidateCallSites(getter.getName());
+                    performRegistryCallbacks(setter.getName());
                 }
 
 			});
@@ -702,7 +703,7 @@ public class ExpandoMetaClass extends MetaClassImpl implements GroovyObject {
 						String propertyName = getPropertyForSetter(methodName);
 						registerBeanPropertyForMethod(metaMethod, propertyName, false, false);
 					}
-					performRegistryCallbacks();
+					performRegistryCallbacks(methodName);
 				}
 
 			});
@@ -736,9 +737,9 @@ public class ExpandoMetaClass extends MetaClassImpl implements GroovyObject {
     }
 
 
-    private void performRegistryCallbacks() {
+    private void performRegistryCallbacks(String methodName) {
 		MetaClassRegistry registry =  GroovySystem.getMetaClassRegistry();
-        incVersion();
+        invalidateCallSites(methodName);
 		if(!modified) {
 			modified = true;
             // Implementation note: By default Groovy uses soft references to store MetaClass
@@ -758,6 +759,20 @@ public class ExpandoMetaClass extends MetaClassImpl implements GroovyObject {
 	}
 
 
+    /**
+     * Call sites linked to methods of other names stay valid, unless the added method
+     * changes how every call is dispatched
+     */
+    private void invalidateCallSites(String methodName) {
+        if (methodName.equals(INVOKE_METHOD_METHOD)
+                || methodName.equals(METHOD_MISSING) || methodName.equals(STATIC_METHOD_MISSING)
+                || methodName.equals(PROPERTY_MISSING) || methodName.equals(STATIC_PROPERTY_MISSING)
+                || methodName.equals("getProperty") || methodName.equals("setProperty"))
+            incVersion();
+        else
+            incVersion(methodName);
+    }
+
 	private void registerBeanPropertyForMethod(MetaMethod metaMethod, String propertyName, boolean getter, boolean isStatic) {
         Map propertyCache = isStatic ? staticBeanPropertyCache : beanPropertyCache;
         MetaBeanProperty beanProperty = (MetaBeanProperty)propertyCache.get(propertyName);
@@ -825,7 +840,7 @@ public class ExpandoMetaClass extends MetaClassImpl implements GroovyObject {
                         String propertyName = getPropertyForSetter(methodName);
                         registerBeanPropertyForMethod(metaMethod, propertyName, false, true);
                     }
-                    performRegistryCallbacks();
+                    performRegistryCallbacks(methodName);
                     expandoMethods.put(key,metaMethod);
                 }
 			}
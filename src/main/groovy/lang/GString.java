@@ -17,11 +17,13 @@ package groovy.lang;
 
 import org.codehaus.groovy.runtime.DefaultGroovyMethods;
 import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codehaus.groovy.runtime.StringBuilderWriter;
 
 import java.io.IOException;
 import java.io.Serializable;
-import java.io.StringWriter;
 import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -155,9 +157,29 @@ public abstract class GString extends GroovyObjectSupport implements Comparable,
     }
 
     public String toString() {
-        StringWriter buffer = new StringWriter();
+        String[] s = getStrings();
+        int numberOfValues = values.length;
+        // room for the strings and short values
+        int capacity = 16 * numberOfValues;
+        for (int i = 0; i < s.length; i++) {
+            capacity += s[i].length();
+        }
+        StringBuilder buffer = new StringBuilder(capacity);
+        Writer out = null;
         try {
-            writeTo(buffer);
+            for (int i = 0, size = s.length; i < size; i++) {
+                buffer.append(s[i]);
+                if (i < numberOfValues) {
+                    final Object value = values[i];
+                    if (isImmutable(value)) {
+                        // written as value.toString() by InvokerHelper.write too
+                        buffer.append(value.toString());
+                    } else {
+                        if (out == null) out = new StringBuilderWriter(buffer);
+                        writeValue(out, value);
+                    }
+                }
+            }
         }
         catch (IOException e) {
             throw new StringWriterIOException(e);
@@ -166,30 +188,115 @@ public abstract class GString extends GroovyObjectSupport implements Comparable,
     }
 
     public Writer writeTo(Writer out) throws IOException {
-    	String[] s = getStrings();
-    	int numberOfValues = values.length;
-    	for (int i = 0, size = s.length; i < size; i++) {
-    		out.write(s[i]);
-    		if (i < numberOfValues) {
-    			final Object value = values[i];
-
-    			if (value instanceof Closure) {
-    				final Closure c = (Closure)value;
-
-    				if (c.getMaximumNumberOfParameters() == 0) {
-    					InvokerHelper.write(out, c.call(null));
-    				} else if (c.getMaximumNumberOfParameters() == 1) {
-    					c.call(new Object[]{out});
-    				} else {
-    					throw new GroovyRuntimeException("Trying to evaluate a GString containing a Closure taking "
-    							+ c.getMaximumNumberOfParameters() + " parameters");
-    				}
-    			} else {
-    				InvokerHelper.write(out, value);
-    			}
-    		}
-    	}
-    	return out;
+        String[] s = getStrings();
+        int numberOfValues = values.length;
+        for (int i = 0, size = s.length; i < size; i++) {
+            out.write(s[i]);
+            if (i < numberOfValues) {
+                writeValue(out, values[i]);
+            }
+        }
+        return out;
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value instanceof String || value instanceof Boolean || value instanceof Character
+                || value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte || value instanceof Double || value instanceof Float
+                || value instanceof BigInteger || value instanceof BigDecimal;
+    }
+
+    private static void writeValue(Writer out, Object value) throws IOException {
+        if (value instanceof Closure) {
+            final Closure c = (Closure) value;
+
+            if (c.getMaximumNumberOfParameters() == 0) {
+                InvokerHelper.write(out, c.call(null));
+            } else if (c.getMaximumNumberOfParameters() == 1) {
+                c.call(new Object[]{out});
+            } else {
+                throw new GroovyRuntimeException("Trying to evaluate a GString containing a Closure taking "
+                        + c.getMaximumNumberOfParameters() + " parameters");
+            }
+        } else {
+            InvokerHelper.write(out, value);
+        }
+    }
+
+    /**
+     * Returns an immutable copy of this GString. Later changes to the arrays of strings
+     * and values of this GString don't affect the copy. If all values are strings,
+     * booleans, characters or numbers of the standard immutable number types, the copy
+     * renders itself only once and reuses the String for <code>toString()</code>,
+     * <code>equals</code>, <code>hashCode</code> and <code>compareTo</code>. Values which are
+     * themselves such immutable GStrings are fine too. This makes it
+     * a cheap map key or set element:
+     * <pre>
+     * def key = "${user}:${id}".asImmutable()
+     * </pre>
+     * Other values, like lists or closures, are rendered each time, as they may change.
+     *
+     * @return an immutable GString with the same strings and values
+     */
+    public GString asImmutable() {
+        return new ImmutableGString(getStrings(), values);
+    }
+
+    /**
+     * A GString with private copies of its strings and values, which caches its
+     * String if the values can't change their rendering.
+     */
+    private static final class ImmutableGString extends GString {
+        static final long serialVersionUID = 8162541327497539123L;
+
+        private final String[] strings;
+        private final boolean cacheable;
+        private transient String rendered;
+
+        ImmutableGString(String[] strings, Object[] values) {
+            super((Object[]) values.clone());
+            this.strings = (String[]) strings.clone();
+            this.cacheable = areImmutable(values);
+        }
+
+        private static boolean areImmutable(Object[] values) {
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (!isImmutable(value)
+                        && !(value instanceof ImmutableGString && ((ImmutableGString) value).cacheable)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public String[] getStrings() {
+            return (String[]) strings.clone();
+        }
+
+        public Object[] getValues() {
+            return (Object[]) super.getValues().clone();
+        }
+
+        public String toString() {
+            if (!cacheable) return super.toString();
+            String answer = rendered;
+            if (answer == null) {
+                answer = super.toString();
+                rendered = answer;
+            }
+            return answer;
+        }
+
+        public Writer writeTo(Writer out) throws IOException {
+            if (!cacheable) return super.writeTo(out);
+            out.write(toString());
+            return out;
+        }
+
+        public GString asImmutable() {
+            return this;
+        }
     }
 
     /* (non-Javadoc)
@@ -37,6 +37,7 @@ import java.security.CodeSource;
 import java.security.PrivilegedAction;
 import java.security.ProtectionDomain;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A ClassLoader which can load Groovy classes. The loaded classes are cached,
@@ -69,6 +70,9 @@ public class GroovyClassLoader extends URLClassLoader {
     private Boolean recompile;
     // use 1000000 as offset to avoid conflicts with names form the GroovyShell 
     private static int scriptNameCounter = 1000000;
+    // counts the changes of the class cache and the URLs
+    private final AtomicLong modificationCount = new AtomicLong();
+    private volatile ClassResolutionCache resolutionCache;
 
     private GroovyResourceLoader resourceLoader = new GroovyResourceLoader() {
         public URL loadGroovySource(final String filename) throws MalformedURLException {
@@ -479,7 +483,9 @@ public class GroovyClassLoader extends URLClassLoader {
      * open up the super class define that takes raw bytes
      */
     public Class defineClass(String name, byte[] b) {
-        return super.defineClass(name, b, 0, b.length);
+        Class cls = super.defineClass(name, b, 0, b.length);
+        classesChanged(cls.getName());
+        return cls;
     }
 
     /**
@@ -521,9 +527,11 @@ public class GroovyClassLoader extends URLClassLoader {
      * @see #clearCache()
      */
     protected void setClassCacheEntry(Class cls) {
+        Object old;
         synchronized (classCache) {
-            classCache.put(cls.getName(), cls);
+            old = classCache.put(cls.getName(), cls);
         }
+        if (old != cls) classesChanged(cls.getName());
     }
 
     /**
@@ -535,9 +543,11 @@ public class GroovyClassLoader extends URLClassLoader {
      * @see #clearCache()
      */
     protected void removeClassCacheEntry(String name) {
+        Object old;
         synchronized (classCache) {
-            classCache.remove(name);
+            old = classCache.remove(name);
         }
+        if (old != null) classesChanged(name);
     }
 
     /**
@@ -547,6 +557,46 @@ public class GroovyClassLoader extends URLClassLoader {
      */
     public void addURL(URL url) {
         super.addURL(url);
+        classesChanged(null);
+    }
+
+    /**
+     * Returns a number which grows whenever the class cache of this loader
+     * changes or the loader gets a new URL. It tells caches of the classes
+     * found through this loader that they have to be dropped.
+     *
+     * @return the number of changes so far
+     */
+    public long getModificationCount() {
+        return modificationCount.get();
+    }
+
+    /**
+     * Returns the cache of the classes the compilations using this loader
+     * found, or did not find, through it. It is used by the ResolveVisitor
+     * if {@link CompilerConfiguration#setCacheClassResolution(boolean)} is set.
+     *
+     * @return the cache, created on the first call
+     */
+    public ClassResolutionCache getClassResolutionCache() {
+        if (resolutionCache == null) {
+            synchronized (modificationCount) {
+                if (resolutionCache == null) resolutionCache = new ClassResolutionCache(this);
+            }
+        }
+        return resolutionCache;
+    }
+
+    // notes a change of the classes this loader finds, for all names if name is null
+    private void classesChanged(String name) {
+        modificationCount.incrementAndGet();
+        ClassResolutionCache cache = resolutionCache;
+        if (cache == null) return;
+        if (name == null) {
+            cache.clear();
+        } else {
+            cache.remove(name);
+        }
     }
 
     /**
@@ -863,5 +913,6 @@ public class GroovyClassLoader extends URLClassLoader {
         synchronized (sourceCache) {
             sourceCache.clear();
         }
+        classesChanged(null);
     }
 }
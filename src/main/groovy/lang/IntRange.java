@@ -23,6 +23,7 @@ import java.util.AbstractList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Represents a list of Integer objects from a specified int up (or down) to and including
@@ -37,9 +38,13 @@ import java.util.List;
 public class IntRange extends AbstractList implements Range {
 
     /**
-     * Iterates through each number in an <code>IntRange</code>.
+     * Iterates through each number in an <code>IntRange</code>. Besides the boxed values
+     * returned by {@link #next()}, the values can be read as <code>int</code>s with
+     * {@link #nextInt()}, which doesn't create any objects.
+     *
+     * @see IntRange#intIterator()
      */
-    private class IntRangeIterator implements Iterator {
+    public class IntRangeIterator implements Iterator {
         /**
          * Counts from 0 up to size - 1.
          */
@@ -55,6 +60,9 @@ public class IntRange extends AbstractList implements Range {
          */
         private int value = reverse ? to : from;
 
+        private IntRangeIterator() {
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -66,18 +74,30 @@ public class IntRange extends AbstractList implements Range {
          * {@inheritDoc}
          */
         public Object next() {
+            if (index >= size) {
+                return null;
+            }
+            return Integer.valueOf(nextInt());
+        }
+
+        /**
+         * Returns the next number in the range as an <code>int</code>.
+         *
+         * @return the next number
+         * @throws java.util.NoSuchElementException if there are no more numbers
+         */
+        public int nextInt() {
+            if (index >= size) {
+                throw new NoSuchElementException();
+            }
             if (index++ > 0) {
-                if (index > size) {
-                    return null;
+                if (reverse) {
+                    --value;
                 } else {
-                    if (reverse) {
-                        --value;
-                    } else {
-                        ++value;
-                    }
+                    ++value;
                 }
             }
-            return Integer.valueOf(value);
+            return value;
         }
 
         /**
@@ -251,6 +271,22 @@ public class IntRange extends AbstractList implements Range {
         return new IntRangeIterator();
     }
 
+    /**
+     * Returns an iterator which can return the numbers of the range as <code>int</code>s,
+     * without boxing them.
+     * <pre>
+     * for (IntRange.IntRangeIterator it = range.intIterator(); it.hasNext();) {
+     *     int i = it.nextInt();
+     *     ...
+     * }
+     * </pre>
+     *
+     * @return an iterator over the numbers in the range
+     */
+    public IntRangeIterator intIterator() {
+        return new IntRangeIterator();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -321,16 +357,17 @@ public class IntRange extends AbstractList implements Range {
         if (reverse) {
             step = -step;
         }
+        // long arithmetic, so stepping past Integer.MAX_VALUE or MIN_VALUE ends the loop
         if (step >= 0) {
-            int value = from;
+            long value = from;
             while (value <= to) {
-                closure.call(Integer.valueOf(value));
+                closure.call(Integer.valueOf((int) value));
                 value = value + step;
             }
         } else {
-            int value = to;
+            long value = to;
             while (value >= from) {
-                closure.call(Integer.valueOf(value));
+                closure.call(Integer.valueOf((int) value));
                 value = value + step;
             }
         }
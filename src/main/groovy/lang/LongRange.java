@@ -0,0 +1,399 @@
+/*
+ * Copyright 2003-2009 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package groovy.lang;
+
+import org.codehaus.groovy.runtime.IteratorClosureAdapter;
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a list of Long objects from a specified long up (or down) to and including
+ * a given to. Ranges like <code>1L..n</code> with two <code>Long</code> bounds are
+ * created as <code>LongRange</code>s.
+ * <p/>
+ * This class is a copy of {@link IntRange} for <code>long</code>.  If you make any
+ * changes to this class, you might consider making parallel changes to {@link IntRange}.
+ */
+public class LongRange extends AbstractList implements Range {
+
+    /**
+     * Iterates through each number in a <code>LongRange</code>. Besides the boxed values
+     * returned by {@link #next()}, the values can be read as <code>long</code>s with
+     * {@link #nextLong()}, which doesn't create any objects.
+     *
+     * @see LongRange#longIterator()
+     */
+    public class LongRangeIterator implements Iterator {
+        /**
+         * Counts from 0 up to size - 1.
+         */
+        private int index;
+
+        /**
+         * The number of values in the range.
+         */
+        private int size = size();
+
+        /**
+         * The next value to return.
+         */
+        private long value = reverse ? to : from;
+
+        private LongRangeIterator() {
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public Object next() {
+            if (index >= size) {
+                return null;
+            }
+            return Long.valueOf(nextLong());
+        }
+
+        /**
+         * Returns the next number in the range as a <code>long</code>.
+         *
+         * @return the next number
+         * @throws java.util.NoSuchElementException if there are no more numbers
+         */
+        public long nextLong() {
+            if (index >= size) {
+                throw new NoSuchElementException();
+            }
+            if (index++ > 0) {
+                if (reverse) {
+                    --value;
+                } else {
+                    ++value;
+                }
+            }
+            return value;
+        }
+
+        /**
+         * Not supported.
+         *
+         * @throws java.lang.UnsupportedOperationException always
+         */
+        public void remove() {
+            throw new UnsupportedOperationException("LongRange is immutable");
+        }
+    }
+
+    /**
+     * The first number in the range.  <code>from</code> is always less than or equal to <code>to</code>.
+     */
+    private final long from;
+
+    /**
+     * The last number in the range. <code>to</code> is always greater than or equal to <code>from</code>.
+     */
+    private final long to;
+
+    /**
+     * If <code>false</code>, counts up from <code>from</code> to <code>to</code>.  Otherwise, counts down
+     * from <code>to</code> to <code>from</code>.
+     */
+    private final boolean reverse;
+
+    /**
+     * Creates a new <code>LongRange</code>. If <code>from</code> is greater
+     * than <code>to</code>, a reverse range is created with
+     * <code>from</code> and <code>to</code> swapped.
+     *
+     * @param from the first number in the range.
+     * @param to   the last number in the range.
+     * @throws IllegalArgumentException if the range would contain more than
+     *                                  {@link Integer#MAX_VALUE} values.
+     */
+    public LongRange(long from, long to) {
+        if (from > to) {
+            this.from = to;
+            this.to = from;
+            this.reverse = true;
+        } else {
+            this.from = from;
+            this.to = to;
+            this.reverse = false;
+        }
+
+        // size() is an integer so ranges can have no more than Integer.MAX_VALUE elements
+        if (!isSizeSupported(this.from, this.to)) {
+            throw new IllegalArgumentException("range must have no more than " + Integer.MAX_VALUE + " elements");
+        }
+    }
+
+    /**
+     * Creates a new <code>LongRange</code>.
+     *
+     * @param from    the first value in the range.
+     * @param to      the last value in the range.
+     * @param reverse <code>true</code> if the range should count from
+     *                <code>to</code> to <code>from</code>.
+     * @throws IllegalArgumentException if <code>from</code> is greater than <code>to</code>.
+     */
+    protected LongRange(long from, long to, boolean reverse) {
+        if (from > to) {
+            throw new IllegalArgumentException("'from' must be less than or equal to 'to'");
+        }
+
+        this.from = from;
+        this.to = to;
+        this.reverse = reverse;
+    }
+
+    /**
+     * Checks whether a range between two numbers would have no more than
+     * {@link Integer#MAX_VALUE} elements.
+     *
+     * @param from the smaller bound
+     * @param to   the larger bound
+     * @return <code>true</code> if a <code>LongRange</code> can hold the numbers
+     */
+    public static boolean isSizeSupported(long from, long to) {
+        // to - from may overflow for a negative from, but from + Integer.MAX_VALUE doesn't
+        return from < 0 ? to < from + Integer.MAX_VALUE : to - from < Integer.MAX_VALUE;
+    }
+
+    /**
+     * Determines if this object is equal to another object. Delegates to
+     * {@link AbstractList#equals(Object)} if <code>that</code> is anything
+     * other than a {@link LongRange}.
+     *
+     * @param that the object to compare
+     * @return <code>true</code> if the objects are equal
+     */
+    public boolean equals(Object that) {
+        return that instanceof LongRange ? equals((LongRange) that) : super.equals(that);
+    }
+
+    /**
+     * Compares a {@link LongRange} to another {@link LongRange}.
+     *
+     * @return <code>true</code> if the ranges are equal
+     * @param that the object to compare for equality
+     */
+    public boolean equals(LongRange that) {
+        return that != null && this.reverse == that.reverse && this.from == that.from && this.to == that.to;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Comparable getFrom() {
+        return Long.valueOf(from);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Comparable getTo() {
+        return Long.valueOf(to);
+    }
+
+    /**
+     * Gets the 'from' value as a long.
+     *
+     * @return the 'from' value as a long.
+     */
+    public long getFromLong() {
+        return from;
+    }
+
+    /**
+     * Gets the 'to' value as a long.
+     *
+     * @return the 'to' value as a long.
+     */
+    public long getToLong() {
+        return to;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isReverse() {
+        return reverse;
+    }
+
+    public boolean containsWithinBounds(Object o) {
+        return contains(o);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Object get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index + " should not be negative");
+        }
+        if (index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + " too big for range: " + this);
+        }
+        long value = reverse ? to - index : index + from;
+        return Long.valueOf(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int size() {
+        return (int) (to - from + 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Iterator iterator() {
+        return new LongRangeIterator();
+    }
+
+    /**
+     * Returns an iterator which can return the numbers of the range as <code>long</code>s,
+     * without boxing them.
+     *
+     * @return an iterator over the numbers in the range
+     * @see IntRange#intIterator()
+     */
+    public LongRangeIterator longIterator() {
+        return new LongRangeIterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List subList(int fromIndex, int toIndex) {
+        if (fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex = " + fromIndex);
+        }
+        if (toIndex > size()) {
+            throw new IndexOutOfBoundsException("toIndex = " + toIndex);
+        }
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        }
+
+        if (fromIndex == toIndex) {
+            return new EmptyRange((Comparable) get(0));
+        }
+
+        if (reverse) {
+            return new LongRange(this.to - toIndex + 1, this.to - fromIndex, true);
+        }
+        return new LongRange(fromIndex + this.from, toIndex + this.from - 1, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String toString() {
+        return reverse ? "" + to + ".." + from : "" + from + ".." + to;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String inspect() {
+        return toString();
+    }
+
+    /**
+     * Checks whether the range contains a number. Numbers of other types are contained
+     * if they are equal to one of the numbers of the range, like <code>3</code> or
+     * <code>3.0</code> in <code>1L..5L</code>.
+     *
+     * @param value the value to look for
+     * @return <code>true</code> if the value is in the range
+     */
+    public boolean contains(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            long l = ((Number) value).longValue();
+            return l >= from && l <= to;
+        }
+        if (value instanceof BigInteger) {
+            BigInteger bigint = (BigInteger) value;
+            return bigint.compareTo(BigInteger.valueOf(from)) >= 0 &&
+                    bigint.compareTo(BigInteger.valueOf(to)) <= 0;
+        }
+        if (value instanceof BigDecimal || value instanceof Double || value instanceof Float) {
+            long l = ((Number) value).longValue();
+            return l >= from && l <= to && DefaultTypeTransformation.compareEqual(value, Long.valueOf(l));
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean containsAll(Collection other) {
+        if (other instanceof LongRange) {
+            final LongRange range = (LongRange) other;
+            return this.from <= range.from && range.to <= this.to;
+        }
+        return super.containsAll(other);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void step(int step, Closure closure) {
+        if (reverse) {
+            step = -step;
+        }
+        if (step >= 0) {
+            long value = from;
+            while (value <= to) {
+                closure.call(Long.valueOf(value));
+                // stop before value + step would overflow
+                if (to - value < step) break;
+                value = value + step;
+            }
+        } else {
+            long value = to;
+            while (value >= from) {
+                closure.call(Long.valueOf(value));
+                if (value - from < -(long) step) break;
+                value = value + step;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List step(int step) {
+        IteratorClosureAdapter adapter = new IteratorClosureAdapter(this);
+        step(step, adapter);
+        return adapter.asList();
+    }
+}
@@ -16,6 +16,7 @@
 package groovy.lang;
 
 import org.codehaus.groovy.reflection.CachedField;
+import org.codehaus.groovy.reflection.CachedMethod;
 import org.codehaus.groovy.runtime.MetaClassHelper;
 import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
 
@@ -52,6 +53,8 @@ public class MetaBeanProperty extends MetaProperty {
             //TODO: we probably need a WriteOnlyException class
             throw new GroovyRuntimeException("Cannot read write-only property: " + name);
         }
+        if (getter instanceof CachedMethod)
+          return ((CachedMethod) getter).invokeGetter(object);
         return getter.invoke(object, MetaClassHelper.EMPTY_ARRAY);
     }
 
@@ -67,6 +70,8 @@ public class MetaBeanProperty extends MetaProperty {
             throw new GroovyRuntimeException("Cannot set read-only property: " + name);
         }
         newValue = DefaultTypeTransformation.castToType(newValue, getType());
+        if (setter instanceof CachedMethod && ((CachedMethod) setter).invokeSetterDirectly(object, newValue))
+          return;
         setter.invoke(object, new Object[]{newValue});
     }
 
@@ -37,6 +37,7 @@ import org.codehaus.groovy.runtime.InvokerInvocationException;
 import org.codehaus.groovy.runtime.MetaClassHelper;
 import org.codehaus.groovy.runtime.MethodClosure;
 import org.codehaus.groovy.runtime.callsite.CallSite;
+import org.codehaus.groovy.runtime.callsite.CallSiteStatistics;
 import org.codehaus.groovy.runtime.callsite.ConstructorSite;
 import org.codehaus.groovy.runtime.callsite.MetaClassConstructorSite;
 import org.codehaus.groovy.runtime.callsite.PogoMetaClassSite;
@@ -1130,14 +1131,57 @@ public class MetaClassImpl implements MetaClass, MutableMetaClass {
     public MetaMethod getMethodWithCaching(Class sender, String methodName, Object[] arguments, boolean isCallToSuper) {
         // lets try use the cache to find the method
         if (!isCallToSuper && GroovyCategorySupport.hasCategoryInCurrentThread()) {
-            return getMethodWithoutCaching(sender, methodName, MetaClassHelper.convertToTypeArray(arguments), isCallToSuper);
-        } else {
-            final MetaMethodIndex.Entry e = metaMethodIndex.getMethods(sender, methodName);
-            if (e == null)
-              return null;
+            final GroovyCategorySupport.CategoryMethodList categoryMethods = GroovyCategorySupport.getCategoryMethods(methodName);
+            if (categoryMethods != null)
+              return getCategoryMethodWithCaching(sender, methodName, arguments, categoryMethods);
+        }
+
+        final MetaMethodIndex.Entry e = metaMethodIndex.getMethods(sender, methodName);
+        if (e == null)
+          return null;
+
+        return isCallToSuper ? getSuperMethodWithCaching(arguments, e) : getNormalMethodWithCaching(arguments, e);
+    }
+
+    // category method lists never change once their scope is entered,
+    // so the selection can be cached as long as the same list is in use
+    private MetaMethod getCategoryMethodWithCaching(Class sender, String methodName, Object[] arguments, GroovyCategorySupport.CategoryMethodList categoryMethods) {
+        final MetaMethodIndex.Entry e = metaMethodIndex.getMethods(sender, methodName);
+        if (e == null)
+          return getMethodWithoutCaching(sender, methodName, MetaClassHelper.convertToTypeArray(arguments), false);
 
-            return isCallToSuper ? getSuperMethodWithCaching(arguments, e) : getNormalMethodWithCaching(arguments, e);
+        final int categoryVersion = categoryMethods.version;
+        final MetaMethodIndex.CacheEntry[] cache = e.cachedMethodForCategory;
+        if (cache != null) {
+            for (int i = 0; i < cache.length; i++) {
+                if (cache[i].categoryVersion == categoryVersion && MetaClassHelper.sameClasses(cache[i].params, arguments, false))
+                  return cache[i].method;
+            }
         }
+
+        final Class[] classes = MetaClassHelper.convertToTypeArray(arguments);
+        final MetaMethod method = getMethodWithoutCaching(sender, methodName, classes, false);
+        e.cachedMethodForCategory = MetaMethodIndex.addToCache(cache, new MetaMethodIndex.CacheEntry(classes, method, categoryVersion));
+        return method;
+    }
+
+    private MetaMethod getCategoryMethodWithCaching(Class sender, String methodName, Class[] params, GroovyCategorySupport.CategoryMethodList categoryMethods) {
+        final MetaMethodIndex.Entry e = metaMethodIndex.getMethods(sender, methodName);
+        if (e == null)
+          return getMethodWithoutCaching(sender, methodName, params, false);
+
+        final int categoryVersion = categoryMethods.version;
+        final MetaMethodIndex.CacheEntry[] cache = e.cachedMethodForCategory;
+        if (cache != null) {
+            for (int i = 0; i < cache.length; i++) {
+                if (cache[i].categoryVersion == categoryVersion && sameClasses(cache[i].params, params, false))
+                  return cache[i].method;
+            }
+        }
+
+        final MetaMethod method = getMethodWithoutCaching(sender, methodName, params, false);
+        e.cachedMethodForCategory = MetaMethodIndex.addToCache(cache, new MetaMethodIndex.CacheEntry(params, method, categoryVersion));
+        return method;
     }
 
     private static boolean sameClasses(Class[] params, Class[] arguments, boolean weakNullCheck) {
@@ -1164,80 +1208,82 @@ public class MetaClassImpl implements MetaClass, MutableMetaClass {
 
     // This method should be called by CallSite only
     private MetaMethod getMethodWithCachingInternal (Class sender, CallSite site, Class [] params) {
-        if (site.getUsage ().get() != 0 && GroovyCategorySupport.hasCategoryInCurrentThread())
-            return getMethodWithoutCaching(sender, site.getName (), params, false);
+        if (site.getUsage ().get() != 0 && GroovyCategorySupport.hasCategoryInCurrentThread()) {
+            final GroovyCategorySupport.CategoryMethodList categoryMethods = GroovyCategorySupport.getCategoryMethods(site.getName());
+            if (categoryMethods != null)
+              return getCategoryMethodWithCaching(sender, site.getName(), params, categoryMethods);
+        }
 
         final MetaMethodIndex.Entry e = metaMethodIndex.getMethods(sender, site.getName());
         if (e == null) {
             return null;
         }
 
-        MetaMethodIndex.CacheEntry cacheEntry;
         final Object methods = e.methods;
         if (methods == null)
           return null;
 
-        cacheEntry = e.cachedMethod;
-        if (cacheEntry != null
-           && (sameClasses(cacheEntry.params, params, methods instanceof MetaMethod))) {
-             return cacheEntry.method;
+        final MetaMethodIndex.CacheEntry[] cache = e.cachedMethod;
+        if (cache != null) {
+            final boolean weakNullCheck = methods instanceof MetaMethod;
+            for (int i = 0; i < cache.length; i++) {
+                if (sameClasses(cache[i].params, params, weakNullCheck))
+                  return cache[i].method;
+            }
         }
 
-        cacheEntry = new MetaMethodIndex.CacheEntry ();
-        cacheEntry.params = params;
-        cacheEntry.method = (MetaMethod) chooseMethod(e.name, methods, params);
-        e.cachedMethod = cacheEntry;
-        return cacheEntry.method;
+        final MetaMethod method = (MetaMethod) chooseMethod(e.name, methods, params);
+        e.cachedMethod = MetaMethodIndex.addToCache(cache, new MetaMethodIndex.CacheEntry(params, method));
+        return method;
     }
 
     private MetaMethod getSuperMethodWithCaching(Object[] arguments, MetaMethodIndex.Entry e) {
-        MetaMethodIndex.CacheEntry cacheEntry;
-        if (e.methodsForSuper == null)
+        final Object methodsForSuper = e.methodsForSuper;
+        if (methodsForSuper == null)
           return null;
 
-        cacheEntry = e.cachedMethodForSuper;
-        
-        if (cacheEntry != null &&
-            MetaClassHelper.sameClasses(cacheEntry.params, arguments, e.methodsForSuper instanceof MetaMethod))
-        {
-            MetaMethod method = cacheEntry.method;
-            if (method!=null) return method;
+        final MetaMethodIndex.CacheEntry[] cache = e.cachedMethodForSuper;
+        if (cache != null) {
+            final boolean weakNullCheck = methodsForSuper instanceof MetaMethod;
+            for (int i = 0; i < cache.length; i++) {
+                if (MetaClassHelper.sameClasses(cache[i].params, arguments, weakNullCheck)) {
+                    MetaMethod method = cache[i].method;
+                    if (method!=null) return method;
+                }
+            }
         }
 
-        cacheEntry = new MetaMethodIndex.CacheEntry ();
         final Class[] classes = MetaClassHelper.convertToTypeArray(arguments);
-        cacheEntry.params = classes;
-        cacheEntry.method = (MetaMethod) chooseMethod(e.name, e.methodsForSuper, classes);
-        if (cacheEntry.method.isAbstract()) cacheEntry.method = null;
+        MetaMethod method = (MetaMethod) chooseMethod(e.name, methodsForSuper, classes);
+        if (method.isAbstract()) method = null;
 
-        e.cachedMethodForSuper = cacheEntry;
+        e.cachedMethodForSuper = MetaMethodIndex.addToCache(cache, new MetaMethodIndex.CacheEntry(classes, method));
 
-        return cacheEntry.method;
+        return method;
     }
 
     private MetaMethod getNormalMethodWithCaching(Object[] arguments, MetaMethodIndex.Entry e) {
-        MetaMethodIndex.CacheEntry cacheEntry;
         final Object methods = e.methods;
         if (methods == null)
           return null;
 
-        cacheEntry = e.cachedMethod;
-
-        if (cacheEntry != null &&
-            MetaClassHelper.sameClasses(cacheEntry.params, arguments, methods instanceof MetaMethod))
-        {
-            MetaMethod method = cacheEntry.method;
-            if (method!=null) return method;
+        final MetaMethodIndex.CacheEntry[] cache = e.cachedMethod;
+        if (cache != null) {
+            final boolean weakNullCheck = methods instanceof MetaMethod;
+            for (int i = 0; i < cache.length; i++) {
+                if (MetaClassHelper.sameClasses(cache[i].params, arguments, weakNullCheck)) {
+                    MetaMethod method = cache[i].method;
+                    if (method!=null) return method;
+                }
+            }
         }
 
-        cacheEntry = new MetaMethodIndex.CacheEntry ();
         final Class[] classes = MetaClassHelper.convertToTypeArray(arguments);
-        cacheEntry.params = classes;
-        cacheEntry.method = (MetaMethod) chooseMethod(e.name, methods, classes);
-        
-        e.cachedMethod = cacheEntry;
-        
-        return cacheEntry.method;
+        final MetaMethod method = (MetaMethod) chooseMethod(e.name, methods, classes);
+
+        e.cachedMethod = MetaMethodIndex.addToCache(cache, new MetaMethodIndex.CacheEntry(classes, method));
+
+        return method;
     }
 
     public Constructor retrieveConstructor(Class[] arguments) {
@@ -1254,24 +1300,22 @@ public class MetaClassImpl implements MetaClass, MutableMetaClass {
 
     public MetaMethod retrieveStaticMethod(String methodName, Object[] arguments) {
         final MetaMethodIndex.Entry e = metaMethodIndex.getMethods(theClass, methodName);
-        MetaMethodIndex.CacheEntry cacheEntry;
         if (e != null) {
-            cacheEntry = e.cachedStaticMethod;
-
-            if (cacheEntry != null &&
-                MetaClassHelper.sameClasses(cacheEntry.params, arguments, e.staticMethods instanceof MetaMethod))
-            {
-                 return cacheEntry.method;
+            final MetaMethodIndex.CacheEntry[] cache = e.cachedStaticMethod;
+            if (cache != null) {
+                final boolean weakNullCheck = e.staticMethods instanceof MetaMethod;
+                for (int i = 0; i < cache.length; i++) {
+                    if (MetaClassHelper.sameClasses(cache[i].params, arguments, weakNullCheck))
+                      return cache[i].method;
+                }
             }
 
-            cacheEntry = new MetaMethodIndex.CacheEntry ();
             final Class[] classes = MetaClassHelper.convertToTypeArray(arguments);
-            cacheEntry.params = classes;
-            cacheEntry.method = pickStaticMethod(methodName, classes);
-            
-            e.cachedStaticMethod = cacheEntry;
-            
-            return cacheEntry.method;
+            final MetaMethod method = pickStaticMethod(methodName, classes);
+
+            e.cachedStaticMethod = MetaMethodIndex.addToCache(cache, new MetaMethodIndex.CacheEntry(classes, method));
+
+            return method;
         }
         else
           return pickStaticMethod(methodName, MetaClassHelper.convertToTypeArray(arguments));
@@ -1604,6 +1648,8 @@ public class MetaClassImpl implements MetaClass, MutableMetaClass {
             //----------------------------------------------------------------------
             // executing the getter method
             //----------------------------------------------------------------------
+            if (arguments.length == 0 && method instanceof CachedMethod)
+              return ((CachedMethod) method).invokeGetter(object);
             return method.doMethodInvoke(object, arguments);
         }
 
@@ -2394,6 +2440,8 @@ public class MetaClassImpl implements MetaClass, MutableMetaClass {
                         method.getParameterTypes()[1].getTheClass());
                 arguments[1] = newValue;
             }
+            if (arguments.length == 1 && method instanceof CachedMethod && ((CachedMethod) method).invokeSetterDirectly(object, newValue))
+              return;
             method.doMethodInvoke(object, arguments);
             return;
         }
@@ -2787,6 +2835,9 @@ public class MetaClassImpl implements MetaClass, MutableMetaClass {
      * @param arguments
      */
     protected Object chooseMethod(String methodName, Object methodOrList, Class[] arguments) {
+        if (CallSiteStatistics.isEnabled())
+          CallSiteStatistics.methodChosen();
+
         if (methodOrList instanceof MetaMethod) {
             if (((ParameterTypes) methodOrList).isValidMethod(arguments)) {
                 return methodOrList;
@@ -3052,6 +3103,10 @@ public class MetaClassImpl implements MetaClass, MutableMetaClass {
         theCachedClass.classInfo.incVersion();
     }
 
+    public void incVersion(String methodName) {
+        theCachedClass.classInfo.incVersion(methodName);
+    }
+
     public MetaMethod[] getAdditionalMetaMethods() {
         return additionalMetaMethods;
     }
@@ -16,7 +16,6 @@
 package groovy.util;
 
 import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
-import org.codehaus.groovy.runtime.ScriptBytecodeAdapter;
 import org.codehaus.groovy.runtime.DefaultGroovyMethods;
 
 import java.util.*;
@@ -142,7 +141,7 @@ public class GroovyCollections {
         for (Iterator iter = items.iterator(); iter.hasNext();) {
             Object value = iter.next();
             if (value != null) {
-                if (answer == null || ScriptBytecodeAdapter.compareLessThan(value, answer)) {
+                if (answer == null || compare(value, answer) < 0) {
                     answer = value;
                 }
             }
@@ -172,7 +171,7 @@ public class GroovyCollections {
         for (Iterator iter = items.iterator(); iter.hasNext();) {
             Object value = iter.next();
             if (value != null) {
-                if (answer == null || ScriptBytecodeAdapter.compareGreaterThan(value, answer)) {
+                if (answer == null || compare(value, answer) > 0) {
                     answer = value;
                 }
             }
@@ -180,6 +179,30 @@ public class GroovyCollections {
         return answer;
     }
 
+    /**
+     * Compares like ScriptBytecodeAdapter.compareTo does, Integers, Longs and
+     * Doubles compared to values of the same class are compared directly.
+     */
+    private static int compare(Object left, Object right) {
+        Class type = left.getClass();
+        if (type == right.getClass()) {
+            if (type == Integer.class) {
+                int leftValue = ((Integer) left).intValue();
+                int rightValue = ((Integer) right).intValue();
+                return leftValue < rightValue ? -1 : (leftValue == rightValue ? 0 : 1);
+            }
+            if (type == Long.class) {
+                long leftValue = ((Long) left).longValue();
+                long rightValue = ((Long) right).longValue();
+                return leftValue < rightValue ? -1 : (leftValue == rightValue ? 0 : 1);
+            }
+            if (type == Double.class) {
+                return Double.compare(((Double) left).doubleValue(), ((Double) right).doubleValue());
+            }
+        }
+        return DefaultTypeTransformation.compareTo(left, right);
+    }
+
     /**
      * Sums all the items from an array of items.
      *
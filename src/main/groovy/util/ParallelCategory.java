@@ -0,0 +1,327 @@
+/*
+ * Copyright 2003-2009 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovy.util;
+
+import groovy.lang.Closure;
+import groovy.lang.GroovyRuntimeException;
+import groovy.lang.IntRange;
+import org.codehaus.groovy.runtime.GroovyCategorySupport;
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parallel versions of some collection methods, for lists, ranges and arrays.
+ * <pre>
+ * use(ParallelCategory) {
+ *     def squares = (1..1000000).collectParallel { it * it }
+ *     def even = squares.findAllParallel { it % 2 == 0 }
+ * }
+ * </pre>
+ * The elements are split into consecutive chunks, which are processed by a shared pool of
+ * daemon threads. Each chunk uses its own clone of the closure, so closures must not rely on
+ * changing their delegate or owner for other elements. Results are merged in the order of the
+ * elements, so they are the same as the results of the sequential methods.
+ * <p>
+ * Lists with fewer elements than the threshold are processed sequentially in the calling thread,
+ * as are calls made from inside a parallel closure. The number of threads and the threshold can
+ * be set with the system properties <code>groovy.parallel.parallelism</code> and
+ * <code>groovy.parallel.threshold</code>, or with {@link #setParallelism(int)} and
+ * {@link #setThreshold(int)}.
+ * <p>
+ * Categories are bound to threads: this category is in effect for the parallel closures,
+ * but other categories used by the caller are not.
+ * <p>
+ * If a closure throws an exception the other chunks are cancelled and the exception is rethrown.
+ */
+public class ParallelCategory {
+
+    private static volatile int parallelism = Math.max(1, Integer.getInteger("groovy.parallel.parallelism", Runtime.getRuntime().availableProcessors()).intValue());
+    private static volatile int threshold = Math.max(1, Integer.getInteger("groovy.parallel.threshold", 1000).intValue());
+
+    // created on first use, replaced if the parallelism changes
+    private static Pool pool;
+
+    private static final ThreadLocal<Boolean> insideWorker = new ThreadLocal<Boolean>();
+
+    public static int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of threads used for parallel methods.
+     * Methods running already finish with the old threads, which stop when the last of them is done.
+     */
+    public static void setParallelism(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        synchronized (ParallelCategory.class) {
+            ParallelCategory.parallelism = parallelism;
+            if (pool != null) {
+                pool.retired = true;
+                if (pool.forks == 0)
+                    pool.executor.shutdown();
+                pool = null;
+            }
+        }
+    }
+
+    public static int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Sets the minimum number of elements per chunk. Smaller lists are processed sequentially.
+     */
+    public static void setThreshold(int threshold) {
+        if (threshold < 1)
+            throw new IllegalArgumentException("threshold must be at least 1");
+        ParallelCategory.threshold = threshold;
+    }
+
+    /**
+     * Calls the closure for each element in parallel, in no particular order.
+     *
+     * @return the list itself
+     */
+    public static List eachParallel(List self, Closure closure) {
+        fork(self, closure, EACH);
+        return self;
+    }
+
+    public static Object[] eachParallel(Object[] self, Closure closure) {
+        fork(Arrays.asList(self), closure, EACH);
+        return self;
+    }
+
+    /**
+     * Transforms each element with the closure in parallel.
+     *
+     * @return a list of the transformed values, in the order of the elements
+     */
+    public static List collectParallel(List self, Closure closure) {
+        return concat(fork(self, closure, COLLECT), self.size());
+    }
+
+    public static List collectParallel(Object[] self, Closure closure) {
+        return collectParallel(Arrays.asList(self), closure);
+    }
+
+    /**
+     * Finds all elements matching the closure condition in parallel.
+     *
+     * @return a list of the matching elements, in the order of the elements
+     */
+    public static List findAllParallel(List self, Closure closure) {
+        return concat(fork(self, closure, FIND_ALL), 0);
+    }
+
+    public static List findAllParallel(Object[] self, Closure closure) {
+        return findAllParallel(Arrays.asList(self), closure);
+    }
+
+    /**
+     * Groups the elements by the value the closure returns for them, computing the values in parallel.
+     *
+     * @return a map of the values to lists of the elements, both in the order of the elements
+     */
+    public static Map groupByParallel(List self, Closure closure) {
+        Map answer = new LinkedHashMap();
+        for (Iterator it = fork(self, closure, GROUP_BY).iterator(); it.hasNext();) {
+            Map chunk = (Map) it.next();
+            for (Iterator entries = chunk.entrySet().iterator(); entries.hasNext();) {
+                Map.Entry entry = (Map.Entry) entries.next();
+                List group = (List) answer.get(entry.getKey());
+                if (group == null)
+                    answer.put(entry.getKey(), entry.getValue());
+                else
+                    group.addAll((List) entry.getValue());
+            }
+        }
+        return answer;
+    }
+
+    public static Map groupByParallel(Object[] self, Closure closure) {
+        return groupByParallel(Arrays.asList(self), closure);
+    }
+
+    private static abstract class ChunkAction {
+        abstract Object run(List items, int from, int to, Closure closure);
+    }
+
+    private static final ChunkAction EACH = new ChunkAction() {
+        Object run(List items, int from, int to, Closure closure) {
+            for (int i = from; i < to; i++)
+                closure.call(items.get(i));
+            return null;
+        }
+    };
+
+    private static final ChunkAction COLLECT = new ChunkAction() {
+        Object run(List items, int from, int to, Closure closure) {
+            List answer = new ArrayList(to - from);
+            for (int i = from; i < to; i++)
+                answer.add(closure.call(items.get(i)));
+            return answer;
+        }
+    };
+
+    private static final ChunkAction FIND_ALL = new ChunkAction() {
+        Object run(List items, int from, int to, Closure closure) {
+            List answer = new ArrayList();
+            for (int i = from; i < to; i++) {
+                Object value = items.get(i);
+                if (DefaultTypeTransformation.castToBoolean(closure.call(value)))
+                    answer.add(value);
+            }
+            return answer;
+        }
+    };
+
+    private static final ChunkAction GROUP_BY = new ChunkAction() {
+        Object run(List items, int from, int to, Closure closure) {
+            Map answer = new LinkedHashMap();
+            for (int i = from; i < to; i++) {
+                Object element = items.get(i);
+                Object key = closure.call(element);
+                List group = (List) answer.get(key);
+                if (group == null) {
+                    group = new ArrayList();
+                    answer.put(key, group);
+                }
+                group.add(element);
+            }
+            return answer;
+        }
+    };
+
+    private static List concat(List chunks, int size) {
+        List answer = new ArrayList(size);
+        for (Iterator it = chunks.iterator(); it.hasNext();)
+            answer.addAll((Collection) it.next());
+        return answer;
+    }
+
+    /**
+     * Runs the action for consecutive chunks of the items.
+     *
+     * @return the results of the chunks, in order
+     */
+    private static List fork(List self, final Closure closure, final ChunkAction action) {
+        final List items = self instanceof RandomAccess || self instanceof IntRange ? self : new ArrayList(self);
+        final int size = items.size();
+        final int chunkCount = Math.min(parallelism * 4, size / threshold);
+        if (chunkCount <= 1 || insideWorker.get() != null) {
+            List answer = new ArrayList(1);
+            answer.add(action.run(items, 0, size, closure));
+            return answer;
+        }
+
+        final Pool forkPool = acquirePool();
+        final ExecutorService executor = forkPool.executor;
+        final List<Future> futures = new ArrayList<Future>(chunkCount);
+        try {
+            for (int i = 0; i < chunkCount; i++) {
+                final int from = (int) ((long) size * i / chunkCount);
+                final int to = (int) ((long) size * (i + 1) / chunkCount);
+                final Closure clone = (Closure) closure.clone();
+                final Closure chunk = new Closure(null) {
+                    public Object call() {
+                        return action.run(items, from, to, clone);
+                    }
+                };
+                futures.add(executor.submit(new Callable() {
+                    public Object call() {
+                        insideWorker.set(Boolean.TRUE);
+                        try {
+                            return GroovyCategorySupport.use(ParallelCategory.class, chunk);
+                        } finally {
+                            insideWorker.remove();
+                        }
+                    }
+                }));
+            }
+
+            List answer = new ArrayList(chunkCount);
+            for (Future future : futures)
+                answer.add(future.get());
+            return answer;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GroovyRuntimeException("Interrupted while waiting for parallel closures", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new GroovyRuntimeException(cause.getMessage(), cause);
+        } finally {
+            for (Future future : futures)
+                future.cancel(true);
+            releasePool(forkPool);
+        }
+    }
+
+    /**
+     * The threads of one parallelism, and the number of methods using them.
+     * The fields are guarded by the class lock.
+     */
+    private static final class Pool {
+        final ExecutorService executor;
+        int forks;
+        boolean retired;
+
+        Pool(ExecutorService executor) {
+            this.executor = executor;
+        }
+    }
+
+    private static synchronized Pool acquirePool() {
+        if (pool == null) {
+            final AtomicInteger count = new AtomicInteger();
+            pool = new Pool(Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "groovy-parallel-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }));
+        }
+        pool.forks++;
+        return pool;
+    }
+
+    // shuts the threads down if the parallelism changed meanwhile and no other method uses them
+    private static synchronized void releasePool(Pool released) {
+        if (--released.forks == 0 && released.retired)
+            released.executor.shutdown();
+    }
+}
@@ -103,6 +103,8 @@ public class Groovyc extends MatchingTask {
     private String errorProperty;
     private boolean taskSuccess = true; // assume the best
     private boolean includeDestClasses = true;
+    private boolean incremental = false;
+    private File profile;
 
     protected CompilerConfiguration configuration;
     private Javac javac;
@@ -480,6 +482,50 @@ public class Groovyc extends MatchingTask {
         return includeDestClasses;
     }
 
+    /**
+     * If true, all source files are handed to the compiler, which compiles
+     * the ones changed since the last compilation into the destination
+     * directory and the ones depending on them. It keeps an index of the
+     * sources and their dependencies in the destination directory.
+     * Otherwise only the sources newer than their class files are compiled.
+     * This setting is ignored for joint compilation.
+     * The default value is "false".
+     *
+     * @param incremental the value to use.
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /**
+     * Get the value of the incremental property.
+     *
+     * @return the value.
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * If set, the compiler writes the time and memory it used per
+     * compilation phase, source and AST transformation into this file,
+     * as JSON if its name ends with .json and as CSV otherwise.
+     *
+     * @param profile the report file
+     */
+    public void setProfile(File profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Get the file of the compilation profile report.
+     *
+     * @return the report file, or null.
+     */
+    public File getProfile() {
+        return profile;
+    }
+
     /**
      * Get the result of the groovyc task (success or failure).
      *
@@ -523,6 +569,9 @@ public class Groovyc extends MatchingTask {
         resetFileLists();
 
         if (javac != null) jointCompilation = true;
+        if (incremental && jointCompilation) {
+            log("Incremental compilation is not supported for joint compilation, the option will be ignored", Project.MSG_WARN);
+        }
 
         // scan source directories and dest directory to build up
         // compile lists
@@ -565,7 +614,17 @@ public class Groovyc extends MatchingTask {
         m.setFrom("*.groovy");
         m.setTo("*.class");
         SourceFileScanner sfs = new SourceFileScanner(this);
-        File[] newFiles = sfs.restrictAsFiles(files, srcDir, destDir, m);
+        File[] newFiles;
+        if (isIncrementalCompilation()) {
+            // the compiler finds out which sources changed
+            List groovyFiles = new ArrayList();
+            for (int i = 0; i < files.length; i++) {
+                if (files[i].endsWith(".groovy")) groovyFiles.add(new File(srcDir, files[i]));
+            }
+            newFiles = (File[]) groovyFiles.toArray(new File[groovyFiles.size()]);
+        } else {
+            newFiles = sfs.restrictAsFiles(files, srcDir, destDir, m);
+        }
         addToCompileList(newFiles);
 
         if (jointCompilation) {
@@ -576,6 +635,10 @@ public class Groovyc extends MatchingTask {
         }
     }
 
+    private boolean isIncrementalCompilation() {
+        return incremental && !jointCompilation;
+    }
+
     protected void addToCompileList(File[] newFiles) {
         if (newFiles.length > 0) {
             File[] newCompileList = new File[compileList.length + newFiles.length];
@@ -617,7 +680,8 @@ public class Groovyc extends MatchingTask {
     protected void compile() {
         try {
             if (compileList.length > 0) {
-                log("Compiling " + compileList.length + " source file"
+                log((isIncrementalCompilation() ? "Compiling changes of " : "Compiling ")
+                        + compileList.length + " source file"
                         + (compileList.length == 1 ? "" : "s")
                         + (destDir != null ? " to " + destDir : ""));
 
@@ -711,6 +775,13 @@ public class Groovyc extends MatchingTask {
                 if (stacktrace) {
                     commandLineList.add("-e");
                 }
+                if (isIncrementalCompilation()) {
+                    commandLineList.add("--incremental");
+                }
+                if (profile != null) {
+                    commandLineList.add("--profile");
+                    commandLineList.add(profile.getPath());
+                }
 
                 // check to see if an external file is needed
                 int count = 0;
@@ -152,7 +152,7 @@ public class ClassNode extends AnnotatedNode implements Opcodes {
     // clazz!=null when resolved
     protected Class clazz;
     // only false when this classNode is constructed from a class
-    private boolean lazyInitDone=true;
+    private volatile boolean lazyInitDone=true;
     // not null if if the ClassNode is an array
     private ClassNode componentType = null;
     // if not null this instance is handled as proxy
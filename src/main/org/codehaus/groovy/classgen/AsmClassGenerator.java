@@ -352,7 +352,28 @@ public class AsmClassGenerator extends ClassGenerator {
 
     private void createMopMethods() {
         visitMopMethodList(classNode.getMethods(), true);
-        visitMopMethodList(classNode.getSuperClass().getAllDeclaredMethods(), false);
+        visitMopMethodList(sortMethods(classNode.getSuperClass().getAllDeclaredMethods()), false);
+    }
+
+    /**
+     * Sorts methods by name and descriptor. The methods of a precompiled
+     * class come in the order reflection returns them, so the super$ methods
+     * are generated in this order to get the same class whether the super
+     * class is compiled together with this one or not.
+     */
+    private static List sortMethods(List methods) {
+        List sorted = new ArrayList(methods);
+        Collections.sort(sorted, new Comparator() {
+            public int compare(Object o1, Object o2) {
+                MethodNode m1 = (MethodNode) o1;
+                MethodNode m2 = (MethodNode) o2;
+                int result = m1.getName().compareTo(m2.getName());
+                if (result != 0) return result;
+                return BytecodeHelper.getMethodDescriptor(m1.getReturnType(), m1.getParameters())
+                        .compareTo(BytecodeHelper.getMethodDescriptor(m2.getReturnType(), m2.getParameters()));
+            }
+        });
+        return sorted;
     }
 
     private String[] buildExceptions(ClassNode[] exceptions) {
@@ -747,6 +768,10 @@ public class AsmClassGenerator extends ClassGenerator {
             visitForLoopWithClosureList(loop);
             return;
         }
+        if (isIntRangeLoop(loop)) {
+            visitForLoopWithIntRange(loop);
+            return;
+        }
 
         compileStack.pushLoop(loop.getVariableScope(), loop.getStatementLabel());
 
@@ -782,6 +807,102 @@ public class AsmClassGenerator extends ClassGenerator {
         compileStack.pop();
     }
 
+    /**
+     * Checks for loops like <code>for (i in 0..&lt;10)</code>, over a range whose bounds
+     * are int constants or int variables. Such a range is always an IntRange or an
+     * EmptyRange, so the loop can count instead of using an iterator.
+     */
+    private boolean isIntRangeLoop(ForStatement loop) {
+        Expression collection = loop.getCollectionExpression();
+        if (!(collection instanceof RangeExpression)) return false;
+        RangeExpression range = (RangeExpression) collection;
+        return isStaticallyInt(range.getFrom()) && isStaticallyInt(range.getTo());
+    }
+
+    private boolean isStaticallyInt(Expression expression) {
+        if (expression instanceof ConstantExpression) {
+            return ((ConstantExpression) expression).getValue() instanceof Integer;
+        }
+        if (expression instanceof VariableExpression) {
+            Variable variable = compileStack.getVariable(((VariableExpression) expression).getName(), false);
+            return variable != null && !variable.isHolder() && variable.getType() == ClassHelper.int_TYPE;
+        }
+        return false;
+    }
+
+    private void visitForLoopWithIntRange(ForStatement loop) {
+        compileStack.pushLoop(loop.getVariableScope(), loop.getStatementLabel());
+
+        Variable variable = compileStack.defineVariable(loop.getVariable(), false);
+
+        Label continueLabel = compileStack.getContinueLabel();
+        Label breakLabel = compileStack.getBreakLabel();
+
+        // an exclusive range with equal bounds is an EmptyRange
+        loop.getCollectionExpression().visit(this);
+        mv.visitInsn(DUP);
+        mv.visitTypeInsn(INSTANCEOF, "groovy/lang/IntRange");
+        Label notEmpty = new Label();
+        mv.visitJumpInsn(IFNE, notEmpty);
+        mv.visitInsn(POP);
+        mv.visitJumpInsn(GOTO, breakLabel);
+        mv.visitLabel(notEmpty);
+        mv.visitTypeInsn(CHECKCAST, "groovy/lang/IntRange");
+        final int rangeIdx = compileStack.defineTemporaryVariable("range", ClassHelper.make(groovy.lang.IntRange.class), true);
+        final int indexIdx = compileStack.defineTemporaryVariable("index", ClassHelper.int_TYPE, false);
+        final int endIdx = compileStack.defineTemporaryVariable("end", ClassHelper.int_TYPE, false);
+        final int stepIdx = compileStack.defineTemporaryVariable("step", ClassHelper.int_TYPE, false);
+
+        // count from 'from' up to 'to', or from 'to' down to 'from' for a reverse range
+        Label reverse = new Label();
+        Label start = new Label();
+        mv.visitVarInsn(ALOAD, rangeIdx);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "groovy/lang/IntRange", "isReverse", "()Z");
+        mv.visitJumpInsn(IFNE, reverse);
+        loadIntRangeBound(rangeIdx, "getFromInt", indexIdx);
+        loadIntRangeBound(rangeIdx, "getToInt", endIdx);
+        mv.visitInsn(ICONST_1);
+        mv.visitVarInsn(ISTORE, stepIdx);
+        mv.visitJumpInsn(GOTO, start);
+        mv.visitLabel(reverse);
+        loadIntRangeBound(rangeIdx, "getToInt", indexIdx);
+        loadIntRangeBound(rangeIdx, "getFromInt", endIdx);
+        mv.visitInsn(ICONST_M1);
+        mv.visitVarInsn(ISTORE, stepIdx);
+
+        mv.visitLabel(start);
+        mv.visitVarInsn(ILOAD, indexIdx);
+        if (variable.getType() == ClassHelper.int_TYPE && !variable.isHolder()) {
+            mv.visitVarInsn(ISTORE, variable.getIndex());
+        } else {
+            helper.box(ClassHelper.int_TYPE);
+            helper.storeVar(variable);
+        }
+
+        // Generate the loop body
+        loop.getLoopBlock().visit(this);
+
+        // the last value is checked before stepping, so 'to' may be Integer.MAX_VALUE
+        mv.visitLabel(continueLabel);
+        mv.visitVarInsn(ILOAD, indexIdx);
+        mv.visitVarInsn(ILOAD, endIdx);
+        mv.visitJumpInsn(IF_ICMPEQ, breakLabel);
+        mv.visitVarInsn(ILOAD, indexIdx);
+        mv.visitVarInsn(ILOAD, stepIdx);
+        mv.visitInsn(IADD);
+        mv.visitVarInsn(ISTORE, indexIdx);
+        mv.visitJumpInsn(GOTO, start);
+        mv.visitLabel(breakLabel);
+
+        compileStack.pop();
+    }
+
+    private void loadIntRangeBound(int rangeIdx, String getter, int targetIdx) {
+        mv.visitVarInsn(ALOAD, rangeIdx);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "groovy/lang/IntRange", getter, "()I");
+        mv.visitVarInsn(ISTORE, targetIdx);
+    }
+
     public void visitWhileLoop(WhileStatement loop) {
         onLineNumber(loop, "visitWhileLoop");
         visitStatement(loop);
@@ -1932,6 +2053,23 @@ public class AsmClassGenerator extends ClassGenerator {
         visitAndAutoboxBoolean(receiver);
         this.implicitThis = oldVal;
 
+        // primitive locals of the same type are passed without boxing
+        if (!callStatic && !constructor && !callCurrent && !safe) {
+            final ClassNode primitiveType = getPrimitiveArgumentsType(arguments);
+            if (primitiveType != null) {
+                final List<Expression> expressions = ((TupleExpression) arguments).getExpressions();
+                StringBuilder desc = new StringBuilder("(Lorg/codehaus/groovy/runtime/callsite/CallSite;Ljava/lang/Object;");
+                for (Expression expression : expressions) {
+                    helper.load(compileStack.getVariable(((VariableExpression) expression).getName(), false));
+                    desc.append(BytecodeHelper.getTypeDescription(primitiveType));
+                }
+                desc.append(")Ljava/lang/Object;");
+                mv.visitMethodInsn(INVOKESTATIC,"org/codehaus/groovy/runtime/callsite/CallSiteArray", "call", desc.toString());
+                leftHandExpression = lhs;
+                return;
+            }
+        }
+
         // arguments
         boolean containsSpreadExpression = containsSpreadExpression(arguments);
         int numberOfArguments = containsSpreadExpression ? -1 : argumentSize(arguments);
@@ -1993,6 +2131,45 @@ public class AsmClassGenerator extends ClassGenerator {
         leftHandExpression = lhs;
     }
 
+    /**
+     * Returns the type shared by all arguments if there are 1 to 3 of them and they are all
+     * plain local variables of type int, long, double or boolean, null otherwise.
+     * CallSiteArray has call methods passing such arguments to the site without boxing.
+     */
+    private ClassNode getPrimitiveArgumentsType(Expression arguments) {
+        if (!(arguments instanceof TupleExpression))
+            return null;
+
+        final List<Expression> expressions = ((TupleExpression) arguments).getExpressions();
+        if (expressions.isEmpty() || expressions.size() > 3)
+            return null;
+
+        ClassNode type = null;
+        for (Expression expression : expressions) {
+            if (!(expression instanceof VariableExpression))
+                return null;
+
+            final String name = ((VariableExpression) expression).getName();
+            if (name.equals("this") || name.equals("super"))
+                return null;
+
+            final Variable variable = compileStack.getVariable(name, false);
+            if (variable == null || variable.isHolder())
+                return null;
+
+            final ClassNode variableType = variable.getType();
+            if (variableType != ClassHelper.int_TYPE && variableType != ClassHelper.long_TYPE
+                    && variableType != ClassHelper.double_TYPE && variableType != ClassHelper.boolean_TYPE)
+                return null;
+
+            if (type == null)
+                type = variableType;
+            else if (type != variableType)
+                return null;
+        }
+        return type;
+    }
+
     private static String getDescForParamNum(int numberOfArguments) {
         switch (numberOfArguments) {
             case 0:
@@ -2637,7 +2814,7 @@ public class AsmClassGenerator extends ClassGenerator {
     }
 
     protected boolean isGroovyObject(Expression objectExpression) {
-        return isThisExpression(objectExpression) || objectExpression.getType().isDerivedFromGroovyObject() && !(objectExpression instanceof ClassExpression);
+        return isThisExpression(objectExpression) || Verifier.isGroovyObject(objectExpression.getType()) && !(objectExpression instanceof ClassExpression);
     }
 
     public void visitFieldExpression(FieldExpression expression) {
@@ -3115,7 +3292,7 @@ public class AsmClassGenerator extends ClassGenerator {
     private void loadWrapper(Expression argument) {
         ClassNode goalClass = argument.getType();
         visitClassExpression(new ClassExpression(goalClass));
-        if (goalClass.isDerivedFromGroovyObject()) {
+        if (Verifier.isGroovyObject(goalClass)) {
             createGroovyObjectWrapperMethod.call(mv);
         } else {
             createPojoWrapperMethod.call(mv);
@@ -3617,6 +3794,9 @@ public class AsmClassGenerator extends ClassGenerator {
         } else {
             method.setVariableScope(varScope.copy());
         }
+        if (hasUntypedParameters(parameters)) {
+            addDirectCallMethods(answer, parameters.length);
+        }
         if (parameters.length > 1
                 || (parameters.length == 1
                 && parameters[0].getType() != null
@@ -3702,6 +3882,70 @@ public class AsmClassGenerator extends ClassGenerator {
         return answer;
     }
 
+    private static boolean hasUntypedParameters(Parameter[] parameters) {
+        for (int i = 0; i < parameters.length; i++) {
+            if (!ClassHelper.OBJECT_TYPE.equals(parameters[i].getType())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Overrides Closure.doCallDirectly, which Closure.call uses to call doCall without
+     * the meta class. The meta class would select the same doCall method for as many
+     * arguments as there are parameters, because all parameters are of type Object.
+     */
+    private static void addDirectCallMethods(ClassNode closureClass, final int parameterCount) {
+        final String owner = BytecodeHelper.getClassInternalName(closureClass.getName());
+        final StringBuffer descriptor = new StringBuffer("(");
+        for (int i = 0; i < parameterCount; i++) {
+            descriptor.append("Ljava/lang/Object;");
+        }
+        final String doCallDescriptor = descriptor.append(")Ljava/lang/Object;").toString();
+
+        closureClass.addSyntheticMethod(
+                "doCallDirectly",
+                ACC_PROTECTED,
+                ClassHelper.OBJECT_TYPE,
+                new Parameter[]{new Parameter(ClassHelper.OBJECT_TYPE.makeArray(), "args")},
+                ClassNode.EMPTY_ARRAY,
+                new BytecodeSequence(new BytecodeInstruction() {
+                    public void visit(MethodVisitor mv) {
+                        BytecodeHelper helper = new BytecodeHelper(mv);
+                        mv.visitVarInsn(ALOAD, 0);
+                        for (int i = 0; i < parameterCount; i++) {
+                            mv.visitVarInsn(ALOAD, 1);
+                            helper.pushConstant(i);
+                            mv.visitInsn(AALOAD);
+                        }
+                        mv.visitMethodInsn(INVOKEVIRTUAL, owner, "doCall", doCallDescriptor);
+                        mv.visitInsn(ARETURN);
+                    }
+                }));
+
+        if (parameterCount != 1 && parameterCount != 2) return;
+
+        Parameter[] parameters = new Parameter[parameterCount];
+        for (int i = 0; i < parameterCount; i++) {
+            parameters[i] = new Parameter(ClassHelper.OBJECT_TYPE, "argument" + i);
+        }
+        closureClass.addSyntheticMethod(
+                "doCallDirectly",
+                ACC_PROTECTED,
+                ClassHelper.OBJECT_TYPE,
+                parameters,
+                ClassNode.EMPTY_ARRAY,
+                new BytecodeSequence(new BytecodeInstruction() {
+                    public void visit(MethodVisitor mv) {
+                        mv.visitVarInsn(ALOAD, 0);
+                        for (int i = 0; i < parameterCount; i++) {
+                            mv.visitVarInsn(ALOAD, i + 1);
+                        }
+                        mv.visitMethodInsn(INVOKEVIRTUAL, owner, "doCall", doCallDescriptor);
+                        mv.visitInsn(ARETURN);
+                    }
+                }));
+    }
+
     /**
      * this method is called for local variables shared between scopes.
      * These variables must not have init values because these would
@@ -108,6 +108,28 @@ public class Verifier implements GroovyClassVisitor, Opcodes {
         return null;
     }
     
+    private static boolean isKnownSpecialCase(ClassNode node) {
+        return node.isDerivedFrom(ClassHelper.GSTRING_TYPE)
+                || node.isDerivedFrom(ClassHelper.make(GroovyObjectSupport.class))
+                || node.implementsInterface(ClassHelper.METACLASS_TYPE);
+    }
+
+    /**
+     * Tells if the class is a GroovyObject, or will become one once it is
+     * visited by the Verifier. The answer does not depend on whether a class
+     * of the current compilation has been verified already, so the bytecode
+     * using the class does not depend on the order the classes are generated
+     * in, or on whether the class is compiled together with the code using it.
+     *
+     * @param node the class
+     * @return true if instances of the class are GroovyObjects
+     */
+    public static boolean isGroovyObject(ClassNode node) {
+        if (node.isDerivedFromGroovyObject()) return true;
+        ClassNode cn = node.redirect();
+        return cn.isPrimaryClassNode() && !cn.isArray() && !cn.isInterface() && !isKnownSpecialCase(cn);
+    }
+
     /**
      * add code to implement GroovyObject
      * @param node
@@ -179,12 +201,7 @@ public class Verifier implements GroovyClassVisitor, Opcodes {
         })
         );
 
-        boolean knownSpecialCase =
-                node.isDerivedFrom(ClassHelper.GSTRING_TYPE)
-                        || node.isDerivedFrom(ClassHelper.make(GroovyObjectSupport.class))
-                        || node.implementsInterface(ClassHelper.METACLASS_TYPE);
-
-        if (!knownSpecialCase) {
+        if (!isKnownSpecialCase(node)) {
 
             if (!node.isDerivedFromGroovyObject()) node.addInterface(ClassHelper.make(GroovyObject.class));
             FieldNode metaClassField = getMetaClassField(node);
@@ -826,14 +843,16 @@ public class Verifier implements GroovyClassVisitor, Opcodes {
     }
 
     protected Statement createGetterBlock(PropertyNode propertyNode, final FieldNode field) {
+        // the bytecode is created later, when this Verifier may visit another class already
+        final String classInternalName = BytecodeHelper.getClassInternalName(classNode);
         return new BytecodeSequence(new BytecodeInstruction(){
             public void visit(MethodVisitor mv) {
                 if (field.isStatic()) {
-                    mv.visitFieldInsn(GETSTATIC, BytecodeHelper.getClassInternalName(classNode), field.getName(), BytecodeHelper.getTypeDescription(field.getType()));
+                    mv.visitFieldInsn(GETSTATIC, classInternalName, field.getName(), BytecodeHelper.getTypeDescription(field.getType()));
                 }
                 else {
                     mv.visitVarInsn(ALOAD, 0);
-                    mv.visitFieldInsn(GETFIELD, BytecodeHelper.getClassInternalName(classNode), field.getName(), BytecodeHelper.getTypeDescription(field.getType()));
+                    mv.visitFieldInsn(GETFIELD, classInternalName, field.getName(), BytecodeHelper.getTypeDescription(field.getType()));
                 }
                 final BytecodeHelper helper = new BytecodeHelper(mv);
                 helper.doReturn(field.getType());
@@ -842,17 +861,18 @@ public class Verifier implements GroovyClassVisitor, Opcodes {
     }
 
     protected Statement createSetterBlock(PropertyNode propertyNode, final FieldNode field) {
+        final String classInternalName = BytecodeHelper.getClassInternalName(classNode);
         return new BytecodeSequence(new BytecodeInstruction(){
             public void visit(MethodVisitor mv) {
                 final BytecodeHelper helper = new BytecodeHelper(mv);
                 if (field.isStatic()) {
                     helper.load(field.getType(), 0);
-                    mv.visitFieldInsn(PUTSTATIC, BytecodeHelper.getClassInternalName(classNode), field.getName(), BytecodeHelper.getTypeDescription(field.getType()));
+                    mv.visitFieldInsn(PUTSTATIC, classInternalName, field.getName(), BytecodeHelper.getTypeDescription(field.getType()));
                 }
                 else {
                     mv.visitVarInsn(ALOAD, 0);
                     helper.load(field.getType(), 1);
-                    mv.visitFieldInsn(PUTFIELD, BytecodeHelper.getClassInternalName(classNode), field.getName(), BytecodeHelper.getTypeDescription(field.getType()));
+                    mv.visitFieldInsn(PUTFIELD, classInternalName, field.getName(), BytecodeHelper.getTypeDescription(field.getType()));
                 }
                 mv.visitInsn(RETURN);
             }
@@ -1044,6 +1064,7 @@ public class Verifier implements GroovyClassVisitor, Opcodes {
                 oldMethod.getExceptions(),
                 null
         );
+        final String classInternalName = BytecodeHelper.getClassInternalName(classNode);
         List instructions = new ArrayList(1);
         instructions.add (
                 new BytecodeInstruction() {
@@ -1060,7 +1081,7 @@ public class Verifier implements GroovyClassVisitor, Opcodes {
                         }
                         mv.visitMethodInsn(
                                 INVOKEVIRTUAL, 
-                                BytecodeHelper.getClassInternalName(classNode),
+                                classInternalName,
                                 overridingMethod.getName(),
                                 BytecodeHelper.getMethodDescriptor(overridingMethod.getReturnType(), overridingMethod.getParameters()));
                         helper.doReturn(oldMethod.getReturnType());
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2003-2009 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.groovy.control;
+
+import groovy.lang.GroovyClassLoader;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the classes the ResolveVisitor finds, and does not find, through
+ * a GroovyClassLoader. The cache belongs to the loader and is shared by all
+ * compilations using it, like the ones of GroovyShell#evaluate, which
+ * would otherwise ask the loader again for the same names, most of them
+ * guesses like java.lang.Foo or groovy.util.Foo failing with a
+ * ClassNotFoundException.
+ * <p/>
+ * The loader removes a name when its class cache gets a class of that name
+ * and clears the cache when it gets a new URL. The cache is cleared as well
+ * if a parent GroovyClassLoader changes. Changes of other parent loaders
+ * are not noticed, which is why the cache is only used if
+ * {@link CompilerConfiguration#setCacheClassResolution(boolean)} is set.
+ *
+ * @see GroovyClassLoader#getClassResolutionCache()
+ */
+public class ClassResolutionCache {
+
+    private static final Object NO_CLASS = new Object();
+
+    private final GroovyClassLoader loader;
+    private final Map classes = new ConcurrentHashMap();
+    // counts the removals, a class loaded during one of them is not kept
+    private final AtomicLong modifications = new AtomicLong();
+    private volatile long parentModifications;
+
+    public ClassResolutionCache(GroovyClassLoader loader) {
+        this.loader = loader;
+        parentModifications = getParentModificationCount();
+    }
+
+    /**
+     * Loads a class like <code>loader.loadClass(name, false, true)</code>,
+     * without looking for scripts.
+     *
+     * @return the class, or null if the loader does not find it
+     * @throws CompilationFailedException if the loader fails to compile a class
+     */
+    public Class loadClass(String name) throws CompilationFailedException {
+        long parentCount = getParentModificationCount();
+        if (parentCount != parentModifications) {
+            classes.clear();
+            parentModifications = parentCount;
+        }
+        Object cached = classes.get(name);
+        if (cached == NO_CLASS) return null;
+        if (cached != null) return (Class) cached;
+
+        long count = modifications.get();
+        Object value;
+        try {
+            value = loader.loadClass(name, false, true);
+        } catch (ClassNotFoundException e) {
+            value = NO_CLASS;
+        }
+        classes.put(name, value);
+        if (modifications.get() != count || getParentModificationCount() != parentCount) {
+            // the loader changed while loading, the result may be stale already
+            classes.remove(name);
+        }
+        return value == NO_CLASS ? null : (Class) value;
+    }
+
+    /**
+     * Removes the entry for a name, called when the loader gets a class of that name.
+     */
+    public void remove(String name) {
+        modifications.incrementAndGet();
+        classes.remove(name);
+    }
+
+    /**
+     * Removes all entries, called when the loader gets a new URL or its class cache is cleared.
+     */
+    public void clear() {
+        modifications.incrementAndGet();
+        classes.clear();
+    }
+
+    private long getParentModificationCount() {
+        long count = 0;
+        for (ClassLoader parent = loader.getParent(); parent != null; parent = parent.getParent()) {
+            if (parent instanceof GroovyClassLoader) count += ((GroovyClassLoader) parent).getModificationCount();
+        }
+        return count;
+    }
+}
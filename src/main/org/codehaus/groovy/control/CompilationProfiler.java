@@ -0,0 +1,280 @@
+/*
+ * Copyright 2003-2009 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.groovy.control;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.*;
+
+/**
+ * Collects the time, and the memory allocated, per compilation phase, per
+ * phase operation, per SourceUnit and per AST transformation. The
+ * CompilationUnit creates one if a report file is set in the configuration
+ * and writes the report after each compilation.
+ * <p/>
+ * The measurements are summed up in entries of four kinds:
+ * <ul>
+ * <li>phase: a phase of the compilation, including moving on to the next one
+ * <li>operation: a phase operation, like resolve or classgen, for all sources
+ * <li>source: a phase operation for one SourceUnit; with parallel compilation
+ * these are measured on the threads doing the work and may add up to more
+ * than the operation
+ * <li>transform: an AST transformation for one SourceUnit, named after its class
+ * </ul>
+ * The time is wall clock time in nanoseconds. The allocated bytes are those
+ * of the measuring thread, or -1 if the JVM does not tell them.
+ *
+ * @see CompilerConfiguration#setProfileReport(File)
+ */
+public class CompilationProfiler {
+
+    public static final String PHASE = "phase";
+    public static final String OPERATION = "operation";
+    public static final String SOURCE = "source";
+    public static final String TRANSFORM = "transform";
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final Method ALLOCATED_BYTES = getAllocatedBytesMethod();
+
+    private final Map entries = new LinkedHashMap();
+
+    /**
+     * The sums of the measurements with the same kind, phase, name and source.
+     */
+    public static class Entry {
+        private final String kind;
+        private final String phase;
+        private final String name;
+        private final String source;
+        private int count;
+        private long nanos;
+        private long bytes;
+
+        Entry(String kind, String phase, String name, String source) {
+            this.kind = kind;
+            this.phase = phase;
+            this.name = name;
+            this.source = source;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public String getPhase() {
+            return phase;
+        }
+
+        /**
+         * Returns the name of the operation or transformation, or
+         * an empty string for a phase.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the name of the SourceUnit, or an empty string for
+         * phases and operations.
+         */
+        public String getSource() {
+            return source;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns the bytes allocated, or -1 if they are not known.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+    }
+
+    /**
+     * The start of a measurement on the current thread.
+     */
+    public static class Measurement {
+        final long nanos = System.nanoTime();
+        final long bytes = getAllocatedBytes();
+    }
+
+    /**
+     * Starts a measurement, which has to be stopped on the same thread.
+     */
+    public Measurement start() {
+        return new Measurement();
+    }
+
+    /**
+     * Adds the time and memory since the start of a measurement to an entry.
+     *
+     * @param kind   one of PHASE, OPERATION, SOURCE and TRANSFORM
+     * @param phase  the description of the phase
+     * @param name   the name of the operation or transformation, or null
+     * @param source the name of the SourceUnit, or null
+     */
+    public void stop(Measurement measurement, String kind, String phase, String name, String source) {
+        add(measurement, kind, phase, name, source, 1);
+    }
+
+    /**
+     * Adds the time and memory since the start of a measurement to an entry
+     * like {@link #stop}, but does not count it. This is for the further
+     * parts of a measurement taken on several threads, whose first part
+     * was stopped with stop().
+     */
+    public void stopPart(Measurement measurement, String kind, String phase, String name, String source) {
+        add(measurement, kind, phase, name, source, 0);
+    }
+
+    private void add(Measurement measurement, String kind, String phase, String name, String source, int count) {
+        long nanos = System.nanoTime() - measurement.nanos;
+        long bytes = getAllocatedBytes();
+        bytes = bytes == -1 || measurement.bytes == -1 ? -1 : bytes - measurement.bytes;
+        if (name == null) name = "";
+        if (source == null) source = "";
+
+        synchronized (entries) {
+            String key = kind + '\u0000' + phase + '\u0000' + name + '\u0000' + source;
+            Entry entry = (Entry) entries.get(key);
+            if (entry == null) {
+                entry = new Entry(kind, phase, name, source);
+                entries.put(key, entry);
+            }
+            entry.count += count;
+            entry.nanos += nanos;
+            entry.bytes = entry.bytes == -1 || bytes == -1 ? -1 : entry.bytes + bytes;
+        }
+    }
+
+    /**
+     * Returns the entries in the order of their first measurement.
+     */
+    public List getEntries() {
+        synchronized (entries) {
+            return new ArrayList(entries.values());
+        }
+    }
+
+    /**
+     * Writes the report into a file, as JSON if its name ends
+     * with .json and as CSV otherwise.
+     */
+    public void writeReport(File file) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+        try {
+            if (file.getName().toLowerCase().endsWith(".json")) {
+                writeJson(writer);
+            } else {
+                writeCsv(writer);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Writes the entries as CSV, with a header line naming the columns
+     * kind, phase, name, source, count, nanos and bytes.
+     */
+    public void writeCsv(Writer writer) throws IOException {
+        writer.write("kind,phase,name,source,count,nanos,bytes\n");
+        for (Iterator it = getEntries().iterator(); it.hasNext();) {
+            Entry entry = (Entry) it.next();
+            writer.write(entry.kind + "," + csv(entry.phase) + "," + csv(entry.name) + "," + csv(entry.source) + ","
+                    + entry.count + "," + entry.nanos + "," + entry.bytes + "\n");
+        }
+    }
+
+    /**
+     * Writes the entries as a JSON array of objects with the fields
+     * kind, phase, name, source, count, nanos and bytes.
+     */
+    public void writeJson(Writer writer) throws IOException {
+        writer.write("[");
+        for (Iterator it = getEntries().iterator(); it.hasNext();) {
+            Entry entry = (Entry) it.next();
+            writer.write("\n  {\"kind\": " + json(entry.kind) + ", \"phase\": " + json(entry.phase)
+                    + ", \"name\": " + json(entry.name) + ", \"source\": " + json(entry.source)
+                    + ", \"count\": " + entry.count + ", \"nanos\": " + entry.nanos + ", \"bytes\": " + entry.bytes + "}");
+            if (it.hasNext()) writer.write(",");
+        }
+        writer.write("\n]\n");
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') == -1 && value.indexOf('"') == -1 && value.indexOf('\n') == -1 && value.indexOf('\r') == -1) {
+            return value;
+        }
+        StringBuffer buffer = new StringBuffer("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') buffer.append('"');
+            buffer.append(c);
+        }
+        return buffer.append('"').toString();
+    }
+
+    private static String json(String value) {
+        StringBuffer buffer = new StringBuffer("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.append('\\').append(c);
+            } else if (c < ' ') {
+                String hex = Integer.toHexString(c);
+                buffer.append("\\u0000".substring(0, 6 - hex.length())).append(hex);
+            } else {
+                buffer.append(c);
+            }
+        }
+        return buffer.append('"').toString();
+    }
+
+    // the memory allocated by a thread is only known to some JVMs, through com.sun.management
+    private static Method getAllocatedBytesMethod() {
+        try {
+            Class type = Class.forName("com.sun.management.ThreadMXBean");
+            if (!type.isInstance(THREADS)) return null;
+            Object supported = type.getMethod("isThreadAllocatedMemorySupported", new Class[0]).invoke(THREADS, new Object[0]);
+            Object enabled = type.getMethod("isThreadAllocatedMemoryEnabled", new Class[0]).invoke(THREADS, new Object[0]);
+            if (!Boolean.TRUE.equals(supported) || !Boolean.TRUE.equals(enabled)) return null;
+            return type.getMethod("getThreadAllocatedBytes", new Class[]{long.class});
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static long getAllocatedBytes() {
+        if (ALLOCATED_BYTES == null) return -1;
+        try {
+            Object bytes = ALLOCATED_BYTES.invoke(THREADS, new Object[]{new Long(Thread.currentThread().getId())});
+            return ((Long) bytes).longValue();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
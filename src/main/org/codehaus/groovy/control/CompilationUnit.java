@@ -30,6 +30,7 @@ import org.codehaus.groovy.control.io.ReaderSource;
 import org.codehaus.groovy.control.messages.ExceptionMessage;
 import org.codehaus.groovy.control.messages.Message;
 import org.codehaus.groovy.control.messages.SimpleMessage;
+import org.codehaus.groovy.control.messages.WarningMessage;
 import org.codehaus.groovy.syntax.SyntaxException;
 import org.codehaus.groovy.tools.GroovyClass;
 import org.codehaus.groovy.transform.ASTTransformationVisitor;
@@ -40,9 +41,17 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.net.URL;
 import java.security.CodeSource;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Collects all compilation data as it is generated by the compiler system.
@@ -80,6 +89,10 @@ public class CompilationUnit extends ProcessingUnit {
     protected ProgressCallback progressCallback;  // A callback for use during compile()
     protected ResolveVisitor resolveVisitor;
     protected StaticImportVisitor staticImportVisitor;
+    protected DependencyIndex dependencyIndex;    // The index written by an incremental compilation
+    private DependencyIndex lastDependencyIndex;  // The index of the last compilation, while sources are skipped
+    private Map skippedSources;                   // The names of the sources not compiled incrementally, to SourceUnits or null
+    protected CompilationProfiler profiler;       // Measures the phases, if a profile report is configured
     protected OptimizerVisitor optimizer;
 
     LinkedList[] phaseOperations;
@@ -155,19 +168,9 @@ public class CompilationUnit extends ProcessingUnit {
         for (int i = 0; i < phaseOperations.length; i++) {
             phaseOperations[i] = new LinkedList();
         }
-        addPhaseOperation(new SourceUnitOperation() {
-            public void call(SourceUnit source) throws CompilationFailedException {
-                source.parse();
-            }
-        }, Phases.PARSING);
+        addPhaseOperation(parse, Phases.PARSING);
         addPhaseOperation(convert, Phases.CONVERSION);
-        addPhaseOperation(new PrimaryClassNodeOperation() {
-            public void call(SourceUnit source, GeneratorContext context,
-                             ClassNode classNode) throws CompilationFailedException {
-                EnumVisitor ev = new EnumVisitor(CompilationUnit.this, source);
-                ev.visitClass(classNode);
-            }
-        }, Phases.CONVERSION);
+        addPhaseOperation(enums, Phases.CONVERSION);
         addPhaseOperation(resolve, Phases.SEMANTIC_ANALYSIS);
         addPhaseOperation(staticImport, Phases.SEMANTIC_ANALYSIS);
         addPhaseOperation(compileCompleteCheck, Phases.CANONICALIZATION);
@@ -449,6 +452,38 @@ public class CompilationUnit extends ProcessingUnit {
      * Compiles the compilation unit from sources.
      */
     public void compile(int throughPhase) throws CompilationFailedException {
+        File report = configuration.getProfileReport();
+        if (report == null) {
+            compilePhases(throughPhase);
+            return;
+        }
+
+        if (profiler == null) profiler = new CompilationProfiler();
+        boolean compiled = false;
+        try {
+            compilePhases(throughPhase);
+            compiled = true;
+        } finally {
+            try {
+                profiler.writeReport(report);
+            } catch (IOException e) {
+                // the errors of a failed compilation are more important
+                if (compiled) {
+                    getErrorCollector().addFatalError(Message.create("could not write the profile report " + report + ": " + e.getMessage(), this));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the profiler of this compilation unit, if the configuration
+     * asks for a profile report, null otherwise.
+     */
+    public CompilationProfiler getProfiler() {
+        return profiler;
+    }
+
+    private void compilePhases(int throughPhase) throws CompilationFailedException {
         //
         // To support delta compilations, we always restart
         // the compiler.  The individual passes are responsible
@@ -456,10 +491,17 @@ public class CompilationUnit extends ProcessingUnit {
         gotoPhase(Phases.INITIALIZATION);
         throughPhase = Math.min(throughPhase, Phases.ALL);
 
+        if (dependencyIndex == null && isIncremental()) {
+            removeUnchangedSources();
+        }
+
         while (throughPhase >= phase && phase <= Phases.ALL) {
+            CompilationProfiler.Measurement phaseMeasurement = startMeasurement();
+            String phaseDescription = getPhaseDescription();
 
             for (Iterator it = phaseOperations[phase].iterator(); it.hasNext();) {
                 Object operation = it.next();
+                CompilationProfiler.Measurement measurement = startMeasurement();
                 if (operation instanceof PrimaryClassNodeOperation) {
                     applyToPrimaryClassNodes((PrimaryClassNodeOperation) operation);
                 } else if (operation instanceof SourceUnitOperation) {
@@ -467,22 +509,242 @@ public class CompilationUnit extends ProcessingUnit {
                 } else {
                     applyToGeneratedGroovyClasses((GroovyClassOperation) operation);
                 }
+                stopMeasurement(measurement, CompilationProfiler.OPERATION, operation, null);
             }
 
             if (progressCallback != null) progressCallback.call(this, phase);
             completePhase();
             applyToSourceUnits(mark);
 
-            if (dequeued()) continue;
+            if (phase == Phases.CONVERSION) {
+                addSkippedSourcesIfClassesWereAdded();
+            }
+
+            if (!dequeued()) {
+                gotoPhase(phase + 1);
 
-            gotoPhase(phase + 1);
+                if (phase == Phases.CLASS_GENERATION) {
+                    sortClasses();
+                }
+            }
 
-            if (phase == Phases.CLASS_GENERATION) {
-                sortClasses();
+            if (phaseMeasurement != null) {
+                profiler.stop(phaseMeasurement, CompilationProfiler.PHASE, phaseDescription, null, null);
             }
         }
 
         errorCollector.failIfErrors();
+
+        if (dependencyIndex != null && phase > Phases.OUTPUT) {
+            File file = new File(configuration.getTargetDirectory(), DependencyIndex.FILE_NAME);
+            try {
+                dependencyIndex.save(file);
+            } catch (IOException e) {
+                getErrorCollector().addFatalError(Message.create(e.getMessage(), this));
+            }
+        }
+    }
+
+    /**
+     * Tells if only the changed sources and the sources depending on them
+     * are compiled, see {@link CompilerConfiguration#setIncremental(boolean)}.
+     */
+    protected boolean isIncremental() {
+        return configuration.isIncremental() && configuration.getTargetDirectory() != null;
+    }
+
+    /**
+     * Returns the index of the sources, their classes and the classes they
+     * use, if this is an incremental compilation, null otherwise.
+     */
+    public DependencyIndex getDependencyIndex() {
+        return dependencyIndex;
+    }
+
+    /**
+     * Prepares an incremental compilation. The sources are compared with the
+     * index of the last compilation into the target directory. Unchanged
+     * sources, which do not depend on a changed or removed one, are not
+     * compiled; their classes are loaded from the target directory. The
+     * class files of the other sources are deleted first, so no stale class
+     * is found. If there is no index, a source was added or the configuration
+     * changed, all sources are compiled. If a compiled source declares a class
+     * it did not declare before, the skipped sources are compiled after the
+     * conversion, see {@link #addSkippedSourcesIfClassesWereAdded()}.
+     */
+    private void removeUnchangedSources() {
+        File targetDirectory = configuration.getTargetDirectory();
+        DependencyIndex lastIndex = DependencyIndex.load(new File(targetDirectory, DependencyIndex.FILE_NAME));
+        dependencyIndex = new DependencyIndex(DependencyIndex.getConfigurationFingerprint(configuration));
+        getClassLoader().addClasspath(targetDirectory.getAbsolutePath());
+
+        Map fingerprints = new HashMap();
+        boolean compileAll = lastIndex == null || !lastIndex.getConfiguration().equals(dependencyIndex.getConfiguration());
+        Set changed = new HashSet();
+        for (Iterator it = queuedSources.iterator(); it.hasNext();) {
+            SourceUnit source = (SourceUnit) it.next();
+            String name = source.getName();
+            String fingerprint = getFingerprint(source);
+            fingerprints.put(name, fingerprint);
+            if (compileAll) continue;
+            if (!lastIndex.containsSource(name)) {
+                // the classes of a new source may hide classes other sources use
+                compileAll = true;
+            } else if (fingerprint == null || !fingerprint.equals(lastIndex.getFingerprint(name))
+                    || !classFilesExist(lastIndex.getClasses(name))) {
+                changed.add(name);
+            }
+        }
+
+        Set recompiled;
+        if (compileAll) {
+            recompiled = lastIndex == null ? Collections.EMPTY_SET : new HashSet(lastIndex.getSources());
+        } else {
+            // a source which is not compiled now is only removed if its file is gone
+            for (Iterator it = lastIndex.getSources().iterator(); it.hasNext();) {
+                String name = (String) it.next();
+                if (!fingerprints.containsKey(name) && !new File(name).exists()) changed.add(name);
+            }
+            recompiled = lastIndex.getDependents(changed);
+        }
+        for (Iterator it = recompiled.iterator(); it.hasNext();) {
+            String name = (String) it.next();
+            deleteClassFiles(lastIndex.getClasses(name));
+            // a source which was compiled before has to be compiled again even if it was not given
+            File file = new File(name);
+            if (!fingerprints.containsKey(name) && file.exists()) {
+                SourceUnit source = new SourceUnit(file, configuration, classLoader, getErrorCollector());
+                queuedSources.add(source);
+                fingerprints.put(name, getFingerprint(source));
+            }
+        }
+
+        for (Iterator it = queuedSources.iterator(); it.hasNext();) {
+            SourceUnit source = (SourceUnit) it.next();
+            String name = source.getName();
+            if (compileAll || recompiled.contains(name)) {
+                String fingerprint = (String) fingerprints.get(name);
+                dependencyIndex.addSource(name, fingerprint == null ? "" : fingerprint);
+            } else {
+                dependencyIndex.copySource(name, lastIndex);
+                it.remove();
+                if (skippedSources == null) skippedSources = new LinkedHashMap();
+                skippedSources.put(name, source);
+            }
+        }
+        if (!compileAll) {
+            // keep the sources not given to this compilation
+            for (Iterator it = lastIndex.getSources().iterator(); it.hasNext();) {
+                String name = (String) it.next();
+                if (!fingerprints.containsKey(name) && !recompiled.contains(name)) {
+                    dependencyIndex.copySource(name, lastIndex);
+                    if (skippedSources == null) skippedSources = new LinkedHashMap();
+                    skippedSources.put(name, null);
+                }
+            }
+            if (skippedSources != null) lastDependencyIndex = lastIndex;
+        }
+    }
+
+    /**
+     * Compiles the sources skipped by an incremental compilation after all,
+     * if a compiled source declares a class it did not declare in the last
+     * compilation. Like the classes of an added source, the new class may
+     * hide a class the skipped sources use, through a star import or their
+     * own package. Called after the conversion, when the classes of the
+     * compiled sources are known and none of them is resolved yet.
+     */
+    private void addSkippedSourcesIfClassesWereAdded() {
+        if (skippedSources == null) return;
+        boolean added = false;
+        for (Iterator it = sources.values().iterator(); it.hasNext() && !added;) {
+            SourceUnit source = (SourceUnit) it.next();
+            if (source.getAST() == null) continue;
+            Set classes = lastDependencyIndex.getClasses(source.getName());
+            for (Iterator nodes = source.getAST().getClasses().iterator(); nodes.hasNext();) {
+                if (!classes.contains(((ClassNode) nodes.next()).getName())) {
+                    added = true;
+                    break;
+                }
+            }
+        }
+
+        if (added) {
+            for (Iterator it = skippedSources.entrySet().iterator(); it.hasNext();) {
+                Map.Entry entry = (Map.Entry) it.next();
+                String name = (String) entry.getKey();
+                SourceUnit source = (SourceUnit) entry.getValue();
+                if (source == null) {
+                    File file = new File(name);
+                    if (!file.exists()) continue;
+                    source = new SourceUnit(file, configuration, classLoader, getErrorCollector());
+                }
+                deleteClassFiles(lastDependencyIndex.getClasses(name));
+                String fingerprint = getFingerprint(source);
+                dependencyIndex.addSource(name, fingerprint == null ? "" : fingerprint);
+                queuedSources.add(source);
+            }
+        }
+        skippedSources = null;
+        lastDependencyIndex = null;
+    }
+
+    /**
+     * Returns the fingerprint of the text of a source, or null if the
+     * source cannot be read twice.
+     */
+    private String getFingerprint(SourceUnit source) {
+        if (source.source == null || !source.source.canReopenSource()) return null;
+        Reader reader = null;
+        try {
+            reader = source.source.getReader();
+            return DependencyIndex.getFingerprint(reader);
+        } catch (IOException e) {
+            // the error is reported when the source is parsed
+            return null;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    private boolean classFilesExist(Set classNames) {
+        for (Iterator it = classNames.iterator(); it.hasNext();) {
+            if (!getClassFile((String) it.next()).exists()) return false;
+        }
+        return true;
+    }
+
+    private void deleteClassFiles(Set classNames) {
+        for (Iterator it = classNames.iterator(); it.hasNext();) {
+            getClassFile((String) it.next()).delete();
+        }
+    }
+
+    private File getClassFile(String className) {
+        String name = className.replace('.', File.separatorChar) + ".class";
+        return new File(configuration.getTargetDirectory(), name);
+    }
+
+    /**
+     * Records a generated class, and the classes it extends and implements,
+     * in the dependency index. Those are usually recorded by the ResolveVisitor
+     * already, but AST transformations may add them later.
+     */
+    private void addToDependencyIndex(SourceUnit source, ClassNode classNode) {
+        if (dependencyIndex == null || source == null) return;
+        String name = source.getName();
+        dependencyIndex.addClass(name, classNode.getName());
+        if (classNode.getSuperClass() != null) dependencyIndex.addDependency(name, classNode.getSuperClass().getName());
+        ClassNode[] interfaces = classNode.getInterfaces();
+        for (int i = 0; i < interfaces.length; i++) {
+            dependencyIndex.addDependency(name, interfaces[i].getName());
+        }
     }
 
     private void sortClasses() throws CompilationFailedException {
@@ -568,12 +830,35 @@ public class CompilationUnit extends ProcessingUnit {
         }
     };
 
+    /**
+     * Runs parse() on a single SourceUnit.
+     */
+    private SourceUnitOperation parse = new ParallelSourceUnitOperation() {
+        public void process(SourceUnit source) throws CompilationFailedException {
+            source.parse();
+        }
+    };
+
+    /**
+     * Completes the enums of a class.
+     */
+    private PrimaryClassNodeOperation enums = new PrimaryClassNodeOperation() {
+        public void call(SourceUnit source, GeneratorContext context,
+                         ClassNode classNode) throws CompilationFailedException {
+            EnumVisitor ev = new EnumVisitor(CompilationUnit.this, source);
+            ev.visitClass(classNode);
+        }
+    };
+
     /**
      * Runs convert() on a single SourceUnit.
      */
-    private SourceUnitOperation convert = new SourceUnitOperation() {
-        public void call(SourceUnit source) throws CompilationFailedException {
+    private SourceUnitOperation convert = new ParallelSourceUnitOperation() {
+        public void process(SourceUnit source) throws CompilationFailedException {
             source.convert();
+        }
+
+        public void complete(SourceUnit source) throws CompilationFailedException {
             CompilationUnit.this.ast.addModule(source.getAST());
 
 
@@ -585,42 +870,45 @@ public class CompilationUnit extends ProcessingUnit {
 
     private GroovyClassOperation output = new GroovyClassOperation() {
         public void call(GroovyClass gclass) throws CompilationFailedException {
-            boolean failures = false;
-            String name = gclass.getName().replace('.', File.separatorChar) + ".class";
-            File path = new File(configuration.getTargetDirectory(), name);
-
-            //
-            // Ensure the path is ready for the file
-            //
-            File directory = path.getParentFile();
-            if (directory != null && !directory.exists()) {
-                directory.mkdirs();
-            }
-
-            //
-            // Create the file and write out the data
-            //
-            byte[] bytes = gclass.getBytes();
-
-            FileOutputStream stream = null;
             try {
-                stream = new FileOutputStream(path);
-                stream.write(bytes, 0, bytes.length);
+                writeClassFile(gclass);
             } catch (IOException e) {
                 getErrorCollector().addError(Message.create(e.getMessage(), CompilationUnit.this));
-                failures = true;
-            } finally {
-                if (stream != null) {
-                    try {
-                        stream.close();
-                    } catch (Exception e) {
-                        // Ignore
-                    }
-                }
             }
         }
     };
 
+    private void writeClassFile(GroovyClass gclass) throws IOException {
+        File path = getClassFile(gclass.getName());
+
+        //
+        // Ensure the path is ready for the file
+        //
+        File directory = path.getParentFile();
+        if (directory != null && !directory.exists()) {
+            directory.mkdirs();
+        }
+
+        //
+        // Create the file and write out the data
+        //
+        byte[] bytes = gclass.getBytes();
+
+        FileOutputStream stream = null;
+        try {
+            stream = new FileOutputStream(path);
+            stream.write(bytes, 0, bytes.length);
+        } finally {
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (Exception e) {
+                    // Ignore
+                }
+            }
+        }
+    }
+
     /* checks if all needed classes are compiled before generating the bytecode */
     private SourceUnitOperation compileCompleteCheck = new SourceUnitOperation() {
         public void call(SourceUnit source) throws CompilationFailedException {
@@ -675,27 +963,7 @@ public class CompilationUnit extends ProcessingUnit {
 
         public void call(SourceUnit source, GeneratorContext context, ClassNode classNode) throws CompilationFailedException {
 
-            //
-            // Run the Verifier on the outer class
-            //
-            try {
-                verifier.visitClass(classNode);
-            } catch (GroovyRuntimeException rpe) {
-                ASTNode node = rpe.getNode();
-                getErrorCollector().addError(
-                        new SyntaxException(rpe.getMessage(), null, node.getLineNumber(), node.getColumnNumber()),
-                        source
-                );
-            }
-
-            LabelVerifier lv = new LabelVerifier(source);
-            lv.visitClass(classNode);
-
-            ClassCompletionVerifier completionVerifier = new ClassCompletionVerifier(source);
-            completionVerifier.visitClass(classNode);
-
-            ExtendedVerifier xverifier = new ExtendedVerifier(source);
-            xverifier.visitClass(classNode);
+            verifyClass(verifier, source, classNode, getErrorCollector());
 
             // because the class may be generated even if a error was found
             // and that class may have an invalid format we fail here if needed
@@ -706,22 +974,14 @@ public class CompilationUnit extends ProcessingUnit {
             //
             ClassVisitor visitor = createClassVisitor();
 
-
-            String sourceName = (source == null ? classNode.getModule().getDescription() : source.getName());
-            // only show the file name and its extension like javac does in its stacktraces rather than the full path
-            // also takes care of both \ and / depending on the host compiling environment
-            if (sourceName != null)
-                sourceName = sourceName.substring(Math.max(sourceName.lastIndexOf('\\'), sourceName.lastIndexOf('/')) + 1);
-            ClassGenerator generator = new AsmClassGenerator(context, visitor, classLoader, sourceName);
-
             //
             // Run the generation and create the class (if required)
             //
-            generator.visitClass(classNode);
-
+            ClassGenerator generator = generateClass(source, context, classNode, visitor);
 
             byte[] bytes = ((ClassWriter) visitor).toByteArray();
             generatedClasses.add(new GroovyClass(classNode.getName(), bytes));
+            addToDependencyIndex(source, classNode);
 
             //
             // Handle any callback that's been set
@@ -740,6 +1000,53 @@ public class CompilationUnit extends ProcessingUnit {
         }
     };
 
+    /**
+     * Runs the verifiers on a single ClassNode, the first part of classgen().
+     */
+    private PrimaryClassNodeOperation verify = new PrimaryClassNodeOperation() {
+        public boolean needSortedInput() {
+            return true;
+        }
+
+        public void call(SourceUnit source, GeneratorContext context, ClassNode classNode) throws CompilationFailedException {
+            verifyClass(verifier, source, classNode, getErrorCollector());
+        }
+    };
+
+    private void verifyClass(Verifier verifier, SourceUnit source, ClassNode classNode, ErrorCollector errors) throws CompilationFailedException {
+        //
+        // Run the Verifier on the outer class
+        //
+        try {
+            verifier.visitClass(classNode);
+        } catch (GroovyRuntimeException rpe) {
+            ASTNode node = rpe.getNode();
+            errors.addError(
+                    new SyntaxException(rpe.getMessage(), null, node.getLineNumber(), node.getColumnNumber()),
+                    source
+            );
+        }
+
+        LabelVerifier lv = new LabelVerifier(source);
+        lv.visitClass(classNode);
+
+        ClassCompletionVerifier completionVerifier = new ClassCompletionVerifier(source);
+        completionVerifier.visitClass(classNode);
+
+        ExtendedVerifier xverifier = new ExtendedVerifier(source);
+        xverifier.visitClass(classNode);
+    }
+
+    private ClassGenerator generateClass(SourceUnit source, GeneratorContext context, ClassNode classNode, ClassVisitor visitor) {
+        String sourceName = (source == null ? classNode.getModule().getDescription() : source.getName());
+        // only show the file name and its extension like javac does in its stacktraces rather than the full path
+        // also takes care of both \ and / depending on the host compiling environment
+        if (sourceName != null)
+            sourceName = sourceName.substring(Math.max(sourceName.lastIndexOf('\\'), sourceName.lastIndexOf('/')) + 1);
+        ClassGenerator generator = new AsmClassGenerator(context, visitor, classLoader, sourceName);
+        generator.visitClass(classNode);
+        return generator;
+    }
 
     protected ClassVisitor createClassVisitor() {
         return new ClassWriter(true);
@@ -786,19 +1093,58 @@ public class CompilationUnit extends ProcessingUnit {
     }
 
 
+    /**
+     * A SourceUnitOperation that can be applied to several SourceUnits at
+     * the same time. process() must only work on the given SourceUnit and
+     * may be called from any thread. complete() is called afterwards on
+     * the compiling thread, one SourceUnit after the other in the order
+     * they were added to the CompilationUnit.
+     *
+     * @see CompilerConfiguration#setParallelism(int)
+     */
+    public abstract static class ParallelSourceUnitOperation extends SourceUnitOperation {
+        public void call(SourceUnit source) throws CompilationFailedException {
+            process(source);
+            complete(source);
+        }
+
+        public abstract void process(SourceUnit source) throws CompilationFailedException;
+
+        public void complete(SourceUnit source) throws CompilationFailedException {
+        }
+    }
+
+
     /**
      * A loop driver for applying operations to all SourceUnits.
      * Automatically skips units that have already been processed
      * through the current phase.
      */
     public void applyToSourceUnits(SourceUnitOperation body) throws CompilationFailedException {
+        if (body instanceof ParallelSourceUnitOperation && configuration.getParallelism() > 1) {
+            List pending = new ArrayList();
+            for (Iterator keys = names.iterator(); keys.hasNext();) {
+                SourceUnit source = (SourceUnit) sources.get(keys.next());
+                if ((source.phase < phase) || (source.phase == phase && !source.phaseComplete)) {
+                    pending.add(source);
+                }
+            }
+            if (pending.size() > 1) {
+                applyToSourceUnitsInParallel((ParallelSourceUnitOperation) body, pending);
+                getErrorCollector().failIfErrors();
+                return;
+            }
+        }
+
         Iterator keys = names.iterator();
         while (keys.hasNext()) {
             String name = (String) keys.next();
             SourceUnit source = (SourceUnit) sources.get(name);
             if ((source.phase < phase) || (source.phase == phase && !source.phaseComplete)) {
                 try {
+                    CompilationProfiler.Measurement measurement = body == mark ? null : startMeasurement();
                     body.call(source);
+                    stopMeasurement(measurement, CompilationProfiler.SOURCE, body, source);
                 } catch (CompilationFailedException e) {
                     throw e;
                 } catch (Exception e) {
@@ -816,6 +1162,143 @@ public class CompilationUnit extends ProcessingUnit {
         getErrorCollector().failIfErrors();
     }
 
+    /**
+     * Runs process() for the given SourceUnits on a thread pool. Each
+     * SourceUnit collects its messages in an ErrorCollector of its own
+     * while it is processed. Afterwards the messages are added to our
+     * ErrorCollector and complete() is called, in the order of the
+     * SourceUnits, so errors, the AST and the generated classes are the
+     * same as if the SourceUnits had been processed one after the other.
+     * In particular we stop at the first SourceUnit that fails.
+     */
+    private void applyToSourceUnitsInParallel(final ParallelSourceUnitOperation body, List pending) throws CompilationFailedException {
+        ExecutorService executor = createExecutor(pending.size());
+        List futures = new ArrayList(pending.size());
+        try {
+            for (Iterator it = pending.iterator(); it.hasNext();) {
+                final SourceUnit source = (SourceUnit) it.next();
+                source.errorCollector = new ErrorCollector(configuration);
+                futures.add(executor.submit(new Callable() {
+                    public Object call() throws Exception {
+                        CompilationProfiler.Measurement measurement = startMeasurement();
+                        body.process(source);
+                        stopMeasurement(measurement, CompilationProfiler.SOURCE, body, source);
+                        return null;
+                    }
+                }));
+            }
+
+            for (int i = 0; i < pending.size(); i++) {
+                SourceUnit source = (SourceUnit) pending.get(i);
+                Throwable failure = null;
+                try {
+                    ((Future) futures.get(i)).get();
+                } catch (ExecutionException e) {
+                    failure = e.getCause();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure = e;
+                }
+
+                ErrorCollector collector = source.errorCollector;
+                source.errorCollector = errorCollector;
+                addMessagesOf(collector);
+
+                try {
+                    if (failure != null) throw failure;
+                    CompilationProfiler.Measurement measurement = startMeasurement();
+                    body.complete(source);
+                    // the same measurement as process(), which is counted already
+                    if (measurement != null) {
+                        profiler.stopPart(measurement, CompilationProfiler.SOURCE, getPhaseDescription(), getOperationName(body), source.getName());
+                    }
+                } catch (CompilationFailedException e) {
+                    getErrorCollector().failIfErrors();
+                    throw e;
+                } catch (GroovyBugError e) {
+                    changeBugText(e, source);
+                    throw e;
+                } catch (Exception e) {
+                    GroovyBugError gbe = new GroovyBugError(e);
+                    changeBugText(gbe, source);
+                    throw gbe;
+                } catch (Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new GroovyBugError(t.getMessage());
+                }
+            }
+        } finally {
+            // the remaining SourceUnits are not processed if one of them failed
+            shutdown(executor);
+            for (Iterator it = pending.iterator(); it.hasNext();) {
+                ((SourceUnit) it.next()).errorCollector = errorCollector;
+            }
+        }
+    }
+
+    /**
+     * Creates the thread pool for the given number of tasks, using at most
+     * as many threads as the configured parallelism.
+     */
+    private ExecutorService createExecutor(int tasks) {
+        int threads = Math.min(configuration.getParallelism(), tasks);
+        return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "groovy-compiler");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Cancels the tasks not yet started and waits for the running ones, so
+     * no thread works on the AST any longer once a phase is left.
+     */
+    private static void shutdown(ExecutorService executor) {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the result of a task, or throws what the task has thrown.
+     */
+    private static Object getResult(Future future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new GroovyBugError(String.valueOf(cause));
+        }
+    }
+
+    /**
+     * Adds the messages of a SourceUnit's own ErrorCollector to ours. Errors
+     * are added one by one, so the compilation fails at the same error as
+     * if the SourceUnit had used our ErrorCollector in the first place.
+     */
+    private void addMessagesOf(ErrorCollector collector) throws CompilationFailedException {
+        List warnings = collector.getWarnings();
+        if (warnings != null) {
+            for (Iterator it = warnings.iterator(); it.hasNext();) {
+                getErrorCollector().addWarning((WarningMessage) it.next());
+            }
+        }
+        List errors = collector.getErrors();
+        if (errors != null) {
+            for (Iterator it = errors.iterator(); it.hasNext();) {
+                getErrorCollector().addError((Message) it.next());
+            }
+        }
+    }
+
     //---------------------------------------------------------------------------
     // LOOP SIMPLIFICATION FOR PRIMARY ClassNode OPERATIONS
 
@@ -904,6 +1387,20 @@ public class CompilationUnit extends ProcessingUnit {
      * through the current phase.
      */
     public void applyToPrimaryClassNodes(PrimaryClassNodeOperation body) throws CompilationFailedException {
+        if (body == classgen && configuration.getParallelism() > 1) {
+            List classNodes = new ArrayList();
+            for (Iterator it = getPrimaryClassNodes(true).iterator(); it.hasNext();) {
+                ClassNode classNode = (ClassNode) it.next();
+                SourceUnit context = classNode.getModule().getContext();
+                if (context == null || context.phase <= phase) classNodes.add(classNode);
+            }
+            if (classNodes.size() > 1) {
+                generateClassesInParallel(classNodes);
+                getErrorCollector().failIfErrors();
+                return;
+            }
+        }
+
         Iterator classNodes = getPrimaryClassNodes(body.needSortedInput()).iterator();
         while (classNodes.hasNext()) {
             SourceUnit context = null;
@@ -911,7 +1408,9 @@ public class CompilationUnit extends ProcessingUnit {
                 ClassNode classNode = (ClassNode) classNodes.next();
                 context = classNode.getModule().getContext();
                 if (context == null || context.phase <= phase) {
+                    CompilationProfiler.Measurement measurement = startMeasurement();
                     body.call(context, new GeneratorContext(this.ast), classNode);
+                    stopMeasurement(measurement, CompilationProfiler.SOURCE, body, context);
                 }
             } catch (CompilationFailedException e) {
                 // fall thorugh, getErrorREporter().failIfErrors() will triger
@@ -921,24 +1420,246 @@ public class CompilationUnit extends ProcessingUnit {
                 changeBugText(e, context);
                 throw e;
             } catch (Exception e) {
-                // check the exception for a nested compilation exception
-                ErrorCollector nestedCollector = null;
-                for (Throwable next = e.getCause(); next != e && next != null; next = next.getCause()) {
-                    if (!(next instanceof MultipleCompilationErrorsException)) continue;
-                    MultipleCompilationErrorsException mcee = (MultipleCompilationErrorsException) next;
-                    nestedCollector = mcee.collector;
-                    break;
+                addException(e);
+            }
+        }
+
+        getErrorCollector().failIfErrors();
+    }
+
+    private void addException(Exception e) throws CompilationFailedException {
+        // check the exception for a nested compilation exception
+        ErrorCollector nestedCollector = null;
+        for (Throwable next = e.getCause(); next != e && next != null; next = next.getCause()) {
+            if (!(next instanceof MultipleCompilationErrorsException)) continue;
+            MultipleCompilationErrorsException mcee = (MultipleCompilationErrorsException) next;
+            nestedCollector = mcee.collector;
+            break;
+        }
+
+        if (nestedCollector != null) {
+            getErrorCollector().addCollectorContents(nestedCollector);
+        } else {
+            getErrorCollector().addError(new ExceptionMessage(e, configuration.getDebug(), this));
+        }
+    }
+
+    private CompilationProfiler.Measurement startMeasurement() {
+        return profiler == null ? null : profiler.start();
+    }
+
+    /**
+     * Adds a measurement of an operation in the current phase, for all
+     * sources or for the given one, to the profile.
+     */
+    private void stopMeasurement(CompilationProfiler.Measurement measurement, String kind, Object operation, SourceUnit source) {
+        if (measurement == null) return;
+        profiler.stop(measurement, kind, getPhaseDescription(), getOperationName(operation), source == null ? null : source.getName());
+    }
+
+    /**
+     * Returns the name of a phase operation for the profile: the name of
+     * the field holding it for our own operations, and else the name of its
+     * class, or of the class declaring it if it is anonymous.
+     */
+    private String getOperationName(Object operation) {
+        if (operation == parse) return "parse";
+        if (operation == convert) return "convert";
+        if (operation == enums) return "enums";
+        if (operation == resolve) return "resolve";
+        if (operation == staticImport) return "staticImport";
+        if (operation == compileCompleteCheck) return "compileCompleteCheck";
+        if (operation == verify) return "verify";
+        if (operation == classgen) return "classgen";
+        if (operation == output) return "output";
+        Class type = operation.getClass();
+        while (type.isAnonymousClass()) {
+            type = type.getEnclosingClass();
+        }
+        return type.getName();
+    }
+
+    /**
+     * A class generated by classgen(), together with the things needed
+     * for the ClassgenCallback.
+     */
+    private static class GeneratedClass {
+        final ClassNode classNode;
+        final ClassVisitor visitor;
+        final GroovyClass groovyClass;
+
+        GeneratedClass(ClassNode classNode, ClassVisitor visitor, GroovyClass groovyClass) {
+            this.classNode = classNode;
+            this.visitor = visitor;
+            this.groovyClass = groovyClass;
+        }
+    }
+
+    /**
+     * Runs classgen() for the given, sorted, primary ClassNodes on a thread
+     * pool. The verifiers change the ClassNodes and look at other ones, so
+     * they are run first, on the compiling thread, and the bytecode does not
+     * depend on the number of threads. The bytecode of a class is only
+     * generated after its super classes and outer classes are done,
+     * because the generation adds methods to a ClassNode, which are read
+     * when generating the subclasses. Each class has its own GeneratorContext,
+     * and each AsmClassGenerator its own CompileStack. The classes of a
+     * SourceUnit are generated one after the other, each with an
+     * ErrorCollector of its own for the messages of the verifiers of its
+     * inner classes. Afterwards these messages are added to our
+     * ErrorCollector, and the classes, including those of the closures, are
+     * added to the generated classes and passed to the ClassgenCallback, in
+     * the same order as by a sequential classgen(), which also stops at the
+     * first class that fails.
+     */
+    private void generateClassesInParallel(final List classNodes) throws CompilationFailedException {
+        applyToPrimaryClassNodes(verify);
+
+        final Map indexes = new IdentityHashMap();
+        for (int i = 0; i < classNodes.size(); i++) {
+            indexes.put(classNodes.get(i), new Integer(i));
+        }
+        // submit the classes after the ones they depend on, so no
+        // task waits for a task which is still queued behind it
+        List order = new ArrayList();
+        boolean[] ordered = new boolean[classNodes.size()];
+        for (int i = 0; i < classNodes.size(); i++) {
+            addInDependencyOrder(i, classNodes, indexes, ordered, order);
+        }
+        // a class also waits for the class of its SourceUnit submitted
+        // before it, because the SourceUnit holds the ErrorCollector
+        Map lastOfSource = new IdentityHashMap();
+        Map previous = new HashMap();
+        for (Iterator it = order.iterator(); it.hasNext();) {
+            Integer index = (Integer) it.next();
+            SourceUnit source = ((ClassNode) classNodes.get(index.intValue())).getModule().getContext();
+            if (source == null) continue;
+            Object last = lastOfSource.put(source, index);
+            if (last != null) previous.put(index, last);
+        }
+
+        final boolean keepVisitors = classgenCallback != null;
+        final Future[] futures = new Future[classNodes.size()];
+        final ErrorCollector[] collectors = new ErrorCollector[classNodes.size()];
+        ExecutorService executor = createExecutor(classNodes.size());
+        try {
+            for (Iterator it = order.iterator(); it.hasNext();) {
+                final int index = ((Integer) it.next()).intValue();
+                final ClassNode classNode = (ClassNode) classNodes.get(index);
+                final List dependencies = new ArrayList();
+                List dependencyIndexes = getDependencies(classNode, indexes);
+                Object last = previous.get(new Integer(index));
+                if (last != null) dependencyIndexes.add(last);
+                for (Iterator deps = dependencyIndexes.iterator(); deps.hasNext();) {
+                    dependencies.add(futures[((Integer) deps.next()).intValue()]);
                 }
+                collectors[index] = new ErrorCollector(configuration);
+                futures[index] = executor.submit(new Callable() {
+                    public Object call() throws Exception {
+                        for (Iterator deps = dependencies.iterator(); deps.hasNext();) {
+                            try {
+                                ((Future) deps.next()).get();
+                            } catch (ExecutionException e) {
+                                // reported for the failed class itself
+                            }
+                        }
+                        List classes = new ArrayList();
+                        SourceUnit source = classNode.getModule().getContext();
+                        if (source != null) source.errorCollector = collectors[index];
+                        CompilationProfiler.Measurement measurement = startMeasurement();
+                        generateClassAndInnerClasses(new Verifier(), source, new GeneratorContext(ast), classNode, keepVisitors, classes, collectors[index]);
+                        stopMeasurement(measurement, CompilationProfiler.SOURCE, classgen, source);
+                        return classes;
+                    }
+                });
+            }
 
-                if (nestedCollector != null) {
-                    getErrorCollector().addCollectorContents(nestedCollector);
-                } else {
-                    getErrorCollector().addError(new ExceptionMessage(e, configuration.getDebug(), this));
+            for (int i = 0; i < futures.length; i++) {
+                SourceUnit context = ((ClassNode) classNodes.get(i)).getModule().getContext();
+                try {
+                    Exception failure = null;
+                    List classes = null;
+                    try {
+                        classes = (List) getResult(futures[i]);
+                    } catch (Exception e) {
+                        failure = e;
+                    }
+                    addMessagesOf(collectors[i]);
+                    if (failure != null) throw failure;
+                    for (Iterator it = classes.iterator(); it.hasNext();) {
+                        GeneratedClass generated = (GeneratedClass) it.next();
+                        generatedClasses.add(generated.groovyClass);
+                        addToDependencyIndex(context, generated.classNode);
+                        if (classgenCallback != null) {
+                            classgenCallback.call(generated.visitor, generated.classNode);
+                        }
+                    }
+                } catch (CompilationFailedException e) {
+                    break;
+                } catch (NullPointerException npe) {
+                    throw npe;
+                } catch (GroovyBugError e) {
+                    changeBugText(e, context);
+                    throw e;
+                } catch (Exception e) {
+                    addException(e);
+                    break;
                 }
             }
+        } finally {
+            shutdown(executor);
+            for (Iterator it = classNodes.iterator(); it.hasNext();) {
+                SourceUnit source = ((ClassNode) it.next()).getModule().getContext();
+                if (source != null) source.errorCollector = errorCollector;
+            }
         }
+    }
 
-        getErrorCollector().failIfErrors();
+    /**
+     * The second part of classgen(), for a class and, recursively, the inner
+     * classes created while generating it. The messages of the verifiers are
+     * added to the given ErrorCollector.
+     */
+    private void generateClassAndInnerClasses(Verifier verifier, SourceUnit source, GeneratorContext context,
+                                              ClassNode classNode, boolean keepVisitor, List classes, ErrorCollector errors) throws CompilationFailedException {
+        ClassVisitor visitor = createClassVisitor();
+        ClassGenerator generator = generateClass(source, context, classNode, visitor);
+        byte[] bytes = ((ClassWriter) visitor).toByteArray();
+        classes.add(new GeneratedClass(classNode, keepVisitor ? visitor : null, new GroovyClass(classNode.getName(), bytes)));
+
+        LinkedList innerClasses = generator.getInnerClasses();
+        while (!innerClasses.isEmpty()) {
+            ClassNode innerClass = (ClassNode) innerClasses.removeFirst();
+            verifyClass(verifier, source, innerClass, errors);
+            errors.failIfErrors();
+            generateClassAndInnerClasses(verifier, source, context, innerClass, keepVisitor, classes, errors);
+        }
+    }
+
+    private void addInDependencyOrder(int index, List classNodes, Map indexes, boolean[] ordered, List order) {
+        if (ordered[index]) return;
+        ordered[index] = true;
+        for (Iterator it = getDependencies((ClassNode) classNodes.get(index), indexes).iterator(); it.hasNext();) {
+            addInDependencyOrder(((Integer) it.next()).intValue(), classNodes, indexes, ordered, order);
+        }
+        order.add(new Integer(index));
+    }
+
+    /**
+     * Returns the indexes of the super classes and outer classes of a
+     * ClassNode, as far as they are generated together with it.
+     */
+    private static List getDependencies(ClassNode classNode, Map indexes) {
+        List dependencies = new ArrayList();
+        for (ClassNode cn = classNode.getSuperClass(); cn != null; cn = cn.getSuperClass()) {
+            Object index = indexes.get(cn.redirect());
+            if (index != null) dependencies.add(index);
+        }
+        for (ClassNode cn = classNode.getOuterClass(); cn != null; cn = cn.getOuterClass()) {
+            Object index = indexes.get(cn.redirect());
+            if (index != null) dependencies.add(index);
+        }
+        return dependencies;
     }
 
     public void applyToGeneratedGroovyClasses(GroovyClassOperation body) throws CompilationFailedException {
@@ -946,6 +1667,12 @@ public class CompilationUnit extends ProcessingUnit {
             throw new GroovyBugError("CompilationUnit not ready for output(). Current phase=" + getPhaseDescription());
         }
 
+        if (body == output && configuration.getParallelism() > 1 && this.generatedClasses.size() > 1) {
+            writeClassFilesInParallel();
+            getErrorCollector().failIfErrors();
+            return;
+        }
+
         boolean failures = false;
 
         Iterator iterator = this.generatedClasses.iterator();
@@ -972,6 +1699,47 @@ public class CompilationUnit extends ProcessingUnit {
         getErrorCollector().failIfErrors();
     }
 
+    /**
+     * Writes the generated classes on a thread pool, and reports the
+     * errors in the order of the classes.
+     */
+    private void writeClassFilesInParallel() throws CompilationFailedException {
+        List futures = new ArrayList(generatedClasses.size());
+        ExecutorService executor = createExecutor(generatedClasses.size());
+        try {
+            for (Iterator it = generatedClasses.iterator(); it.hasNext();) {
+                final GroovyClass gclass = (GroovyClass) it.next();
+                futures.add(executor.submit(new Callable() {
+                    public Object call() throws Exception {
+                        writeClassFile(gclass);
+                        return null;
+                    }
+                }));
+            }
+
+            for (Iterator it = futures.iterator(); it.hasNext();) {
+                try {
+                    getResult((Future) it.next());
+                } catch (IOException e) {
+                    try {
+                        getErrorCollector().addError(Message.create(e.getMessage(), this));
+                    } catch (CompilationFailedException cfe) {
+                        // fall through, getErrorCollector().failIfErrors() will trigger
+                    }
+                } catch (NullPointerException npe) {
+                    throw npe;
+                } catch (GroovyBugError e) {
+                    changeBugText(e, null);
+                    throw e;
+                } catch (Exception e) {
+                    throw new GroovyBugError(e);
+                }
+            }
+        } finally {
+            shutdown(executor);
+        }
+    }
+
     private void changeBugText(GroovyBugError e, SourceUnit context) {
         e.setBugText("exception in phase '" + getPhaseDescription() + "' in source unit '" + ((context != null) ? context.getName() : "?") + "' " + e.getBugText());
     }
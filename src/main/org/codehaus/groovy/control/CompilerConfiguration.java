@@ -124,6 +124,26 @@ public class CompilerConfiguration {
      * options for joint compilation (null by default == no joint compilation)
      */
     private Map jointCompilationOptions;
+
+    /**
+     * the number of threads used to parse, convert and generate classes
+     */
+    private int parallelism;
+
+    /**
+     * if set to true only changed sources and the sources depending on them are compiled
+     */
+    private boolean incremental;
+
+    /**
+     * if set to true the classes found through the class loader are cached for all compilations using it
+     */
+    private boolean cacheClassResolution;
+
+    /**
+     * the file the time spent per phase, source and AST transformation is written to, or null
+     */
+    private File profileReport;
     
     /**
      * Sets the Flags to defaults.
@@ -144,6 +164,10 @@ public class CompilerConfiguration {
         setMinimumRecompilationInterval(100);
         setTargetBytecode(getVMVersion());
         setDefaultScriptExtension(".groovy");
+        setParallelism(1);
+        setIncremental(false);
+        setCacheClassResolution(false);
+        setProfileReport((File) null);
 
         //
         // Source file encoding
@@ -212,6 +236,10 @@ public class CompilerConfiguration {
         }
         setJointCompilationOptions(jointCompilationOptions);
         setPluginFactory(configuration.getPluginFactory());
+        setParallelism(configuration.getParallelism());
+        setIncremental(configuration.isIncremental());
+        setCacheClassResolution(configuration.getCacheClassResolution());
+        setProfileReport(configuration.getProfileReport());
     }
 
 
@@ -264,6 +292,10 @@ public class CompilerConfiguration {
             <tr><td><code>"groovy.script.base"</code></td><td>{@link #getScriptBaseClass}</td></tr>
             <tr><td><code>"groovy.recompile"</code></td><td>{@link #getRecompileGroovySource}</td></tr>
             <tr><td><code>"groovy.recompile.minimumInterval"</code></td><td>{@link #getMinimumRecompilationInterval}</td></tr>
+            <tr><td><code>"groovy.compile.parallelism"</code></td><td>{@link #getParallelism}</td></tr>
+            <tr><td><code>"groovy.compile.incremental"</code></td><td>{@link #isIncremental}</td></tr>
+            <tr><td><code>"groovy.compile.cacheClassResolution"</code></td><td>{@link #getCacheClassResolution}</td></tr>
+            <tr><td><code>"groovy.compile.profile"</code></td><td>{@link #getProfileReport}</td></tr>
             <tr><td>
          </tr>
      </table>
@@ -385,8 +417,36 @@ public class CompilerConfiguration {
             throw new ConfigurationException(e);
         }
         setMinimumRecompilationInterval(numeric);
-        
-        
+
+        //
+        // Parallelism
+        //
+        text = configuration.getProperty("groovy.compile.parallelism");
+        if (text != null) {
+            try {
+                setParallelism(Integer.parseInt(text));
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException(e);
+            }
+        }
+
+        //
+        // Incremental compilation
+        //
+        text = configuration.getProperty("groovy.compile.incremental");
+        if (text != null) setIncremental(text.equalsIgnoreCase("true"));
+
+        //
+        // Class resolution cache
+        //
+        text = configuration.getProperty("groovy.compile.cacheClassResolution");
+        if (text != null) setCacheClassResolution(text.equalsIgnoreCase("true"));
+
+        //
+        // Profiling
+        //
+        text = configuration.getProperty("groovy.compile.profile");
+        if (text != null) setProfileReport(text);
     }
 
 
@@ -659,4 +719,108 @@ public class CompilerConfiguration {
     public void setJointCompilationOptions(Map options) {
         jointCompilationOptions = options;
     }
+
+    /**
+     * Returns the number of threads used to parse and convert the
+     * source units of a compilation, and to generate and write the classes.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of threads used to parse and convert the source
+     * units of a compilation, and to generate and write the classes.
+     * With 1, the default, everything runs on the compiling thread. The
+     * result of the compilation, including the order of the classes and
+     * error messages, does not depend on this setting.
+     *
+     * @param parallelism the number of threads, at least 1
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Returns true if only the changed sources and the sources depending
+     * on them are compiled.
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Enables incremental compilation. The compiler keeps an index of the
+     * sources, their classes and the classes they use in the target
+     * directory. Sources that did not change since the last compilation
+     * into that directory, and do not depend on a changed one, are not
+     * compiled again; their classes are loaded from the target directory
+     * instead. The classes written are the same as those of a compilation
+     * of all sources. If a source is added, a source declares a new class,
+     * the configuration changes or there is no index yet, all sources are
+     * compiled. Without a target directory this setting has no effect.
+     *
+     * @param incremental true to compile incrementally
+     * @see DependencyIndex
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /**
+     * Returns true if the classes found, or not found, through the class
+     * loader of a compilation are cached for all compilations using it.
+     */
+    public boolean getCacheClassResolution() {
+        return cacheClassResolution;
+    }
+
+    /**
+     * Enables the cache of the classes found through the class loader while
+     * resolving class names. Without it each compilation asks the loader
+     * again, which is costly for the names that are not found, like the
+     * guesses for the default imports. The cache is kept by the
+     * GroovyClassLoader and shared by all compilations using it, like the
+     * ones of GroovyShell#evaluate. It forgets a name when the loader gets a
+     * class of that name, and everything when it gets a new URL. Changes of
+     * parent loaders which are no GroovyClassLoader are not noticed.
+     *
+     * @param cacheClassResolution true to share the cache
+     * @see ClassResolutionCache
+     */
+    public void setCacheClassResolution(boolean cacheClassResolution) {
+        this.cacheClassResolution = cacheClassResolution;
+    }
+
+    /**
+     * Returns the file the compilation profile is written to, or null
+     * if the compilation is not profiled.
+     */
+    public File getProfileReport() {
+        return profileReport;
+    }
+
+    /**
+     * Profiles the compilation. The time spent, and the memory allocated,
+     * per phase, per phase operation and SourceUnit, and per AST
+     * transformation and SourceUnit, is written to the given file after
+     * each compilation, as JSON if the name ends with .json and as CSV
+     * otherwise.
+     *
+     * @param report the report file, or null to switch profiling off
+     * @see CompilationProfiler
+     */
+    public void setProfileReport(File report) {
+        this.profileReport = report;
+    }
+
+    /**
+     * Sets the name of the file the compilation profile is written to.
+     *
+     * @param report the name of the report file, or null to switch profiling off
+     * @see #setProfileReport(File)
+     */
+    public void setProfileReport(String report) {
+        setProfileReport(report == null || report.length() == 0 ? null : new File(report));
+    }
 }
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2003-2009 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.groovy.control;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+import org.codehaus.groovy.GroovyBugError;
+import org.codehaus.groovy.runtime.InvokerHelper;
+
+/**
+ * The index of an incremental compilation. For each source it keeps a
+ * fingerprint of the text, the classes generated from it and the classes
+ * it uses. The CompilationUnit records the used classes while resolving
+ * and the generated classes during class generation, and writes the index
+ * into the target directory. The next compilation into that directory
+ * reads it to find the sources that changed and the ones depending on
+ * them, directly or through other sources.
+ * <p/>
+ * The index is a text file with one entry per line:
+ * <pre>
+ * groovyc index 1
+ * configuration &lt;settings the bytecode depends on&gt;
+ * source &lt;name of the SourceUnit&gt;
+ * fingerprint &lt;MD5 of the source text&gt;
+ * class &lt;name of a generated class&gt;
+ * uses &lt;name of a class of another source&gt;
+ * </pre>
+ *
+ * @see CompilerConfiguration#setIncremental(boolean)
+ */
+public class DependencyIndex {
+
+    /**
+     * The name of the index file in the target directory.
+     */
+    public static final String FILE_NAME = "groovyc.index";
+
+    private static final String HEADER = "groovyc index 1";
+
+    private final String configuration;
+    private final Map entries = new LinkedHashMap();
+
+    private static class Entry {
+        String fingerprint = "";
+        final Set classes = new LinkedHashSet();
+        final Set dependencies = new TreeSet();
+    }
+
+    /**
+     * Creates an empty index.
+     *
+     * @param configuration the fingerprint of the settings the bytecode depends on
+     */
+    public DependencyIndex(String configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Returns a fingerprint of the settings the generated bytecode depends
+     * on: the Groovy version, the target bytecode, the source encoding, the
+     * script base class and the classpath, including the size and time stamp
+     * of its archives. If it changes, all sources have to be compiled again.
+     */
+    public static String getConfigurationFingerprint(CompilerConfiguration configuration) {
+        StringBuffer buffer = new StringBuffer();
+        buffer.append(InvokerHelper.getVersion());
+        buffer.append(' ').append(configuration.getTargetBytecode());
+        buffer.append(' ').append(configuration.getSourceEncoding());
+        buffer.append(' ').append(configuration.getScriptBaseClass());
+        for (Iterator it = configuration.getClasspath().iterator(); it.hasNext();) {
+            String path = (String) it.next();
+            buffer.append(' ').append(path);
+            File file = new File(path);
+            if (file.isFile()) buffer.append(':').append(file.length()).append(':').append(file.lastModified());
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Returns the MD5 checksum of a source text in hexadecimal notation.
+     */
+    public static String getFingerprint(Reader reader) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new GroovyBugError(e);
+        }
+        char[] buffer = new char[4096];
+        byte[] chars = new byte[buffer.length * 2];
+        for (int n = reader.read(buffer); n != -1; n = reader.read(buffer)) {
+            for (int i = 0; i < n; i++) {
+                chars[2 * i] = (byte) (buffer[i] >> 8);
+                chars[2 * i + 1] = (byte) buffer[i];
+            }
+            digest.update(chars, 0, 2 * n);
+        }
+        byte[] bytes = digest.digest();
+        StringBuffer hex = new StringBuffer(bytes.length * 2);
+        for (int i = 0; i < bytes.length; i++) {
+            hex.append(Character.forDigit((bytes[i] >> 4) & 0xF, 16));
+            hex.append(Character.forDigit(bytes[i] & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Reads an index written by {@link #save(File)}.
+     *
+     * @return the index, or null if the file does not exist or is not a valid index
+     */
+    public static DependencyIndex load(File file) {
+        if (!file.isFile()) return null;
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+            if (!HEADER.equals(reader.readLine())) return null;
+            String line = reader.readLine();
+            if (line == null || !line.startsWith("configuration ")) return null;
+            DependencyIndex index = new DependencyIndex(line.substring("configuration ".length()));
+            Entry entry = null;
+            while ((line = reader.readLine()) != null) {
+                int space = line.indexOf(' ');
+                if (space == -1) return null;
+                String key = line.substring(0, space);
+                String value = line.substring(space + 1);
+                if (key.equals("source")) {
+                    entry = index.getEntry(value, true);
+                } else if (entry == null) {
+                    return null;
+                } else if (key.equals("fingerprint")) {
+                    entry.fingerprint = value;
+                } else if (key.equals("class")) {
+                    entry.classes.add(value);
+                } else if (key.equals("uses")) {
+                    entry.dependencies.add(value);
+                } else {
+                    return null;
+                }
+            }
+            return index;
+        } catch (IOException e) {
+            return null;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the index. Only the used classes generated from a source of
+     * this index are kept, the others are in libraries or the JDK and are
+     * covered by the configuration fingerprint.
+     */
+    public synchronized void save(File file) throws IOException {
+        Set classes = new HashSet();
+        for (Iterator it = entries.values().iterator(); it.hasNext();) {
+            classes.addAll(((Entry) it.next()).classes);
+        }
+
+        // write a new file first, so a failure does not leave half an index behind
+        File tmp = new File(file.getPath() + ".tmp");
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(tmp), "UTF-8"));
+        try {
+            writer.print(HEADER + "\n");
+            writer.print("configuration " + configuration + "\n");
+            for (Iterator it = entries.entrySet().iterator(); it.hasNext();) {
+                Map.Entry mapEntry = (Map.Entry) it.next();
+                Entry entry = (Entry) mapEntry.getValue();
+                writer.print("source " + mapEntry.getKey() + "\n");
+                writer.print("fingerprint " + entry.fingerprint + "\n");
+                for (Iterator names = entry.classes.iterator(); names.hasNext();) {
+                    writer.print("class " + names.next() + "\n");
+                }
+                for (Iterator names = entry.dependencies.iterator(); names.hasNext();) {
+                    String name = (String) names.next();
+                    if (classes.contains(name) && !entry.classes.contains(name)) {
+                        writer.print("uses " + name + "\n");
+                    }
+                }
+            }
+        } finally {
+            writer.close();
+        }
+        if (writer.checkError()) throw new IOException("could not write " + tmp);
+        file.delete();
+        if (!tmp.renameTo(file)) throw new IOException("could not rename " + tmp + " to " + file);
+    }
+
+    public String getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Returns the names of the sources in the index, in the order they were added.
+     */
+    public synchronized List getSources() {
+        return new ArrayList(entries.keySet());
+    }
+
+    public synchronized boolean containsSource(String source) {
+        return entries.containsKey(source);
+    }
+
+    public synchronized String getFingerprint(String source) {
+        Entry entry = getEntry(source, false);
+        return entry == null ? null : entry.fingerprint;
+    }
+
+    /**
+     * Returns the names of the classes generated from a source.
+     */
+    public synchronized Set getClasses(String source) {
+        Entry entry = getEntry(source, false);
+        return entry == null ? Collections.EMPTY_SET : new LinkedHashSet(entry.classes);
+    }
+
+    /**
+     * Adds a source with the fingerprint of its text. Its classes and
+     * dependencies are added while it is compiled.
+     */
+    public synchronized void addSource(String source, String fingerprint) {
+        Entry entry = getEntry(source, true);
+        entry.fingerprint = fingerprint;
+        entry.classes.clear();
+        entry.dependencies.clear();
+    }
+
+    /**
+     * Copies the entry of a source which is not compiled again from
+     * the index of the last compilation.
+     */
+    public synchronized void copySource(String source, DependencyIndex index) {
+        Entry from = index.getEntry(source, false);
+        if (from == null) return;
+        Entry entry = getEntry(source, true);
+        entry.fingerprint = from.fingerprint;
+        entry.classes.addAll(from.classes);
+        entry.dependencies.addAll(from.dependencies);
+    }
+
+    /**
+     * Records a class generated from a source. Sources which have not
+     * been added, like scripts found on the classpath, are ignored.
+     */
+    public synchronized void addClass(String source, String className) {
+        Entry entry = getEntry(source, false);
+        if (entry != null) entry.classes.add(className);
+    }
+
+    /**
+     * Records a class used by a source.
+     */
+    public synchronized void addDependency(String source, String className) {
+        Entry entry = getEntry(source, false);
+        if (entry != null) entry.dependencies.add(className);
+    }
+
+    /**
+     * Returns the given sources and all sources using a class generated
+     * from one of them, directly or through other sources of the index.
+     */
+    public synchronized Set getDependents(Collection sources) {
+        Map usedBy = new HashMap();
+        for (Iterator it = entries.entrySet().iterator(); it.hasNext();) {
+            Map.Entry mapEntry = (Map.Entry) it.next();
+            Entry entry = (Entry) mapEntry.getValue();
+            for (Iterator names = entry.dependencies.iterator(); names.hasNext();) {
+                Object name = names.next();
+                List users = (List) usedBy.get(name);
+                if (users == null) {
+                    users = new ArrayList();
+                    usedBy.put(name, users);
+                }
+                users.add(mapEntry.getKey());
+            }
+        }
+
+        Set dependents = new LinkedHashSet(sources);
+        LinkedList pending = new LinkedList(sources);
+        while (!pending.isEmpty()) {
+            Entry entry = getEntry((String) pending.removeFirst(), false);
+            if (entry == null) continue;
+            for (Iterator names = entry.classes.iterator(); names.hasNext();) {
+                List users = (List) usedBy.get(names.next());
+                if (users == null) continue;
+                for (Iterator it = users.iterator(); it.hasNext();) {
+                    Object user = it.next();
+                    if (dependents.add(user)) pending.add(user);
+                }
+            }
+        }
+        return dependents;
+    }
+
+    private Entry getEntry(String source, boolean create) {
+        Entry entry = (Entry) entries.get(source);
+        if (entry == null && create) {
+            entry = new Entry();
+            entries.put(source, entry);
+        }
+        return entry;
+    }
+}
@@ -32,7 +32,8 @@ import org.codehaus.groovy.syntax.SyntaxException;
 /**
  * A base class for collecting messages and errors during processing.
  * Each CompilationUnit should have one and SourceUnits should share
- * their ErrorCollector with the CompilationUnit.
+ * their ErrorCollector with the CompilationUnit. Messages may be added
+ * from several threads at the same time.
  *
  * @author <a href="mailto:cpoirier@dreaming.org">Chris Poirier</a>
  * @author <a href="mailto:blackdrag@gmx.org">Jochen Theodorou</a>
@@ -63,19 +64,21 @@ public class ErrorCollector {
         this.configuration = configuration;
     }
     
-    public void addCollectorContents(ErrorCollector er) {
-        if (er.errors!=null) {
+    public synchronized void addCollectorContents(ErrorCollector er) {
+        List otherErrors = er.getErrors();
+        if (otherErrors!=null) {
             if (errors==null) {
-                errors = er.errors;
+                errors = new LinkedList(otherErrors);
             } else {
-                errors.addAll(er.errors);
+                errors.addAll(otherErrors);
             }
         }
-        if (er.warnings!=null) {
+        List otherWarnings = er.getWarnings();
+        if (otherWarnings!=null) {
             if (warnings==null) {
-                warnings = er.warnings;
+                warnings = new LinkedList(otherWarnings);
             } else {
-                warnings.addAll(er.warnings);
+                warnings.addAll(otherWarnings);
             }            
         }
     }
@@ -85,7 +88,7 @@ public class ErrorCollector {
     /**
      * Adds an error to the message set, but don't fail.
      */
-    public void addErrorAndContinue(Message message) {
+    public synchronized void addErrorAndContinue(Message message) {
         if (this.errors == null) {
             this.errors = new LinkedList();
         }
@@ -96,7 +99,7 @@ public class ErrorCollector {
     /**
      * Adds a non-fatal error to the message set.
      */
-    public void addError(Message message) throws CompilationFailedException {
+    public synchronized void addError(Message message) throws CompilationFailedException {
         addErrorAndContinue(message);
 
         if (errors!=null && this.errors.size() >= configuration.getTolerance()) {
@@ -152,42 +155,42 @@ public class ErrorCollector {
     /**
      * Returns true if there are any errors pending.
      */
-    public boolean hasErrors() {
+    public synchronized boolean hasErrors() {
         return this.errors != null;
     }
     
     /**
      * Returns true if there are any warnings pending.
      */
-    public boolean hasWarnings() {
+    public synchronized boolean hasWarnings() {
         return this.warnings != null;
     }
     
     /**
      * Returns the list of warnings, or null if there are none.
      */
-    public List getWarnings() {
+    public synchronized List getWarnings() {
         return this.warnings;
     }
 
     /**
      * Returns the list of errors, or null if there are none.
      */
-    public List getErrors() {
+    public synchronized List getErrors() {
         return this.errors;
     }
 
     /**
      * Returns the number of warnings.
      */
-    public int getWarningCount() {
+    public synchronized int getWarningCount() {
         return ((this.warnings == null) ? 0 : this.warnings.size());
     }
 
     /**
      * Returns the number of errors.
      */
-    public int getErrorCount() {
+    public synchronized int getErrorCount() {
         return ((this.errors == null) ? 0 : this.errors.size());
     }
 
@@ -254,7 +257,7 @@ public class ErrorCollector {
     /**
      * Adds a WarningMessage to the message set.
      */
-    public void addWarning(WarningMessage message) {
+    public synchronized void addWarning(WarningMessage message) {
         if (message.isRelevant(configuration.getWarningLevel())) {
             if (this.warnings == null) {
                 this.warnings = new LinkedList();
@@ -291,7 +294,7 @@ public class ErrorCollector {
      * Causes the current phase to fail by throwing a
      * CompilationFailedException.
      */
-    protected void failIfErrors() throws CompilationFailedException {
+    protected synchronized void failIfErrors() throws CompilationFailedException {
         if (hasErrors()) {
             throw new MultipleCompilationErrorsException(this);
         }
@@ -248,14 +248,21 @@ public class ResolveVisitor extends ClassCodeExpressionTransformer {
             return true;
         }
 
-        return  resolveFromModule(type, testModuleImports) ||
+        boolean resolved =
+                resolveFromModule(type, testModuleImports) ||
                 resolveFromCompileUnit(type) ||
                 resolveFromDefaultImports(type, testDefaultImports) ||
                 resolveFromStaticInnerClasses(type, testStaticInnerClasses) ||
                 resolveFromClassCache(type) ||
                 resolveToClass(type) ||
                 resolveToScript(type);
+        if (resolved) addDependency(type);
+        return resolved;
+    }
 
+    private void addDependency(ClassNode type) {
+        DependencyIndex index = compilationUnit.getDependencyIndex();
+        if (index != null && source != null) index.addDependency(source.getName(), type.getName());
     }
 
     private boolean resolveFromClassCache(ClassNode type) {
@@ -597,7 +604,15 @@ public class ResolveVisitor extends ClassCodeExpressionTransformer {
         try {
             // NOTE: it's important to do no lookup against script files
             // here since the GroovyClassLoader would create a new CompilationUnit
-            cls = loader.loadClass(name, false, true);
+            if (compilationUnit.getConfiguration().getCacheClassResolution()) {
+                cls = loader.getClassResolutionCache().loadClass(name);
+                if (cls == null) {
+                    cachedClasses.put(name, SCRIPT);
+                    return false;
+                }
+            } else {
+                cls = loader.loadClass(name, false, true);
+            }
         } catch (ClassNotFoundException cnfe) {
             cachedClasses.put(name, SCRIPT);
             return false;
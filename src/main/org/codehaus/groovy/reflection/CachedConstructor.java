@@ -16,9 +16,14 @@
 package org.codehaus.groovy.reflection;
 
 import groovy.lang.GroovyRuntimeException;
+import groovy.lang.MetaClassImpl;
 import org.codehaus.groovy.runtime.InvokerHelper;
 import org.codehaus.groovy.runtime.InvokerInvocationException;
+import org.codehaus.groovy.runtime.callsite.CallSite;
+import org.codehaus.groovy.runtime.callsite.CallSiteGenerator;
+import org.codehaus.groovy.runtime.callsite.ConstructorSite;
 
+import java.lang.ref.SoftReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 
@@ -30,6 +35,8 @@ public class CachedConstructor extends ParameterTypes {
 
     public final Constructor cachedConstructor;
 
+    private SoftReference<Constructor> constructorSiteConstructor;
+
     public CachedConstructor(CachedClass clazz, Constructor c) {
         this.cachedConstructor = c;
         this.clazz = clazz;
@@ -93,4 +100,36 @@ public class CachedConstructor extends ParameterTypes {
     public int getModifiers () {
         return cachedConstructor.getModifiers();
     }
+
+    public ConstructorSite createConstructorSite(CallSite site, MetaClassImpl metaClass, Class[] params) {
+        if (!hasConstructorSiteConstructor()) {
+          Constructor constr = null;
+          if (CallSiteGenerator.isCompilable(this)) {
+              constr = CallSiteGenerator.compileConstructor(this);
+
+              if (constr != null)
+                 constructorSiteConstructor = new SoftReference<Constructor> (constr);
+          }
+        }
+
+        if (hasConstructorSiteConstructor()) {
+            final Constructor constructor = constructorSiteConstructor.get();
+            if (constructor != null) {
+                try {
+                return (ConstructorSite) constructor.newInstance(site, metaClass, this, params);
+                } catch (Throwable e) { //
+                }
+            }
+        }
+
+        return new ConstructorSite.ConstructorSiteNoUnwrapNoCoerce(site, metaClass, this, params);
+    }
+
+    public boolean hasConstructorSiteConstructor() {
+        return constructorSiteConstructor != null && constructorSiteConstructor.get() != null;
+    }
+
+    public CachedClass getCachedClass() {
+        return clazz;
+    }
 }
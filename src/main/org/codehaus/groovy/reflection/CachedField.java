@@ -17,14 +17,20 @@ package org.codehaus.groovy.reflection;
 
 import groovy.lang.GroovyRuntimeException;
 import groovy.lang.MetaProperty;
+import org.codehaus.groovy.runtime.callsite.CallSiteGenerator;
+import org.codehaus.groovy.runtime.callsite.PropertyAccessor;
 import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
 
+import java.lang.ref.SoftReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 
 public class CachedField extends MetaProperty {
     public final Field field;
 
+    private SoftReference<PropertyAccessor> propertyAccessor;
+    private boolean noPropertyAccessor;
+
     public CachedField(Field field) {
         super (field.getName(), field.getType());
         this.field = field;
@@ -43,6 +49,12 @@ public class CachedField extends MetaProperty {
      * @throws Exception if the property could not be evaluated
      */
     public Object getProperty(final Object object) {
+        if (isStatic() || field.getDeclaringClass().isInstance(object)) {
+            final PropertyAccessor accessor = getPropertyAccessor();
+            if (accessor != null)
+              return accessor.getProperty(object);
+        }
+
         try {
             return field.get(object);
         } catch (IllegalAccessException e) {
@@ -60,10 +72,41 @@ public class CachedField extends MetaProperty {
     public void setProperty(final Object object, Object newValue) {
         final Object goalValue = DefaultTypeTransformation.castToType(newValue, field.getType());
 
+        if ((goalValue != null || !field.getType().isPrimitive())
+                && !Modifier.isFinal(getModifiers())
+                && (isStatic() || field.getDeclaringClass().isInstance(object))) {
+            final PropertyAccessor accessor = getPropertyAccessor();
+            if (accessor != null) {
+                accessor.setProperty(object, goalValue);
+                return;
+            }
+        }
+
         try {
             field.set(object, goalValue);
         } catch (IllegalAccessException ex) {
             throw new GroovyRuntimeException("Cannot set the property '" + name + "'.", ex);
         }
     }
+
+    /**
+     * Returns an accessor reading and writing this field directly,
+     * or null if the field can't be accessed from generated code.
+     */
+    public PropertyAccessor getPropertyAccessor() {
+        if (noPropertyAccessor)
+          return null;
+
+        PropertyAccessor accessor = propertyAccessor == null ? null : propertyAccessor.get();
+        if (accessor == null) {
+            if (CallSiteGenerator.isAccessorCompilable(this))
+              accessor = CallSiteGenerator.compileFieldAccessor(this);
+
+            if (accessor != null)
+              propertyAccessor = new SoftReference<PropertyAccessor>(accessor);
+            else
+              noPropertyAccessor = true;
+        }
+        return accessor;
+    }
 }
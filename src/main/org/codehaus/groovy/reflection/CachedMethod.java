@@ -19,6 +19,7 @@ import groovy.lang.MetaClassImpl;
 import groovy.lang.MetaMethod;
 import org.codehaus.groovy.classgen.BytecodeHelper;
 import org.codehaus.groovy.runtime.InvokerInvocationException;
+import org.codehaus.groovy.runtime.MetaClassHelper;
 import org.codehaus.groovy.runtime.callsite.*;
 import org.codehaus.groovy.runtime.metaclass.MethodHelper;
 
@@ -41,6 +42,9 @@ public class CachedMethod extends MetaMethod implements Comparable {
 
     private SoftReference<Constructor> pogoCallSiteConstructor, pojoCallSiteConstructor, staticCallSiteConstructor;
 
+    private SoftReference<PropertyAccessor> propertyAccessor;
+    private boolean noPropertyAccessor;
+
     public CachedMethod(CachedClass clazz, Method method) {
         this.cachedMethod = method;
         this.cachedClass = clazz;
@@ -281,6 +285,69 @@ public class CachedMethod extends MetaMethod implements Comparable {
         return new StaticMetaMethodSite.StaticMetaMethodSiteNoUnwrapNoCoerce(site, metaClass, this, params);
     }
 
+    /**
+     * Returns an accessor calling this method directly, as getter if it has no parameters and as setter
+     * if it has one parameter, or null if the method can't be called from generated code.
+     */
+    public PropertyAccessor getPropertyAccessor() {
+        if (noPropertyAccessor)
+          return null;
+
+        PropertyAccessor accessor = propertyAccessor == null ? null : propertyAccessor.get();
+        if (accessor == null) {
+            if (CallSiteGenerator.isAccessorCompilable(this))
+              accessor = CallSiteGenerator.compileMethodAccessor(this);
+
+            if (accessor != null)
+              propertyAccessor = new SoftReference<PropertyAccessor>(accessor);
+            else
+              noPropertyAccessor = true;
+        }
+        return accessor;
+    }
+
+    /**
+     * Calls this method as property getter, wrapping exceptions like {@link #invoke(Object, Object[])} does.
+     */
+    public final Object invokeGetter(Object object) {
+        final PropertyAccessor accessor = getParamsCount() == 0 ? getPropertyAccessor() : null;
+        if (accessor == null)
+          return invoke(object, MetaClassHelper.EMPTY_ARRAY);
+
+        try {
+            return accessor.getProperty(object);
+        } catch (Throwable t) {
+            throw new InvokerInvocationException(t);
+        }
+    }
+
+    /**
+     * Calls this method as property setter through the generated accessor, wrapping exceptions
+     * like {@link #invoke(Object, Object[])} does. The method is not called and false is returned
+     * if there is no accessor or the value is not directly assignable to the parameter type.
+     */
+    public final boolean invokeSetterDirectly(Object object, Object value) {
+        if (getParamsCount() != 1)
+          return false;
+
+        final CachedClass parameterType = getParameterTypes()[0];
+        if (value != null)
+          value = parameterType.coerceArgument(value);
+        if (value == null ? parameterType.isPrimitive : !parameterType.isDirectlyAssignable(value))
+          return false;
+
+        final PropertyAccessor accessor = getPropertyAccessor();
+        if (accessor == null)
+          return false;
+
+        try {
+            accessor.setProperty(object, value);
+        } catch (Throwable t) {
+            throw new InvokerInvocationException(t);
+        }
+        return true;
+    }
+
     public boolean hasPogoCallSiteConstructor() {
         return pogoCallSiteConstructor != null && pogoCallSiteConstructor.get() != null;
     }
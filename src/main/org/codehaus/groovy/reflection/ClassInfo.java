@@ -30,9 +30,11 @@ import org.codehaus.groovy.util.ReferenceBundle;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -52,11 +54,17 @@ public class ClassInfo extends ManagedConcurrentMap.Entry<Class,ClassInfo> {
 
     private volatile int version;
 
-    private MetaClass strongMetaClass;
-    private ManagedReference<MetaClass> weakMetaClass;
+    // per method name versions, created on demand for the names call sites were linked for
+    private HashMap<String,MethodVersion> methodVersions;
+
+    // Both references are volatile so that getMetaClass() can read them without taking the lock.
+    // Writers always publish the new reference before clearing the other one,
+    // so a reader never sees both null while a meta class is being replaced.
+    private volatile MetaClass strongMetaClass;
+    private volatile ManagedReference<MetaClass> weakMetaClass;
     MetaMethod[] dgmMetaMethods = CachedClass.EMPTY;
     MetaMethod[] newMetaMethods = CachedClass.EMPTY;
-    private ManagedConcurrentMap perInstanceMetaClassMap;
+    private volatile ManagedConcurrentMap perInstanceMetaClassMap;
     
     private static ReferenceBundle softBundle = ReferenceBundle.getSoftBundle();
     private static final ClassInfoSet globalClassSet = new ClassInfoSet(softBundle);
@@ -76,8 +84,87 @@ public class ClassInfo extends ManagedConcurrentMap.Entry<Class,ClassInfo> {
         return version;
     }
 
+    /**
+     * Invalidates everything call sites cached for this class.
+     * Inside of a batch (see {@link #startBatch()}) the version is only changed when the batch finishes.
+     */
     public void incVersion() {
-        version++;
+        final Batch batch = currentBatch.get();
+        if (batch.depth > 0)
+          batch.classes.add(this);
+        else
+          version++;
+    }
+
+    /**
+     * Invalidates only what call sites cached for methods with the given name,
+     * sites linked to other methods of this class stay valid.
+     * Inside of a batch (see {@link #startBatch()}) the version is only changed when the batch finishes.
+     */
+    public void incVersion(String methodName) {
+        final MethodVersion methodVersion = findMethodVersion(methodName);
+        if (methodVersion == null)
+          return; // no call site depends on this name yet
+
+        final Batch batch = currentBatch.get();
+        if (batch.depth > 0)
+          batch.methods.add(methodVersion);
+        else
+          methodVersion.version++;
+    }
+
+    /**
+     * Returns version stamp for methods of this class with the given name.
+     * Call sites keep the stamp together with its value at link time and recheck it on every call.
+     */
+    public MethodVersion getMethodVersion(String methodName) {
+        lock();
+        try {
+            if (methodVersions == null)
+              methodVersions = new HashMap<String,MethodVersion>();
+
+            MethodVersion methodVersion = methodVersions.get(methodName);
+            if (methodVersion == null) {
+                methodVersion = new MethodVersion();
+                methodVersions.put(methodName, methodVersion);
+            }
+            return methodVersion;
+        } finally {
+            unlock();
+        }
+    }
+
+    private MethodVersion findMethodVersion(String methodName) {
+        lock();
+        try {
+            return methodVersions == null ? null : methodVersions.get(methodName);
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Starts a batch of meta class changes in the current thread.
+     * Version changes requested by {@link #incVersion()} and {@link #incVersion(String)} are collected
+     * and applied at once by the matching {@link #finishBatch()}, so call sites are invalidated
+     * once per batch instead of once per change. Batches may be nested.
+     */
+    public static void startBatch() {
+        currentBatch.get().depth++;
+    }
+
+    public static void finishBatch() {
+        final Batch batch = currentBatch.get();
+        if (--batch.depth > 0)
+          return;
+
+        for (ClassInfo info : batch.classes)
+          info.version++;
+        for (MethodVersion methodVersion : batch.methods)
+          methodVersion.version++;
+
+        batch.classes.clear();
+        batch.methods.clear();
     }
 
     public ExpandoMetaClass getModifiedExpando() {
@@ -133,16 +220,21 @@ public class ClassInfo extends ManagedConcurrentMap.Entry<Class,ClassInfo> {
     public void setWeakMetaClass(MetaClass answer) {
         version++;
 
-        strongMetaClass = null;
         if (answer == null) {
            weakMetaClass = null;
         } else {
            weakMetaClass = new ManagedReference<MetaClass> (softBundle,answer);
         }
+        strongMetaClass = null;
     }
 
     public MetaClass getMetaClassForClass() {
-        return strongMetaClass != null ? strongMetaClass : weakMetaClass == null ? null : weakMetaClass.get();
+        final MetaClass strong = strongMetaClass;
+        if (strong != null)
+          return strong;
+
+        final ManagedReference<MetaClass> weak = weakMetaClass;
+        return weak == null ? null : weak.get();
     }
 
     private MetaClass getMetaClassUnderLock() {
@@ -163,6 +255,10 @@ public class ClassInfo extends ManagedConcurrentMap.Entry<Class,ClassInfo> {
         return answer;
     }
 
+    /**
+     * Returns the meta class for the class.
+     * The lock is only taken when the meta class has to be created.
+     */
     public final MetaClass getMetaClass() {
         MetaClass answer = getMetaClassForClass();
         if (answer != null) return answer;
@@ -180,6 +276,10 @@ public class ClassInfo extends ManagedConcurrentMap.Entry<Class,ClassInfo> {
         if (instanceMetaClass != null)
             return instanceMetaClass;
 
+        final MetaClass answer = getMetaClassForClass();
+        if (answer != null)
+            return answer;
+
         lock();
         try {
             return getMetaClassUnderLock();
@@ -196,6 +296,10 @@ public class ClassInfo extends ManagedConcurrentMap.Entry<Class,ClassInfo> {
         return globalClassSet.fullSize();
     }
 
+    public static Collection<ClassInfo> getAllClassInfo () {
+        return (Collection<ClassInfo>) globalClassSet.values();
+    }
+
     public void finalizeRef() {
         setStrongMetaClass(null);
         cachedClassRef.clear();
@@ -263,24 +367,29 @@ public class ClassInfo extends ManagedConcurrentMap.Entry<Class,ClassInfo> {
     }
 
     public MetaClass getPerInstanceMetaClass(Object obj) {
-        if (perInstanceMetaClassMap == null)
+        final ManagedConcurrentMap map = perInstanceMetaClassMap;
+        if (map == null)
           return null;
 
-        return (MetaClass) perInstanceMetaClassMap.get(obj);
+        return (MetaClass) map.get(obj);
     }
 
     public void setPerInstanceMetaClass(Object obj, MetaClass metaClass) {
         version++;
 
         if (metaClass != null) {
-            if (perInstanceMetaClassMap == null)
-              perInstanceMetaClassMap = new ManagedConcurrentMap(ReferenceBundle.getWeakBundle()); 
+            ManagedConcurrentMap map = perInstanceMetaClassMap;
+            if (map == null) {
+              map = new ManagedConcurrentMap(ReferenceBundle.getWeakBundle());
+              perInstanceMetaClassMap = map;
+            }
 
-            perInstanceMetaClassMap.put(obj, metaClass);
+            map.put(obj, metaClass);
         }
         else {
-            if (perInstanceMetaClassMap != null) {
-              perInstanceMetaClassMap.remove(obj);
+            final ManagedConcurrentMap map = perInstanceMetaClassMap;
+            if (map != null) {
+              map.remove(obj);
             }
         }
     }
@@ -365,6 +474,29 @@ public class ClassInfo extends ManagedConcurrentMap.Entry<Class,ClassInfo> {
         }
     }
 
+    /**
+     * Version of all methods with the same name of one class
+     */
+    public static final class MethodVersion {
+        private volatile int version;
+
+        public int getVersion() {
+            return version;
+        }
+    }
+
+    private static final class Batch {
+        int depth;
+        final Set<ClassInfo> classes = new LinkedHashSet<ClassInfo>();
+        final Set<MethodVersion> methods = new LinkedHashSet<MethodVersion>();
+    }
+
+    private static final ThreadLocal<Batch> currentBatch = new ThreadLocal<Batch>() {
+        protected Batch initialValue() {
+            return new Batch();
+        }
+    };
+
     private static final ThreadLocal<LocalMap> localMap = new ThreadLocal<LocalMap> () {
         LocalMap recentThreadMap;
 
@@ -43,13 +43,17 @@ public class ClassLoaderForClassArtifacts extends ClassLoader {
         return super.loadClass(name);
     }
 
-    public synchronized String createClassName(Method method) {
+    public String createClassName(Method method) {
+        return createClassName(method.getName());
+    }
+
+    public synchronized String createClassName(String memberName) {
         final String name;
         final String clsName = klazz.get().getName();
         if (clsName.startsWith("java."))
-          name = clsName.replace('.','_') + "$" + method.getName();
+          name = clsName.replace('.','_') + "$" + memberName;
         else
-          name = clsName + "$" + method.getName();
+          name = clsName + "$" + memberName;
 
         if (!allocatedNames.contains(name)) {
           allocatedNames.add(name);
@@ -66,6 +70,10 @@ public class ClassLoaderForClassArtifacts extends ClassLoader {
     }
 
     public Constructor defineClassAndGetConstructor(final String name, final byte[] bytes) {
+        return defineClassAndGetConstructor(name, bytes, CallSite.class, MetaClassImpl.class, MetaMethod.class, Class[].class);
+    }
+
+    public Constructor defineClassAndGetConstructor(final String name, final byte[] bytes, Class... parameterTypes) {
         final Class cls = AccessController.doPrivileged( new PrivilegedAction<Class>(){
             public Class run() {
                 return define(name, bytes);
@@ -74,7 +82,7 @@ public class ClassLoaderForClassArtifacts extends ClassLoader {
 
         if (cls != null) {
             try {
-                return cls.getConstructor(CallSite.class, MetaClassImpl.class, MetaMethod.class, Class[].class);
+                return cls.getConstructor(parameterTypes);
             } catch (NoSuchMethodException e) { //
             }
         }
@@ -15,6 +15,8 @@
  */
 package org.codehaus.groovy.reflection;
 
+import org.codehaus.groovy.runtime.GeneratedClosure;
+
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.HashSet;
@@ -100,12 +102,14 @@ public class ReflectionUtils {
         }
         int depth = 0;
         try {
-            Class c;
+            Class c = null;
+            Class previous;
             // this super class stuff is for Java 1.4 support only
             // it isn't needed on a 5.0 VM
             Class sc;
             do {
                 do {
+                    previous = c;
                     c = (Class) magicMethod.invoke(null, depth++);
                     if (c != null) {
                         sc = c.getSuperclass();
@@ -113,7 +117,8 @@ public class ReflectionUtils {
                         sc = null;
                     }
                 } while (classShouldBeIgnored(c, extraIgnoredPackages)
-                    || superClassShouldBeIgnored(sc));
+                    || superClassShouldBeIgnored(sc)
+                    || isDirectClosureCall(c, previous));
             } while (c != null && matchLevel-- > 0);
             return c;
         } catch (Throwable t) {
@@ -121,6 +126,11 @@ public class ReflectionUtils {
         }
     }
 
+    // a closure called directly by Closure.call runs its doCall from its own doCallDirectly
+    private static boolean isDirectClosureCall(Class c, Class previous) {
+        return c != null && c == previous && GeneratedClosure.class.isAssignableFrom(c);
+    }
+
     private static boolean superClassShouldBeIgnored(Class sc) {
         return ((sc != null) && (sc.getPackage() != null) && "org.codehaus.groovy.runtime.callsite".equals(sc.getPackage().getName()));
     }
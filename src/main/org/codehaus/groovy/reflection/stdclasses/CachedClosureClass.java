@@ -8,6 +8,7 @@ import org.codehaus.groovy.reflection.ReflectionCache;
 public class CachedClosureClass extends CachedClass {
     private final Class[] parameterTypes;
     private final int maximumNumberOfParameters;
+    private final boolean directlyCallable;
 
     public CachedClosureClass(Class klazz, ClassInfo classInfo) {
         super(klazz, classInfo);
@@ -17,8 +18,13 @@ public class CachedClosureClass extends CachedClass {
         // set it to -1 for starters so parameterTypes will always get a type
         int _maximumNumberOfParameters = -1;
         Class[] _parameterTypes = null;
+        boolean _directlyCallable = false;
 
         for (int j = 0; j < methods.length; j++) {
+            if ("doCallDirectly".equals(methods[j].getName())) {
+                final Class[] pt = methods[j].getNativeParameterTypes();
+                _directlyCallable |= pt.length == 1 && pt[0] == Object[].class;
+            }
             if ("doCall".equals(methods[j].getName())) {
                 final Class[] pt = methods[j].getNativeParameterTypes();
                 if (pt.length > _maximumNumberOfParameters) {
@@ -32,6 +38,12 @@ public class CachedClosureClass extends CachedClass {
 
         maximumNumberOfParameters = _maximumNumberOfParameters;
         parameterTypes = _parameterTypes;
+
+        if (_directlyCallable) {
+            for (int i = 0; i < maximumNumberOfParameters; i++)
+                _directlyCallable &= parameterTypes[i] == Object.class;
+        }
+        directlyCallable = _directlyCallable;
     }
 
     public Class[] getParameterTypes() {
@@ -41,4 +53,14 @@ public class CachedClosureClass extends CachedClass {
     public int getMaximumNumberOfParameters() {
         return maximumNumberOfParameters;
     }
+
+    /**
+     * Closures compiled with untyped parameters override <code>doCallDirectly</code>
+     * to call their longest doCall method without the meta class.
+     *
+     * @return true if the class overrides <code>Closure.doCallDirectly</code>
+     */
+    public boolean isDirectlyCallable() {
+        return directlyCallable;
+    }
 }
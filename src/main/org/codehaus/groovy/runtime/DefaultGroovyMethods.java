@@ -32,6 +32,7 @@ import org.codehaus.groovy.runtime.metaclass.MissingPropertyExceptionNoStack;
 import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
 import org.codehaus.groovy.runtime.typehandling.GroovyCastException;
 import org.codehaus.groovy.runtime.typehandling.NumberMath;
+import org.codehaus.groovy.runtime.typehandling.NumberMathModificationInfo;
 import org.codehaus.groovy.tools.RootLoader;
 import org.w3c.dom.NodeList;
 
@@ -968,24 +969,68 @@ public class DefaultGroovyMethods extends DefaultGroovyMethodsSupport {
     public static Collection unique(Collection self) {
         if (self instanceof Set)
             return self;
-        List answer = new ArrayList();
-        NumberAwareComparator numberAwareComparator = new NumberAwareComparator();
+        List answer = uniqueByKey(self, self);
+        if (answer == null)
+            answer = uniqueByValues(self, self);
+        self.clear();
+        self.addAll(answer);
+        return self;
+    }
+
+    /**
+     * Removes duplicates in linear time by comparing canonical keys of the values,
+     * see {@link NumberAwareKeys}.
+     *
+     * @param self   the items
+     * @param values the values to compare, one for each item
+     * @return the unique items, or null if some value has no key
+     */
+    private static List uniqueByKey(Collection self, Collection values) {
+        final NumberAwareKeys keys = new NumberAwareKeys();
+        final Set seen = new HashSet();
+        final List answer = new ArrayList();
+        Iterator valueIter = values.iterator();
         for (Iterator it = self.iterator(); it.hasNext();) {
             Object o = it.next();
+            Object key = keys.keyFor(valueIter.next());
+            if (key == null)
+                return null;
+            if (seen.add(key))
+                answer.add(o);
+        }
+        return answer;
+    }
+
+    /**
+     * Removes duplicates by comparing the values with a {@link NumberAwareComparator},
+     * for values {@link #uniqueByKey} has no keys for.
+     *
+     * @param self   the items
+     * @param values the values to compare, one for each item
+     * @return the unique items
+     */
+    private static List uniqueByValues(Collection self, Collection values) {
+        final NumberAwareComparator numberAwareComparator = new NumberAwareComparator();
+        final List answer = new ArrayList();
+        final List answerValues = new ArrayList();
+        Iterator valueIter = values.iterator();
+        for (Iterator it = self.iterator(); it.hasNext();) {
+            Object o = it.next();
+            Object value = valueIter.next();
             boolean duplicated = false;
-            for (Iterator it2 = answer.iterator(); it2.hasNext();) {
-                Object o2 = it2.next();
-                if (numberAwareComparator.compare(o, o2) == 0) {
+            for (Iterator it2 = answerValues.iterator(); it2.hasNext();) {
+                Object value2 = it2.next();
+                if (numberAwareComparator.compare(value, value2) == 0) {
                     duplicated = true;
                     break;
                 }
             }
-            if (!duplicated)
+            if (!duplicated) {
                 answer.add(o);
+                answerValues.add(value);
+            }
         }
-        self.clear();
-        self.addAll(answer);
-        return self;
+        return answer;
     }
 
     /**
@@ -1037,7 +1082,14 @@ public class DefaultGroovyMethods extends DefaultGroovyMethodsSupport {
         // use a comparator of one item or two
         int params = closure.getMaximumNumberOfParameters();
         if (params == 1) {
-            unique(self, new OrderBy(closure));
+            List values = new ArrayList(self.size());
+            for (Iterator it = self.iterator(); it.hasNext();)
+                values.add(closure.call(it.next()));
+            List answer = uniqueByKey(self, values);
+            if (answer == null)
+                answer = uniqueByValues(self, values);
+            self.clear();
+            self.addAll(answer);
         } else {
             unique(self, new ClosureComparator(closure));
         }
@@ -2057,6 +2109,10 @@ public class DefaultGroovyMethods extends DefaultGroovyMethodsSupport {
     }
 
     private static Object sum(Collection self, Object initialValue, boolean first) {
+        Object primitiveSum = sumOfSameNumbers(self, initialValue, first);
+        if (primitiveSum != null) {
+            return primitiveSum;
+        }
         Object result = initialValue;
         Object[] param = new Object[1];
         for (Iterator iter = self.iterator(); iter.hasNext();) {
@@ -2072,6 +2128,160 @@ public class DefaultGroovyMethods extends DefaultGroovyMethodsSupport {
         return result;
     }
 
+    /**
+     * Adds up Integers, Longs or Doubles in primitives, if all values and the initial value
+     * are of the same of these classes and plus was not replaced for it, neither through a
+     * metaclass nor a category. The results are the same as of calling plus for each value,
+     * like Integers overflowing to an Integer.
+     *
+     * @return the sum or null if the values can't be added up in primitives
+     */
+    private static Object sumOfSameNumbers(Collection self, Object initialValue, boolean first) {
+        if (GroovyCategorySupport.hasCategoryInCurrentThread()) return null;
+        // the first value is returned as it is if there's nothing to add
+        if (first ? self.size() < 2 : self.isEmpty()) return null;
+        Iterator iter = self.iterator();
+        Object start = first ? iter.next() : initialValue;
+        if (start == null) return null;
+        Class type = start.getClass();
+        for (Iterator values = self.iterator(); values.hasNext();) {
+            Object value = values.next();
+            if (value == null || value.getClass() != type) return null;
+        }
+        NumberMathModificationInfo modified = NumberMathModificationInfo.instance;
+        if (type == Integer.class && !modified.int_plus) {
+            int sum = ((Integer) start).intValue();
+            while (iter.hasNext()) {
+                sum += ((Integer) iter.next()).intValue();
+            }
+            return Integer.valueOf(sum);
+        }
+        if (type == Long.class && !modified.long_plus) {
+            long sum = ((Long) start).longValue();
+            while (iter.hasNext()) {
+                sum += ((Long) iter.next()).longValue();
+            }
+            return new Long(sum);
+        }
+        if (type == Double.class && !modified.double_plus) {
+            double sum = ((Double) start).doubleValue();
+            while (iter.hasNext()) {
+                sum += ((Double) iter.next()).doubleValue();
+            }
+            return new Double(sum);
+        }
+        return null;
+    }
+
+    /**
+     * Sums the items in an int array. Like adding Integers, the sum
+     * overflows if it doesn't fit into an int.
+     * <pre class="groovyTestCase">assert ([1, 2, 3] as int[]).sum() == 6</pre>
+     *
+     * @param self an int array
+     * @return the sum of all of the items, 0 for an empty array
+     * @since 1.7
+     */
+    public static int sum(int[] self) {
+        int sum = 0;
+        for (int i = 0; i < self.length; i++) {
+            sum += self[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Sums the items in a long array.
+     * <pre class="groovyTestCase">assert ([1, 2, 3] as long[]).sum() == 6L</pre>
+     *
+     * @param self a long array
+     * @return the sum of all of the items, 0 for an empty array
+     * @since 1.7
+     */
+    public static long sum(long[] self) {
+        long sum = 0;
+        for (int i = 0; i < self.length; i++) {
+            sum += self[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Sums the items in a double array.
+     * <pre class="groovyTestCase">assert ([1.5, 2.5] as double[]).sum() == 4.0d</pre>
+     *
+     * @param self a double array
+     * @return the sum of all of the items, 0 for an empty array
+     * @since 1.7
+     */
+    public static double sum(double[] self) {
+        double sum = 0;
+        for (int i = 0; i < self.length; i++) {
+            sum += self[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Averages the items in a collection. This is equivalent to
+     * <code>coll.sum() / coll.size()</code>.
+     * <pre class="groovyTestCase">assert [1, 2, 4].average() == 7 / 3</pre>
+     *
+     * @param self a Collection of values to average
+     * @return the average of all of the items, or null for an empty collection
+     * @since 1.7
+     */
+    public static Object average(Collection self) {
+        if (self.isEmpty()) return null;
+        Object sum = sum(self);
+        return InvokerHelper.invokeMethod(sum, "div", Integer.valueOf(self.size()));
+    }
+
+    /**
+     * Averages the items in an int array. Like dividing Integers,
+     * the average is a BigDecimal.
+     * <pre class="groovyTestCase">assert ([1, 2, 4] as int[]).average() == 7 / 3</pre>
+     *
+     * @param self a int array
+     * @return the average of all of the items, or null for an empty array
+     * @since 1.7
+     */
+    public static BigDecimal average(int[] self) {
+        if (self.length == 0) return null;
+        long sum = 0;
+        for (int i = 0; i < self.length; i++) {
+            sum += self[i];
+        }
+        return (BigDecimal) NumberMath.divide(new Long(sum), Integer.valueOf(self.length));
+    }
+
+    /**
+     * Averages the items in a long array. Like dividing Longs,
+     * the average is a BigDecimal.
+     * <pre class="groovyTestCase">assert ([1, 2, 4] as long[]).average() == 7 / 3</pre>
+     *
+     * @param self a long array
+     * @return the average of all of the items, or null for an empty array
+     * @since 1.7
+     */
+    public static BigDecimal average(long[] self) {
+        if (self.length == 0) return null;
+        return (BigDecimal) NumberMath.divide(new Long(sum(self)), Integer.valueOf(self.length));
+    }
+
+    /**
+     * Averages the items in a double array.
+     * <pre class="groovyTestCase">assert ([1.5, 2.5] as double[]).average() == 2.0d</pre>
+     *
+     * @param self a double array
+     * @return the average of all of the items, or null for an empty array
+     * @since 1.7
+     */
+    public static Double average(double[] self) {
+        if (self.length == 0) return null;
+        return new Double(sum(self) / self.length);
+    }
+
     /**
      * Sums the result of apply a closure to each item of a collection.
      * <code>coll.sum(closure)</code> is equivalent to:
@@ -2476,6 +2686,122 @@ public class DefaultGroovyMethods extends DefaultGroovyMethodsSupport {
         return max(toList(self), comparator);
     }
 
+    /**
+     * Selects the minimum value of an int array.
+     * <pre class="groovyTestCase">assert ([3, 1, 2] as int[]).min() == 1</pre>
+     *
+     * @param self a int array
+     * @return the minimum value or null for an empty array
+     * @since 1.7
+     */
+    public static Integer min(int[] self) {
+        if (self.length == 0) return null;
+        int answer = self[0];
+        for (int i = 1; i < self.length; i++) {
+            if (self[i] < answer) {
+                answer = self[i];
+            }
+        }
+        return Integer.valueOf(answer);
+    }
+
+    /**
+     * Selects the maximum value of an int array.
+     * <pre class="groovyTestCase">assert ([3, 1, 2] as int[]).max() == 3</pre>
+     *
+     * @param self a int array
+     * @return the maximum value or null for an empty array
+     * @since 1.7
+     */
+    public static Integer max(int[] self) {
+        if (self.length == 0) return null;
+        int answer = self[0];
+        for (int i = 1; i < self.length; i++) {
+            if (self[i] > answer) {
+                answer = self[i];
+            }
+        }
+        return Integer.valueOf(answer);
+    }
+
+    /**
+     * Selects the minimum value of a long array.
+     * <pre class="groovyTestCase">assert ([3, 1, 2] as long[]).min() == 1</pre>
+     *
+     * @param self a long array
+     * @return the minimum value or null for an empty array
+     * @since 1.7
+     */
+    public static Long min(long[] self) {
+        if (self.length == 0) return null;
+        long answer = self[0];
+        for (int i = 1; i < self.length; i++) {
+            if (self[i] < answer) {
+                answer = self[i];
+            }
+        }
+        return new Long(answer);
+    }
+
+    /**
+     * Selects the maximum value of a long array.
+     * <pre class="groovyTestCase">assert ([3, 1, 2] as long[]).max() == 3</pre>
+     *
+     * @param self a long array
+     * @return the maximum value or null for an empty array
+     * @since 1.7
+     */
+    public static Long max(long[] self) {
+        if (self.length == 0) return null;
+        long answer = self[0];
+        for (int i = 1; i < self.length; i++) {
+            if (self[i] > answer) {
+                answer = self[i];
+            }
+        }
+        return new Long(answer);
+    }
+
+    /**
+     * Selects the minimum value of a double array. Like for Doubles,
+     * NaN is greater than all other values.
+     * <pre class="groovyTestCase">assert ([3, 1, 2] as double[]).min() == 1</pre>
+     *
+     * @param self a double array
+     * @return the minimum value or null for an empty array
+     * @since 1.7
+     */
+    public static Double min(double[] self) {
+        if (self.length == 0) return null;
+        double answer = self[0];
+        for (int i = 1; i < self.length; i++) {
+            if (Double.compare(self[i], answer) < 0) {
+                answer = self[i];
+            }
+        }
+        return new Double(answer);
+    }
+
+    /**
+     * Selects the maximum value of a double array. Like for Doubles,
+     * NaN is greater than all other values.
+     * <pre class="groovyTestCase">assert ([3, 1, 2] as double[]).max() == 3</pre>
+     *
+     * @param self a double array
+     * @return the maximum value or null for an empty array
+     * @since 1.7
+     */
+    public static Double max(double[] self) {
+        if (self.length == 0) return null;
+        double answer = self[0];
+        for (int i = 1; i < self.length; i++) {
+            if (Double.compare(self[i], answer) > 0) {
+                answer = self[i];
+            }
+        }
+        return new Double(answer);
+    }
+
     /**
      * Provide the standard Groovy <code>size()</code> method for <code>Iterator</code>.
      * The iterator will become exhausted of elements after determining the size value.
@@ -4287,9 +4613,99 @@ public class DefaultGroovyMethods extends DefaultGroovyMethodsSupport {
         return true;
     }
 
+    // Canonical keys for values, such that two keys are equal if and only if the
+    // values are equal according to the NumberAwareComparator, e.g. 1, 1L, 1.0 and 1.0G
+    // all get the key 1L. Values for which this can't be guaranteed have no key.
+    // Values of unrelated types, which the comparator only considers equal if their
+    // hash codes happen to match, get different keys.
+    static final class NumberAwareKeys {
+        private static final Object NULL_KEY = new Object();
+        private static final double EXACT_DOUBLE_LIMIT = 9007199254740992.0; // 2^53
+
+        // doubles are compared with Double.compare, big decimals with fractions exactly,
+        // but a big decimal close to a double equals it, so they can't be mixed
+        private boolean doubles, decimalFractions;
+        // GStrings compare their text with anything, so they can only be mixed with strings
+        private boolean gstrings, others;
+
+        Object keyFor(Object value) {
+            if (value == null)
+                return NULL_KEY;
+            if (value instanceof String)
+                return stringKey((String) value);
+            if (value instanceof GString) {
+                gstrings = true;
+                return others ? null : stringKey(value.toString());
+            }
+
+            others = true;
+            if (gstrings)
+                return null;
+            if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)
+                return Long.valueOf(((Number) value).longValue());
+            if (value instanceof Character)
+                return Long.valueOf(((Character) value).charValue());
+            if (value instanceof BigInteger)
+                return integralKey((BigInteger) value);
+            if (value instanceof BigDecimal) {
+                BigDecimal decimal = (BigDecimal) value;
+                if (decimal.signum() == 0)
+                    return Long.valueOf(0);
+                decimal = decimal.stripTrailingZeros();
+                if (decimal.scale() <= 0)
+                    return integralKey(decimal.toBigInteger());
+                decimalFractions = true;
+                return doubles ? null : decimal;
+            }
+            if (value instanceof Double || value instanceof Float) {
+                doubles = true;
+                double d = ((Number) value).doubleValue();
+                if (decimalFractions || Double.isInfinite(d) || Math.abs(d) >= EXACT_DOUBLE_LIMIT)
+                    return null;
+                // -0.0 is less than 0 and NaN only equals NaN
+                if (d == Math.floor(d) && (d != 0 || 1 / d > 0))
+                    return Long.valueOf((long) d);
+                return Double.valueOf(d);
+            }
+            if (value instanceof Number)
+                return null;
+            if (value instanceof Boolean || value instanceof Enum || value.getClass() == Date.class)
+                return value;
+            if (!(value instanceof Comparable))
+                return new HashCodeKey(value.hashCode());
+            return null;
+        }
+
+        // a one character string equals the character, which equals its code
+        private static Object stringKey(String s) {
+            return s.length() == 1 ? Long.valueOf(s.charAt(0)) : s;
+        }
+
+        private static Object integralKey(BigInteger value) {
+            return value.bitLength() < 64 ? Long.valueOf(value.longValue()) : value;
+        }
+    }
+
+    // objects without compareTo are equal if their hash codes are
+    private static final class HashCodeKey {
+        private final int hash;
+
+        HashCodeKey(int hash) {
+            this.hash = hash;
+        }
+
+        public boolean equals(Object obj) {
+            return obj instanceof HashCodeKey && ((HashCodeKey) obj).hash == hash;
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+    }
+
     // Default comparator for objects accounting for numbers of different types.
     // Also handles nulls. Null is less than everything else.
-    private static class NumberAwareComparator implements Comparator {
+    static class NumberAwareComparator implements Comparator {
         public int compare(Object o1, Object o2) {
             try {
                 return DefaultTypeTransformation.compareTo(o1, o2);
@@ -11842,14 +12258,7 @@ public class DefaultGroovyMethods extends DefaultGroovyMethodsSupport {
               return mc;
         }
         else {
-            ClassInfo info = ClassInfo.getClassInfo(object.getClass());
-            info.lock();
-            try {
-                return info.getPerInstanceMetaClass(object);
-            }
-            finally {
-                info.unlock();
-            }
+            return ClassInfo.getClassInfo(object.getClass()).getPerInstanceMetaClass(object);
         }
     }
 
@@ -11968,6 +12377,21 @@ public class DefaultGroovyMethods extends DefaultGroovyMethodsSupport {
         return DefaultTypeTransformation.asCollection(o).iterator();
     }
 
+    /**
+     * Returns a lazy view of the elements of this object, whose methods like
+     * <code>findAll</code>, <code>collect</code> or <code>take</code> are applied
+     * to the elements one at a time, without creating intermediate lists.
+     * <pre>def firstBig = (1..1000000).lazy().collect { it * it }.findAll { it > 1000 }.first()</pre>
+     *
+     * @param self a collection, array, iterator or other object which can be iterated
+     * @return a lazy view of the elements
+     * @see LazyIterable
+     * @since 1.7
+     */
+    public static LazyIterable lazy(Object self) {
+        return new LazyIterable(self);
+    }
+
     /**
      * Allows an Enumeration to behave like an Iterator.  Note that the
      * {@link Iterator#remove() remove()} method is unsupported since the
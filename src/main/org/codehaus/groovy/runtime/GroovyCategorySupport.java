@@ -34,11 +34,19 @@ public class GroovyCategorySupport {
 
     private static AtomicInteger categoriesInUse = new AtomicInteger();
 
+    private static final AtomicInteger categoryMethodListVersion = new AtomicInteger();
+
     public static class CategoryMethodList extends ArrayList<CategoryMethod> {
         public final int level;
         final CategoryMethodList previous;
         final AtomicInteger usage;
 
+        /**
+         * Unique non-zero stamp of this list. A list is only filled while its scope is entered,
+         * so meta classes can use the stamp to cache method selection made with it.
+         */
+        public final int version = categoryMethodListVersion.incrementAndGet();
+
         public CategoryMethodList(String name, int level, CategoryMethodList previous) {
             this.level = level;
             this.previous = previous;
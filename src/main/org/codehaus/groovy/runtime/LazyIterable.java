@@ -0,0 +1,403 @@
+/*
+ * Copyright 2003-2009 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.runtime;
+
+import groovy.lang.Closure;
+import groovy.lang.MetaClass;
+import groovy.util.ClosureComparator;
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A lazy view of the elements of a collection, array, iterator or any other object
+ * which can be iterated, as returned by {@link DefaultGroovyMethods#lazy(Object)}.
+ * <pre>
+ * def errors = new File("server.log").readLines().lazy()
+ *         .findAll { it.contains("ERROR") }
+ *         .collect { it.substring(24) }
+ *         .take(10)
+ *         .toList()
+ * </pre>
+ * Methods like {@link #findAll(Closure)}, {@link #collect(Closure)} or {@link #take(int)}
+ * don't iterate, they return a new view with one more stage. The stages of a view are
+ * applied to each element in turn by a single iterator, so no intermediate lists are
+ * created and no more elements are taken from the source than needed, e.g.
+ * <code>list.lazy().findAll { it > 10 }.first()</code> stops at the first match.
+ * <p>
+ * A view is iterated again each time it is used, evaluating the closures again. Views of
+ * collections and arrays can be used several times, views of iterators only once.
+ */
+public class LazyIterable implements Iterable {
+
+    // returned by a stage to drop the element, or to stop the iteration
+    private static final Object SKIP = new Object();
+    private static final Object STOP = new Object();
+
+    private final Object source;
+    private final Step[] steps;
+
+    LazyIterable(Object source) {
+        this(source, new Step[0]);
+    }
+
+    private LazyIterable(Object source, Step[] steps) {
+        this.source = source;
+        this.steps = steps;
+    }
+
+    private LazyIterable then(Step step) {
+        Step[] answer = new Step[steps.length + 1];
+        System.arraycopy(steps, 0, answer, 0, steps.length);
+        answer[steps.length] = step;
+        return new LazyIterable(source, answer);
+    }
+
+    /**
+     * Transforms each element with the closure.
+     *
+     * @param closure the closure used to transform each element
+     * @return a lazy view of the transformed values
+     */
+    public LazyIterable collect(final Closure closure) {
+        return then(new Step() {
+            Object apply(Object value) {
+                return closure.call(value);
+            }
+        });
+    }
+
+    /**
+     * Keeps the elements matching the closure condition.
+     *
+     * @param closure a closure condition
+     * @return a lazy view of the matching elements
+     */
+    public LazyIterable findAll(final Closure closure) {
+        return then(new Step() {
+            Object apply(Object value) {
+                return DefaultTypeTransformation.castToBoolean(closure.call(value)) ? value : SKIP;
+            }
+        });
+    }
+
+    /**
+     * Keeps the elements matching the filter, using its <code>isCase</code> method
+     * like {@link DefaultGroovyMethods#grep(Object, Object)}.
+     *
+     * @param filter the filter, e.g. a pattern, class or range
+     * @return a lazy view of the matching elements
+     */
+    public LazyIterable grep(final Object filter) {
+        final MetaClass metaClass = InvokerHelper.getMetaClass(filter);
+        return then(new Step() {
+            Object apply(Object value) {
+                return DefaultTypeTransformation.castToBoolean(metaClass.invokeMethod(filter, "isCase", value)) ? value : SKIP;
+            }
+        });
+    }
+
+    /**
+     * Keeps the first <code>count</code> elements. No further elements are taken from the source.
+     *
+     * @param count the number of elements to keep
+     * @return a lazy view of at most <code>count</code> elements
+     */
+    public LazyIterable take(int count) {
+        return then(new TakeStep(count));
+    }
+
+    /**
+     * Skips the first <code>count</code> elements.
+     *
+     * @param count the number of elements to skip
+     * @return a lazy view of the remaining elements
+     */
+    public LazyIterable drop(int count) {
+        return then(new DropStep(count));
+    }
+
+    /**
+     * Keeps the elements up to the first one which doesn't match the closure condition.
+     * No further elements are taken from the source.
+     *
+     * @param closure a closure condition
+     * @return a lazy view of the leading matching elements
+     */
+    public LazyIterable takeWhile(final Closure closure) {
+        return then(new Step() {
+            Object apply(Object value) {
+                return DefaultTypeTransformation.castToBoolean(closure.call(value)) ? value : STOP;
+            }
+        });
+    }
+
+    /**
+     * Skips the elements up to the first one which doesn't match the closure condition.
+     *
+     * @param closure a closure condition
+     * @return a lazy view of the elements from the first one not matching on
+     */
+    public LazyIterable dropWhile(Closure closure) {
+        return then(new DropWhileStep(closure));
+    }
+
+    /**
+     * Removes duplicates using the default comparator, like
+     * {@link DefaultGroovyMethods#unique(java.util.Collection)}. The first of equal elements is kept.
+     *
+     * @return a lazy view of the unique elements
+     */
+    public LazyIterable unique() {
+        return then(new UniqueStep(null));
+    }
+
+    /**
+     * Removes duplicates using a closure, like
+     * {@link DefaultGroovyMethods#unique(java.util.Collection, Closure)}. If the closure takes
+     * a single parameter, elements are compared by the values it returns, otherwise the closure
+     * is used as a comparator. The first of equal elements is kept.
+     *
+     * @param closure a closure returning the value to compare, or comparing two elements
+     * @return a lazy view of the unique elements
+     */
+    public LazyIterable unique(Closure closure) {
+        return then(new UniqueStep(closure));
+    }
+
+    /**
+     * Returns the first element.
+     *
+     * @return the first element
+     * @throws NoSuchElementException if there are no elements
+     */
+    public Object first() {
+        Iterator it = iterator();
+        if (!it.hasNext())
+            throw new NoSuchElementException("Cannot access first() element from an empty sequence");
+        return it.next();
+    }
+
+    /**
+     * Evaluates the view.
+     *
+     * @return a list of the elements
+     */
+    public List toList() {
+        List answer = new ArrayList();
+        for (Iterator it = iterator(); it.hasNext();)
+            answer.add(it.next());
+        return answer;
+    }
+
+    /**
+     * Returns an iterator applying all stages to the elements of the source.
+     */
+    public Iterator iterator() {
+        Step[] started = new Step[steps.length];
+        for (int i = 0; i < steps.length; i++)
+            started[i] = steps[i].start();
+        return new FusedIterator(InvokerHelper.asIterator(source), started);
+    }
+
+    /**
+     * A stage of the view. Stages keeping state while iterating create a fresh copy in
+     * {@link #start()}, the others are shared by all iterators.
+     */
+    private static abstract class Step {
+        // set once the step won't let any more elements pass
+        boolean last;
+
+        Step start() {
+            return this;
+        }
+
+        abstract Object apply(Object value);
+    }
+
+    private static final class FusedIterator implements Iterator {
+        private final Iterator source;
+        private final Step[] steps;
+        private boolean done;
+        private boolean ready;
+        private Object next;
+
+        FusedIterator(Iterator source, Step[] steps) {
+            this.source = source;
+            this.steps = steps;
+            for (int i = 0; i < steps.length; i++)
+                done |= steps[i].last;
+        }
+
+        public boolean hasNext() {
+            while (!ready && !done && source.hasNext()) {
+                Object value = source.next();
+                int i = 0;
+                for (; i < steps.length; i++) {
+                    Step step = steps[i];
+                    value = step.apply(value);
+                    done |= step.last;
+                    if (value == SKIP)
+                        break;
+                    if (value == STOP) {
+                        done = true;
+                        break;
+                    }
+                }
+                if (i == steps.length) {
+                    next = value;
+                    ready = true;
+                }
+            }
+            return ready;
+        }
+
+        public Object next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            Object answer = next;
+            next = null;
+            ready = false;
+            return answer;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("Cannot remove() from a lazy view");
+        }
+    }
+
+    private static final class TakeStep extends Step {
+        private final int count;
+        private int remaining;
+
+        TakeStep(int count) {
+            this.count = count;
+        }
+
+        Step start() {
+            TakeStep step = new TakeStep(count);
+            step.remaining = count;
+            step.last = count <= 0;
+            return step;
+        }
+
+        Object apply(Object value) {
+            if (remaining <= 0)
+                return STOP;
+            last = --remaining == 0;
+            return value;
+        }
+    }
+
+    private static final class DropStep extends Step {
+        private final int count;
+        private int remaining;
+
+        DropStep(int count) {
+            this.count = count;
+        }
+
+        Step start() {
+            DropStep step = new DropStep(count);
+            step.remaining = count;
+            return step;
+        }
+
+        Object apply(Object value) {
+            if (remaining <= 0)
+                return value;
+            remaining--;
+            return SKIP;
+        }
+    }
+
+    private static final class DropWhileStep extends Step {
+        private final Closure closure;
+        private boolean dropping = true;
+
+        DropWhileStep(Closure closure) {
+            this.closure = closure;
+        }
+
+        Step start() {
+            return new DropWhileStep(closure);
+        }
+
+        Object apply(Object value) {
+            if (dropping && DefaultTypeTransformation.castToBoolean(closure.call(value)))
+                return SKIP;
+            dropping = false;
+            return value;
+        }
+    }
+
+    private static final class UniqueStep extends Step {
+        private final Closure closure;
+        // the closure returning the values to compare, if it isn't a comparator
+        private Closure valueClosure;
+        private Comparator comparator;
+        // canonical keys are used as long as all values have one, see DefaultGroovyMethods.unique
+        private DefaultGroovyMethods.NumberAwareKeys keys;
+        private Set seenKeys;
+        private List seen;
+
+        UniqueStep(Closure closure) {
+            this.closure = closure;
+        }
+
+        Step start() {
+            UniqueStep step = new UniqueStep(closure);
+            step.seen = new ArrayList();
+            if (closure != null && closure.getMaximumNumberOfParameters() != 1) {
+                step.comparator = new ClosureComparator(closure);
+            } else {
+                step.valueClosure = closure;
+                step.comparator = new DefaultGroovyMethods.NumberAwareComparator();
+                step.keys = new DefaultGroovyMethods.NumberAwareKeys();
+                step.seenKeys = new HashSet();
+            }
+            return step;
+        }
+
+        Object apply(Object item) {
+            Object value = valueClosure == null ? item : valueClosure.call(item);
+            if (keys != null) {
+                Object key = keys.keyFor(value);
+                if (key != null) {
+                    if (!seenKeys.add(key))
+                        return SKIP;
+                    seen.add(value);
+                    return item;
+                }
+                // the keys of later values might not match the earlier ones, compare with all of them
+                keys = null;
+                seenKeys = null;
+            }
+            for (Iterator it = seen.iterator(); it.hasNext();) {
+                if (comparator.compare(value, it.next()) == 0)
+                    return SKIP;
+            }
+            seen.add(value);
+            return item;
+        }
+    }
+}
@@ -636,6 +636,24 @@ public class ScriptBytecodeAdapter {
             }
             return new IntRange(ifrom, ito);
         }
+        if (from instanceof Long && to instanceof Long) {
+            long lto = (Long) to;
+            long lfrom = (Long) from;
+            if (!inclusive) {
+                if (lfrom == lto) {
+                    return new EmptyRange((Comparable) from);
+                }
+                if (lfrom > lto) {
+                    lto++;
+                } else {
+                    lto--;
+                }
+            }
+            if (LongRange.isSizeSupported(Math.min(lfrom, lto), Math.max(lfrom, lto))) {
+                return new LongRange(lfrom, lto);
+            }
+            return new ObjectRange((Comparable) from, Long.valueOf(lto));
+        }
         if (!inclusive) {
             if (compareEqual(from, to)) {
                 return new EmptyRange((Comparable) from);
@@ -18,10 +18,12 @@ package org.codehaus.groovy.runtime.callsite;
 import groovy.lang.*;
 import org.codehaus.groovy.reflection.CachedClass;
 import org.codehaus.groovy.reflection.CachedField;
+import org.codehaus.groovy.reflection.CachedMethod;
 import org.codehaus.groovy.reflection.ParameterTypes;
 import org.codehaus.groovy.runtime.ArrayUtil;
 import org.codehaus.groovy.runtime.GroovyCategorySupport;
 import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
 import org.codehaus.groovy.runtime.wrappers.Wrapper;
 
 import java.lang.reflect.Method;
@@ -136,6 +138,58 @@ public class AbstractCallSite implements CallSite {
         return call(receiver, ArrayUtil.createArray(arg1, arg2, arg3, arg4));
     }
 
+    // primitive argument variants box by default,
+    // generated call sites override them to invoke the target method without boxing.
+    // They are not part of CallSite, compiled code reaches them through CallSiteArray.call
+
+    public Object call (Object receiver, int arg1) throws Throwable {
+        return call(receiver, DefaultTypeTransformation.box(arg1));
+    }
+
+    public Object call (Object receiver, int arg1, int arg2) throws Throwable {
+        return call(receiver, DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2));
+    }
+
+    public Object call (Object receiver, int arg1, int arg2, int arg3) throws Throwable {
+        return call(receiver, DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2), DefaultTypeTransformation.box(arg3));
+    }
+
+    public Object call (Object receiver, long arg1) throws Throwable {
+        return call(receiver, DefaultTypeTransformation.box(arg1));
+    }
+
+    public Object call (Object receiver, long arg1, long arg2) throws Throwable {
+        return call(receiver, DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2));
+    }
+
+    public Object call (Object receiver, long arg1, long arg2, long arg3) throws Throwable {
+        return call(receiver, DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2), DefaultTypeTransformation.box(arg3));
+    }
+
+    public Object call (Object receiver, double arg1) throws Throwable {
+        return call(receiver, DefaultTypeTransformation.box(arg1));
+    }
+
+    public Object call (Object receiver, double arg1, double arg2) throws Throwable {
+        return call(receiver, DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2));
+    }
+
+    public Object call (Object receiver, double arg1, double arg2, double arg3) throws Throwable {
+        return call(receiver, DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2), DefaultTypeTransformation.box(arg3));
+    }
+
+    public Object call (Object receiver, boolean arg1) throws Throwable {
+        return call(receiver, DefaultTypeTransformation.box(arg1));
+    }
+
+    public Object call (Object receiver, boolean arg1, boolean arg2) throws Throwable {
+        return call(receiver, DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2));
+    }
+
+    public Object call (Object receiver, boolean arg1, boolean arg2, boolean arg3) throws Throwable {
+        return call(receiver, DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2), DefaultTypeTransformation.box(arg3));
+    }
+
 
 
     public Object callCurrent (GroovyObject receiver, Object [] args) throws Throwable {
@@ -276,6 +330,7 @@ public class AbstractCallSite implements CallSite {
     }
 
     private CallSite createPojoMetaClassGetPropertySite(Object receiver) {
+        final Class receiverClass = receiver.getClass();
         final MetaClass metaClass = InvokerHelper.getMetaClass(receiver);
 
         CallSite site;
@@ -295,17 +350,30 @@ public class AbstractCallSite implements CallSite {
             }
         }
 
-        array.array[index] = site;
+        linkSite(receiverClass, site);
         return site;
     }
 
+    /**
+     * Returns the generated accessor for the getter of the given property, if there is one.
+     */
+    static PropertyAccessor getGetterAccessor(MetaProperty effective) {
+        if (effective instanceof MetaBeanProperty) {
+            final MetaMethod getter = ((MetaBeanProperty) effective).getGetter();
+            if (getter instanceof CachedMethod && ((CachedMethod) getter).getParamsCount() == 0)
+              return ((CachedMethod) getter).getPropertyAccessor();
+        }
+        return null;
+    }
+
     private CallSite createClassMetaClassGetPropertySite(Class aClass) {
         CallSite site = new ClassMetaClassGetPropertySite(this, aClass);
-        array.array[index] = site;
+        linkSite(aClass, site);
         return site;
     }
 
     private CallSite createPogoMetaClassGetPropertySite(GroovyObject receiver) {
+        final Class receiverClass = receiver.getClass();
         final MetaClass metaClass = receiver.getMetaClass();
 
         CallSite site;
@@ -325,16 +393,22 @@ public class AbstractCallSite implements CallSite {
             }
         }
 
-        array.array[index] = site;
+        linkSite(receiverClass, site);
         return site;
     }
 
     private CallSite createPogoGetPropertySite(Class aClass) {
         CallSite site = new PogoGetPropertySite(this, aClass);
-        array.array[index] = site;
+        linkSite(aClass, site);
         return site;
     }
 
+    private void linkSite(Class receiverClass, CallSite site) {
+        if (CallSiteStatistics.isEnabled())
+          CallSiteStatistics.siteSelected(this, receiverClass, site);
+        array.array[index] = site;
+    }
+
     public final Object callGetPropertySafe (Object receiver) throws Throwable {
         if (receiver == null)
           return null;
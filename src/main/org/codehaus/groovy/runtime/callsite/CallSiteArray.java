@@ -23,6 +23,7 @@ import groovy.lang.GroovyObject;
 import org.codehaus.groovy.runtime.InvokerHelper;
 import org.codehaus.groovy.runtime.NullObject;
 import org.codehaus.groovy.runtime.ScriptBytecodeAdapter;
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
 import org.codehaus.groovy.reflection.ClassInfo;
 
 public final class CallSiteArray {
@@ -31,9 +32,13 @@ public final class CallSiteArray {
     public static final Object [] NOPARAM = new Object[0];
     public final Class owner;
 
+    // receiver class of the monomorphic site currently installed in the slot, if any
+    private final Class[] receivers;
+
     public CallSiteArray(Class owner, String [] names) {
         this.owner = owner;
         array = new CallSite[names.length];
+        receivers = new Class[names.length];
         for (int i = 0; i < array.length; i++) {
             array[i] = new AbstractCallSite(this, i, names[i]);
         }
@@ -55,6 +60,82 @@ public final class CallSiteArray {
         return createCallConstructorSite(callSite, (Class) receiver, args).callConstructor(receiver, args);
     }
 
+    // Calls with 1 to 3 arguments of the same primitive type are compiled into calls of these methods.
+    // The primitive variants are only declared by AbstractCallSite, so that CallSite
+    // implementations outside of Groovy keep compiling; those get boxed arguments.
+
+    public static Object call(CallSite callSite, Object receiver, int arg1) throws Throwable {
+        if (callSite instanceof AbstractCallSite)
+          return ((AbstractCallSite) callSite).call(receiver, arg1);
+        return callSite.call(receiver, DefaultTypeTransformation.box(arg1));
+    }
+
+    public static Object call(CallSite callSite, Object receiver, int arg1, int arg2) throws Throwable {
+        if (callSite instanceof AbstractCallSite)
+          return ((AbstractCallSite) callSite).call(receiver, arg1, arg2);
+        return callSite.call(receiver, DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2));
+    }
+
+    public static Object call(CallSite callSite, Object receiver, int arg1, int arg2, int arg3) throws Throwable {
+        if (callSite instanceof AbstractCallSite)
+          return ((AbstractCallSite) callSite).call(receiver, arg1, arg2, arg3);
+        return callSite.call(receiver, DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2), DefaultTypeTransformation.box(arg3));
+    }
+
+    public static Object call(CallSite callSite, Object receiver, long arg1) throws Throwable {
+        if (callSite instanceof AbstractCallSite)
+          return ((AbstractCallSite) callSite).call(receiver, arg1);
+        return callSite.call(receiver, DefaultTypeTransformation.box(arg1));
+    }
+
+    public static Object call(CallSite callSite, Object receiver, long arg1, long arg2) throws Throwable {
+        if (callSite instanceof AbstractCallSite)
+          return ((AbstractCallSite) callSite).call(receiver, arg1, arg2);
+        return callSite.call(receiver, DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2));
+    }
+
+    public static Object call(CallSite callSite, Object receiver, long arg1, long arg2, long arg3) throws Throwable {
+        if (callSite instanceof AbstractCallSite)
+          return ((AbstractCallSite) callSite).call(receiver, arg1, arg2, arg3);
+        return callSite.call(receiver, DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2), DefaultTypeTransformation.box(arg3));
+    }
+
+    public static Object call(CallSite callSite, Object receiver, double arg1) throws Throwable {
+        if (callSite instanceof AbstractCallSite)
+          return ((AbstractCallSite) callSite).call(receiver, arg1);
+        return callSite.call(receiver, DefaultTypeTransformation.box(arg1));
+    }
+
+    public static Object call(CallSite callSite, Object receiver, double arg1, double arg2) throws Throwable {
+        if (callSite instanceof AbstractCallSite)
+          return ((AbstractCallSite) callSite).call(receiver, arg1, arg2);
+        return callSite.call(receiver, DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2));
+    }
+
+    public static Object call(CallSite callSite, Object receiver, double arg1, double arg2, double arg3) throws Throwable {
+        if (callSite instanceof AbstractCallSite)
+          return ((AbstractCallSite) callSite).call(receiver, arg1, arg2, arg3);
+        return callSite.call(receiver, DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2), DefaultTypeTransformation.box(arg3));
+    }
+
+    public static Object call(CallSite callSite, Object receiver, boolean arg1) throws Throwable {
+        if (callSite instanceof AbstractCallSite)
+          return ((AbstractCallSite) callSite).call(receiver, arg1);
+        return callSite.call(receiver, DefaultTypeTransformation.box(arg1));
+    }
+
+    public static Object call(CallSite callSite, Object receiver, boolean arg1, boolean arg2) throws Throwable {
+        if (callSite instanceof AbstractCallSite)
+          return ((AbstractCallSite) callSite).call(receiver, arg1, arg2);
+        return callSite.call(receiver, DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2));
+    }
+
+    public static Object call(CallSite callSite, Object receiver, boolean arg1, boolean arg2, boolean arg3) throws Throwable {
+        if (callSite instanceof AbstractCallSite)
+          return ((AbstractCallSite) callSite).call(receiver, arg1, arg2, arg3);
+        return callSite.call(receiver, DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2), DefaultTypeTransformation.box(arg3));
+    }
+
     private static CallSite createCallStaticSite(CallSite callSite, Class receiver, Object[] args) {
         CallSite site;
         MetaClass metaClass = InvokerHelper.getMetaClass(receiver);
@@ -64,7 +145,7 @@ public final class CallSiteArray {
         else
           site = new StaticMetaClassSite(callSite, metaClass);
 
-        replaceCallSite(callSite, site);
+        replaceCallSite(callSite, receiver, site);
         return site;
     }
 
@@ -78,7 +159,7 @@ public final class CallSiteArray {
        else
          site = new MetaClassConstructorSite(callSite, metaClass);
 
-        replaceCallSite(callSite, site);
+        replaceCallSite(callSite, receiver, site);
         return site;
     }
 
@@ -95,7 +176,7 @@ public final class CallSiteArray {
               site = new PogoMetaClassSite(callSite, metaClass);
         }
 
-        replaceCallSite(callSite, site);
+        replaceCallSite(callSite, receiver.getClass(), site);
         return site;
     }
 
@@ -139,18 +220,54 @@ public final class CallSiteArray {
           return new NullCallSite(callSite);
 
         if (receiver instanceof Class)
-          site = createCallStaticSite(callSite, (Class) receiver, args);
-        else if (receiver instanceof GroovyObject) {
+          return createCallStaticSite(callSite, (Class) receiver, args);
+
+        if (receiver instanceof GroovyObject) {
             site = createPogoSite(callSite, receiver, args);
         } else {
             site = createPojoSite(callSite, receiver, args);
         }
 
-        replaceCallSite(callSite, site);
+        cacheCallSite(callSite, receiver.getClass(), site);
         return site;
     }
 
-    private static void replaceCallSite(CallSite oldSite, CallSite newSite) {
-        oldSite.getArray().array [oldSite.getIndex()] = newSite;
+    private static void replaceCallSite(CallSite oldSite, Class receiverClass, CallSite newSite) {
+        if (CallSiteStatistics.isEnabled())
+          CallSiteStatistics.siteSelected(oldSite, receiverClass, newSite);
+
+        final CallSiteArray callSiteArray = oldSite.getArray();
+        final int index = oldSite.getIndex();
+        callSiteArray.array [index] = newSite;
+        callSiteArray.receivers [index] = null;
+    }
+
+    // the first receiver class gets a plain monomorphic site,
+    // further classes turn the slot into a bounded polymorphic inline cache
+    private static void cacheCallSite(CallSite oldSite, Class receiverClass, CallSite newSite) {
+        if (CallSiteStatistics.isEnabled())
+          CallSiteStatistics.siteSelected(oldSite, receiverClass, newSite);
+
+        final CallSiteArray callSiteArray = oldSite.getArray();
+        final int index = oldSite.getIndex();
+        final CallSite current = callSiteArray.array [index];
+
+        if (current instanceof PolymorphicCallSite) {
+            ((PolymorphicCallSite) current).cache(receiverClass, newSite);
+            return;
+        }
+
+        final Class currentClass = callSiteArray.receivers [index];
+        if (currentClass != null && currentClass != receiverClass) {
+            final PolymorphicCallSite pic = new PolymorphicCallSite(current);
+            pic.cache(currentClass, current);
+            pic.cache(receiverClass, newSite);
+            callSiteArray.array [index] = pic;
+            callSiteArray.receivers [index] = null;
+        }
+        else {
+            callSiteArray.array [index] = newSite;
+            callSiteArray.receivers [index] = receiverClass;
+        }
     }
 }
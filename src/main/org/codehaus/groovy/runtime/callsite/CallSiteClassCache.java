@@ -0,0 +1,219 @@
+/*
+ * Copyright 2003-2009 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.runtime.callsite;
+
+import org.codehaus.groovy.runtime.InvokerHelper;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.net.URL;
+import java.security.AccessController;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivilegedAction;
+import java.util.zip.CRC32;
+
+/**
+ * Optional on-disk cache for the bytecode produced by {@link CallSiteGenerator}.
+ * <p>
+ * The cache is disabled unless the system property <code>groovy.callsite.cache.dir</code>
+ * names a directory. Entries are kept in a subdirectory named after the Groovy and JVM versions,
+ * so a different runtime starts with an empty cache. Every entry records its key and a checksum
+ * of the bytecode; entries which can't be read or don't match are ignored and generated again.
+ */
+public class CallSiteClassCache {
+
+    private static final int MAGIC = 0xCA11C0DE;
+    private static final int FORMAT = 1;
+
+    private static volatile File directory;
+
+    static {
+        final String dir = AccessController.doPrivileged(new PrivilegedAction<String>() {
+            public String run() {
+                try {
+                    return System.getProperty("groovy.callsite.cache.dir");
+                } catch (SecurityException e) {
+                    return null;
+                }
+            }
+        });
+        if (dir != null)
+          setDirectory(new File(dir));
+    }
+
+    private CallSiteClassCache() {}
+
+    /**
+     * Sets the directory to keep the cache in, null disables the cache.
+     */
+    public static void setDirectory(File dir) {
+        directory = dir == null ? null : new File(dir, getRuntimeStamp());
+    }
+
+    /**
+     * @return the version specific directory entries are stored in, or null if the cache is disabled
+     */
+    public static File getDirectory() {
+        return directory;
+    }
+
+    public static boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Returns the cached bytecode for the given key, or null if there is no valid entry.
+     */
+    public static byte[] get(String key) {
+        final File dir = directory;
+        if (dir == null || key == null)
+          return null;
+
+        final File file = new File(dir, fileName(key));
+        if (!file.isFile())
+          return null;
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT || !key.equals(in.readUTF()))
+              return null;
+
+            final long checksum = in.readLong();
+            final byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            if (checksum(bytes) != checksum)
+              return null;
+
+            return bytes;
+        } catch (IOException e) {
+            return null;
+        } catch (RuntimeException e) {
+            return null;
+        } finally {
+            close(in, null);
+        }
+    }
+
+    /**
+     * Stores bytecode for the given key. Failures to write are ignored.
+     */
+    public static void put(String key, byte[] bytes) {
+        final File dir = directory;
+        if (dir == null || key == null)
+          return;
+
+        DataOutputStream out = null;
+        File tmp = null;
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs())
+              return;
+
+            // write to a temporary file first, so other processes never see a partial entry
+            tmp = File.createTempFile("site", ".tmp", dir);
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeUTF(key);
+            out.writeLong(checksum(bytes));
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.close();
+            out = null;
+
+            final File file = new File(dir, fileName(key));
+            if (!tmp.renameTo(file)) {
+                file.delete();
+                if (!tmp.renameTo(file))
+                  return;
+            }
+            tmp = null;
+        } catch (IOException e) {
+            // the cache is optional
+        } catch (SecurityException e) {
+            // the cache is optional
+        } finally {
+            close(null, out);
+            if (tmp != null)
+              tmp.delete();
+        }
+    }
+
+    private static long checksum(byte[] bytes) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    private static String fileName(String key) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes("UTF-8"));
+            final StringBuilder sb = new StringBuilder(digest.length * 2 + 6);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+                sb.append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.append(".class").toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(key.hashCode()) + ".class";
+        } catch (IOException e) {
+            return Integer.toHexString(key.hashCode()) + ".class";
+        }
+    }
+
+    /**
+     * The stamp identifies the Groovy runtime and the JVM. Development builds have no version,
+     * so the time stamp of the generator class is part of the stamp as well.
+     */
+    private static String getRuntimeStamp() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("groovy-").append(InvokerHelper.getVersion());
+        try {
+            final URL url = CallSiteGenerator.class.getResource("CallSiteGenerator.class");
+            if (url != null)
+              sb.append('-').append(url.openConnection().getLastModified());
+        } catch (IOException e) {
+            // version alone has to do
+        }
+        sb.append("-java-").append(System.getProperty("java.vendor")).append('-').append(System.getProperty("java.version"));
+
+        final String stamp = sb.toString();
+        final StringBuilder name = new StringBuilder(stamp.length());
+        for (int i = 0; i < stamp.length(); i++) {
+            final char c = stamp.charAt(i);
+            name.append(Character.isLetterOrDigit(c) || c == '.' || c == '-' ? c : '_');
+        }
+        return name.toString();
+    }
+
+    private static void close(DataInputStream in, DataOutputStream out) {
+        try {
+            if (in != null)
+              in.close();
+            if (out != null)
+              out.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+}
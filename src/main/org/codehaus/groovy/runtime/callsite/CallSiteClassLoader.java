@@ -29,10 +29,13 @@ public class CallSiteClassLoader extends ClassLoaderForClassArtifacts {
                 , "org.codehaus.groovy.runtime.callsite.PogoMetaMethodSite"
                 , "org.codehaus.groovy.runtime.callsite.PojoMetaMethodSite"
                 , "org.codehaus.groovy.runtime.callsite.StaticMetaMethodSite"
+                , "org.codehaus.groovy.runtime.callsite.PropertyAccessor"
+                , "org.codehaus.groovy.runtime.callsite.ConstructorSite"
                 , "org.codehaus.groovy.runtime.callsite.CallSite"
                 , "org.codehaus.groovy.runtime.callsite.CallSiteArray"
                 , "groovy.lang.MetaMethod"
                 , "groovy.lang.MetaClassImpl"
+                , "org.codehaus.groovy.reflection.CachedConstructor"
                 );
     }
 
@@ -16,23 +16,34 @@
 package org.codehaus.groovy.runtime.callsite;
 
 import org.codehaus.groovy.ast.ClassHelper;
+import org.codehaus.groovy.ast.ClassNode;
 import org.codehaus.groovy.classgen.BytecodeHelper;
 import org.codehaus.groovy.reflection.CachedClass;
+import org.codehaus.groovy.reflection.CachedConstructor;
+import org.codehaus.groovy.reflection.CachedField;
 import org.codehaus.groovy.reflection.CachedMethod;
+import org.codehaus.groovy.reflection.ReflectionCache;
+import org.objectweb.asm.ClassAdapter;
+import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
 
 import groovy.lang.GroovyRuntimeException;
+import groovy.lang.MetaClassImpl;
 
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 
 public class CallSiteGenerator {
 
     private static final String GRE = BytecodeHelper.getClassInternalName(ClassHelper.make(GroovyRuntimeException.class));
+    private static final String PROPERTY_ACCESSOR = "org/codehaus/groovy/runtime/callsite/PropertyAccessor";
+    private static final String CONSTRUCTOR_SITE = "org/codehaus/groovy/runtime/callsite/ConstructorSite";
     
     private CallSiteGenerator () {}
     
@@ -141,6 +152,109 @@ public class CallSiteGenerator {
         writeMethod(cw,name,3,superClass,cachedMethod,receiverType,"[Ljava/lang/Object;",true);
     }
 
+    /**
+     * Generates call(Object, int...) style method for targets taking 1 to 3 int, long, double or boolean parameters.
+     * If the site was selected for arguments of the matching wrapper type the target is invoked
+     * without boxing the arguments or creating an argument array, otherwise arguments are boxed
+     * and the call goes through the normal call(Object, Object...) path.
+     */
+    public static void genCallWithPrimitiveParams(ClassWriter cw, final String superClass, CachedMethod cachedMethod) {
+        final Class primitive = getSharedPrimitiveParameterType(cachedMethod);
+        if (primitive == null) return;
+
+        final int pc = cachedMethod.getParamsCount();
+        final String primitiveDesc = BytecodeHelper.getTypeDescription(primitive);
+        final ClassNode primitiveNode = ClassHelper.make(primitive);
+        final int slotSize = primitive == long.class || primitive == double.class ? 2 : 1;
+
+        StringBuilder pdescb = new StringBuilder();
+        StringBuilder odescb = new StringBuilder();
+        for (int i = 0; i != pc; ++i) {
+            pdescb.append(primitiveDesc);
+            odescb.append("Ljava/lang/Object;");
+        }
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "call", "(Ljava/lang/Object;" + pdescb + ")Ljava/lang/Object;", null, null);
+        mv.visitCode();
+        BytecodeHelper helper = new BytecodeHelper(mv);
+
+        final Label tryStart = new Label();
+        mv.visitLabel(tryStart);
+
+        // call for checking if method is still valid for the given primitive type
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitFieldInsn(Opcodes.GETSTATIC, BytecodeHelper.getClassInternalName(ReflectionCache.autoboxType(primitive)), "TYPE", "Ljava/lang/Class;");
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, superClass, "checkPrimitiveCall", "(Ljava/lang/Object;Ljava/lang/Class;)Z");
+        Label l0 = new Label();
+        mv.visitJumpInsn(Opcodes.IFEQ, l0);
+
+        // valid method branch
+        Class callClass = cachedMethod.getDeclaringClass().getTheClass();
+        String type = BytecodeHelper.getClassInternalName(callClass.getName());
+        String descriptor = BytecodeHelper.getMethodDescriptor(cachedMethod.getReturnType(), cachedMethod.getNativeParameterTypes());
+
+        int invokeMethodCode = Opcodes.INVOKEVIRTUAL;
+        if (cachedMethod.isStatic()) {
+            invokeMethodCode = Opcodes.INVOKESTATIC;
+        } else {
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            helper.doCast(callClass);
+            if (callClass.isInterface()) invokeMethodCode = Opcodes.INVOKEINTERFACE;
+        }
+
+        for (int i = 0, idx = 2; i != pc; ++i, idx += slotSize)
+            helper.load(primitiveNode, idx);
+
+        cachedMethod.setAccessible();
+        mv.visitMethodInsn(invokeMethodCode, type, cachedMethod.getName(), descriptor);
+
+        helper.box(cachedMethod.getReturnType());
+        if (cachedMethod.getReturnType() == void.class) {
+            mv.visitInsn(Opcodes.ACONST_NULL);
+        }
+        mv.visitInsn(Opcodes.ARETURN);
+
+        // fall back to boxed arguments
+        mv.visitLabel(l0);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        for (int i = 0, idx = 2; i != pc; ++i, idx += slotSize) {
+            helper.load(primitiveNode, idx);
+            helper.box(primitive);
+        }
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, superClass, "call", "(Ljava/lang/Object;" + odescb + ")Ljava/lang/Object;");
+        mv.visitInsn(Opcodes.ARETURN);
+
+        // exception unwrapping for stackless exceptions
+        final Label tryEnd = new Label();
+        mv.visitLabel(tryEnd);
+        final Label catchStart = new Label();
+        mv.visitLabel(catchStart);
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, "org/codehaus/groovy/runtime/ScriptBytecodeAdapter", "unwrap", "(Lgroovy/lang/GroovyRuntimeException;)Ljava/lang/Throwable;");
+        mv.visitInsn(Opcodes.ATHROW);
+        mv.visitTryCatchBlock(tryStart, tryEnd, catchStart, GRE);
+
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static Class getSharedPrimitiveParameterType(CachedMethod cachedMethod) {
+        final Class[] types = cachedMethod.getNativeParameterTypes();
+        if (types.length == 0 || types.length > 3)
+          return null;
+
+        final Class primitive = types[0];
+        if (primitive != int.class && primitive != long.class && primitive != double.class && primitive != boolean.class)
+          return null;
+
+        for (int i = 1; i < types.length; i++)
+          if (types[i] != primitive)
+            return null;
+
+        return primitive;
+    }
+
     private static void genConstructor(ClassWriter cw, final String superClass) {
         MethodVisitor mv;
         mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "(Lorg/codehaus/groovy/runtime/callsite/CallSite;Lgroovy/lang/MetaClassImpl;Lgroovy/lang/MetaMethod;[Ljava/lang/Class;)V", null, null);
@@ -167,6 +281,7 @@ public class CallSiteGenerator {
 
         genCallWithFixedParams(cw, "Current", "org/codehaus/groovy/runtime/callsite/PogoMetaMethodSite", cachedMethod, "groovy/lang/GroovyObject");
         genCallWithFixedParams(cw, "", "org/codehaus/groovy/runtime/callsite/PogoMetaMethodSite", cachedMethod, "java/lang/Object");
+        genCallWithPrimitiveParams(cw, "org/codehaus/groovy/runtime/callsite/PogoMetaMethodSite", cachedMethod);
 
 
         cw.visitEnd();
@@ -182,6 +297,7 @@ public class CallSiteGenerator {
 
         genCallXxxWithArray(cw, "", "org/codehaus/groovy/runtime/callsite/PojoMetaMethodSite", cachedMethod, "java/lang/Object");
         genCallWithFixedParams(cw, "", "org/codehaus/groovy/runtime/callsite/PojoMetaMethodSite", cachedMethod, "java/lang/Object");
+        genCallWithPrimitiveParams(cw, "org/codehaus/groovy/runtime/callsite/PojoMetaMethodSite", cachedMethod);
 
         cw.visitEnd();
 
@@ -197,6 +313,7 @@ public class CallSiteGenerator {
         genCallXxxWithArray(cw, "Static", "org/codehaus/groovy/runtime/callsite/StaticMetaMethodSite", cachedMethod, "java/lang/Class");
         genCallWithFixedParams(cw, "", "org/codehaus/groovy/runtime/callsite/StaticMetaMethodSite", cachedMethod, "java/lang/Object");
         genCallWithFixedParams(cw, "Static", "org/codehaus/groovy/runtime/callsite/StaticMetaMethodSite", cachedMethod, "java/lang/Class");
+        genCallWithPrimitiveParams(cw, "org/codehaus/groovy/runtime/callsite/StaticMetaMethodSite", cachedMethod);
 
         cw.visitEnd();
 
@@ -204,41 +321,457 @@ public class CallSiteGenerator {
     }
 
     public static Constructor compilePogoMethod(CachedMethod cachedMethod) {
-        ClassWriter cw = new ClassWriter(true);
-
         final CachedClass declClass = cachedMethod.getDeclaringClass();
         final CallSiteClassLoader callSiteLoader = declClass.getCallSiteLoader();
         final String name = callSiteLoader.createClassName(cachedMethod.setAccessible());
 
-        final byte[] bytes = genPogoMetaMethodSite(cachedMethod, cw, name);
-        
+        final String key = cacheKey("pogo", cachedMethod);
+        byte[] bytes = getCachedClass(key, name);
+        if (bytes == null) {
+            bytes = genPogoMetaMethodSite(cachedMethod, new ClassWriter(true), name);
+            CallSiteClassCache.put(key, bytes);
+        }
+
         return callSiteLoader.defineClassAndGetConstructor(name, bytes);
     }
 
     public static Constructor compilePojoMethod(CachedMethod cachedMethod) {
-        ClassWriter cw = new ClassWriter(true);
-
         final CachedClass declClass = cachedMethod.getDeclaringClass();
         final CallSiteClassLoader callSiteLoader = declClass.getCallSiteLoader();
         final String name = callSiteLoader.createClassName(cachedMethod.setAccessible());
 
-        final byte[] bytes = genPojoMetaMethodSite(cachedMethod, cw, name);
-        
+        final String key = cacheKey("pojo", cachedMethod);
+        byte[] bytes = getCachedClass(key, name);
+        if (bytes == null) {
+            bytes = genPojoMetaMethodSite(cachedMethod, new ClassWriter(true), name);
+            CallSiteClassCache.put(key, bytes);
+        }
+
         return callSiteLoader.defineClassAndGetConstructor(name, bytes);
     }
 
     public static Constructor compileStaticMethod(CachedMethod cachedMethod) {
-        ClassWriter cw = new ClassWriter(true);
-
         final CachedClass declClass = cachedMethod.getDeclaringClass();
         final CallSiteClassLoader callSiteLoader = declClass.getCallSiteLoader();
         final String name = callSiteLoader.createClassName(cachedMethod.setAccessible());
 
-        final byte[] bytes = genStaticMetaMethodSite(cachedMethod, cw, name);
-        
+        final String key = cacheKey("static", cachedMethod);
+        byte[] bytes = getCachedClass(key, name);
+        if (bytes == null) {
+            bytes = genStaticMetaMethodSite(cachedMethod, new ClassWriter(true), name);
+            CallSiteClassCache.put(key, bytes);
+        }
+
         return callSiteLoader.defineClassAndGetConstructor(name, bytes);
     }
 
+    private static void writeConstructorCall(ClassWriter cw, int argumentCount, CachedConstructor cachedConstructor, String parameterDescription, boolean useArray) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "callConstructor", "(Ljava/lang/Object;" + parameterDescription + ")Ljava/lang/Object;", null, null);
+        mv.visitCode();
+
+        final Label tryStart = new Label();
+        mv.visitLabel(tryStart);
+
+        // call for checking if constructor is still valid
+        for (int i = 0; i < argumentCount; ++i) mv.visitVarInsn(Opcodes.ALOAD, i);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, CONSTRUCTOR_SITE, "checkCall", "(Ljava/lang/Object;" + parameterDescription + ")Z");
+        Label l0 = new Label();
+        mv.visitJumpInsn(Opcodes.IFEQ, l0);
+
+        // valid constructor branch
+        BytecodeHelper helper = new BytecodeHelper(mv);
+
+        final Constructor constructor = cachedConstructor.cachedConstructor;
+        final String type = BytecodeHelper.getClassInternalName(constructor.getDeclaringClass().getName());
+        final Class[] parameters = constructor.getParameterTypes();
+
+        mv.visitTypeInsn(Opcodes.NEW, type);
+        mv.visitInsn(Opcodes.DUP);
+        for (int i = 0; i < parameters.length; i++) {
+            if (useArray) {
+                // unpack argument from Object[]
+                mv.visitVarInsn(Opcodes.ALOAD, 2);
+                helper.pushConstant(i);
+                mv.visitInsn(Opcodes.AALOAD);
+            } else {
+                mv.visitVarInsn(Opcodes.ALOAD, i+2);
+            }
+
+            // cast argument to parameter class, inclusive unboxing
+            helper.doCast(parameters[i]);
+        }
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, type, "<init>", BytecodeHelper.getMethodDescriptor(void.class, parameters));
+        mv.visitInsn(Opcodes.ARETURN);
+
+        // fall back after receiver or argument change
+        mv.visitLabel(l0);
+        for (int i = 0; i < argumentCount; ++i) mv.visitVarInsn(Opcodes.ALOAD, i);
+        if (!useArray) {
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, "org/codehaus/groovy/runtime/ArrayUtil", "createArray", "(" + parameterDescription + ")[Ljava/lang/Object;");
+        }
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, "org/codehaus/groovy/runtime/callsite/CallSiteArray", "defaultCallConstructor", "(Lorg/codehaus/groovy/runtime/callsite/CallSite;Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;");
+        mv.visitInsn(Opcodes.ARETURN);
+
+        // exception unwrapping for stackless exceptions
+        final Label tryEnd = new Label();
+        mv.visitLabel(tryEnd);
+        final Label catchStart = new Label();
+        mv.visitLabel(catchStart);
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, "org/codehaus/groovy/runtime/ScriptBytecodeAdapter", "unwrap", "(Lgroovy/lang/GroovyRuntimeException;)Ljava/lang/Throwable;");
+        mv.visitInsn(Opcodes.ATHROW);
+        mv.visitTryCatchBlock(tryStart, tryEnd, catchStart, GRE);
+
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    public static byte[] genConstructorSite(CachedConstructor cachedConstructor, ClassWriter cw, String name) {
+        cw.visit(Opcodes.V1_4, Opcodes.ACC_PUBLIC | Opcodes.ACC_SYNTHETIC, name.replace('.','/'), null, CONSTRUCTOR_SITE, null);
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "(Lorg/codehaus/groovy/runtime/callsite/CallSite;Lgroovy/lang/MetaClassImpl;Lorg/codehaus/groovy/reflection/CachedConstructor;[Ljava/lang/Class;)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitVarInsn(Opcodes.ALOAD, 2);
+        mv.visitVarInsn(Opcodes.ALOAD, 3);
+        mv.visitVarInsn(Opcodes.ALOAD, 4);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, CONSTRUCTOR_SITE, "<init>", "(Lorg/codehaus/groovy/runtime/callsite/CallSite;Lgroovy/lang/MetaClassImpl;Lorg/codehaus/groovy/reflection/CachedConstructor;[Ljava/lang/Class;)V");
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        writeConstructorCall(cw, 3, cachedConstructor, "[Ljava/lang/Object;", true);
+
+        final int pc = cachedConstructor.getNativeParameterTypes().length;
+        if (pc <= 4) {
+            StringBuilder pdescb = new StringBuilder();
+            for (int i = 0; i != pc; ++i) pdescb.append("Ljava/lang/Object;");
+            writeConstructorCall(cw, pc+2, cachedConstructor, pdescb.toString(), false);
+        }
+
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    public static Constructor compileConstructor(CachedConstructor cachedConstructor) {
+        final CallSiteClassLoader callSiteLoader = cachedConstructor.getCachedClass().getCallSiteLoader();
+        final String name = callSiteLoader.createClassName("init");
+
+        final String key = cacheKey(cachedConstructor);
+        byte[] bytes = getCachedClass(key, name);
+        if (bytes == null) {
+            bytes = genConstructorSite(cachedConstructor, new ClassWriter(true), name);
+            CallSiteClassCache.put(key, bytes);
+        }
+
+        return callSiteLoader.defineClassAndGetConstructor(name, bytes, CallSite.class, MetaClassImpl.class, CachedConstructor.class, Class[].class);
+    }
+
+    /**
+     * Constructor sites are not loaded through the sun class loader, so only public
+     * constructors of public, concrete classes can be called from them.
+     */
+    public static boolean isCompilable (CachedConstructor constructor) {
+        final Class declaringClass = constructor.cachedConstructor.getDeclaringClass();
+        final int modifiers = declaringClass.getModifiers();
+        if (!Modifier.isPublic(modifiers) || Modifier.isAbstract(modifiers) || declaringClass.isInterface())
+          return false;
+
+        if (!Modifier.isPublic(constructor.getModifiers()))
+          return false;
+
+        for (Class nativeParamType : constructor.getNativeParameterTypes()) {
+            if (!isPublicType(nativeParamType))
+                return false;
+        }
+        return true;
+    }
+
+    private static void genAccessorConstructor(ClassWriter cw) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, PROPERTY_ACCESSOR, "<init>", "()V");
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Generates a {@link PropertyAccessor} calling the given method directly.
+     * A method without parameters is called from getProperty, a method with one parameter from setProperty,
+     * the other method throws.
+     */
+    public static byte[] genMethodAccessor(CachedMethod cachedMethod, ClassWriter cw, String name) {
+        cw.visit(Opcodes.V1_4, Opcodes.ACC_PUBLIC | Opcodes.ACC_SYNTHETIC, name.replace('.','/'), null, PROPERTY_ACCESSOR, null);
+
+        genAccessorConstructor(cw);
+
+        final boolean setter = cachedMethod.getParamsCount() == 1;
+        MethodVisitor mv;
+        if (setter)
+          mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "setProperty", "(Ljava/lang/Object;Ljava/lang/Object;)V", null, null);
+        else
+          mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "getProperty", "(Ljava/lang/Object;)Ljava/lang/Object;", null, null);
+        mv.visitCode();
+        BytecodeHelper helper = new BytecodeHelper(mv);
+
+        Class callClass = cachedMethod.getDeclaringClass().getTheClass();
+        String type = BytecodeHelper.getClassInternalName(callClass.getName());
+        String descriptor = BytecodeHelper.getMethodDescriptor(cachedMethod.getReturnType(), cachedMethod.getNativeParameterTypes());
+
+        int invokeMethodCode = Opcodes.INVOKEVIRTUAL;
+        if (cachedMethod.isStatic()) {
+            invokeMethodCode = Opcodes.INVOKESTATIC;
+        } else {
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            helper.doCast(callClass);
+            if (callClass.isInterface()) invokeMethodCode = Opcodes.INVOKEINTERFACE;
+        }
+
+        if (setter) {
+            mv.visitVarInsn(Opcodes.ALOAD, 2);
+            helper.doCast(cachedMethod.getNativeParameterTypes()[0]);
+        }
+
+        cachedMethod.setAccessible();
+        mv.visitMethodInsn(invokeMethodCode, type, cachedMethod.getName(), descriptor);
+
+        final Class returnType = cachedMethod.getReturnType();
+        if (setter) {
+            // drop the result of setters returning a value
+            if (returnType == long.class || returnType == double.class)
+              mv.visitInsn(Opcodes.POP2);
+            else if (returnType != void.class)
+              mv.visitInsn(Opcodes.POP);
+            mv.visitInsn(Opcodes.RETURN);
+        } else {
+            helper.box(returnType);
+            if (returnType == void.class) {
+                mv.visitInsn(Opcodes.ACONST_NULL);
+            }
+            mv.visitInsn(Opcodes.ARETURN);
+        }
+
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        genUnsupportedAccess(cw, !setter, getPropertyName(cachedMethod.getName()), callClass.getName());
+
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    /**
+     * Generates a {@link PropertyAccessor} reading and, unless the field is final, writing the given field directly.
+     * Setting a final field throws.
+     */
+    public static byte[] genFieldAccessor(CachedField cachedField, ClassWriter cw, String name) {
+        cw.visit(Opcodes.V1_4, Opcodes.ACC_PUBLIC | Opcodes.ACC_SYNTHETIC, name.replace('.','/'), null, PROPERTY_ACCESSOR, null);
+
+        genAccessorConstructor(cw);
+
+        final Field field = cachedField.field;
+        final Class fieldClass = field.getDeclaringClass();
+        final String owner = BytecodeHelper.getClassInternalName(fieldClass.getName());
+        final String fieldType = BytecodeHelper.getTypeDescription(field.getType());
+        final boolean isStatic = cachedField.isStatic();
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "getProperty", "(Ljava/lang/Object;)Ljava/lang/Object;", null, null);
+        mv.visitCode();
+        BytecodeHelper helper = new BytecodeHelper(mv);
+        if (isStatic) {
+            mv.visitFieldInsn(Opcodes.GETSTATIC, owner, field.getName(), fieldType);
+        } else {
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            helper.doCast(fieldClass);
+            mv.visitFieldInsn(Opcodes.GETFIELD, owner, field.getName(), fieldType);
+        }
+        helper.box(field.getType());
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        if (!Modifier.isFinal(field.getModifiers())) {
+            mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "setProperty", "(Ljava/lang/Object;Ljava/lang/Object;)V", null, null);
+            mv.visitCode();
+            helper = new BytecodeHelper(mv);
+            if (!isStatic) {
+                mv.visitVarInsn(Opcodes.ALOAD, 1);
+                helper.doCast(fieldClass);
+            }
+            mv.visitVarInsn(Opcodes.ALOAD, 2);
+            helper.doCast(field.getType());
+            mv.visitFieldInsn(isStatic ? Opcodes.PUTSTATIC : Opcodes.PUTFIELD, owner, field.getName(), fieldType);
+            mv.visitInsn(Opcodes.RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        } else {
+            genUnsupportedAccess(cw, true, field.getName(), fieldClass.getName());
+        }
+
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    /**
+     * Generates the setProperty of a read-only or the getProperty of a write-only accessor,
+     * throwing an exception which names the property.
+     */
+    private static void genUnsupportedAccess(ClassWriter cw, boolean readOnly, String property, String className) {
+        final MethodVisitor mv;
+        if (readOnly)
+          mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "setProperty", "(Ljava/lang/Object;Ljava/lang/Object;)V", null, null);
+        else
+          mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "getProperty", "(Ljava/lang/Object;)Ljava/lang/Object;", null, null);
+        mv.visitCode();
+        mv.visitLdcInsn(property);
+        mv.visitLdcInsn(className);
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, PROPERTY_ACCESSOR, readOnly ? "readOnlyProperty" : "writeOnlyProperty",
+                "(Ljava/lang/String;Ljava/lang/String;)Ljava/lang/RuntimeException;");
+        mv.visitInsn(Opcodes.ATHROW);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static String getPropertyName(String methodName) {
+        if (methodName.length() > 3 && (methodName.startsWith("get") || methodName.startsWith("set")))
+          return java.beans.Introspector.decapitalize(methodName.substring(3));
+        if (methodName.length() > 2 && methodName.startsWith("is"))
+          return java.beans.Introspector.decapitalize(methodName.substring(2));
+        return methodName;
+    }
+
+    public static PropertyAccessor compileMethodAccessor(CachedMethod cachedMethod) {
+        final CachedClass declClass = cachedMethod.getDeclaringClass();
+        final CallSiteClassLoader callSiteLoader = declClass.getCallSiteLoader();
+        final String name = callSiteLoader.createClassName(cachedMethod.setAccessible());
+
+        final String key = cacheKey("accessor", cachedMethod);
+        byte[] bytes = getCachedClass(key, name);
+        if (bytes == null) {
+            bytes = genMethodAccessor(cachedMethod, new ClassWriter(true), name);
+            CallSiteClassCache.put(key, bytes);
+        }
+
+        return newAccessor(callSiteLoader.defineClassAndGetConstructor(name, bytes, new Class[0]));
+    }
+
+    public static PropertyAccessor compileFieldAccessor(CachedField cachedField) {
+        final CachedClass declClass = ReflectionCache.getCachedClass(cachedField.field.getDeclaringClass());
+        final CallSiteClassLoader callSiteLoader = declClass.getCallSiteLoader();
+        final String name = callSiteLoader.createClassName(cachedField.getName());
+
+        final String key = cacheKey(cachedField);
+        byte[] bytes = getCachedClass(key, name);
+        if (bytes == null) {
+            bytes = genFieldAccessor(cachedField, new ClassWriter(true), name);
+            CallSiteClassCache.put(key, bytes);
+        }
+
+        return newAccessor(callSiteLoader.defineClassAndGetConstructor(name, bytes, new Class[0]));
+    }
+
+    /*
+     * Keys for CallSiteClassCache. They contain everything the generated code depends on,
+     * so a changed member never matches an entry generated for its old version. The name
+     * of the generated class is not part of the key: it depends on the order members are
+     * compiled in, so an entry may hold the class under another name, see getCachedClass.
+     */
+
+    private static String cacheKey(String kind, CachedMethod cachedMethod) {
+        if (!CallSiteClassCache.isEnabled())
+          return null;
+
+        final Method method = cachedMethod.setAccessible();
+        return kind + ' ' + memberKey(method.getDeclaringClass(), method.getModifiers())
+                + method.getName() + Type.getMethodDescriptor(method);
+    }
+
+    private static String cacheKey(CachedConstructor cachedConstructor) {
+        if (!CallSiteClassCache.isEnabled())
+          return null;
+
+        final Constructor constructor = cachedConstructor.cachedConstructor;
+        final StringBuilder sb = new StringBuilder("init ")
+                .append(memberKey(constructor.getDeclaringClass(), constructor.getModifiers())).append('(');
+        for (Class type : constructor.getParameterTypes())
+          sb.append(Type.getDescriptor(type));
+        return sb.append(")V").toString();
+    }
+
+    private static String cacheKey(CachedField cachedField) {
+        if (!CallSiteClassCache.isEnabled())
+          return null;
+
+        final Field field = cachedField.field;
+        return "field " + memberKey(field.getDeclaringClass(), field.getModifiers())
+                + field.getName() + ':' + Type.getDescriptor(field.getType());
+    }
+
+    private static String memberKey(Class declaringClass, int modifiers) {
+        return declaringClass.getName() + ' ' + declaringClass.getModifiers() + ' ' + modifiers + ' ';
+    }
+
+    /**
+     * Returns the cached bytecode for the key, renamed to the given class name if it was
+     * generated under another one, or null if there is no entry.
+     */
+    private static byte[] getCachedClass(String key, String name) {
+        final byte[] bytes = CallSiteClassCache.get(key);
+        if (bytes == null)
+          return null;
+
+        final ClassReader reader = new ClassReader(bytes);
+        final String internalName = name.replace('.', '/');
+        if (internalName.equals(reader.readClass(reader.header + 2, new char[bytes.length])))
+          return bytes;
+
+        // generated classes refer to their own name nowhere but in the class header
+        final ClassWriter cw = new ClassWriter(false);
+        reader.accept(new ClassAdapter(cw) {
+            public void visit(int version, int access, String className, String signature, String superName, String[] interfaces) {
+                super.visit(version, access, internalName, signature, superName, interfaces);
+            }
+        }, false);
+        return cw.toByteArray();
+    }
+
+    private static PropertyAccessor newAccessor(Constructor constructor) {
+        if (constructor != null) {
+            try {
+                return (PropertyAccessor) constructor.newInstance();
+            } catch (Throwable e) { //
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Accessors are never loaded through the sun class loader, so only public members
+     * of public classes can be accessed from them.
+     */
+    public static boolean isAccessorCompilable (CachedMethod method) {
+        final int paramsCount = method.getParamsCount();
+        if (paramsCount > 1 || paramsCount == 0 && method.getReturnType() == void.class)
+          return false;
+
+        return Modifier.isPublic(method.cachedClass.getModifiers()) && method.isPublic() && publicParams(method);
+    }
+
+    public static boolean isAccessorCompilable (CachedField field) {
+        return Modifier.isPublic(field.field.getDeclaringClass().getModifiers()) && Modifier.isPublic(field.getModifiers()) && isPublicType(field.getType());
+    }
+
+    private static boolean isPublicType(Class type) {
+        while (type.isArray())
+          type = type.getComponentType();
+        return type.isPrimitive() || Modifier.isPublic(type.getModifiers());
+    }
+
     public static boolean isCompilable (CachedMethod method) {
         return GroovySunClassLoader.sunVM != null || Modifier.isPublic(method.cachedClass.getModifiers()) && method.isPublic() && publicParams(method);
     }
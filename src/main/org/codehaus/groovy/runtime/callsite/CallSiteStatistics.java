@@ -0,0 +1,270 @@
+/*
+ * Copyright 2003-2009 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.runtime.callsite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects statistics about call site dispatch.
+ * <p>
+ * Collection is off unless the system property <code>groovy.callsite.statistics</code> is true
+ * or {@link #setEnabled(boolean)} is called. Only the slow paths are counted: selecting and linking
+ * a site, dispatching a megamorphic call and choosing a method in MetaClassImpl. Calls through
+ * a linked site are never counted, so enabled statistics don't slow down stable code. The only
+ * exception are the hit and miss counters of a {@link PolymorphicCallSite}.
+ * <p>
+ * The numbers are exported through {@link org.codehaus.groovy.runtime.metaclass.MetaClassStatistics}.
+ */
+public final class CallSiteStatistics {
+
+    /**
+     * Maximum number of receiver classes remembered per site
+     */
+    private static final int MAX_RECEIVERS = 16;
+
+    private static volatile boolean enabled = Boolean.getBoolean("groovy.callsite.statistics");
+
+    private static final AtomicLong selections = new AtomicLong();
+    private static final AtomicLong megamorphicCalls = new AtomicLong();
+    private static final AtomicLong chosenMethods = new AtomicLong();
+
+    // the sites of a call site array go away together with the class owning it
+    private static final Map<CallSiteArray, Site[]> sites = new WeakHashMap<CallSiteArray, Site[]>();
+
+    private CallSiteStatistics() {}
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        CallSiteStatistics.enabled = enabled;
+    }
+
+    /**
+     * Clears all collected numbers.
+     */
+    public static void reset() {
+        selections.set(0);
+        megamorphicCalls.set(0);
+        chosenMethods.set(0);
+        synchronized (sites) {
+            sites.clear();
+        }
+    }
+
+    /**
+     * @return the number of sites selected and linked into call site arrays
+     */
+    public static long getSelectionCount() {
+        return selections.get();
+    }
+
+    /**
+     * @return the number of calls dispatched through the meta class by megamorphic sites
+     */
+    public static long getMegamorphicCallCount() {
+        return megamorphicCalls.get();
+    }
+
+    /**
+     * @return the number of times MetaClassImpl had to choose between methods
+     */
+    public static long getChosenMethodCount() {
+        return chosenMethods.get();
+    }
+
+    /**
+     * Called whenever a new site was selected for the slot of the given site.
+     *
+     * @param receiverClass the class of the receiver, or the receiver itself for static calls
+     */
+    static void siteSelected(CallSite callSite, Class receiverClass, CallSite selected) {
+        selections.incrementAndGet();
+        getSite(callSite).selected(receiverClass, selected);
+    }
+
+    static void megamorphicCall(CallSite callSite, Class receiverClass) {
+        megamorphicCalls.incrementAndGet();
+        getSite(callSite).megamorphicCall(receiverClass);
+    }
+
+    public static void methodChosen() {
+        chosenMethods.incrementAndGet();
+    }
+
+    private static Site getSite(CallSite callSite) {
+        final CallSiteArray array = callSite.getArray();
+        final int index = callSite.getIndex();
+        synchronized (sites) {
+            Site[] arraySites = sites.get(array);
+            if (arraySites == null) {
+                arraySites = new Site[array.array.length];
+                sites.put(array, arraySites);
+            }
+            Site site = arraySites[index];
+            if (site == null) {
+                site = new Site(array.owner.getName(), index, callSite.getName());
+                arraySites[index] = site;
+            }
+            return site;
+        }
+    }
+
+    /**
+     * @return all sites with statistics
+     */
+    public static List<Site> getSites() {
+        final List<Site> result = new ArrayList<Site>();
+        synchronized (sites) {
+            for (Site[] arraySites : sites.values()) {
+                for (Site site : arraySites) {
+                    if (site != null)
+                      result.add(site);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the sites which went through the slow path most often,
+     * either to select a new site or to make a megamorphic call.
+     */
+    public static List<Site> getHotSites(int count) {
+        return top(count, new Comparator<Site>() {
+            public int compare(Site o1, Site o2) {
+                return compareLongs(o2.getSlowCallCount(), o1.getSlowCallCount());
+            }
+        });
+    }
+
+    /**
+     * Returns the sites which saw the most receiver classes, and of those the ones re-selected most often.
+     */
+    public static List<Site> getUnstableSites(int count) {
+        return top(count, new Comparator<Site>() {
+            public int compare(Site o1, Site o2) {
+                final int res = o2.getReceiverClassCount() - o1.getReceiverClassCount();
+                return res != 0 ? res : compareLongs(o2.getSelectionCount(), o1.getSelectionCount());
+            }
+        });
+    }
+
+    private static List<Site> top(int count, Comparator<Site> comparator) {
+        final List<Site> all = getSites();
+        Collections.sort(all, comparator);
+        return count < all.size() ? new ArrayList<Site>(all.subList(0, Math.max(count, 0))) : all;
+    }
+
+    private static int compareLongs(long a, long b) {
+        return a < b ? -1 : (a == b ? 0 : 1);
+    }
+
+    /**
+     * Statistics of a single call site.
+     */
+    public static final class Site {
+        private final String owner;
+        private final int index;
+        private final String name;
+
+        private long selectionCount;
+        private long megamorphicCallCount;
+        private final Set<String> receiverClasses = new HashSet<String>();
+        private String siteClass;
+
+        Site(String owner, int index, String name) {
+            this.owner = owner;
+            this.index = index;
+            this.name = name;
+        }
+
+        synchronized void selected(Class receiverClass, CallSite selected) {
+            selectionCount++;
+            addReceiver(receiverClass);
+            siteClass = selected.getClass().getName();
+        }
+
+        synchronized void megamorphicCall(Class receiverClass) {
+            megamorphicCallCount++;
+            addReceiver(receiverClass);
+        }
+
+        private void addReceiver(Class receiverClass) {
+            if (receiverClass != null && receiverClasses.size() < MAX_RECEIVERS)
+              receiverClasses.add(receiverClass.getName());
+        }
+
+        /**
+         * @return the name of the class containing the call
+         */
+        public String getOwner() {
+            return owner;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return the name of the called method or property
+         */
+        public String getName() {
+            return name;
+        }
+
+        public synchronized long getSelectionCount() {
+            return selectionCount;
+        }
+
+        public synchronized long getMegamorphicCallCount() {
+            return megamorphicCallCount;
+        }
+
+        public synchronized long getSlowCallCount() {
+            return selectionCount + megamorphicCallCount;
+        }
+
+        /**
+         * @return the number of different receiver classes seen, at most 16
+         */
+        public synchronized int getReceiverClassCount() {
+            return receiverClasses.size();
+        }
+
+        /**
+         * @return the class of the site selected last
+         */
+        public synchronized String getSiteClass() {
+            return siteClass;
+        }
+
+        public synchronized String toString() {
+            return owner + "#" + index + " " + name + ": " + selectionCount + " selections, "
+                    + megamorphicCallCount + " megamorphic calls, " + receiverClasses.size() + " receiver classes, "
+                    + siteClass;
+        }
+    }
+}
@@ -48,13 +48,43 @@ public class ConstructorSite extends MetaClassSite {
           return CallSiteArray.defaultCallConstructor(this, receiver, args);
     }
 
+    protected final boolean checkCall(Object receiver, Object[] args) {
+        return receiver == metaClass.getTheClass() // meta class match receiver
+           && MetaClassHelper.sameClasses(params, args);
+    }
+
+    protected final boolean checkCall(Object receiver) {
+        return receiver == metaClass.getTheClass() // meta class match receiver
+           && MetaClassHelper.sameClasses(params);
+    }
+
+    protected final boolean checkCall(Object receiver, Object arg1) {
+        return receiver == metaClass.getTheClass() // meta class match receiver
+           && MetaClassHelper.sameClasses(params, arg1);
+    }
+
+    protected final boolean checkCall(Object receiver, Object arg1, Object arg2) {
+        return receiver == metaClass.getTheClass() // meta class match receiver
+           && MetaClassHelper.sameClasses(params, arg1, arg2);
+    }
+
+    protected final boolean checkCall(Object receiver, Object arg1, Object arg2, Object arg3) {
+        return receiver == metaClass.getTheClass() // meta class match receiver
+           && MetaClassHelper.sameClasses(params, arg1, arg2, arg3);
+    }
+
+    protected final boolean checkCall(Object receiver, Object arg1, Object arg2, Object arg3, Object arg4) {
+        return receiver == metaClass.getTheClass() // meta class match receiver
+           && MetaClassHelper.sameClasses(params, arg1, arg2, arg3, arg4);
+    }
+
     public static ConstructorSite createConstructorSite(CallSite site, MetaClassImpl metaClass, CachedConstructor constructor, Class[] params, Object[] args) {
         if (constructor.correctArguments(args) == args) {
             if (noWrappers(args)) {
                 if (noCoerce(constructor,args))
                     return new ConstructorSiteNoUnwrap(site, metaClass, constructor, params);
                 else
-                    return new ConstructorSiteNoUnwrapNoCoerce(site, metaClass, constructor, params);
+                    return constructor.createConstructorSite(site, metaClass, params);
             }
         }
         return new ConstructorSite(site, metaClass, constructor, params);
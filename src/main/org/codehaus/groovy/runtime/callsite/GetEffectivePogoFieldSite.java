@@ -27,11 +27,13 @@ import org.codehaus.groovy.runtime.GroovyCategorySupport;
 public class GetEffectivePogoFieldSite extends AbstractCallSite {
     private final MetaClass metaClass;
     private final Field effective;
+    private final PropertyAccessor accessor;
 
     public GetEffectivePogoFieldSite(CallSite site, MetaClass metaClass, CachedField effective) {
         super(site);
         this.metaClass = metaClass;
         this.effective = effective.field;
+        this.accessor = effective.getPropertyAccessor();
     }
 
     public final Object callGetProperty (Object receiver) throws Throwable {
@@ -67,6 +69,9 @@ public class GetEffectivePogoFieldSite extends AbstractCallSite {
     }
 
     public final Object getProperty(Object receiver) {
+        if (accessor != null)
+          return accessor.getProperty(receiver);
+
         try {
             return effective.get(receiver);
         } catch (IllegalAccessException e) {
@@ -17,22 +17,20 @@ import org.codehaus.groovy.runtime.ScriptBytecodeAdapter;
 class GetEffectivePogoPropertySite extends AbstractCallSite {
     private final MetaClass metaClass;
     private final MetaProperty effective;
+    private final PropertyAccessor accessor;
 
     public GetEffectivePogoPropertySite(CallSite site, MetaClass metaClass, MetaProperty effective) {
         super(site);
         this.metaClass = metaClass;
         this.effective = effective;
+        this.accessor = getGetterAccessor(effective);
     }
 
     public final Object callGetProperty (Object receiver) throws Throwable {
         if (GroovyCategorySupport.hasCategoryInCurrentThread() || !(receiver instanceof GroovyObject) || ((GroovyObject) receiver).getMetaClass() != metaClass) {
             return createGetPropertySite(receiver).getProperty(receiver);
         } else {
-            try {
-                return effective.getProperty(receiver);
-            } catch (GroovyRuntimeException gre) {
-                throw ScriptBytecodeAdapter.unwrap(gre);
-            }
+            return getProperty(receiver);
         }
     }
 
@@ -48,11 +46,7 @@ class GetEffectivePogoPropertySite extends AbstractCallSite {
         if (GroovyCategorySupport.hasCategoryInCurrentThread() || !(receiver instanceof GroovyObject) || ((GroovyObject) receiver).getMetaClass() != metaClass) {
             return createGetPropertySite(receiver).getProperty(receiver);
         } else {
-            try {
-                return effective.getProperty(receiver);
-            } catch (GroovyRuntimeException gre) {
-                throw ScriptBytecodeAdapter.unwrap(gre);
-            }
+            return getProperty(receiver);
         }
     }
 
@@ -65,6 +59,9 @@ class GetEffectivePogoPropertySite extends AbstractCallSite {
     }
 
     public final Object getProperty(Object receiver) throws Throwable {
+        if (accessor != null)
+          return accessor.getProperty(receiver);
+
         try {
             return effective.getProperty(receiver);
         } catch (GroovyRuntimeException gre) {
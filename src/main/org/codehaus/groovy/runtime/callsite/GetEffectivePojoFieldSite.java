@@ -26,11 +26,13 @@ import org.codehaus.groovy.runtime.GroovyCategorySupport;
 class GetEffectivePojoFieldSite extends AbstractCallSite {
     private final MetaClass metaClass;
     private final Field effective;
+    private final PropertyAccessor accessor;
 
     public GetEffectivePojoFieldSite(CallSite site, MetaClass metaClass, CachedField effective) {
         super(site);
         this.metaClass = metaClass;
         this.effective = effective.field;
+        this.accessor = effective.getPropertyAccessor();
     }
 
     public final Object callGetProperty (Object receiver) throws Throwable {
@@ -46,6 +48,9 @@ class GetEffectivePojoFieldSite extends AbstractCallSite {
     }
 
     public final Object getProperty(Object receiver) {
+        if (accessor != null)
+          return accessor.getProperty(receiver);
+
         try {
             return effective.get(receiver);
         } catch (IllegalAccessException e) {
@@ -25,22 +25,20 @@ import org.codehaus.groovy.runtime.ScriptBytecodeAdapter;
 public class GetEffectivePojoPropertySite extends AbstractCallSite {
     private final MetaClass metaClass;
     private final MetaProperty effective;
+    private final PropertyAccessor accessor;
 
     public GetEffectivePojoPropertySite(CallSite site, MetaClass metaClass, MetaProperty effective) {
         super(site);
         this.metaClass = metaClass;
         this.effective = effective;
+        this.accessor = getGetterAccessor(effective);
     }
 
     public final Object callGetProperty (Object receiver) throws Throwable {
         if (GroovyCategorySupport.hasCategoryInCurrentThread() || receiver.getClass() != metaClass.getTheClass()) {
             return createGetPropertySite(receiver).getProperty(receiver);
         } else {
-            try {
-                return effective.getProperty(receiver);
-            } catch (GroovyRuntimeException gre) {
-                throw ScriptBytecodeAdapter.unwrap(gre);
-            }
+            return getProperty(receiver);
         }
     }
 
@@ -53,6 +51,9 @@ public class GetEffectivePojoPropertySite extends AbstractCallSite {
     }
 
     public final Object getProperty(Object receiver) throws Throwable {
+        if (accessor != null)
+          return accessor.getProperty(receiver);
+
         try {
             return effective.getProperty(receiver);
         } catch (GroovyRuntimeException gre) {
@@ -27,9 +27,33 @@ public abstract class MetaMethodSite extends MetaClassSite {
     final MetaMethod metaMethod;
     protected final Class [] params;
 
+    // primitive type of the arguments the site was selected for, if all of them box the same one
+    protected final Class primitiveParamsType;
+
     public MetaMethodSite(CallSite site, MetaClass metaClass, MetaMethod metaMethod, Class[] params) {
         super(site, metaClass);
         this.metaMethod = metaMethod;
         this.params = params;
+        this.primitiveParamsType = getPrimitiveParamsType(params);
+    }
+
+    private static Class getPrimitiveParamsType(Class[] params) {
+        if (params == null || params.length == 0)
+          return null;
+
+        final Class wrapper = params[0];
+        for (int i = 1; i < params.length; i++)
+          if (params[i] != wrapper)
+            return null;
+
+        if (wrapper == Integer.class)
+          return Integer.TYPE;
+        if (wrapper == Long.class)
+          return Long.TYPE;
+        if (wrapper == Double.class)
+          return Double.TYPE;
+        if (wrapper == Boolean.class)
+          return Boolean.TYPE;
+        return null;
     }
 }
@@ -20,6 +20,7 @@ import groovy.lang.GroovyRuntimeException;
 import groovy.lang.MetaClassImpl;
 import groovy.lang.MetaMethod;
 import org.codehaus.groovy.reflection.CachedMethod;
+import org.codehaus.groovy.reflection.ClassInfo;
 import org.codehaus.groovy.runtime.MetaClassHelper;
 import org.codehaus.groovy.runtime.ScriptBytecodeAdapter;
 
@@ -32,8 +33,13 @@ import java.lang.reflect.Method;
  *   method - cached
 */
 public class PogoMetaMethodSite extends MetaMethodSite {
+    private final ClassInfo.MethodVersion methodVersion;
+    private final int methodVersionValue;
+
     public PogoMetaMethodSite(CallSite site, MetaClassImpl metaClass, MetaMethod metaMethod, Class params[]) {
         super(site, metaClass, metaMethod, params);
+        methodVersion = metaClass.getClassInfo().getMethodVersion(name);
+        methodVersionValue = methodVersion.getVersion();
     }
 
     public Object invoke(Object receiver, Object[] args) throws Throwable {
@@ -73,6 +79,7 @@ public class PogoMetaMethodSite extends MetaMethodSite {
         try {
             return usage.get() == 0
                && ((GroovyObject)receiver).getMetaClass() == metaClass // metaClass still be valid
+               && methodVersion.getVersion() == methodVersionValue // no method with this name was added
                && MetaClassHelper.sameClasses(params, args);
         }
         catch (NullPointerException e) {
@@ -91,6 +98,7 @@ public class PogoMetaMethodSite extends MetaMethodSite {
         try {
             return usage.get() == 0
                && ((GroovyObject)receiver).getMetaClass() == metaClass // metaClass still be valid
+               && methodVersion.getVersion() == methodVersionValue // no method with this name was added
                && MetaClassHelper.sameClasses(params);
         }
         catch (NullPointerException e) {
@@ -109,6 +117,7 @@ public class PogoMetaMethodSite extends MetaMethodSite {
         try {
             return usage.get() == 0
                && ((GroovyObject)receiver).getMetaClass() == metaClass // metaClass still be valid
+               && methodVersion.getVersion() == methodVersionValue // no method with this name was added
                && MetaClassHelper.sameClasses(params, arg1);
         }
         catch (NullPointerException e) {
@@ -127,6 +136,7 @@ public class PogoMetaMethodSite extends MetaMethodSite {
         try {
             return usage.get() == 0
                && ((GroovyObject)receiver).getMetaClass() == metaClass // metaClass still be valid
+               && methodVersion.getVersion() == methodVersionValue // no method with this name was added
                && MetaClassHelper.sameClasses(params, arg1, arg2);
         }
         catch (NullPointerException e) {
@@ -145,6 +155,7 @@ public class PogoMetaMethodSite extends MetaMethodSite {
         try {
             return usage.get() == 0
                && ((GroovyObject)receiver).getMetaClass() == metaClass // metaClass still be valid
+               && methodVersion.getVersion() == methodVersionValue // no method with this name was added
                && MetaClassHelper.sameClasses(params, arg1, arg2, arg3);
         }
         catch (NullPointerException e) {
@@ -163,6 +174,7 @@ public class PogoMetaMethodSite extends MetaMethodSite {
         try {
             return usage.get() == 0
                && ((GroovyObject)receiver).getMetaClass() == metaClass // metaClass still be valid
+               && methodVersion.getVersion() == methodVersionValue // no method with this name was added
                && MetaClassHelper.sameClasses(params, arg1, arg2, arg3, arg4);
         }
         catch (NullPointerException e) {
@@ -177,6 +189,14 @@ public class PogoMetaMethodSite extends MetaMethodSite {
         }
     }
 
+    protected boolean checkPrimitiveCall(Object receiver, Class primitiveType) {
+        return usage.get() == 0
+           && receiver instanceof GroovyObject
+           && ((GroovyObject)receiver).getMetaClass() == metaClass // metaClass still be valid
+           && methodVersion.getVersion() == methodVersionValue // no method with this name was added
+           && primitiveParamsType == primitiveType;
+    }
+
     public static CallSite createPogoMetaMethodSite(CallSite site, MetaClassImpl metaClass, MetaMethod metaMethod, Class[] params, Object[] args) {
         if (metaMethod.getClass() == CachedMethod.class)
           return createCachedMethodSite (site, metaClass, (CachedMethod) metaMethod, params, args);
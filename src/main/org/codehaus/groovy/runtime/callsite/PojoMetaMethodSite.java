@@ -19,6 +19,7 @@ import groovy.lang.GroovyRuntimeException;
 import groovy.lang.MetaClassImpl;
 import groovy.lang.MetaMethod;
 import org.codehaus.groovy.reflection.CachedMethod;
+import org.codehaus.groovy.reflection.ClassInfo;
 import org.codehaus.groovy.runtime.MetaClassHelper;
 import org.codehaus.groovy.runtime.NullObject;
 import org.codehaus.groovy.runtime.ScriptBytecodeAdapter;
@@ -36,10 +37,14 @@ import java.lang.reflect.Method;
 public class PojoMetaMethodSite extends MetaMethodSite {
 
     protected final int version;
+    protected final ClassInfo.MethodVersion methodVersion;
+    protected final int methodVersionValue;
 
     public PojoMetaMethodSite(CallSite site, MetaClassImpl metaClass, MetaMethod metaMethod, Class params[]) {
         super(site, metaClass, metaMethod, params);
         version = metaClass.getVersion();
+        methodVersion = metaClass.getClassInfo().getMethodVersion(name);
+        methodVersionValue = methodVersion.getVersion();
     }
 
     public Object invoke(Object receiver, Object[] args) throws Throwable {
@@ -56,7 +61,8 @@ public class PojoMetaMethodSite extends MetaMethodSite {
 
     protected final boolean checkPojoMetaClass() {
         return usage.get() == 0
-            && ((MetaClassImpl)metaClass).getVersion() == version;
+            && ((MetaClassImpl)metaClass).getVersion() == version
+            && methodVersion.getVersion() == methodVersionValue;
     }
 
     protected final boolean checkCall(Object receiver, Object[] args) {
@@ -138,6 +144,13 @@ public class PojoMetaMethodSite extends MetaMethodSite {
         }
     }
 
+    protected final boolean checkPrimitiveCall(Object receiver, Class primitiveType) {
+        return receiver != null
+           && receiver.getClass() == metaClass.getTheClass() // meta class match receiver
+           && checkPojoMetaClass()
+           && primitiveParamsType == primitiveType;
+    }
+
     public static CallSite createPojoMetaMethodSite(CallSite site, MetaClassImpl metaClass, MetaMethod metaMethod, Class[] params, Object receiver, Object[] args) {
         if (metaMethod instanceof CallSiteAwareMetaMethod) {
             return ((CallSiteAwareMetaMethod)metaMethod).createPojoCallSite(site, metaClass, metaMethod, params, receiver, args);
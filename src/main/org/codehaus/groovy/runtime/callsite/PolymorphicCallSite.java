@@ -0,0 +1,306 @@
+/*
+ * Copyright 2003-2009 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.runtime.callsite;
+
+import groovy.lang.GroovyRuntimeException;
+import org.codehaus.groovy.runtime.ArrayUtil;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codehaus.groovy.runtime.ScriptBytecodeAdapter;
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded polymorphic inline cache.
+ *
+ * Holds up to {@link #MAX_ENTRIES} specialized call sites keyed by receiver class.
+ * Every cached site still performs its own receiver/meta class/arguments check,
+ * so a stale entry only costs a re-selection, never a wrong dispatch.
+ * When more receiver classes than that show up the site becomes megamorphic:
+ * cached entries are still used, but new classes go through plain meta class dispatch
+ * instead of creating and caching yet another site.
+ *
+ * While {@link CallSiteStatistics} is enabled the site counts the calls which found
+ * a cached site for their receiver class (hits) and the ones which did not (misses).
+ */
+public final class PolymorphicCallSite extends AbstractCallSite {
+
+    /**
+     * Maximum number of receiver classes cached per call site,
+     * configurable through the <code>groovy.callsite.polymorphic.size</code> system property
+     */
+    public static final int MAX_ENTRIES = Math.max(2, Integer.getInteger("groovy.callsite.polymorphic.size", 4).intValue());
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private volatile Entry[] entries = NO_ENTRIES;
+    private volatile boolean megamorphic;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    PolymorphicCallSite(CallSite prev) {
+        super(prev);
+    }
+
+    public boolean isMegamorphic() {
+        return megamorphic;
+    }
+
+    public int getEntryCount() {
+        return entries.length;
+    }
+
+    /**
+     * @return the number of calls dispatched to a cached site while statistics were enabled
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of calls without a cached site for their receiver while statistics were enabled
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Caches site for given receiver class, replacing previously cached one for the same class if any.
+     * Called by {@link CallSiteArray} when a new site was selected for this slot.
+     */
+    synchronized void cache(Class receiverClass, CallSite site) {
+        final Entry[] old = entries;
+        for (int i = 0; i < old.length; i++) {
+            if (old[i].receiverClass == receiverClass) {
+                final Entry[] copy = (Entry[]) old.clone();
+                copy[i] = new Entry(receiverClass, site);
+                entries = copy;
+                return;
+            }
+        }
+
+        if (old.length >= MAX_ENTRIES) {
+            megamorphic = true;
+            return;
+        }
+
+        final Entry[] copy = new Entry[old.length + 1];
+        System.arraycopy(old, 0, copy, 0, old.length);
+        copy[old.length] = new Entry(receiverClass, site);
+        entries = copy;
+    }
+
+    private CallSite lookup(Object receiver) {
+        final CallSite site = find(receiver);
+        if (CallSiteStatistics.isEnabled()) {
+            if (site != null)
+              hits.incrementAndGet();
+            else
+              misses.incrementAndGet();
+        }
+        return site;
+    }
+
+    private CallSite find(Object receiver) {
+        if (receiver != null) {
+            final Class klazz = receiver.getClass();
+            final Entry[] e = entries;
+            for (int i = 0; i < e.length; i++) {
+                if (e[i].receiverClass == klazz)
+                  return e[i].site;
+            }
+        }
+        return null;
+    }
+
+    private Object callMissed(Object receiver, Object[] args) throws Throwable {
+        if (isMegamorphic(receiver))
+          return callMegamorphic(receiver, args);
+
+        return CallSiteArray.defaultCall(this, receiver, args);
+    }
+
+    private Object callMegamorphic(Object receiver, Object[] args) throws Throwable {
+        if (CallSiteStatistics.isEnabled())
+          CallSiteStatistics.megamorphicCall(this, receiver.getClass());
+
+        try {
+            return InvokerHelper.invokeMethod(receiver, name, args);
+        } catch (GroovyRuntimeException gre) {
+            throw ScriptBytecodeAdapter.unwrap(gre);
+        }
+    }
+
+    private boolean isMegamorphic(Object receiver) {
+        return megamorphic && receiver != null && !(receiver instanceof Class);
+    }
+
+    public Object call(Object receiver, Object[] args) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return site.call(receiver, args);
+
+        return callMissed(receiver, args);
+    }
+
+    public Object call(Object receiver) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return site.call(receiver);
+
+        return callMissed(receiver, CallSiteArray.NOPARAM);
+    }
+
+    public Object call(Object receiver, Object arg1) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return site.call(receiver, arg1);
+
+        return callMissed(receiver, ArrayUtil.createArray(arg1));
+    }
+
+    public Object call(Object receiver, Object arg1, Object arg2) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return site.call(receiver, arg1, arg2);
+
+        return callMissed(receiver, ArrayUtil.createArray(arg1, arg2));
+    }
+
+    public Object call(Object receiver, Object arg1, Object arg2, Object arg3) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return site.call(receiver, arg1, arg2, arg3);
+
+        return callMissed(receiver, ArrayUtil.createArray(arg1, arg2, arg3));
+    }
+
+    public Object call(Object receiver, Object arg1, Object arg2, Object arg3, Object arg4) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return site.call(receiver, arg1, arg2, arg3, arg4);
+
+        return callMissed(receiver, ArrayUtil.createArray(arg1, arg2, arg3, arg4));
+    }
+
+    // primitive arguments are passed on to the cached site, a miss boxes them
+    public Object call(Object receiver, int arg1) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return CallSiteArray.call(site, receiver, arg1);
+
+        return callMissed(receiver, ArrayUtil.createArray(DefaultTypeTransformation.box(arg1)));
+    }
+
+    public Object call(Object receiver, int arg1, int arg2) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return CallSiteArray.call(site, receiver, arg1, arg2);
+
+        return callMissed(receiver, ArrayUtil.createArray(DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2)));
+    }
+
+    public Object call(Object receiver, int arg1, int arg2, int arg3) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return CallSiteArray.call(site, receiver, arg1, arg2, arg3);
+
+        return callMissed(receiver, ArrayUtil.createArray(DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2), DefaultTypeTransformation.box(arg3)));
+    }
+
+    public Object call(Object receiver, long arg1) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return CallSiteArray.call(site, receiver, arg1);
+
+        return callMissed(receiver, ArrayUtil.createArray(DefaultTypeTransformation.box(arg1)));
+    }
+
+    public Object call(Object receiver, long arg1, long arg2) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return CallSiteArray.call(site, receiver, arg1, arg2);
+
+        return callMissed(receiver, ArrayUtil.createArray(DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2)));
+    }
+
+    public Object call(Object receiver, long arg1, long arg2, long arg3) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return CallSiteArray.call(site, receiver, arg1, arg2, arg3);
+
+        return callMissed(receiver, ArrayUtil.createArray(DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2), DefaultTypeTransformation.box(arg3)));
+    }
+
+    public Object call(Object receiver, double arg1) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return CallSiteArray.call(site, receiver, arg1);
+
+        return callMissed(receiver, ArrayUtil.createArray(DefaultTypeTransformation.box(arg1)));
+    }
+
+    public Object call(Object receiver, double arg1, double arg2) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return CallSiteArray.call(site, receiver, arg1, arg2);
+
+        return callMissed(receiver, ArrayUtil.createArray(DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2)));
+    }
+
+    public Object call(Object receiver, double arg1, double arg2, double arg3) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return CallSiteArray.call(site, receiver, arg1, arg2, arg3);
+
+        return callMissed(receiver, ArrayUtil.createArray(DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2), DefaultTypeTransformation.box(arg3)));
+    }
+
+    public Object call(Object receiver, boolean arg1) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return CallSiteArray.call(site, receiver, arg1);
+
+        return callMissed(receiver, ArrayUtil.createArray(DefaultTypeTransformation.box(arg1)));
+    }
+
+    public Object call(Object receiver, boolean arg1, boolean arg2) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return CallSiteArray.call(site, receiver, arg1, arg2);
+
+        return callMissed(receiver, ArrayUtil.createArray(DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2)));
+    }
+
+    public Object call(Object receiver, boolean arg1, boolean arg2, boolean arg3) throws Throwable {
+        final CallSite site = lookup(receiver);
+        if (site != null)
+          return CallSiteArray.call(site, receiver, arg1, arg2, arg3);
+
+        return callMissed(receiver, ArrayUtil.createArray(DefaultTypeTransformation.box(arg1), DefaultTypeTransformation.box(arg2), DefaultTypeTransformation.box(arg3)));
+    }
+
+    private static final class Entry {
+        final Class receiverClass;
+        final CallSite site;
+
+        Entry(Class receiverClass, CallSite site) {
+            this.receiverClass = receiverClass;
+            this.site = site;
+        }
+    }
+}
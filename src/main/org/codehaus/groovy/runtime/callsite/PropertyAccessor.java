@@ -0,0 +1,51 @@
+/*
+ * Copyright 2003-2009 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.runtime.callsite;
+
+import groovy.lang.GroovyRuntimeException;
+
+/**
+ * Base class for generated property accessors.
+ * Subclasses are produced by {@link CallSiteGenerator} for public getters, setters and fields
+ * and read or write the property directly instead of going through reflection.
+ * Exceptions thrown by the accessed method are not wrapped.
+ * <p>
+ * Every accessor implements both methods. An accessor for a getter or a final field can't set
+ * the property and an accessor for a setter can't get it, the generated method throws the
+ * exception returned by {@link #readOnlyProperty(String, String)} or {@link #writeOnlyProperty(String, String)}.
+ */
+public abstract class PropertyAccessor {
+
+    /**
+     * @param receiver object to get the property from, ignored for static properties
+     * @return the value of the property
+     */
+    public abstract Object getProperty(Object receiver);
+
+    /**
+     * @param receiver object to set the property on, ignored for static properties
+     * @param value the new value, already converted to the type of the property
+     */
+    public abstract void setProperty(Object receiver, Object value);
+
+    protected static RuntimeException readOnlyProperty(String property, String className) {
+        return new GroovyRuntimeException("Cannot set read-only property: " + property + " for class: " + className);
+    }
+
+    protected static RuntimeException writeOnlyProperty(String property, String className) {
+        return new GroovyRuntimeException("Cannot get write-only property: " + property + " for class: " + className);
+    }
+}
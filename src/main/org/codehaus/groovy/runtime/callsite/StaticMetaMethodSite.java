@@ -21,6 +21,7 @@ import groovy.lang.MetaMethod;
 import org.codehaus.groovy.runtime.MetaClassHelper;
 import org.codehaus.groovy.runtime.ScriptBytecodeAdapter;
 import org.codehaus.groovy.reflection.CachedMethod;
+import org.codehaus.groovy.reflection.ClassInfo;
 
 /**
  * POJO call site
@@ -31,10 +32,14 @@ import org.codehaus.groovy.reflection.CachedMethod;
 */
 public class StaticMetaMethodSite extends MetaMethodSite {
     private final int version;
+    private final ClassInfo.MethodVersion methodVersion;
+    private final int methodVersionValue;
 
     public StaticMetaMethodSite(CallSite site, MetaClassImpl metaClass, MetaMethod metaMethod, Class params[]) {
         super(site, metaClass, metaMethod, params);
         version = metaClass.getVersion ();
+        methodVersion = metaClass.getClassInfo().getMethodVersion(name);
+        methodVersionValue = methodVersion.getVersion();
     }
 
     public Object invoke(Object receiver, Object[] args) throws Throwable {
@@ -49,39 +54,52 @@ public class StaticMetaMethodSite extends MetaMethodSite {
     protected final boolean checkCall(Object receiver, Object[] args) {
         return receiver == metaClass.getTheClass() // meta class match receiver
            && ((MetaClassImpl)metaClass).getVersion() == version // metaClass still be valid
+           && methodVersion.getVersion() == methodVersionValue // no method with this name was added
            && MetaClassHelper.sameClasses(params, args);
     }
 
     protected final boolean checkCall(Object receiver) {
         return receiver == metaClass.getTheClass() // meta class match receiver
            && ((MetaClassImpl)metaClass).getVersion() == version // metaClass still be valid
+           && methodVersion.getVersion() == methodVersionValue // no method with this name was added
            && MetaClassHelper.sameClasses(params);
     }
 
     protected final boolean checkCall(Object receiver, Object arg1) {
         return receiver == metaClass.getTheClass() // meta class match receiver
            && ((MetaClassImpl)metaClass).getVersion() == version // metaClass still be valid
+           && methodVersion.getVersion() == methodVersionValue // no method with this name was added
            && MetaClassHelper.sameClasses(params, arg1);
     }
 
     protected final boolean checkCall(Object receiver, Object arg1, Object arg2) {
         return receiver == metaClass.getTheClass() // meta class match receiver
            && ((MetaClassImpl)metaClass).getVersion() == version // metaClass still be valid
+           && methodVersion.getVersion() == methodVersionValue // no method with this name was added
            && MetaClassHelper.sameClasses(params, arg1, arg2);
     }
 
     protected final boolean checkCall(Object receiver, Object arg1, Object arg2, Object arg3) {
         return receiver == metaClass.getTheClass() // meta class match receiver
            && ((MetaClassImpl)metaClass).getVersion() == version // metaClass still be valid
+           && methodVersion.getVersion() == methodVersionValue // no method with this name was added
            && MetaClassHelper.sameClasses(params, arg1, arg2, arg3);
     }
 
     protected final boolean checkCall(Object receiver, Object arg1, Object arg2, Object arg3, Object arg4) {
         return receiver == metaClass.getTheClass() // meta class match receiver
            && ((MetaClassImpl)metaClass).getVersion() == version // metaClass still be valid
+           && methodVersion.getVersion() == methodVersionValue // no method with this name was added
            && MetaClassHelper.sameClasses(params, arg1, arg2, arg3, arg4);
     }
 
+    protected final boolean checkPrimitiveCall(Object receiver, Class primitiveType) {
+        return receiver == metaClass.getTheClass() // meta class match receiver
+           && ((MetaClassImpl)metaClass).getVersion() == version // metaClass still be valid
+           && methodVersion.getVersion() == methodVersionValue // no method with this name was added
+           && primitiveParamsType == primitiveType;
+    }
+
     public Object call(Object receiver, Object[] args) throws Throwable {
         if(checkCall(receiver, args)) {
             try {
@@ -54,6 +54,7 @@ public class MetaClassRegistryImpl implements MetaClassRegistry{
 
     private LinkedList changeListenerList = new LinkedList();
     private ManagedLinkedList metaClassInfo = new ManagedLinkedList<MetaClass>(ReferenceBundle.getWeakBundle());
+    private final MetaClassStatistics statistics = new MetaClassStatistics();
 
     public static final int LOAD_DEFAULT = 0;
     public static final int DONT_LOAD_DEFAULT = 1;
@@ -257,6 +258,39 @@ public class MetaClassRegistryImpl implements MetaClassRegistry{
     }
 
 
+    /**
+     * Runs several meta class changes as one batch. Call sites linked before the batch
+     * are invalidated once, when the batch finishes, instead of after every single change.
+     * Until then they may still dispatch to previously selected methods, also in the current thread.
+     * Replacing or removing a meta class still takes effect immediately.
+     *
+     * <pre>
+     * GroovySystem.metaClassRegistry.batchChanges {
+     *     String.metaClass.shout = {-> toUpperCase() }
+     *     String.metaClass.whisper = {-> toLowerCase() }
+     * }
+     * </pre>
+     *
+     * @param changes the code changing meta classes
+     */
+    public void batchChanges(Runnable changes) {
+        ClassInfo.startBatch();
+        try {
+            changes.run();
+        } finally {
+            ClassInfo.finishBatch();
+        }
+    }
+
+    /**
+     * Returns the MBean exporting call site and meta class statistics.
+     * Call site statistics are collected only after enabling them on the bean,
+     * or with the system property <code>groovy.callsite.statistics</code>.
+     */
+    public MetaClassStatistics getStatistics() {
+        return statistics;
+    }
+
     public boolean useAccessible() {
         return useAccessible;
     }
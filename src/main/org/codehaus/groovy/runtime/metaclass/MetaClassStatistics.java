@@ -0,0 +1,136 @@
+/*
+ * Copyright 2003-2009 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.runtime.metaclass;
+
+import groovy.lang.MetaClass;
+import groovy.lang.MetaClassImpl;
+import org.codehaus.groovy.reflection.ClassInfo;
+import org.codehaus.groovy.runtime.callsite.CallSiteStatistics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.List;
+
+/**
+ * Exports call site and meta class statistics as a standard MBean.
+ * <p>
+ * The call site numbers are only collected while statistics are enabled, see {@link CallSiteStatistics}.
+ * The meta class and class numbers are computed on every read. The bean can be registered with
+ * {@link #register(MBeanServer)}, or exported with JmxBuilder:
+ * <pre>
+ * new JmxBuilder().export {
+ *     bean(GroovySystem.metaClassRegistry.statistics)
+ * }
+ * </pre>
+ */
+public class MetaClassStatistics implements MetaClassStatisticsMBean {
+
+    public static final String OBJECT_NAME = "org.codehaus.groovy:type=MetaClassStatistics";
+
+    /**
+     * Registers this bean under {@link #OBJECT_NAME}, replacing a bean registered there before.
+     *
+     * @return the name the bean was registered with
+     */
+    public ObjectName register(MBeanServer server) throws JMException {
+        final ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name))
+          server.unregisterMBean(name);
+        server.registerMBean(this, name);
+        return name;
+    }
+
+    public boolean isEnabled() {
+        return CallSiteStatistics.isEnabled();
+    }
+
+    public void setEnabled(boolean enabled) {
+        CallSiteStatistics.setEnabled(enabled);
+    }
+
+    public void reset() {
+        CallSiteStatistics.reset();
+    }
+
+    public long getSelectionCount() {
+        return CallSiteStatistics.getSelectionCount();
+    }
+
+    public long getMegamorphicCallCount() {
+        return CallSiteStatistics.getMegamorphicCallCount();
+    }
+
+    public long getChosenMethodCount() {
+        return CallSiteStatistics.getChosenMethodCount();
+    }
+
+    public int getSiteCount() {
+        return CallSiteStatistics.getSites().size();
+    }
+
+    public int getMegamorphicSiteCount() {
+        int count = 0;
+        for (CallSiteStatistics.Site site : CallSiteStatistics.getSites()) {
+            if (site.getMegamorphicCallCount() > 0)
+              count++;
+        }
+        return count;
+    }
+
+    public int getClassInfoSize() {
+        return ClassInfo.size();
+    }
+
+    public int getClassInfoFullSize() {
+        return ClassInfo.fullSize();
+    }
+
+    public int getMetaClassCount() {
+        return countMetaClasses(false);
+    }
+
+    public int getMetaClassImplCount() {
+        return countMetaClasses(true);
+    }
+
+    private static int countMetaClasses(boolean onlyImpl) {
+        int count = 0;
+        for (ClassInfo info : ClassInfo.getAllClassInfo()) {
+            MetaClass metaClass = info.getStrongMetaClass();
+            if (metaClass == null)
+              metaClass = info.getWeakMetaClass();
+            if (metaClass != null && (!onlyImpl || metaClass instanceof MetaClassImpl))
+              count++;
+        }
+        return count;
+    }
+
+    public String[] getHotCallSites(int count) {
+        return describe(CallSiteStatistics.getHotSites(count));
+    }
+
+    public String[] getUnstableCallSites(int count) {
+        return describe(CallSiteStatistics.getUnstableSites(count));
+    }
+
+    private static String[] describe(List<CallSiteStatistics.Site> sites) {
+        final String[] res = new String[sites.size()];
+        for (int i = 0; i < res.length; i++)
+          res[i] = sites.get(i).toString();
+        return res;
+    }
+}
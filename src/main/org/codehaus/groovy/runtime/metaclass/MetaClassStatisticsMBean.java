@@ -0,0 +1,89 @@
+/*
+ * Copyright 2003-2009 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.runtime.metaclass;
+
+/**
+ * Management interface of {@link MetaClassStatistics}.
+ */
+public interface MetaClassStatisticsMBean {
+
+    /**
+     * @return true if call site statistics are collected
+     */
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * Clears the collected call site statistics.
+     */
+    void reset();
+
+    /**
+     * @return the number of sites selected and linked into call site arrays
+     */
+    long getSelectionCount();
+
+    /**
+     * @return the number of calls dispatched through the meta class by megamorphic sites
+     */
+    long getMegamorphicCallCount();
+
+    /**
+     * @return the number of times MetaClassImpl had to choose between methods
+     */
+    long getChosenMethodCount();
+
+    /**
+     * @return the number of call sites with statistics
+     */
+    int getSiteCount();
+
+    /**
+     * @return the number of call sites which made megamorphic calls
+     */
+    int getMegamorphicSiteCount();
+
+    /**
+     * @return the number of classes known to the runtime which are still alive
+     */
+    int getClassInfoSize();
+
+    /**
+     * @return the number of classes known to the runtime, including collected ones not yet removed
+     */
+    int getClassInfoFullSize();
+
+    /**
+     * @return the number of meta classes currently set for classes
+     */
+    int getMetaClassCount();
+
+    /**
+     * @return the number of those meta classes which are MetaClassImpl or a subclass of it
+     */
+    int getMetaClassImplCount();
+
+    /**
+     * @return descriptions of the sites which went through the slow path most often
+     */
+    String[] getHotCallSites(int count);
+
+    /**
+     * @return descriptions of the sites which saw the most receiver classes
+     */
+    String[] getUnstableCallSites(int count);
+}
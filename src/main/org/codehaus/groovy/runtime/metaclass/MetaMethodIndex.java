@@ -24,6 +24,12 @@ import org.codehaus.groovy.util.SingleKeyHashMap;
 import java.util.NoSuchElementException;
 
 public class MetaMethodIndex {
+    /**
+     * Number of argument type combinations remembered per method name,
+     * configurable through the <code>groovy.metamethod.cache.size</code> system property
+     */
+    public static final int CACHE_SIZE = Math.max(1, Integer.getInteger("groovy.metamethod.cache.size", 4).intValue());
+
     public SingleKeyHashMap methodHeaders = new SingleKeyHashMap();
 
     public static class Header {
@@ -44,8 +50,20 @@ public class MetaMethodIndex {
     }
 
     public static class CacheEntry {
-        public Class [] params;
-        public MetaMethod method;
+        public final Class [] params;
+        public final MetaMethod method;
+        // version of the category method list the method was selected with, 0 if none
+        public final int categoryVersion;
+
+        public CacheEntry(Class[] params, MetaMethod method) {
+            this(params, method, 0);
+        }
+
+        public CacheEntry(Class[] params, MetaMethod method, int categoryVersion) {
+            this.params = params;
+            this.method = method;
+            this.categoryVersion = categoryVersion;
+        }
     }
 
     public static class Entry {
@@ -58,13 +76,53 @@ public class MetaMethodIndex {
 
         public Object methods, methodsForSuper, staticMethods;
 
-        public CacheEntry cachedMethod, cachedMethodForSuper, cachedStaticMethod;
+        // most recently selected first, arrays are never modified once published
+        public volatile CacheEntry[] cachedMethod, cachedMethodForSuper, cachedStaticMethod, cachedMethodForCategory;
 
         public String toString () {
             return "[" + name + ", " + cls.getName() + "]";
         }
     }
 
+    /**
+     * Returns new cache array with given entry in front of the entries of given cache.
+     * Entries for the same parameter types are dropped, as is the least recently added one
+     * when the cache is full.
+     */
+    public static CacheEntry[] addToCache(CacheEntry[] cache, CacheEntry entry) {
+        if (cache == null || CACHE_SIZE == 1)
+          return new CacheEntry[]{entry};
+
+        final CacheEntry[] res = new CacheEntry[Math.min(cache.length + 1, CACHE_SIZE)];
+        res[0] = entry;
+        int k = 1;
+        for (int i = 0; i < cache.length && k < res.length; i++) {
+            if (cache[i].categoryVersion != entry.categoryVersion || !sameParams(cache[i].params, entry.params))
+              res[k++] = cache[i];
+        }
+
+        if (k == res.length)
+          return res;
+
+        final CacheEntry[] trimmed = new CacheEntry[k];
+        System.arraycopy(res, 0, trimmed, 0, k);
+        return trimmed;
+    }
+
+    private static boolean sameParams(Class[] a, Class[] b) {
+        if (a == b)
+          return true;
+
+        if (a == null || b == null || a.length != b.length)
+          return false;
+
+        for (int i = 0; i < a.length; i++)
+          if (a[i] != b[i])
+            return false;
+
+        return true;
+    }
+
     public MetaMethodIndex(CachedClass theCachedClass) {
         init(DEFAULT_CAPACITY);
 
@@ -517,7 +575,7 @@ public class MetaMethodIndex {
     public void clearCaches() {
         for (int i = 0; i != table.length; ++i )
           for (Entry e = table [i]; e != null; e = e.nextHashEntry ) {
-              e.cachedMethod = e.cachedMethodForSuper = e.cachedStaticMethod = null;
+              e.cachedMethod = e.cachedMethodForSuper = e.cachedStaticMethod = e.cachedMethodForCategory = null;
           }
     }
 
@@ -525,7 +583,7 @@ public class MetaMethodIndex {
         for (int i = 0; i != table.length; ++i )
           for (Entry e = table [i]; e != null; e = e.nextHashEntry ) {
               if (e.name.equals(name)) {
-                  e.cachedMethod = e.cachedMethodForSuper = e.cachedStaticMethod = null;
+                  e.cachedMethod = e.cachedMethodForSuper = e.cachedStaticMethod = e.cachedMethodForCategory = null;
               }
           }
     }
@@ -31,6 +31,19 @@ public class BigDecimalMath extends NumberMath {
 	
 	public static final BigDecimalMath INSTANCE = new BigDecimalMath();
 	
+	// divisions of operands with at most this many digits and this scale are computed
+	// with scaled longs, a BigDecimal is only created for the result
+	private static final int MAX_COMPACT_DIGITS = 18;
+
+	private static final long[] TEN_POWERS = new long[MAX_COMPACT_DIGITS + 1];
+
+	static {
+		TEN_POWERS[0] = 1;
+		for (int i = 1; i < TEN_POWERS.length; i++) {
+			TEN_POWERS[i] = TEN_POWERS[i - 1] * 10;
+		}
+	}
+
 	private BigDecimalMath() {}
 
 	protected Number absImpl(Number number) {
@@ -50,6 +63,10 @@ public class BigDecimalMath extends NumberMath {
 	}
 
 	public Number divideImpl(Number left, Number right) {
+		if (isCompact(left) && isCompact(right)) {
+			BigDecimal result = divideCompact(unscaled(left), scale(left), unscaled(right), scale(right));
+			if (result != null) return result;
+		}
 		//Hack until Java 1.5 BigDecimal is available.  For now, pick
 		//a result scale which is the maximum of the scale of the
 		//two operands and an arbitrary maximum (similar to what a
@@ -67,19 +84,75 @@ public class BigDecimalMath extends NumberMath {
 	
 	private BigDecimal normalize(BigDecimal number) {
         // we have to take care of the case number==0, because 0 can have every
-        // scale and the test in the while loop would never end
+        // scale and the smallest scale for 0 is 0
         if (number.signum()==0) {
-            // the smallest scale for 0 is 0
             return number.setScale(0);
         }
-        // rescale until we found the smallest possible scale
-		try {
-			while (true) {
-				number = number.setScale(number.scale()-1);
-			} 
-		} catch (ArithmeticException e) {
-			return number;
+        // the smallest possible scale, this may be negative like 1E+2
+        return number.stripTrailingZeros();
+	}
+
+	/**
+	 * Divides two scaled longs like divideImpl does for BigDecimals, or returns null
+	 * if an intermediate result would overflow or the divisor is 0.
+	 */
+	private static BigDecimal divideCompact(long left, int leftScale, long right, int rightScale) {
+		if (right == 0) return null;
+		int scale = Math.max(Math.max(leftScale, rightScale), MAX_DIVISION_SCALE);
+		// left * 10^shift / right has the result scale
+		int shift = scale - leftScale + rightScale;
+		if (shift > MAX_COMPACT_DIGITS || Math.abs(left) > Long.MAX_VALUE / TEN_POWERS[shift]) {
+			return null;
+		}
+		long dividend = left * TEN_POWERS[shift];
+		long quotient = dividend / right;
+		long remainder = Math.abs(dividend % right);
+		// ROUND_HALF_UP rounds ties away from zero
+		if (remainder >= Math.abs(right) - remainder) {
+			quotient += (dividend < 0) == (right < 0) ? 1 : -1;
+		}
+		if (quotient == 0) {
+			return BigDecimal.valueOf(0);
+		}
+		while (quotient % 10 == 0) {
+			quotient /= 10;
+			scale--;
+		}
+		return BigDecimal.valueOf(quotient, scale);
+	}
+
+	/**
+	 * Returns true if the number is an integral number or a BigDecimal which
+	 * has at most MAX_COMPACT_DIGITS digits and a scale in 0..MAX_COMPACT_DIGITS.
+	 */
+	private static boolean isCompact(Number number) {
+		if (number instanceof BigDecimal) {
+			BigDecimal decimal = (BigDecimal) number;
+			return decimal.scale() >= 0 && decimal.scale() <= MAX_COMPACT_DIGITS
+					&& decimal.precision() <= MAX_COMPACT_DIGITS;
+		}
+		if (number instanceof Integer || number instanceof Short || number instanceof Byte) {
+			return true;
+		}
+		if (number instanceof Long) {
+			long value = number.longValue();
+			return value > -TEN_POWERS[MAX_COMPACT_DIGITS] && value < TEN_POWERS[MAX_COMPACT_DIGITS];
+		}
+		return false;
+	}
+
+	private static long unscaled(Number number) {
+		if (number instanceof BigDecimal) {
+			return ((BigDecimal) number).unscaledValue().longValue();
+		}
+		return number.longValue();
+	}
+
+	private static int scale(Number number) {
+		if (number instanceof BigDecimal) {
+			return ((BigDecimal) number).scale();
 		}
+		return 0;
 	}
 
     protected Number unaryMinusImpl(Number left) {
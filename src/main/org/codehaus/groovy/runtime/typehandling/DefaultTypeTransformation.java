@@ -19,6 +19,8 @@ import groovy.lang.GString;
 import groovy.lang.GroovyRuntimeException;
 import org.codehaus.groovy.reflection.ReflectionCache;
 import org.codehaus.groovy.runtime.*;
+import org.codehaus.groovy.util.ManagedDoubleKeyMap;
+import org.codehaus.groovy.util.ReferenceBundle;
 
 import java.io.File;
 import java.io.IOException;
@@ -33,6 +35,37 @@ public class DefaultTypeTransformation {
     
     protected static final Object[] EMPTY_ARGUMENTS = {};
     protected static final BigInteger ONE_NEG = new BigInteger("-1");
+
+    // the ways castToType converts objects, see getCastStrategy
+    private static final int CAST_CONSTRUCTOR = 0;
+    private static final int CAST_IDENTITY = 1;
+    private static final int CAST_ARRAY = 2;
+    private static final int CAST_HASH_SET = 3;
+    private static final int CAST_ARRAY_TO_COLLECTION = 4;
+    private static final int CAST_STRING = 5;
+    private static final int CAST_CHARACTER = 6;
+    private static final int CAST_BOOLEAN = 7;
+    private static final int CAST_CLASS = 8;
+    private static final int CAST_BYTE = 9;
+    private static final int CAST_SHORT = 10;
+    private static final int CAST_INTEGER = 11;
+    private static final int CAST_LONG = 12;
+    private static final int CAST_FLOAT = 13;
+    private static final int CAST_DOUBLE = 14;
+    private static final int CAST_BIG_DECIMAL = 15;
+    private static final int CAST_BIG_INTEGER = 16;
+    private static final int CAST_OTHER_NUMBER = 17;
+    private static final int CAST_PRIMITIVE_BOOLEAN = 18;
+    private static final int CAST_PRIMITIVE_BYTE = 19;
+    private static final int CAST_PRIMITIVE_CHAR = 20;
+    private static final int CAST_PRIMITIVE_SHORT = 21;
+    private static final int CAST_PRIMITIVE_INT = 22;
+    private static final int CAST_PRIMITIVE_LONG = 23;
+    private static final int CAST_PRIMITIVE_FLOAT = 24;
+    private static final int CAST_PRIMITIVE_DOUBLE = 25;
+
+    // the cast strategies by source and target class, the classes are referenced weakly
+    private static final ManagedDoubleKeyMap castStrategies = new ManagedDoubleKeyMap(ReferenceBundle.getWeakBundle());
     
     //  --------------------------------------------------------
     //                  unboxing methods
@@ -205,23 +238,20 @@ public class DefaultTypeTransformation {
 
         final Class aClass = object.getClass();
         if (type == aClass) return object;
+        // assignable objects are the common case, they don't need the strategy lookup
+        if (!type.isArray() && ReflectionCache.isAssignableFrom(type, aClass)) return object;
         // TODO we should move these methods to groovy method, like g$asType() so that
         // we can use operator overloading to customize on a per-type basis
-        if (ReflectionCache.isArray(type)) {
-            return asArray(object, type);
-
-        }
-        if (ReflectionCache.isAssignableFrom(type, aClass)) {
-            return object;
-        }
-        if (Collection.class.isAssignableFrom(type)) {
-            int modifiers = type.getModifiers();
-            Collection answer;
-            if (object instanceof Collection && type.isAssignableFrom(HashSet.class) &&
-                    (type == HashSet.class || Modifier.isAbstract(modifiers) || Modifier.isInterface(modifiers))) {
+        switch (getCastStrategy(aClass, type)) {
+            case CAST_IDENTITY:
+                return object;
+            case CAST_ARRAY:
+                return asArray(object, type);
+            case CAST_HASH_SET:
                 return new HashSet((Collection)object);
-            }
-            if (aClass.isArray()) {
+            case CAST_ARRAY_TO_COLLECTION: {
+                int modifiers = type.getModifiers();
+                Collection answer;
                 if (type.isAssignableFrom(ArrayList.class) && (Modifier.isAbstract(modifiers) || Modifier.isInterface(modifiers))) {
                     answer = new ArrayList();
                 } else {
@@ -243,30 +273,26 @@ public class DefaultTypeTransformation {
                 }
                 return answer;
             }
-        }
-        if (type == String.class) {
-            return object.toString();
-        } else if (type == Character.class) {
-            return box(castToChar(object));
-        } else if (type == Boolean.class) {
-            return box(castToBoolean(object));
-        } else if (type == Class.class) {
-            return castToClass(object);
-        } else if (Number.class.isAssignableFrom(type)) {
-            Number n = castToNumber(object);
-            if (type == Byte.class) {
-                return new Byte(n.byteValue());
-            } else if (type == Character.class) {
-                return new Character((char) n.intValue());
-            } else if (type == Short.class) {
-                return new Short(n.shortValue());
-            } else if (type == Integer.class) {
-                return Integer.valueOf(n.intValue());
-            } else if (type == Long.class) {
-                return new Long(n.longValue());
-            } else if (type == Float.class) {
-                return new Float(n.floatValue());
-            } else if (type == Double.class) {
+            case CAST_STRING:
+                return object.toString();
+            case CAST_CHARACTER:
+                return box(castToChar(object));
+            case CAST_BOOLEAN:
+                return box(castToBoolean(object));
+            case CAST_CLASS:
+                return castToClass(object);
+            case CAST_BYTE:
+                return new Byte(castToNumber(object).byteValue());
+            case CAST_SHORT:
+                return new Short(castToNumber(object).shortValue());
+            case CAST_INTEGER:
+                return Integer.valueOf(castToNumber(object).intValue());
+            case CAST_LONG:
+                return new Long(castToNumber(object).longValue());
+            case CAST_FLOAT:
+                return new Float(castToNumber(object).floatValue());
+            case CAST_DOUBLE: {
+                Number n = castToNumber(object);
                 Double answer = new Double(n.doubleValue());
                 //throw a runtime exception if conversion would be out-of-range for the type.
                 if (!(n instanceof Double) && (answer.doubleValue() == Double.NEGATIVE_INFINITY
@@ -275,9 +301,11 @@ public class DefaultTypeTransformation {
                             + " value " + n + " to double failed.  Value is out of range.");
                 }
                 return answer;
-            } else if (type == BigDecimal.class) {
-                return new BigDecimal(n.toString());
-            } else if (type == BigInteger.class) {
+            }
+            case CAST_BIG_DECIMAL:
+                return new BigDecimal(castToNumber(object).toString());
+            case CAST_BIG_INTEGER: {
+                Number n = castToNumber(object);
                 if (object instanceof Float || object instanceof Double) {
                     BigDecimal bd = new BigDecimal(n.doubleValue());
                     return bd.toBigInteger();
@@ -287,22 +315,25 @@ public class DefaultTypeTransformation {
                     return new BigInteger(n.toString());
                 }
             }
-        } else if (type.isPrimitive()) {
-            if (type == boolean.class) {
-               return box(booleanUnbox(object)); 
-            } else if (type == byte.class) {
+            case CAST_OTHER_NUMBER:
+                // fails for objects which are no numbers, before a constructor is tried
+                castToNumber(object);
+                break;
+            case CAST_PRIMITIVE_BOOLEAN:
+                return box(booleanUnbox(object));
+            case CAST_PRIMITIVE_BYTE:
                 return box(byteUnbox(object));
-            } else if (type == char.class) {
+            case CAST_PRIMITIVE_CHAR:
                 return box(charUnbox(object));
-            } else if (type == short.class) {
+            case CAST_PRIMITIVE_SHORT:
                 return box(shortUnbox(object));
-            } else if (type == int.class) {
+            case CAST_PRIMITIVE_INT:
                 return box(intUnbox(object));
-            } else if (type == long.class) {
+            case CAST_PRIMITIVE_LONG:
                 return box(longUnbox(object));
-            } else if (type == float.class) {
+            case CAST_PRIMITIVE_FLOAT:
                 return box(floatUnbox(object));
-            } else if (type == double.class) {
+            case CAST_PRIMITIVE_DOUBLE: {
                 Double answer = new Double(doubleUnbox(object));
                 //throw a runtime exception if conversion would be out-of-range for the type.
                 if (!(object instanceof Double) && (answer.doubleValue() == Double.NEGATIVE_INFINITY
@@ -340,6 +371,87 @@ public class DefaultTypeTransformation {
         throw new GroovyCastException(object,type);
     }
 
+    /**
+     * Returns how instances of the given class are cast to the type. This only depends
+     * on both classes and is cached, so that casts of the same classes don't repeat
+     * the isAssignableFrom tests. Everything depending on meta classes, like the
+     * constructors tried by CAST_CONSTRUCTOR, is still looked up for each cast.
+     */
+    private static int getCastStrategy(Class aClass, Class type) {
+        Integer strategy = (Integer) castStrategies.get(aClass, type);
+        if (strategy == null) {
+            strategy = Integer.valueOf(resolveCastStrategy(aClass, type));
+            castStrategies.put(aClass, type, strategy);
+        }
+        return strategy.intValue();
+    }
+
+    private static int resolveCastStrategy(Class aClass, Class type) {
+        if (ReflectionCache.isArray(type)) {
+            return CAST_ARRAY;
+        }
+        if (ReflectionCache.isAssignableFrom(type, aClass)) {
+            return CAST_IDENTITY;
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            int modifiers = type.getModifiers();
+            if (Collection.class.isAssignableFrom(aClass) && type.isAssignableFrom(HashSet.class) &&
+                    (type == HashSet.class || Modifier.isAbstract(modifiers) || Modifier.isInterface(modifiers))) {
+                return CAST_HASH_SET;
+            }
+            if (aClass.isArray()) {
+                return CAST_ARRAY_TO_COLLECTION;
+            }
+        }
+        if (type == String.class) {
+            return CAST_STRING;
+        } else if (type == Character.class) {
+            return CAST_CHARACTER;
+        } else if (type == Boolean.class) {
+            return CAST_BOOLEAN;
+        } else if (type == Class.class) {
+            return CAST_CLASS;
+        } else if (Number.class.isAssignableFrom(type)) {
+            if (type == Byte.class) {
+                return CAST_BYTE;
+            } else if (type == Short.class) {
+                return CAST_SHORT;
+            } else if (type == Integer.class) {
+                return CAST_INTEGER;
+            } else if (type == Long.class) {
+                return CAST_LONG;
+            } else if (type == Float.class) {
+                return CAST_FLOAT;
+            } else if (type == Double.class) {
+                return CAST_DOUBLE;
+            } else if (type == BigDecimal.class) {
+                return CAST_BIG_DECIMAL;
+            } else if (type == BigInteger.class) {
+                return CAST_BIG_INTEGER;
+            }
+            return CAST_OTHER_NUMBER;
+        } else if (type.isPrimitive()) {
+            if (type == boolean.class) {
+                return CAST_PRIMITIVE_BOOLEAN;
+            } else if (type == byte.class) {
+                return CAST_PRIMITIVE_BYTE;
+            } else if (type == char.class) {
+                return CAST_PRIMITIVE_CHAR;
+            } else if (type == short.class) {
+                return CAST_PRIMITIVE_SHORT;
+            } else if (type == int.class) {
+                return CAST_PRIMITIVE_INT;
+            } else if (type == long.class) {
+                return CAST_PRIMITIVE_LONG;
+            } else if (type == float.class) {
+                return CAST_PRIMITIVE_FLOAT;
+            } else if (type == double.class) {
+                return CAST_PRIMITIVE_DOUBLE;
+            }
+        }
+        return CAST_CONSTRUCTOR;
+    }
+
     private static Class castToClass(Object object) {
         try {
             return Class.forName (object.toString());
@@ -564,7 +676,7 @@ public class DefaultTypeTransformation {
             }
             if (!equalityCheckOnly || left.getClass().isAssignableFrom(right.getClass())
                     || right.getClass().isAssignableFrom(left.getClass())
-                    || (left instanceof GString && right instanceof String)) {
+                    || (left instanceof GString && (right instanceof String || right instanceof GString))) {
                 Comparable comparable = (Comparable) left;
                 return comparable.compareTo(right);
             }
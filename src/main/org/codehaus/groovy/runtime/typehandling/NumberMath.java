@@ -153,11 +153,27 @@ public abstract class NumberMath {
 	}
 
 	public static BigDecimal toBigDecimal(Number n) {
-		return (n instanceof BigDecimal ? (BigDecimal) n : new BigDecimal(n.toString()));
+		if (n instanceof BigDecimal) {
+			return (BigDecimal) n;
+		}
+		// same value and scale as parsing the String, without creating it
+		if (n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte) {
+			return BigDecimal.valueOf(n.longValue());
+		}
+		if (n instanceof BigInteger) {
+			return new BigDecimal((BigInteger) n);
+		}
+		return new BigDecimal(n.toString());
 	}
 				
 	public static BigInteger toBigInteger(Number n) {
-		return (n instanceof BigInteger ? (BigInteger) n : new BigInteger(n.toString()));
+		if (n instanceof BigInteger) {
+			return (BigInteger) n;
+		}
+		if (n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte) {
+			return BigInteger.valueOf(n.longValue());
+		}
+		return new BigInteger(n.toString());
 	}
 					
 	/**
@@ -177,35 +193,59 @@ public abstract class NumberMath {
 	 * the result is BigDecimal
 	 */
 	public static NumberMath getMath(Number left, Number right) {
-		if (isFloatingPoint(left) || isFloatingPoint(right)) {
-			return FloatingPointMath.INSTANCE;
+		// each row and column of the matrix above takes the higher of both types in the
+		// order I < L < bI < bD < D, so the table is indexed by the higher rank
+		return getMathForRank(Math.max(rank(left), rank(right)));
+	}
+
+	private static NumberMath getMath(Number number) {
+		return getMathForRank(rank(number));
+	}
+
+	// the ranks of the operand types in the promotion matrix
+	private static final int INTEGER = 0;
+	private static final int LONG = 1;
+	private static final int BIG_INTEGER = 2;
+	private static final int BIG_DECIMAL = 3;
+	private static final int FLOATING_POINT = 4;
+
+	/**
+	 * Returns the rank of a number type in the promotion matrix of {@link #getMath(Number, Number)}.
+	 * The most common types are checked first. Numbers of other types, like Short or Byte,
+	 * are treated as Integers.
+	 */
+	private static int rank(Number number) {
+		if (number instanceof Integer) {
+			return INTEGER;
 		}
-		if (isBigDecimal(left) || isBigDecimal(right)) {
-			return BigDecimalMath.INSTANCE;
+		if (number instanceof BigDecimal) {
+			return BIG_DECIMAL;
 		}
-		if (isBigInteger(left) || isBigInteger(right)) {
-			return BigIntegerMath.INSTANCE;
+		if (number instanceof Long) {
+			return LONG;
 		}
-		if (isLong(left) || isLong(right)){
-			return LongMath.INSTANCE;
+		if (number instanceof Double || number instanceof Float) {
+			return FLOATING_POINT;
 		}
-		return IntegerMath.INSTANCE;
+		if (number instanceof BigInteger) {
+			return BIG_INTEGER;
+		}
+		return INTEGER;
 	}
 
-	private static NumberMath getMath(Number number) {
-		if (isLong(number)) {
-			return LongMath.INSTANCE;
-		}
-		if (isFloatingPoint(number)) {
-			return FloatingPointMath.INSTANCE;
-		}			
-		if (isBigDecimal(number)) {
-			return BigDecimalMath.INSTANCE;
-		}
-		if (isBigInteger(number)) {
-			return BigIntegerMath.INSTANCE;
+	private static NumberMath getMathForRank(int rank) {
+		switch (rank) {
+			case FLOATING_POINT:
+				return FloatingPointMath.INSTANCE;
+			case BIG_DECIMAL:
+				return BigDecimalMath.INSTANCE;
+			case BIG_INTEGER:
+				return BigIntegerMath.INSTANCE;
+			case LONG:
+				return LongMath.INSTANCE;
+			default:
+				return IntegerMath.INSTANCE;
 		}
-		return IntegerMath.INSTANCE;
 	}
 	
 	//Subclasses implement according to the type promotion hierarchy rules
@@ -225,6 +225,14 @@ public class FileSystemCompiler {
             configuration.setSourceEncoding(cli.getOptionValue("encoding"));
         }
 
+        if (cli.hasOption("incremental")) {
+            configuration.setIncremental(true);
+        }
+
+        if (cli.hasOption("profile")) {
+            configuration.setProfileReport(cli.getOptionValue("profile"));
+        }
+
         // joint compilation parameters
         if (cli.hasOption('j')) {
             Map compilerOptions = new HashMap();
@@ -257,6 +265,8 @@ public class FileSystemCompiler {
         options.addOption(OptionBuilder.withLongOpt("version").withDescription("Print the version.").create('v'));
         options.addOption(OptionBuilder.withLongOpt("exception").withDescription("Print stack trace on error.").create('e'));
         options.addOption(OptionBuilder.withLongOpt("jointCompilation").withDescription("Attach javac compiler to compile .java files.").create('j'));
+        options.addOption(OptionBuilder.withLongOpt("incremental").withDescription("Compile only the sources changed since the last compilation into the target directory, and the sources depending on them.").create());
+        options.addOption(OptionBuilder.withLongOpt("profile").hasArg().withArgName("file").withDescription("Write the time and memory used per compilation phase, source and AST transformation into a file, as JSON if its name ends with .json and as CSV otherwise.").create());
 
         options.addOption(
                 OptionBuilder.withArgName("property=value")
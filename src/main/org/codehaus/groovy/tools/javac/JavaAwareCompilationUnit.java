@@ -94,6 +94,14 @@ public class JavaAwareCompilationUnit extends CompilationUnit {
         }
     }
     
+    /**
+     * The Java sources are not part of the dependency index, so all
+     * sources are compiled.
+     */
+    protected boolean isIncremental() {
+        return false;
+    }
+
     public void configure(CompilerConfiguration configuration) {
         super.configure(configuration);
         // GroovyClassLoader should be able to find classes compiled from java
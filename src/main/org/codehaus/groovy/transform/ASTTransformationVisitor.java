@@ -54,13 +54,15 @@ import java.util.*;
 public class ASTTransformationVisitor extends ClassCodeVisitorSupport {
 
     private CompilePhase phase;
+    private CompilationUnit compilationUnit;
     private SourceUnit source;
     private List<ASTNode[]> targetNodes;
     private Map<ASTNode, List<ASTTransformation>> transforms;
     private Map<Class<? extends ASTTransformation>, ASTTransformation> transformInstances;
 
-    private ASTTransformationVisitor(CompilePhase phase) {
+    private ASTTransformationVisitor(CompilePhase phase, CompilationUnit compilationUnit) {
         this.phase = phase;
+        this.compilationUnit = compilationUnit;
     }
 
     protected SourceUnit getSourceUnit() {
@@ -124,7 +126,7 @@ public class ASTTransformationVisitor extends ClassCodeVisitorSupport {
             // second pass, call visit on all of the collected nodes
             for (ASTNode[] node : targetNodes) {
                 for (ASTTransformation snt : transforms.get(node[0])) {
-                    snt.visit(node, source);
+                    visit(snt, node, source, compilationUnit);
                 }
             }
         }
@@ -145,6 +147,21 @@ public class ASTTransformationVisitor extends ClassCodeVisitorSupport {
         }
     }
 
+    /**
+     * Calls a transformation, and measures it if the compilation is profiled.
+     */
+    private static void visit(ASTTransformation transformation, ASTNode[] nodes, SourceUnit source, CompilationUnit compilationUnit) {
+        CompilationProfiler profiler = compilationUnit.getProfiler();
+        if (profiler == null) {
+            transformation.visit(nodes, source);
+            return;
+        }
+        CompilationProfiler.Measurement measurement = profiler.start();
+        transformation.visit(nodes, source);
+        profiler.stop(measurement, CompilationProfiler.TRANSFORM, compilationUnit.getPhaseDescription(),
+                transformation.getClass().getName(), source.getName());
+    }
+
     public static void addPhaseOperations(final CompilationUnit compilationUnit) {
         addGlobalTransforms(compilationUnit);
 
@@ -156,7 +173,7 @@ public class ASTTransformationVisitor extends ClassCodeVisitorSupport {
             }
         }, Phases.SEMANTIC_ANALYSIS);
         for (CompilePhase phase : CompilePhase.values()) {
-            final ASTTransformationVisitor visitor = new ASTTransformationVisitor(phase);
+            final ASTTransformationVisitor visitor = new ASTTransformationVisitor(phase, compilationUnit);
             switch (phase) {
                 case INITIALIZATION:
                 case PARSING:
@@ -263,9 +280,10 @@ public class ASTTransformationVisitor extends ClassCodeVisitorSupport {
                 }
                 if (ASTTransformation.class.isAssignableFrom(gTransClass)) {
                     final ASTTransformation instance = (ASTTransformation)gTransClass.newInstance();
+                    final CompilationUnit unit = compilationUnit;
                     compilationUnit.addPhaseOperation(new CompilationUnit.SourceUnitOperation() {
                         public void call(SourceUnit source) throws CompilationFailedException {
-                            instance.visit(new ASTNode[] {source.getAST()}, source);
+                            visit(instance, new ASTNode[] {source.getAST()}, source, unit);
                         }
                     }, transformAnnotation.phase().getPhaseNumber());
                 } else {
@@ -1,5 +1,8 @@
 package org.codehaus.groovy.util;
 
+import java.util.ArrayList;
+import java.util.Collection;
+
 public abstract class AbstractConcurrentMapBase {
     protected static final int MAXIMUM_CAPACITY = 1 << 30;
     static final int MAX_SEGMENTS = 1 << 16;
@@ -101,6 +104,37 @@ public abstract class AbstractConcurrentMapBase {
         return count;
     }
 
+    public Collection values() {
+        Collection result = new ArrayList();
+        for (int i = 0; i < segments.length; i++) {
+            segments[i].lock();
+            try {
+                for (int j = 0; j < segments[i].table.length; j++) {
+                    Object o = segments[i].table [j];
+                    if (o != null) {
+                        if (o instanceof Entry) {
+                            Entry e = (Entry) o;
+                            if (e.isValid())
+                              result.add(e.getValue());
+                        }
+                        else {
+                            Object arr [] = (Object[]) o;
+                            for (int k = 0; k < arr.length; k++) {
+                                Entry info = (Entry) arr[k];
+                                if (info != null && info.isValid())
+                                    result.add(info.getValue());
+                            }
+                        }
+                    }
+                }
+            }
+            finally {
+                segments[i].unlock();
+            }
+        }
+        return result;
+    }
+
     protected static class Segment extends LockableObject {
         volatile int count;
 
@@ -0,0 +1,119 @@
+package groovy
+
+import org.codehaus.groovy.reflection.ReflectionCache
+import org.codehaus.groovy.runtime.DefaultGroovyMethods
+import org.codehaus.groovy.runtime.wrappers.PojoWrapper
+import java.lang.reflect.InvocationTargetException
+
+class ClosureDirectCallTest extends GroovyTestCase {
+
+    void testUntypedClosuresAreDirectlyCallable() {
+        assert directlyCallable({ -> 1 })
+        assert directlyCallable({ it })
+        assert directlyCallable({ a, b -> a })
+        assert directlyCallable({ a, b, c = 3 -> a })
+        assert !directlyCallable({ String s -> s })
+        assert !directlyCallable({ Object[] args -> args })
+        assert !directlyCallable(this.&toString)
+    }
+
+    void testCallsWithMatchingArguments() {
+        def none = { -> "none" }
+        def one = { "one $it" }
+        def two = { a, b -> "$a $b" }
+        def three = { a, b, c = "c" -> "$a $b $c" }
+
+        assertEquals "none", none.call()
+        assertEquals "one 1", one.call(1).toString()
+        assertEquals "one null", one.call().toString()
+        assertEquals "1 2", two.call(1, 2).toString()
+        assertEquals "1 2", two.call([1, 2] as Object[]).toString()
+        assertEquals "1 2 3", three.call([1, 2, 3] as Object[]).toString()
+        assertEquals "1 2 c", three.call(1, 2).toString()
+
+        // a list is spread over the parameters by the meta class
+        assertEquals "1 2", two.call([1, 2]).toString()
+        assertEquals "one [1, 2]", one.call([1, 2]).toString()
+        shouldFail(MissingMethodException) {
+            two.call(1)
+        }
+    }
+
+    void testCallsFromJava() {
+        assertEquals([2, 4, 6], [1, 2, 3].collect { it * 2 })
+        assertEquals 6, [1, 2, 3].inject(0) { sum, i -> sum + i }
+        assertEquals(["a1"], DefaultGroovyMethods.collect([a: 1]) { k, v -> k + v })
+    }
+
+    void testWrappedArgumentsAreUnwrapped() {
+        def closure = { it }
+        def wrapped = new PojoWrapper("text", String)
+        assertEquals "text", callFromJava(closure, wrapped)
+        assertEquals "text", callFromJava(closure, [wrapped] as Object[])
+    }
+
+    void testExceptionsAreWrappedLikeByTheMetaClass() {
+        def thrower = { throw new IOException("failed") }
+        def untyped = { a -> throw new IOException("failed") }
+        untyped.metaClass = new MetaClassImpl(untyped.getClass())
+        untyped.metaClass.initialize()
+        for (closure in [thrower, untyped]) {
+            for (args in [[1] as Object[], 1]) {
+                try {
+                    callFromJava(closure, args)
+                    fail()
+                } catch (InvocationTargetException e) {
+                    assert e.cause instanceof org.codehaus.groovy.runtime.InvokerInvocationException
+                    assert e.cause.cause instanceof IOException
+                }
+            }
+        }
+        assertEquals "failed", shouldFail(IOException) { thrower.call(1) }
+    }
+
+    void testChangedMetaClassIsUsed() {
+        def closure = { it * 2 }
+        def emc = new ExpandoMetaClass(closure.getClass(), false)
+        emc.invokeMethod = { String name, args -> "intercepted $name" }
+        emc.initialize()
+        closure.metaClass = emc
+        assertEquals(["intercepted doCall"], [1].collect(closure))
+        assertEquals "intercepted doCall", [1].inject(0, closure)
+    }
+
+    void testClosuresWithoutGeneratedDoCallDirectlyUseTheMetaClass() {
+        def closure = new InheritedDoCallDirectly(this)
+        assert directlyCallable(closure)
+        assertEquals "inherited 1", closure.call(1)
+        assertEquals "inherited 2", callFromJava(closure, [2] as Object[])
+        try {
+            callFromJava(closure, "fail")
+            fail()
+        } catch (InvocationTargetException e) {
+            assert e.cause instanceof org.codehaus.groovy.runtime.InvokerInvocationException
+            assert e.cause.cause instanceof IOException
+        }
+    }
+
+    // calls Closure.call(Object) or Closure.call(Object[]) without the meta class
+    private static callFromJava(Closure closure, args) {
+        def method = Closure.getMethod("call", args instanceof Object[] ? Object[] : Object)
+        method.invoke(closure, [args] as Object[])
+    }
+
+    private static boolean directlyCallable(Closure closure) {
+        ReflectionCache.getCachedClass(closure.getClass()).isDirectlyCallable()
+    }
+}
+
+// declares doCallDirectly, but leaves it to the implementation of Closure
+class InheritedDoCallDirectly extends Closure {
+    InheritedDoCallDirectly(owner) { super(owner) }
+
+    def doCall(x) {
+        if (x == "fail") throw new IOException("failed")
+        "inherited $x".toString()
+    }
+
+    protected Object doCallDirectly(Object[] args) { super.doCallDirectly(args) }
+}
@@ -60,6 +60,55 @@ class ForLoopTest extends gls.CompilableTestSupport {
         assert x == 45
     }
 
+    void testIntRanges() {
+        def values = []
+        for (i in 0..<3) values << i
+        for (i in 3..1) values << i
+        for (i in 2..<0) values << i
+        for (i in 5..<5) values << i
+        for (i in -1..-1) values << i
+        assert values == [0, 1, 2, 3, 2, 1, 2, 1, -1]
+
+        int from = 2, to = 4
+        values = []
+        for (int i in from..to) {
+            i *= 10
+            values << i
+        }
+        for (long i in to..from) values << i
+        assert values == [20, 30, 40, 4L, 3L, 2L]
+
+        values = []
+        for (i in Integer.MAX_VALUE - 1..Integer.MAX_VALUE) values << i
+        for (i in Integer.MIN_VALUE..<Integer.MIN_VALUE + 2) values << i
+        assert values == [Integer.MAX_VALUE - 1, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE + 1]
+    }
+
+    void testIntRangeWithContinueBreakAndClosures() {
+        def values = []
+        def closures = []
+        outer:
+        for (i in 0..9) {
+            if (i % 2) continue
+            closures << { i }
+            for (j in 0..9) {
+                if (j > i) continue outer
+                if (i == 6) break outer
+                values << j
+            }
+        }
+        assert values == [0, 0, 1, 2, 0, 1, 2, 3, 4]
+        // like with an iterator, the closures share the loop variable
+        assert closures*.call() == [6, 6, 6, 6]
+
+        def sum = 0
+        for (i in 1..3) {
+            def add = { sum += i }
+            add()
+        }
+        assert sum == 6
+    }
+
     void testList() {
         x = 0
 
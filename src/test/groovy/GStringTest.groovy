@@ -531,4 +531,55 @@ class GStringTest extends GroovyTestCase {
         assert gs.split() == ['The', 'quick', 'brown', 'fox'] as String[]
         assert gs.split('o') == ['The quick br', 'wn f', 'x'] as String[]
     }
+
+    void testRenderingOfDifferentValues() {
+        def writable = { out -> out << "written" }
+        def list = [1, [a: 2]]
+        def gs = "s=${'x'} n=${1.5G} null=${null} c=${-> 'lazy'} w=${writable} l=${list} a=${[1, 2] as int[]}"
+        assert gs.toString() == "s=x n=1.5 null=null c=lazy w=written l=[1, [a:2]] a=[1, 2]"
+        def out = new StringWriter()
+        gs.writeTo(out)
+        assert out.toString() == gs.toString()
+    }
+
+    void testImmutableGStringIsRenderedOnce() {
+        def name = "world"
+        def gs = "hello ${name} ${42} ${true}"
+        def immutable = gs.asImmutable()
+        assert immutable.toString() == "hello world 42 true"
+        assert immutable.toString().is(immutable.toString())
+        assert immutable == gs
+        assert gs == immutable
+        assert gs + "!" == "hello ${name} ${42} ${true}!"
+        assert immutable.hashCode() == gs.hashCode()
+        assert immutable.asImmutable().is(immutable)
+
+        // changes of the original arrays don't affect the copy
+        gs.values[0] = "there"
+        gs.strings[0] = "bye "
+        assert gs.toString() == "bye there 42 true"
+        assert immutable.toString() == "hello world 42 true"
+        immutable.values[0] = "there"
+        assert immutable.toString() == "hello world 42 true"
+
+        def nested = "${immutable}!".asImmutable()
+        assert nested.toString().is(nested.toString())
+
+        def map = [(immutable): 1]
+        assert map.get("hello ${'world'} 42 true".asImmutable()) == 1
+        assert map.get("hello ${name} ${42} ${true}") == 1
+    }
+
+    void testImmutableGStringWithMutableValues() {
+        def list = [1]
+        def immutable = "list=${list}".asImmutable()
+        assert immutable.toString() == "list=[1]"
+        list << 2
+        assert immutable.toString() == "list=[1, 2]"
+
+        def count = 0
+        immutable = "count=${-> ++count}".asImmutable()
+        assert immutable.toString() == "count=1"
+        assert immutable.toString() == "count=2"
+    }
 }
@@ -117,6 +117,52 @@ class GroovyMethodsTest extends GroovySwingTestCase {
         assert [[1, 2], [3, 4], [5, 6]].sum {list -> list.collect {it * 2}} == [2, 4, 6, 8, 10, 12]
     }
 
+    void testSumOfNumbersOfTheSameClass() {
+        assert [Integer.MAX_VALUE, 1].sum() == Integer.MIN_VALUE
+        assert [1L, 2L].sum().class == Long
+        assert [1L, 2L].sum(3L) == 6L
+        assert [0.1d, 0.2d, 0.3d].sum() == 0.1d + 0.2d + 0.3d
+        assert [1.5f, 2.5f].sum().class == Double
+        assert [1, 2L, 3.5].sum() == 6.5
+        assert [1, 2].sum(0.5) == 3.5
+        def one = new Double(1)
+        assert [one].sum().is(one)
+
+        assert ([1, 2, 3] as int[]).sum() == 6
+        assert ([] as int[]).sum() == 0
+        assert ([Integer.MAX_VALUE, 1] as int[]).sum() == Integer.MIN_VALUE
+        assert ([Integer.MAX_VALUE, 1] as long[]).sum() == Integer.MAX_VALUE + 1L
+        assert ([0.5, 0.25] as double[]).sum() == 0.75d
+    }
+
+    void testSumWithReplacedPlus() {
+        try {
+            Long.metaClass.plus = { Long other -> delegate * other }
+            assert [2L, 3L, 4L].sum() == 24L
+        } finally {
+            GroovySystem.metaClassRegistry.removeMetaClass(Long)
+        }
+    }
+
+    void testSumWithPlusFromCategory() {
+        use(FortyTwoPlusCategory) {
+            assert [1, 2, 3].sum() == 42
+        }
+        assert [1, 2, 3].sum() == 6
+    }
+
+    void testAverage() {
+        assert [].average() == null
+        assert [1, 2].average() == 1.5
+        assert [1.5d, 2.5d].average() == 2.0d
+        assert ([1, 2, 4] as int[]).average() == 7 / 3
+        assert ([Long.MAX_VALUE, Long.MAX_VALUE] as long[]).average() == -1
+        assert ([1.5, 2.5] as double[]).average() == 2.0d
+        assert ([] as int[]).average() == null
+        assert ([] as long[]).average() == null
+        assert ([] as double[]).average() == null
+    }
+
     void testSumForIteratorWithList() {
         def result = [1, 2, 3].iterator().sum([])
         assert result == [1, 2, 3]
@@ -734,3 +780,7 @@ class WackyList extends LinkedList {
 class WackyHashCode {
     int hashCode() {return 1;}
 }
+
+class FortyTwoPlusCategory {
+    static Integer plus(Integer self, Integer other) { 42 }
+}
@@ -18,6 +18,34 @@ class MinMaxTest extends GroovyTestCase {
         assert n == 9
     }
     
+    void testMinMaxOfNumbersOfTheSameClass() {
+        assert [5L, 2L, 9L].min() == 2L
+        assert [5L, 2L, 9L].max() == 9L
+        assert [0.5d, Double.NaN, -1d].max().isNaN()
+        assert [0.0d, -0.0d].min().equals(-0.0d)
+        assert [3, 1L, 2.5].min() == 1L
+        assert [3, 1L, 2.5, null].max() == 3
+
+        def first = new Integer(1000)
+        assert [first, new Integer(1000)].min().is(first)
+    }
+
+    void testMinMaxOfPrimitiveArrays() {
+        int[] ints = [5, 2, 6, 1, 9, 8]
+        assert ints.min() == 1
+        assert ints.max() == 9
+        long[] longs = [Long.MIN_VALUE, Long.MAX_VALUE]
+        assert longs.min() == Long.MIN_VALUE
+        assert longs.max() == Long.MAX_VALUE
+        double[] doubles = [0.5, -1.5, Double.NaN]
+        assert doubles.min() == -1.5d
+        assert doubles.max().isNaN()
+        assert new int[0].max() == null
+        assert new long[0].min() == null
+        assert new double[0].max() == null
+        assert [].max() == null
+    }
+
     void testMinMaxWithComparator() {
         def people = getPeople()
 
@@ -1,6 +1,7 @@
 package groovy
 
 import junit.framework.Assert
+import org.codehaus.groovy.runtime.typehandling.*
 
 /** 
  * Basic NumberMath test.
@@ -148,4 +149,38 @@ class NumberMathTest extends GroovyTestCase {
         assert 20 == new Short("10") << 1
         assert 2 == new Byte("1") << 1
     }
+
+    void testPromotionMatrix() {
+        def numbers = [1G, 1.0G, 1.0d, 1.0f, 1L, 1, 1 as short, new java.util.concurrent.atomic.AtomicLong(1)]
+        def maths = [BigInteger: BigIntegerMath, BigDecimal: BigDecimalMath, Double: FloatingPointMath,
+                Float: FloatingPointMath, Long: LongMath, Integer: IntegerMath, Short: IntegerMath, AtomicLong: IntegerMath]
+        // the rows and columns of the matrix documented at NumberMath.getMath, ordered as numbers
+        def expected = [
+                ["bI", "bD", "D", "D", "bI", "bI", "bI", "bI"],
+                ["bD", "bD", "D", "D", "bD", "bD", "bD", "bD"],
+                ["D", "D", "D", "D", "D", "D", "D", "D"],
+                ["D", "D", "D", "D", "D", "D", "D", "D"],
+                ["bI", "bD", "D", "D", "L", "L", "L", "L"],
+                ["bI", "bD", "D", "D", "L", "I", "I", "I"],
+                ["bI", "bD", "D", "D", "L", "I", "I", "I"],
+                ["bI", "bD", "D", "D", "L", "I", "I", "I"]]
+        def names = [bI: BigIntegerMath, bD: BigDecimalMath, D: FloatingPointMath, L: LongMath, I: IntegerMath]
+        numbers.eachWithIndex { left, i ->
+            assert maths[left.getClass().simpleName].isInstance(NumberMath.getMath(left, left))
+            numbers.eachWithIndex { right, j ->
+                assert names[expected[i][j]].isInstance(NumberMath.getMath(left, right)), "${left.getClass()} ${right.getClass()}"
+            }
+        }
+    }
+
+    void testConversions() {
+        [0, -1, Integer.MAX_VALUE, Long.MIN_VALUE, 12 as short, 7 as byte, new BigInteger("2").pow(70)].each {
+            def decimal = NumberMath.toBigDecimal(it)
+            assert decimal == new BigDecimal(it.toString())
+            assert decimal.scale() == 0
+            assert NumberMath.toBigInteger(it) == new BigInteger(it.toString())
+        }
+        assert NumberMath.toBigDecimal(0.1d) == 0.1G
+        assert NumberMath.toBigDecimal(1.50G).scale() == 2
+    }
 }
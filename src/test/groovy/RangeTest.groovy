@@ -192,6 +192,23 @@ class RangeTest extends GroovyTestCase {
         assert (0..<upper2).size() == 4
     }
 
+    void testLongRanges() {
+        def range = 1L..5L
+        assert range instanceof LongRange
+        assert range == [1L, 2L, 3L, 4L, 5L]
+        assert range.every { it instanceof Long }
+        assert (5L..<1L) instanceof LongRange
+        assert (5L..<1L) == [5L, 4L, 3L, 2L]
+        assert (1L..<1L) instanceof EmptyRange
+        assert (1..5L) instanceof ObjectRange
+        assert (0L..Long.MAX_VALUE) instanceof ObjectRange
+        shouldFail(UnsupportedOperationException) {
+            def iterator = range.iterator()
+            iterator.next()
+            iterator.remove()
+        }
+    }
+
     protected void assertIterate(range, expected) {
 	    def list = []
 	    for (it in range) {
@@ -75,4 +75,52 @@ class UniqueOnCollectionTest extends GroovyTestCase {
     	x.unique()
     	assert x == [1, 2, 3, null, 'a']
     }
+
+    void testUniqueOnNumbersOfAllTypes() {
+        def a = [1, 1L, 1.0G, 1.00G, 1G, 1.0d, 1.0f, (byte) 1, (short) 1, 0.0G, 0, 2.5G, 2.50G]
+        assert a.unique() == [1, 0.0G, 2.5G]
+        a = [Long.MAX_VALUE, new BigInteger(Long.MAX_VALUE.toString()), Long.MAX_VALUE + 1G, (Long.MAX_VALUE + 1G) as BigDecimal]
+        assert a.unique() == [Long.MAX_VALUE, Long.MAX_VALUE + 1G]
+        // doubles are compared with Double.compare, so -0.0 differs from 0 and NaN equals NaN
+        def comparator = { x, y -> x <=> y } as Comparator
+        a = [Double.NaN, 1.5d, Float.NaN, 1.5f, 0.0d, 0, Double.valueOf(-0.0d), Float.valueOf(-0.0f)]
+        assert a.clone().unique().toString() == a.clone().unique(comparator).toString()
+    }
+
+    void testUniqueOnCharactersAndStrings() {
+        def a = ['a', 'a' as char, 97, "ab", "a${'b'}", 'b', "b"]
+        assert a.unique() == ['a', "ab", 'b']
+        def gstrings = ["${1}", '1', "x${2}", 'x2']
+        assert gstrings.unique() == ["1", "x2"]
+    }
+
+    void testUniqueFallsBackForMixedFractions() {
+        // a double equals a big decimal if their double values are equal
+        assert [0.1G, 0.1d, 0.2d, 0.1G].unique() == [0.1G, 0.2d]
+        assert [0.5f, 0.5d, 0.1f, 0.1d].unique() == [0.5f, 0.1f, 0.1d]
+        assert [2.5G, 1, 2.5d, 1.0d].unique() == [2.5G, 1]
+        assert [Double.POSITIVE_INFINITY, 1, Double.POSITIVE_INFINITY].unique().size() == 2
+    }
+
+    void testUniqueOnObjectsWithoutCompareTo() {
+        def a = [[1, 2], [1L, 2L], [1, 3], [x: 1], [x: 1], null, null]
+        assert a.unique() == [[1, 2], [1, 3], [x: 1], null]
+    }
+
+    void testUniqueAgreesWithComparator() {
+        def random = new Random(42)
+        def values = [{ it }, { it as long }, { it as BigInteger }, { it as BigDecimal }, { (it as BigDecimal).setScale(2) },
+                { it as double }, { it as short }, { it as char }, { (it as char).toString() }]
+        def comparator = { a, b -> a <=> b } as Comparator
+        10.times {
+            def list = (1..500).collect { values[random.nextInt(values.size())].call(random.nextInt(120)) }
+            def expected = list.clone().unique(comparator)
+            assert list.unique() == expected
+        }
+    }
+
+    void testUniqueOnLargeList() {
+        def list = (0..<200000).collect { it % 1000 }
+        assert list.unique() == (0..<1000).toList()
+    }
 }
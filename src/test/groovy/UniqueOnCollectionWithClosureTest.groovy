@@ -36,4 +36,28 @@ class UniqueOnCollectionWithClosureTest extends GroovyTestCase {
         assert list.unique(closure) == [-1, 0]
     }
 
-}
\ No newline at end of file
+    void testUniqueWithOneParameterClosureOnNumbersOfAllTypes() {
+        def list = [[id: 1], [id: 1L], [id: 2G], [id: 2.0G], [id: null], [id: null], [id: 'a']]
+        assert list.unique { it.id } == [[id: 1], [id: 2G], [id: null], [id: 'a']]
+    }
+
+    void testUniqueWithOneParameterClosureCallsClosureOncePerElement() {
+        int calls = 0
+        def list = (1..100).toList() * 2
+        assert list.unique { calls++; it } == (1..100).toList()
+        assertEquals 200, calls
+    }
+
+    void testUniqueWithOneParameterClosureCallsClosureOncePerElementWithoutKeys() {
+        // Files are Comparables without a hash key, so the values are compared one by one
+        int calls = 0
+        def list = ['a', 'b', 'a', 'c', 'b']
+        assert list.unique { calls++; new File(it) } == ['a', 'b', 'c']
+        assertEquals 5, calls
+    }
+
+    void testUniqueWithOneParameterClosureOnValuesWithAndWithoutKeys() {
+        def list = [[id: 1], [id: new File('a')], [id: 1L], [id: 'a'], [id: new File('a')], [id: 1.0G], [id: null]]
+        assert list.unique { it.id } == [[id: 1], [id: new File('a')], [id: 'a'], [id: null]]
+    }
+}
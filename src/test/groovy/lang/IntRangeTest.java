@@ -86,6 +86,23 @@ public class IntRangeTest extends NumberRangeTest {
         assertEquals("wrong 'to'", to, range.getToInt());
     }
 
+    public void testIntIterator() {
+        final IntRange.IntRangeIterator it = new IntRange(3, 1).intIterator();
+        assertEquals(3, it.nextInt());
+        assertEquals(new Integer(2), it.next());
+        assertEquals(1, it.nextInt());
+        assertFalse(it.hasNext());
+        assertNull(it.next());
+    }
+
+    public void testStepToTheLimits() {
+        final int max = Integer.MAX_VALUE;
+        assertEquals(java.util.Arrays.asList(new Integer[]{new Integer(max - 3), new Integer(max - 1)}),
+                new IntRange(max - 3, max).step(2));
+        assertEquals(java.util.Arrays.asList(new Integer[]{new Integer(Integer.MIN_VALUE + 1)}),
+                new IntRange(Integer.MIN_VALUE + 1, Integer.MIN_VALUE).step(3));
+    }
+
     /**
      * {@inheritDoc}
      */
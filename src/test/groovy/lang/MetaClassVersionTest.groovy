@@ -0,0 +1,99 @@
+package groovy.lang
+
+import org.codehaus.groovy.reflection.ClassInfo
+
+class MetaClassVersionTest extends GroovyTestCase {
+
+    protected void tearDown() {
+        GroovySystem.metaClassRegistry.removeMetaClass(VersionTarget)
+        GroovySystem.metaClassRegistry.removeMetaClass(BitSet)
+    }
+
+    void testAddingMethodOnlyChangesVersionOfItsName() {
+        VersionTarget.metaClass.other = {-> "other" }
+
+        def info = ClassInfo.getClassInfo(VersionTarget)
+        def classVersion = info.version
+        def greetVersion = info.getMethodVersion("greet").version
+        def otherVersion = info.getMethodVersion("other").version
+
+        VersionTarget.metaClass.other = { int i -> "other $i" }
+
+        assertEquals classVersion, info.version
+        assertEquals greetVersion, info.getMethodVersion("greet").version
+        assert otherVersion != info.getMethodVersion("other").version
+    }
+
+    void testInvokeMethodInvalidatesWholeClass() {
+        VersionTarget.metaClass.other = {-> "other" }
+
+        def info = ClassInfo.getClassInfo(VersionTarget)
+        def classVersion = info.version
+        VersionTarget.metaClass.invokeMethod = { String name, args -> "intercepted" }
+
+        assert classVersion != info.version
+        assertEquals "intercepted", new VersionTarget().greet(1)
+    }
+
+    void testPogoCallSiteFollowsNewMethod() {
+        VersionTarget.metaClass.other = {-> "other" }
+        def target = new VersionTarget()
+
+        def results = []
+        for (int i = 0; i < 4; i++) {
+            if (i == 2)
+              VersionTarget.metaClass.greet = { Integer n -> "int $n" }
+            results << target.greet(1)
+        }
+        assertEquals(["object 1", "object 1", "int 1", "int 1"], results)
+    }
+
+    void testPojoCallSiteFollowsNewMethod() {
+        BitSet.metaClass.other = {-> "other" }
+        def bits = new BitSet()
+
+        def results = []
+        for (int i = 0; i < 4; i++) {
+            if (i == 2)
+              BitSet.metaClass.length = {-> -1 }
+            results << bits.length()
+        }
+        assertEquals([0, 0, -1, -1], results)
+    }
+
+    void testBatchChangesInvalidateOnce() {
+        VersionTarget.metaClass.other = {-> "other" }
+
+        def stamp = ClassInfo.getClassInfo(VersionTarget).getMethodVersion("greet")
+        def before = stamp.version
+        GroovySystem.metaClassRegistry.batchChanges {
+            VersionTarget.metaClass.greet = { Integer n -> "int $n" }
+            VersionTarget.metaClass.greet = { String s -> "string $s" }
+            assertEquals before, stamp.version
+        }
+        assertEquals before + 1, stamp.version
+
+        def target = new VersionTarget()
+        assertEquals "int 1", target.greet(1)
+        assertEquals "string s", target.greet("s")
+        assertEquals "object 1.0", target.greet(1.0)
+    }
+
+    void testBatchChangesAreAppliedWhenBatchFails() {
+        VersionTarget.metaClass.other = {-> "other" }
+
+        def stamp = ClassInfo.getClassInfo(VersionTarget).getMethodVersion("greet")
+        def before = stamp.version
+        shouldFail(IllegalStateException) {
+            GroovySystem.metaClassRegistry.batchChanges {
+                VersionTarget.metaClass.greet = { Integer n -> "int $n" }
+                throw new IllegalStateException()
+            }
+        }
+        assertEquals before + 1, stamp.version
+    }
+}
+
+class VersionTarget {
+    def greet(Object o) { "object $o" }
+}
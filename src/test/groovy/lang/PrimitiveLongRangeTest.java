@@ -0,0 +1,110 @@
+/*
+ * Copyright 2003-2009 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovy.lang;
+
+import org.codehaus.groovy.runtime.ScriptBytecodeAdapter;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Provides unit tests for the <code>LongRange</code> class.
+ */
+public class PrimitiveLongRangeTest extends NumberRangeTest {
+
+    public void testCreateTooBigRange() {
+        try {
+            new LongRange(0, Integer.MAX_VALUE);
+            fail("too large range accepted");
+        }
+        catch (IllegalArgumentException e) {
+            assertTrue("expected exception thrown", true);
+        }
+        try {
+            new LongRange(Long.MIN_VALUE, Long.MAX_VALUE);
+            fail("too large range accepted");
+        }
+        catch (IllegalArgumentException e) {
+            assertTrue("expected exception thrown", true);
+        }
+        assertEquals(Integer.MAX_VALUE, new LongRange(-1, Integer.MAX_VALUE - 2).size());
+    }
+
+    public void testValuesOutsideTheIntRange() {
+        final long from = Long.MAX_VALUE - 2;
+        final LongRange range = new LongRange(Long.MAX_VALUE, from);
+        assertEquals("size", 3, range.size());
+        assertEquals("get", new Long(from), range.get(2));
+        assertEquals("from", from, range.getFromLong());
+        assertEquals("to", Long.MAX_VALUE, range.getToLong());
+        assertEquals(Arrays.asList(new Long[]{new Long(Long.MAX_VALUE), new Long(from + 1), new Long(from)}), range.step(1));
+        assertEquals(Arrays.asList(new Long[]{new Long(from), new Long(Long.MAX_VALUE)}), range.step(-2));
+        assertEquals(Arrays.asList(new Long[]{new Long(Long.MIN_VALUE + 1)}), new LongRange(Long.MIN_VALUE, Long.MIN_VALUE + 1).step(-5));
+    }
+
+    public void testLongIterator() {
+        final LongRange.LongRangeIterator it = new LongRange(7, 5).longIterator();
+        assertEquals(7, it.nextLong());
+        assertEquals(6, it.nextLong());
+        assertEquals(new Long(5), it.next());
+        assertFalse(it.hasNext());
+        try {
+            it.nextLong();
+            fail("read past the end");
+        }
+        catch (NoSuchElementException e) {
+            assertTrue("expected exception thrown", true);
+        }
+    }
+
+    public void testSubListOfReversedRange() {
+        final List subList = new LongRange(10, 1).subList(2, 5);
+        assertEquals(Arrays.asList(new Long[]{new Long(8), new Long(7), new Long(6)}), subList);
+    }
+
+    public void testContainsOtherNumbers() {
+        final LongRange range = new LongRange(1, 5);
+        assertTrue(range.contains(new Integer(3)));
+        assertTrue(range.contains(new Double(3.0)));
+        assertTrue(range.contains(new BigDecimal("5.00")));
+        assertFalse(range.contains(new BigDecimal("5.01")));
+        assertFalse(range.contains(new Double(0.5)));
+    }
+
+    public void testCreatedForLongBounds() throws Throwable {
+        assertEquals(new LongRange(1, 4), ScriptBytecodeAdapter.createRange(new Long(1), new Long(5), false));
+        assertEquals(new LongRange(5, 2), ScriptBytecodeAdapter.createRange(new Long(5), new Long(1), false));
+        assertTrue(ScriptBytecodeAdapter.createRange(new Long(1), new Long(1), false) instanceof EmptyRange);
+        final List huge = ScriptBytecodeAdapter.createRange(new Long(0), new Long(Long.MAX_VALUE), true);
+        assertTrue(huge instanceof ObjectRange);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected Comparable createValue(int value) {
+        return new Long(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected Range createRange(int from, int to) {
+        return new LongRange(from, to);
+    }
+}
@@ -21,6 +21,7 @@ public final class RangeTestSuite extends TestSuite {
         addTestSuite(ShortRangeTest.class);
         addTestSuite(IntegerRangeTest.class);
         addTestSuite(LongRangeTest.class);
+        addTestSuite(PrimitiveLongRangeTest.class);
         addTestSuite(FloatRangeTest.class);
         addTestSuite(BigDecimalRangeTest.class);
         addTestSuite(CharacterRangeTest.class);
@@ -0,0 +1,121 @@
+package groovy.util
+
+import java.util.concurrent.ConcurrentHashMap
+
+class ParallelCategoryTest extends GroovyTestCase {
+
+    int oldThreshold
+    int oldParallelism
+
+    protected void setUp() {
+        super.setUp()
+        oldThreshold = ParallelCategory.threshold
+        oldParallelism = ParallelCategory.parallelism
+        ParallelCategory.threshold = 10
+        ParallelCategory.parallelism = 4
+    }
+
+    protected void tearDown() {
+        ParallelCategory.threshold = oldThreshold
+        ParallelCategory.parallelism = oldParallelism
+        super.tearDown()
+    }
+
+    void testResultsAreInOrder() {
+        def list = (1..1000).collect { (it * 7919) % 1000 }
+        use(ParallelCategory) {
+            assertEquals list.collect { it * 2 }, list.collectParallel { it * 2 }
+            assertEquals list.findAll { it % 3 == 0 }, list.findAllParallel { it % 3 == 0 }
+            assertEquals list.groupBy { it % 7 }, list.groupByParallel { it % 7 }
+            assertEquals((list.groupBy { it % 7 }.keySet() as List), (list.groupByParallel { it % 7 }.keySet() as List))
+        }
+    }
+
+    void testRangesArraysAndOtherLists() {
+        use(ParallelCategory) {
+            assertEquals((1..500).collect { it + 1 }, (1..500).collectParallel { it + 1 })
+            Integer[] array = (1..500).toArray()
+            assertEquals((1..500).findAll { it > 250 }, array.findAllParallel { it > 250 })
+            assertEquals((1..500).groupBy { it % 2 == 0 }, array.groupByParallel { it % 2 == 0 })
+            def linked = new LinkedList(1..500)
+            assertEquals((1..500).collect { it * it }, linked.collectParallel { it * it })
+        }
+    }
+
+    void testEachUsesSeveralThreads() {
+        def threads = new ConcurrentHashMap()
+        def seen = new ConcurrentHashMap()
+        def list = (1..1000).toList()
+        use(ParallelCategory) {
+            assert list.is(list.eachParallel {
+                threads[Thread.currentThread()] = true
+                seen[it] = true
+                Thread.sleep(0, 1000)
+            })
+        }
+        assertEquals 1000, seen.size()
+        assert threads.size() > 1
+    }
+
+    void testSmallListsAreSequential() {
+        def threads = [] as Set
+        use(ParallelCategory) {
+            (1..5).eachParallel { threads << Thread.currentThread() }
+        }
+        assertEquals([Thread.currentThread()] as Set, threads)
+    }
+
+    void testClosuresAreCloned() {
+        def closures = new ConcurrentHashMap()
+        def closure = { closures[System.identityHashCode(delegate) + ":" + System.identityHashCode(owner)] = true; it }
+        def delegate = "delegate"
+        closure.delegate = delegate
+        use(ParallelCategory) {
+            assertEquals((1..100).toList(), (1..100).collectParallel(closure))
+        }
+        // the clones keep delegate and owner
+        assertEquals([System.identityHashCode(delegate) + ":" + System.identityHashCode(this)], closures.keySet() as List)
+        assert delegate.is(closure.delegate)
+    }
+
+    void testNestedParallelCalls() {
+        use(ParallelCategory) {
+            def result = (1..40).collectParallel { i -> (1..40).collectParallel { j -> i * j }.sum() }
+            assertEquals((1..40).collect { i -> (1..40).collect { j -> i * j }.sum() }, result)
+        }
+    }
+
+    void testExceptionsAreRethrown() {
+        use(ParallelCategory) {
+            def message = shouldFail(IllegalStateException) {
+                (1..1000).collectParallel { if (it == 777) throw new IllegalStateException("777"); it }
+            }
+            assertEquals "777", message
+        }
+    }
+
+    void testParallelismChangesWhileRunning() {
+        def list = (1..1000).toList()
+        use(ParallelCategory) {
+            20.times {
+                assertEquals list, list.collectParallel {
+                    if (it % 100 == 1) ParallelCategory.parallelism = 2 + it % 3
+                    it
+                }
+            }
+        }
+    }
+
+    void testConfiguration() {
+        shouldFail(IllegalArgumentException) {
+            ParallelCategory.threshold = 0
+        }
+        shouldFail(IllegalArgumentException) {
+            ParallelCategory.parallelism = 0
+        }
+        ParallelCategory.parallelism = 1
+        use(ParallelCategory) {
+            assertEquals((1..100).toList(), (1..100).collectParallel { it })
+        }
+    }
+}
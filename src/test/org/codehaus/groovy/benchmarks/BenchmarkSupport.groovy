@@ -0,0 +1,41 @@
+/**
+ * Timing shared by the benchmark scripts in this directory. Each case is run a few
+ * times to warm up, then timed in several rounds and the best round is reported,
+ * to filter out gc and scheduling noise.
+ *
+ * The scripts find this class when this directory or the compiled test classes are
+ * on the class path.
+ */
+class BenchmarkSupport {
+
+    /**
+     * @param warmUps runs of the test before it is timed
+     * @param rounds timed runs of the test
+     * @return the best round in ns
+     */
+    static long bestOf(int warmUps, int rounds, Closure test) {
+        warmUps.times { test() }
+
+        long best = Long.MAX_VALUE
+        rounds.times {
+            long start = System.nanoTime()
+            test()
+            best = Math.min(best, System.nanoTime() - start)
+        }
+        best
+    }
+
+    /**
+     * @return the best of three rounds in ms
+     */
+    static double time(int warmUps = 1, Closure test) {
+        bestOf(warmUps, 3, test) / 1000000d
+    }
+
+    /**
+     * Prints the best of five rounds of n operations in ns per operation.
+     */
+    static void measure(String name, int n, Closure test) {
+        println "${name.padRight(40)} ${String.format('%8.1f', bestOf(5, 5, test) / (double) n)} ns/op"
+    }
+}
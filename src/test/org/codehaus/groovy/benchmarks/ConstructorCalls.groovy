@@ -0,0 +1,41 @@
+import static BenchmarkSupport.bestOf
+
+/**
+ * Measures dynamic constructor calls of small objects, as done by builders.
+ *
+ * Usage: ConstructorCalls [iterations]
+ */
+class SmallNode {
+    final String name
+    final int value
+
+    SmallNode(String name, int value) {
+        this.name = name
+        this.value = value
+    }
+}
+
+def iterations = args ? args[0] as int : 10000000
+
+def cases = [
+    "new SmallNode(name, i)": { int n ->
+        long sum = 0
+        for (int i = 0; i < n; i++) sum += new SmallNode("node", i).value
+        sum
+    },
+    "new ArrayList(size)": { int n ->
+        long sum = 0
+        for (int i = 0; i < n; i++) sum += new ArrayList(4).size()
+        sum
+    },
+    "new Integer(i)": { int n ->
+        long sum = 0
+        for (int i = 0; i < n; i++) sum += new Integer(i)
+        sum
+    }
+]
+
+cases.each { name, test ->
+    long best = bestOf(1, 5) { test(iterations) }
+    println "${name.padRight(40)} ${String.format('%.2f', best / (double) iterations)} ns/iteration"
+}
@@ -0,0 +1,39 @@
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation
+import static BenchmarkSupport.measure
+
+/**
+ * Measures castToType for conversions done when binding untyped values to typed
+ * properties, directly and through dynamic property assignment.
+ *
+ * Usage: DataBinding [operations per round]
+ */
+def n = args ? args[0] as int : 1000000
+
+class Order {
+    Long id
+    String customer
+    BigDecimal amount
+    double weight
+    Set tags
+}
+
+def conversions = [[42, Long], [17, String], [3.5, double], [["a", "b"], Set]]
+for (conversion in conversions) {
+    def value = conversion[0]
+    Class type = conversion[1]
+    measure("castToType ${value.class.simpleName} to ${type.simpleName}", n) {
+        for (int i = 0; i < n; i++) {
+            DefaultTypeTransformation.castToType(value, type)
+        }
+    }
+}
+
+def order = new Order()
+measure("property assignment", n) {
+    for (int i = 0; i < n; i++) {
+        order.id = 42
+        order.customer = 17
+        order.weight = 3.5
+        order.tags = ["a", "b"]
+    }
+}
@@ -0,0 +1,39 @@
+import static BenchmarkSupport.time
+
+/**
+ * Measures GString rendering in a logging-like workload: formatting messages,
+ * and using them as keys of sets and maps, with and without asImmutable().
+ *
+ * Usage: GStringLogging [messages]
+ */
+def n = args ? args[0] as int : 1000000
+def users = (1..50).collect { "user" + it }
+def actions = ["login", "logout", "read", "write"]
+
+def messages = (0..<n).collect { i ->
+    "[${i % 24}:${i % 60}] ${users[i % users.size()]} ${actions[i % actions.size()]} (${i % 7 == 0})"
+}
+def keys = (0..<n).collect { i -> "${users[i % users.size()]}/${actions[i % actions.size()]}" }
+def immutableKeys = keys*.asImmutable()
+
+def cases = [
+    "toString()": {
+        long length = 0
+        for (message in messages) length += message.toString().length()
+        length
+    },
+    "writeTo(Writer)": {
+        def out = new StringWriter()
+        for (message in messages) message.writeTo(out)
+        out.buffer.length()
+    },
+    "HashSet of GStrings": {
+        new HashSet(keys).size()
+    },
+    "HashSet of asImmutable()": {
+        new HashSet(immutableKeys).size()
+    },
+]
+cases.each { name, test ->
+    println "${name.padRight(24)} ${String.format('%10.2f', time(test))} ms"
+}
@@ -0,0 +1,66 @@
+import static BenchmarkSupport.bestOf
+
+/**
+ * Measures steady state dispatch while meta classes keep being modified in another thread.
+ * Adding a method only invalidates call sites linked to methods of the same name,
+ * so none of the churn modes should slow down the measured calls noticeably.
+ *
+ * Usage: MetaClassChurn [iterations]
+ */
+class ChurnTarget {
+    int twice(int i) { 2 * i }
+}
+
+class ChurnedClass {
+}
+
+def iterations = args ? args[0] as int : 10000000
+def registry = GroovySystem.metaClassRegistry
+
+// modify both classes once, so that their expando meta classes are in place before measuring
+ChurnTarget.metaClass.extra0 = {-> 0 }
+ChurnedClass.metaClass.extra0 = {-> 0 }
+
+def modes = [
+    "no churn": null,
+    "churn on unrelated class": { int k -> ChurnedClass.metaClass."extra${k % 100}" = {-> k } },
+    "churn on other methods of same class": { int k -> ChurnTarget.metaClass."extra${k % 100}" = {-> k } },
+    "batched churn on both classes": { int k ->
+        registry.batchChanges {
+            for (int j = 0; j < 10; j++) {
+                ChurnedClass.metaClass."extra${j}" = {-> k }
+                ChurnTarget.metaClass."extra${j}" = {-> k }
+            }
+        }
+    }
+]
+
+def dispatch = { int n ->
+    def target = new ChurnTarget()
+    def str = "churn"
+    long sum = 0
+    for (int i = 0; i < n; i++) {
+        sum += target.twice(i) + str.length()
+    }
+    sum
+}
+
+// warm up
+dispatch(iterations)
+
+modes.each { name, change ->
+    def running = true
+    def churn = change == null ? null : Thread.start {
+        int k = 0
+        while (running) {
+            change(k++)
+            Thread.sleep 1
+        }
+    }
+
+    long best = bestOf(0, 5) { dispatch(iterations) }
+
+    running = false
+    churn?.join()
+    println "${name.padRight(40)} ${String.format('%.2f', best / (double) iterations)} ns/iteration"
+}
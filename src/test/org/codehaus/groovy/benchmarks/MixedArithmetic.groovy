@@ -0,0 +1,65 @@
+import org.codehaus.groovy.runtime.typehandling.NumberMath
+import static BenchmarkSupport.measure
+
+/**
+ * Measures arithmetic on mixed Integer, Long and BigDecimal operands, like in
+ * scripts computing prices, quantities and totals. Each case is warmed up and then
+ * measured in several rounds; the best round is reported in ns per operation.
+ *
+ * Usage: MixedArithmetic [operations per round]
+ */
+def n = args ? args[0] as int : 1000000
+
+def random = new Random(42)
+def prices = (0..<1000).collect { new BigDecimal(random.nextInt(100000)).movePointLeft(2) }
+def quantities = (0..<1000).collect { random.nextInt(100) }
+def ids = (0..<1000).collect { random.nextInt(1000000) as long }
+
+measure("BigDecimal * Integer + BigDecimal", n) {
+    def total = 0.0
+    for (int i = 0; i < n; i++) {
+        int j = i % 1000
+        total = total + prices[j] * quantities[j]
+    }
+    total
+}
+measure("BigDecimal / Integer, / BigDecimal", n) {
+    def total = 0.0
+    for (int i = 0; i < n; i++) {
+        int j = i % 1000
+        total = prices[j] / (quantities[j] + 1) + prices[j] / 1.19
+    }
+    total
+}
+measure("Long + Integer, Long % Integer", n) {
+    long total = 0
+    for (int i = 0; i < n; i++) {
+        int j = i % 1000
+        total += ids[j] + quantities[j] + ids[j] % 7
+    }
+    total
+}
+measure("BigDecimal < Integer", n) {
+    int count = 0
+    for (int i = 0; i < n; i++) {
+        int j = i % 1000
+        if (prices[j] < quantities[j]) count++
+    }
+    count
+}
+measure("NumberMath.add(Long, BigDecimal)", n) {
+    def total = 0.0
+    for (int i = 0; i < n; i++) {
+        int j = i % 1000
+        total = NumberMath.add(ids[j], prices[j])
+    }
+    total
+}
+measure("NumberMath.compareTo(Integer, Long)", n) {
+    int count = 0
+    for (int i = 0; i < n; i++) {
+        int j = i % 1000
+        count += NumberMath.compareTo(quantities[j], ids[j])
+    }
+    count
+}
@@ -0,0 +1,38 @@
+import static BenchmarkSupport.time
+
+/**
+ * Measures sum(), min() and max() on primitive arrays and on lists of numbers
+ * of the same class. Before primitive arrays had these methods of their own,
+ * they had to be converted with toList(), which is measured as well.
+ *
+ * Usage: NumericAggregates [elements]
+ */
+def n = args ? args[0] as int : 10000000
+
+def random = new Random(42)
+int[] ints = new int[n]
+double[] doubles = new double[n]
+for (int i = 0; i < n; i++) {
+    ints[i] = random.nextInt(1000)
+    doubles[i] = random.nextDouble()
+}
+def intList = ints.toList()
+def doubleList = doubles.toList()
+
+def cases = [
+    "int[].toList().sum()": { ints.toList().sum() },
+    "int[].sum()": { ints.sum() },
+    "int[].max()": { ints.max() },
+    "double[].sum()": { doubles.sum() },
+    "List of Integers sum()": { intList.sum() },
+    "List of Integers max()": { intList.max() },
+    "List of Doubles sum()": { doubleList.sum() },
+    "List of Doubles min()": { doubleList.min() },
+]
+cases.each { name, test ->
+    try {
+        println "${name.padRight(24)} ${String.format('%10.2f', time(test))} ms"
+    } catch (MissingMethodException e) {
+        println "${name.padRight(24)} not supported"
+    }
+}
@@ -0,0 +1,92 @@
+import org.codehaus.groovy.control.CompilationUnit
+import org.codehaus.groovy.control.CompilerConfiguration
+import org.codehaus.groovy.control.Phases
+import static BenchmarkSupport.time
+
+/**
+ * Compiles a generated project of many source files, once on the compiling thread
+ * only and once with the source units parsed and converted and the classes
+ * generated on several threads.
+ * Reports the best time of several rounds, up to the end of the conversion phase
+ * and for the whole compilation to bytecode.
+ *
+ * Usage: ParallelCompilation [files] [threads]
+ */
+def files = args ? args[0] as int : 1000
+def threads = args.length > 1 ? args[1] as int : Runtime.runtime.availableProcessors()
+
+def directory = File.createTempFile("parallel", "compilation")
+directory.delete()
+directory.mkdirs()
+def sources = (0..<files).collect { i ->
+    def next = (i + 1) % files
+    def file = new File(directory, "Generated${i}.groovy")
+    file.text = """
+        package generated.p${i % 10}
+
+        import java.util.concurrent.atomic.AtomicInteger
+
+        class Generated${i} implements Comparable {
+            static final AtomicInteger COUNT = new AtomicInteger()
+            String name = "generated ${i}"
+            int value = ${i}
+            Map properties = [a: 1, b: "two", c: [3, 4, 5]]
+            generated.p${next % 10}.Generated${next} next
+
+            int compareTo(Object other) { value <=> other.value }
+
+            def describe(int depth) {
+                def parts = []
+                for (int j = 0; j < depth; j++) {
+                    parts << (j % 2 ? name.toUpperCase() : "\${name}-\${j}")
+                }
+                parts.findAll { it.size() > 3 }.collect { it.reverse() }.join(", ")
+            }
+
+            def sum(List numbers) {
+                numbers.inject(0) { a, b -> a + b } + value
+            }
+
+            static Generated${i} create(Map args) {
+                COUNT.incrementAndGet()
+                new Generated${i}(args)
+            }
+
+            String toString() {
+                switch (value % 3) {
+                    case 0: return "zero \$name"
+                    case 1: return "one \$name"
+                    default: return name
+                }
+            }
+        }
+    """
+    file
+}
+
+def compile(List sources, int parallelism, int phase) {
+    def configuration = new CompilerConfiguration()
+    configuration.parallelism = parallelism
+    def unit = new CompilationUnit(configuration)
+    sources.each { unit.addSource(it) }
+    unit.compile(phase)
+}
+
+try {
+    println "$files files, $threads threads"
+    def parallelisms = [1, threads].unique()
+
+    // warm up all the cases first, so the later ones don't profit from more JIT compilation
+    3.times { parallelisms.each { compile(sources, it, Phases.CLASS_GENERATION) } }
+
+    parallelisms.each { parallelism ->
+        def conversion = time(0) { compile(sources, parallelism, Phases.CONVERSION) }
+        def classGeneration = time(0) { compile(sources, parallelism, Phases.CLASS_GENERATION) }
+        println "parallelism ${String.valueOf(parallelism).padRight(3)} " +
+                "conversion ${String.format('%8.1f', conversion)} ms  " +
+                "class generation ${String.format('%8.1f', classGeneration)} ms"
+    }
+} finally {
+    sources*.delete()
+    directory.delete()
+}
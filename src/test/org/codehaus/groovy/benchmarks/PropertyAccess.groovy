@@ -0,0 +1,49 @@
+import static BenchmarkSupport.bestOf
+
+/**
+ * Compares property reads through getters, public fields and GPath expressions
+ * with the equivalent method calls.
+ *
+ * Usage: PropertyAccess [iterations]
+ */
+class PropertyBean {
+    String name
+    int count
+    public int field
+}
+
+def iterations = args ? args[0] as int : 10000000
+def bean = new PropertyBean(name: "bean", count: 1, field: 1)
+def beans = (1..100).collect { new PropertyBean(name: "bean $it", count: it, field: it) }
+
+def cases = [
+    "method call getCount()": { int n ->
+        long sum = 0
+        for (int i = 0; i < n; i++) sum += bean.getCount()
+        sum
+    },
+    "property bean.count": { int n ->
+        long sum = 0
+        for (int i = 0; i < n; i++) sum += bean.count
+        sum
+    },
+    "public field bean.field": { int n ->
+        long sum = 0
+        for (int i = 0; i < n; i++) sum += bean.field
+        sum
+    },
+    "property write bean.count = i": { int n ->
+        for (int i = 0; i < n; i++) bean.count = i
+        bean.count
+    },
+    "GPath beans.count (per element)": { int n ->
+        long sum = 0
+        for (int i = 0; i < n / 100; i++) sum += beans.count.size()
+        sum
+    }
+]
+
+cases.each { name, test ->
+    long best = bestOf(1, 5) { test(iterations) }
+    println "${name.padRight(40)} ${String.format('%.2f', best / (double) iterations)} ns/iteration"
+}
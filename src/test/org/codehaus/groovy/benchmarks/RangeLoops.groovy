@@ -0,0 +1,47 @@
+import static BenchmarkSupport.time
+
+/**
+ * Measures for loops over int ranges, and iteration of int and long ranges.
+ *
+ * Usage: RangeLoops [iterations]
+ */
+def n = args ? args[0] as int : 10000000
+
+int count = n
+long last = n
+def cases = [
+    "for (int i in 0..<n)": {
+        long sum = 0
+        for (int i in 0..<count) sum += i
+        sum
+    },
+    "for (i in 0..<n)": {
+        def sum = 0L
+        for (i in 0..<count) sum += i
+        sum
+    },
+    "(0..<n).each": {
+        def sum = 0L
+        (0..<count).each { sum += it }
+        sum
+    },
+    "(0..<n).step(1)": {
+        def sum = 0L
+        (0..<count).step(1) { sum += it }
+        sum
+    },
+    "IntRange.intIterator()": {
+        long sum = 0
+        def iterator = (0..<count).intIterator()
+        while (iterator.hasNext()) sum += iterator.nextInt()
+        sum
+    },
+    "(0L..<n).each": {
+        def sum = 0L
+        (0L..<last).each { sum += it }
+        sum
+    },
+]
+cases.each { name, test ->
+    println "${name.padRight(24)} ${String.format('%10.2f', time(test))} ms"
+}
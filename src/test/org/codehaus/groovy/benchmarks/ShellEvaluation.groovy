@@ -0,0 +1,43 @@
+import org.codehaus.groovy.control.CompilerConfiguration
+import static BenchmarkSupport.time
+
+/**
+ * Evaluates many small scripts with a GroovyShell, once with each compilation
+ * asking the class loader for the class names and once with the class
+ * resolution cache shared by all compilations of the shell. The scripts use
+ * binding variables with capitalized names, which the compiler tries to
+ * resolve as classes of all default imports first.
+ * Reports the best time of several rounds.
+ *
+ * Usage: ShellEvaluation [scripts]
+ */
+def scripts = args ? args[0] as int : 2000
+
+def script = { i ->
+    """
+        Total = Prices.sum() * Rate
+        def dates = [new Date(), Calendar.instance.time]
+        List names = Names.collect { it.toUpperCase() }
+        String result = "\${Customer} ${i} \${names.join(', ')}"
+        if (Discount) result += " - \${Discount}"
+        Math.max(Total, 0) + result.size() + dates.size()
+    """
+}
+
+def evaluate(boolean cache, int scripts, Closure script) {
+    def configuration = new CompilerConfiguration()
+    configuration.cacheClassResolution = cache
+    def binding = new Binding(Prices: [1, 2, 3], Rate: 2, Names: ["a", "b"], Customer: "c", Discount: 1)
+    def shell = new GroovyShell(binding, configuration)
+    scripts.times { shell.evaluate(script(it)) }
+}
+
+println "$scripts scripts"
+
+// warm up both cases first, so the later one doesn't profit from more JIT compilation
+3.times { [false, true].each { evaluate(it, scripts.intdiv(10), script) } }
+
+[false, true].each { cache ->
+    def evaluation = time(0) { evaluate(cache, scripts, script) }
+    println "cache ${String.valueOf(cache).padRight(5)} ${String.format('%8.1f', evaluation)} ms"
+}
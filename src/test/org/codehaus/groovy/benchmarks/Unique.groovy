@@ -0,0 +1,28 @@
+import static BenchmarkSupport.time
+
+/**
+ * Measures unique() on lists of numbers and strings of different sizes,
+ * with about one duplicate per element.
+ *
+ * Usage: Unique [largest size]
+ */
+def largest = args ? args[0] as int : 200000
+def random = new Random(42)
+
+for (int size = 1000; size <= largest; size *= 10) {
+    def n = size
+    def ints = (1..n).collect { random.nextInt(n.intdiv(2)) }
+    def mixed = ints.collect { it % 3 == 0 ? it as long : it % 3 == 1 ? it as BigDecimal : it }
+    def strings = ints.collect { "id-" + it }
+    def maps = ints.collect { [id: it] }
+
+    def cases = [
+        "Integer": { ints.clone().unique() },
+        "Integer, Long and BigDecimal": { mixed.clone().unique() },
+        "String": { strings.clone().unique() },
+        "unique { it.id }": { maps.clone().unique { it.id } },
+    ]
+    cases.each { name, test ->
+        println "${size.toString().padLeft(8)} ${name.padRight(32)} ${String.format('%10.2f', time(test))} ms"
+    }
+}
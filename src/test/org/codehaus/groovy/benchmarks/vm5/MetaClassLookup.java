@@ -0,0 +1,65 @@
+package org.codehaus.groovy.benchmarks.vm5;
+
+import org.codehaus.groovy.reflection.ClassInfo;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures how ClassInfo meta class lookups scale with the number of threads.
+ * Reads only take the ClassInfo lock on creation, so throughput should grow linearly
+ * up to the number of available cores.
+ *
+ * Usage: MetaClassLookup [iterationsPerThread] [maxThreads]
+ */
+public class MetaClassLookup {
+    private static final Object[] RECEIVERS = new Object[]{"string", 1, new ArrayList()};
+
+    public static void main(String[] args) throws InterruptedException {
+        final int numIter = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        final int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        // warm up
+        run(numIter, 1);
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            run(numIter, threads);
+            run(numIter, threads);
+        }
+    }
+
+    private static void run(final int numIter, int numThreads) throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(numThreads);
+
+        for (int i = 0; i < numThreads; i++) {
+            new Thread() {
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+
+                    int hash = 0;
+                    for (int k = 0; k < numIter; k++) {
+                        final Object receiver = RECEIVERS[k % RECEIVERS.length];
+                        hash += ClassInfo.getClassInfo(receiver.getClass()).getMetaClass(receiver).hashCode();
+                    }
+                    if (hash == 42)
+                        System.out.print("");
+                    done.countDown();
+                }
+            }.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        double duration = (System.nanoTime() - begin) / 1e9;
+        double lookups = (double) numIter * numThreads;
+
+        System.out.println(numThreads + " threads:\t" + (long) (lookups / duration) + " lookups/second\t"
+                + (long) (lookups / duration / numThreads) + " lookups/second/thread");
+    }
+}
@@ -0,0 +1,96 @@
+package org.codehaus.groovy.classgen
+
+import org.codehaus.groovy.ast.ClassHelper
+import org.codehaus.groovy.control.CompilationUnit
+import org.codehaus.groovy.control.Phases
+import org.objectweb.asm.ClassReader
+import org.objectweb.asm.util.TraceClassVisitor
+
+/**
+ * Checks that property access on a class of the same compilation does not
+ * depend on whether that class has been verified yet.
+ */
+class GroovyObjectCheckTest extends GroovyTestCase {
+
+    def reader = "class Reader { def read(Item item) { item.name } }"
+    def item = "class Item { String name }"
+
+    void testPropertyOfAClassFromALaterSource() {
+        def before = compile(["Reader.groovy": reader, "Item.groovy": item])
+        def after = compile(["Item.groovy": item, "Reader.groovy": reader])
+        assertEquals after.Reader, before.Reader
+        assert before.Reader.contains("callGroovyObjectGetProperty")
+
+        assertEquals "x", new GroovyShell().evaluate("""
+            $reader
+            $item
+            new Reader().read(new Item(name: 'x'))
+        """)
+    }
+
+    void testClassesOfTheCompilation() {
+        def unit = new CompilationUnit()
+        addSource(unit, "Classes.groovy", """
+            class Plain {}
+            class Support extends GroovyObjectSupport {}
+            enum Colour { RED }
+            interface Shape {}
+        """)
+        unit.compile(Phases.SEMANTIC_ANALYSIS)
+        def classes = unit.AST.classes
+        def before = groovyObjects(classes)
+        assertEquals([Plain: true, Support: true, Colour: true, Shape: false], before)
+
+        unit.compile(Phases.CLASS_GENERATION)
+        assertEquals before, groovyObjects(classes)
+        classes.findAll { !it.interface }.each { node ->
+            assertEquals node.name, before[node.name], node.isDerivedFromGroovyObject()
+        }
+    }
+
+    void testPrecompiledClasses() {
+        assertTrue Verifier.isGroovyObject(ClassHelper.make(GroovyObjectSupport))
+        assertTrue Verifier.isGroovyObject(ClassHelper.make(Expando))
+        assertFalse Verifier.isGroovyObject(ClassHelper.make(String))
+        assertFalse Verifier.isGroovyObject(ClassHelper.make(Runnable))
+    }
+
+    void testPropertiesOfEnumsAndGroovyObjectSupportSubclasses() {
+        assertEquals(["red", "s"], new GroovyShell().evaluate("""
+            class Reader {
+                def read(Colour colour) { colour.label }
+                def read(Support support) { support.name }
+            }
+            enum Colour { RED; String label = 'red' }
+            class Support extends GroovyObjectSupport { String name = 's' }
+            def reader = new Reader()
+            [reader.read(Colour.RED), reader.read(new Support())]
+        """))
+    }
+
+    private Map groovyObjects(List classes) {
+        def answers = [:]
+        classes.each { answers[it.name] = Verifier.isGroovyObject(it) }
+        answers
+    }
+
+    private Map compile(Map sources) {
+        def unit = new CompilationUnit()
+        sources.each { name, text -> addSource(unit, name, text) }
+        unit.compile(Phases.CLASS_GENERATION)
+        def traces = [:]
+        unit.classes.each { traces[it.name] = trace(it.bytes) }
+        traces
+    }
+
+    private void addSource(CompilationUnit unit, String name, String text) {
+        unit.addSource(name, new ByteArrayInputStream(text.getBytes("UTF-8")))
+    }
+
+    private String trace(byte[] bytes) {
+        def writer = new StringWriter()
+        new ClassReader(bytes).accept(new TraceClassVisitor(new PrintWriter(writer)), false)
+        // the time stamps of the classes differ from one compilation to the next
+        writer.toString().replaceAll(/\d{13}/, "TIMESTAMP")
+    }
+}
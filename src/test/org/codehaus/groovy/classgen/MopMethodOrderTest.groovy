@@ -0,0 +1,61 @@
+package org.codehaus.groovy.classgen
+
+import org.codehaus.groovy.control.CompilationUnit
+import org.codehaus.groovy.control.CompilerConfiguration
+import org.codehaus.groovy.control.Phases
+import org.objectweb.asm.ClassReader
+import org.objectweb.asm.util.TraceClassVisitor
+
+/**
+ * Checks that the super$ MOP methods of a class do not depend on whether
+ * its super class is compiled together with it or loaded as a class.
+ */
+class MopMethodOrderTest extends GroovyTestCase {
+
+    def base = """
+        class Base {
+            def zeta() { 1 }
+            def alpha() { 2 }
+            def mid(String s) { s }
+            def mid(int i) { i }
+        }
+    """
+    def sub = "class Sub extends Base { def alpha() { super.alpha() + 1 } }"
+
+    void testSameClassWithPrecompiledSuperClass() {
+        def together = compile(["Base.groovy": base, "Sub.groovy": sub], new GroovyClassLoader())
+
+        def loader = new GroovyClassLoader()
+        loader.parseClass(base, "Base.groovy")
+        def separately = compile(["Sub.groovy": sub], loader)
+
+        assertEquals together.Sub, separately.Sub
+    }
+
+    void testSuperMethodsAreSorted() {
+        def methods = compile(["Base.groovy": base, "Sub.groovy": sub], new GroovyClassLoader()).Sub.readLines().findAll {
+            it =~ /^\s*public synthetic super\$/
+        }
+        def names = methods.collect { (it =~ /super\$\d+\$([^(]+\(.*)/)[0][1] }
+        assertEquals(["alpha()Ljava/lang/Object;", "mid(I)Ljava/lang/Object;",
+                "mid(Ljava/lang/String;)Ljava/lang/Object;", "zeta()Ljava/lang/Object;"],
+                names.findAll { it =~ /^(alpha|mid|zeta)\(/ })
+        assertEquals new ArrayList(names).sort(), names
+    }
+
+    private Map compile(Map sources, GroovyClassLoader loader) {
+        def unit = new CompilationUnit(new CompilerConfiguration(), null, loader)
+        sources.each { name, text -> unit.addSource(name, new ByteArrayInputStream(text.getBytes("UTF-8"))) }
+        unit.compile(Phases.CLASS_GENERATION)
+        def traces = [:]
+        unit.classes.each { traces[it.name] = trace(it.bytes) }
+        traces
+    }
+
+    private String trace(byte[] bytes) {
+        def writer = new StringWriter()
+        new ClassReader(bytes).accept(new TraceClassVisitor(new PrintWriter(writer)), false)
+        // the time stamps of the classes differ from one compilation to the next
+        writer.toString().replaceAll(/\d{13}/, "TIMESTAMP")
+    }
+}
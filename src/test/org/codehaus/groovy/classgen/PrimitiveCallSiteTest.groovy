@@ -0,0 +1,92 @@
+package org.codehaus.groovy.classgen
+
+import org.codehaus.groovy.runtime.callsite.CallSite
+import org.codehaus.groovy.runtime.callsite.CallSiteArray
+
+class PrimitiveCallSiteTest extends GroovyTestCase {
+
+    void testPojoMethodsWithPrimitiveParameters() {
+        for (int k = 0; k < 3; k++) {
+            assertEquals 7, maxOf(3, 7)
+            assertEquals 7L, maxOf(3L, 7L)
+            assertEquals 7.5d, maxOf(3.5d, 7.5d)
+            assertEquals 'c' as char, charOf("abc", 2)
+        }
+    }
+
+    void testPogoMethodsWithPrimitiveParameters() {
+        def target = new PrimitiveTarget()
+        for (int k = 0; k < 3; k++) {
+            assertEquals "int 2", callM(target, 2)
+            assertEquals "long 3", callM(target, 3L)
+            assertEquals "double 1.5", callM(target, 1.5d)
+            assertEquals "boolean true", callM(target, true)
+            assertEquals 5, add(target, 2, 2, 1)
+            assertEquals 9L, sum(target, 3L, 3L, 3L)
+        }
+    }
+
+    void testSelectionStillFollowsMetaClass() {
+        assertEquals "int 4", callM(new PrimitiveTarget(), 4)
+        PrimitiveTarget.metaClass.m = { int x -> "changed $x" }
+        try {
+            assertEquals "changed 4", callM(new PrimitiveTarget(), 4)
+        } finally {
+            GroovySystem.metaClassRegistry.removeMetaClass(PrimitiveTarget)
+        }
+        assertEquals "int 4", callM(new PrimitiveTarget(), 4)
+    }
+
+    void testFallbackForOtherReceivers() {
+        def receivers = [new PrimitiveTarget(), new OtherPrimitiveTarget(), new PrimitiveTarget(), null]
+        assertEquals(["int 1", "other 1", "int 1", "null"], receivers.collect { callM(it, 1) })
+        shouldFail(MissingMethodException) {
+            callM("string", 1)
+        }
+    }
+
+    void testCallSiteInterfaceHasNoPrimitiveVariants() {
+        def primitive = CallSite.methods.findAll { method -> method.parameterTypes.any { it.primitive } }
+        assertEquals([], primitive*.name)
+    }
+
+    void testOtherCallSitesGetBoxedArguments() {
+        def site = [call: { receiver, arg -> "boxed $arg ${arg.class.simpleName}" }] as CallSite
+        assertEquals "boxed 3 Integer", CallSiteArray.call(site, null, 3)
+        assertEquals "boxed 3 Long", CallSiteArray.call(site, null, 3L)
+        assertEquals "boxed true Boolean", CallSiteArray.call(site, null, true)
+    }
+
+    private maxOf(int a, int b) { Math.max(a, b) }
+
+    private maxOf(long a, long b) { Math.max(a, b) }
+
+    private maxOf(double a, double b) { Math.max(a, b) }
+
+    private charOf(String s, int i) { s.charAt(i) }
+
+    private callM(target, int i) { target?.m(i) ?: "null" }
+
+    private callM(target, long l) { target.m(l) }
+
+    private callM(target, double d) { target.m(d) }
+
+    private callM(target, boolean b) { target.m(b) }
+
+    private add(target, int a, int b, int c) { target.add(a, b, c) }
+
+    private sum(target, long a, long b, long c) { target.sum(a, b, c) }
+}
+
+class PrimitiveTarget {
+    def m(int i) { "int $i" }
+    def m(long l) { "long $l" }
+    def m(double d) { "double $d" }
+    def m(boolean b) { "boolean $b" }
+    int add(int a, int b, int c) { a + b + c }
+    long sum(long a, long b, long c) { a + b + c }
+}
+
+class OtherPrimitiveTarget {
+    def m(Object o) { "other $o" }
+}
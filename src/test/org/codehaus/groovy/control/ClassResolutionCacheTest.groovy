@@ -0,0 +1,104 @@
+package org.codehaus.groovy.control
+
+/**
+ * Checks the cache of the classes the compilations using a GroovyClassLoader
+ * find through it, and that the cache forgets classes the loader gets later.
+ */
+class ClassResolutionCacheTest extends GroovyTestCase {
+
+    def configuration = new CompilerConfiguration(cacheClassResolution: true)
+
+    void testClassesAndMissingClassesAreCached() {
+        def loader = new CountingLoader(getClass().classLoader, configuration)
+        def shell = new GroovyShell(loader, new Binding(Rate: 2), configuration)
+        assertEquals 4, shell.evaluate("Rate * new ArrayList([1, 2]).size()")
+        assertTrue loader.names.containsAll(["java.lang.Rate", "java.util.Rate", "groovy.lang.Rate", "groovy.util.Rate"])
+        assertTrue loader.names.contains("java.util.ArrayList")
+
+        loader.names.clear()
+        assertEquals 6, shell.evaluate("Rate * new ArrayList([1, 2, 3]).size()")
+        assertFalse loader.names.contains("java.lang.Rate")
+        assertFalse loader.names.contains("java.io.ArrayList")
+    }
+
+    void testClassesAreNotCachedByDefault() {
+        def loader = new CountingLoader(getClass().classLoader, new CompilerConfiguration())
+        def shell = new GroovyShell(loader, new Binding(Rate: 2))
+        shell.evaluate("Rate")
+        loader.names.clear()
+        shell.evaluate("Rate")
+        assertTrue loader.names.contains("java.lang.Rate")
+    }
+
+    void testCompiledClassesAreFound() {
+        def shell = new GroovyShell(new Binding(Rate: 2), configuration)
+        shell.evaluate("Rate")
+        shell.classLoader.parseClass("package groovy.util\nclass Rate { static value = 3 }")
+        assertEquals 3, shell.evaluate("Rate.value")
+        assertEquals 3, shell.evaluate("groovy.util.Rate.value")
+    }
+
+    void testClassesOfAParentLoaderAreFound() {
+        def parent = new GroovyClassLoader(getClass().classLoader)
+        def shell = new GroovyShell(new GroovyClassLoader(parent, configuration), new Binding(), configuration)
+        shell.evaluate("def rate = { -> Rate2.value }")
+        parent.parseClass("class Rate2 { static value = 4 }")
+        assertEquals 4, shell.evaluate("Rate2.value")
+    }
+
+    void testClassesOfNewURLsAreFound() {
+        def directory = File.createTempFile("resolution", "cache")
+        directory.delete()
+        directory.mkdirs()
+        try {
+            def source = new File(directory, "Rate3.groovy")
+            source.text = "package cached\nclass Rate3 { static value = 5 }"
+            def unit = new CompilationUnit(new CompilerConfiguration(targetDirectory: directory))
+            unit.addSource(source)
+            unit.compile()
+            source.delete()
+
+            def shell = new GroovyShell(new Binding(), configuration)
+            shell.evaluate("def rate = { -> cached.Rate3.value }")
+            shell.classLoader.addClasspath(directory.path)
+            assertEquals 5, shell.evaluate("cached.Rate3.value")
+        } finally {
+            directory.deleteDir()
+        }
+    }
+
+    void testCache() {
+        def loader = new CountingLoader(getClass().classLoader, configuration)
+        def cache = loader.classResolutionCache
+        assertSame cache, loader.classResolutionCache
+
+        assertSame String, cache.loadClass("java.lang.String")
+        assertNull cache.loadClass("java.lang.Missing")
+        assertEquals(["java.lang.String", "java.lang.Missing"], loader.names)
+        assertSame String, cache.loadClass("java.lang.String")
+        assertNull cache.loadClass("java.lang.Missing")
+        assertEquals 2, loader.names.size()
+
+        cache.remove("java.lang.Missing")
+        assertNull cache.loadClass("java.lang.Missing")
+        assertSame String, cache.loadClass("java.lang.String")
+        assertEquals 3, loader.names.size()
+
+        cache.clear()
+        assertSame String, cache.loadClass("java.lang.String")
+        assertEquals 4, loader.names.size()
+    }
+}
+
+class CountingLoader extends GroovyClassLoader {
+    List names = []
+
+    CountingLoader(ClassLoader parent, CompilerConfiguration configuration) {
+        super(parent, configuration)
+    }
+
+    Class loadClass(String name, boolean lookupScriptFiles, boolean preferClassOverScript, boolean resolve) {
+        names << name
+        super.loadClass(name, lookupScriptFiles, preferClassOverScript, resolve)
+    }
+}
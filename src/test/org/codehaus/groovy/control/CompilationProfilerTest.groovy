@@ -0,0 +1,105 @@
+package org.codehaus.groovy.control
+
+import org.codehaus.groovy.tools.FileSystemCompiler
+
+/**
+ * Checks the entries of the compilation profiler and its CSV and JSON reports.
+ */
+class CompilationProfilerTest extends GroovyTestCase {
+
+    File directory
+
+    protected void setUp() {
+        directory = File.createTempFile("compilation", "profiler")
+        directory.delete()
+        directory.mkdirs()
+        new File(directory, "Person.groovy").text = """
+            import groovy.beans.Bindable
+            class Person { @Bindable String name }
+        """
+        new File(directory, "Greeter.groovy").text = """
+            class Greeter { def greet(Person person) { "Hello \${person.name}" } }
+        """
+    }
+
+    protected void tearDown() {
+        directory.deleteDir()
+    }
+
+    void testEntries() {
+        def unit = compile(new File(directory, "profile.csv"))
+        def entries = unit.profiler.entries
+
+        def phases = entries.findAll { it.kind == CompilationProfiler.PHASE }*.phase
+        assertTrue phases.containsAll(["parsing", "semantic analysis", "class generation", "output"])
+
+        def operations = entries.findAll { it.kind == CompilationProfiler.OPERATION }*.name
+        assertTrue operations.containsAll(["parse", "resolve", "classgen", "output"])
+
+        def sources = entries.findAll { it.kind == CompilationProfiler.SOURCE && it.name == "classgen" }*.source
+        assertEquals 2, sources.size()
+        assertTrue sources.every { it.endsWith(".groovy") }
+
+        def transforms = entries.findAll { it.kind == CompilationProfiler.TRANSFORM && it.name.endsWith("BindableASTTransformation") }
+        assertEquals 1, transforms.size()
+        assertTrue transforms[0].source.endsWith("Person.groovy")
+        assertEquals "canonicalization", transforms[0].phase
+
+        entries.each {
+            assertTrue it.count > 0
+            assertTrue it.nanos >= 0
+            assertTrue it.bytes >= -1
+        }
+    }
+
+    void testSourcesAreCountedOnceInParallel() {
+        [1, 2].each { parallelism ->
+            def entries = compile(new File(directory, "profile.csv"), parallelism).profiler.entries
+            def parsed = entries.findAll { it.kind == CompilationProfiler.SOURCE && it.name == "parse" }
+            assertEquals 2, parsed.size()
+            assertEquals([1, 1], parsed*.count)
+        }
+    }
+
+    void testCsvReport() {
+        def report = new File(directory, "profile.csv")
+        def unit = compile(report)
+        def lines = report.readLines()
+        assertEquals "kind,phase,name,source,count,nanos,bytes", lines[0]
+        assertEquals unit.profiler.entries.size() + 1, lines.size()
+        assertTrue lines.any { it.startsWith("transform,canonicalization,groovy.beans.BindableASTTransformation,") }
+    }
+
+    void testJsonReport() {
+        def report = new File(directory, "profile.json")
+        def unit = compile(report)
+        def text = report.text
+        assertTrue text.startsWith("[")
+        def objects = text.readLines().findAll { it.trim().startsWith("{") }
+        assertEquals unit.profiler.entries.size(), objects.size()
+        assertTrue objects.every { it =~ /\{"kind": "\w+", "phase": "[\w ]+", "name": ".*", "source": ".*", "count": \d+, "nanos": \d+, "bytes": -?\d+\}/ }
+    }
+
+    void testNotProfiledByDefault() {
+        def unit = compile(null)
+        assertNull unit.profiler
+        assertEquals(["Greeter.groovy", "Person.groovy"], directory.list().findAll { !it.endsWith(".class") }.sort())
+    }
+
+    void testCommandLineOption() {
+        def report = new File(directory, "profile.csv")
+        def options = FileSystemCompiler.createCompilationOptions()
+        def cli = new org.apache.commons.cli.PosixParser().parse(options, ["--profile", report.path, "A.groovy"] as String[])
+        assertEquals report, FileSystemCompiler.generateCompilerConfigurationFromOptions(cli).profileReport
+    }
+
+    private CompilationUnit compile(File report, int parallelism = 1) {
+        def configuration = new CompilerConfiguration(targetDirectory: directory)
+        configuration.profileReport = report
+        configuration.parallelism = parallelism
+        def unit = new CompilationUnit(configuration)
+        unit.addSources(["Person.groovy", "Greeter.groovy"].collect { new File(directory, it) } as File[])
+        unit.compile()
+        unit
+    }
+}
@@ -0,0 +1,279 @@
+package org.codehaus.groovy.control
+
+import org.objectweb.asm.ClassReader
+import org.objectweb.asm.util.TraceClassVisitor
+
+/**
+ * Checks that an incremental compilation compiles the changed sources and
+ * the ones depending on them, and writes the same classes as a compilation
+ * of all sources.
+ */
+class IncrementalCompilationTest extends GroovyTestCase {
+
+    def sources = [
+            "p/Shape.groovy": """
+                package p
+                interface Shape { def area() }
+            """,
+            "p/Base.groovy": """
+                package p
+                abstract class Base implements Shape {
+                    static int created = 0
+                    String name
+                    Base() { created++ }
+                    Base scaled(double factor) { this }
+                    def describe() { "\$name \${area()}" }
+                }
+            """,
+            "p/Circle.groovy": """
+                package p
+                class Circle extends Base {
+                    double r
+                    def area() { Math.PI * r * r }
+                    Circle scaled(double factor) { new Circle(name: name, r: r * factor) }
+                }
+            """,
+            "q/Square.groovy": """
+                package q
+                import p.*
+                class Square extends Base {
+                    def side = 1
+                    def area() { side * side }
+                    def compare(Circle circle) { circle.r <=> side }
+                    String toString() { super.describe() }
+                }
+            """,
+            "q/Registry.groovy": """
+                package q
+                class Registry {
+                    List shapes = []
+                    def add(Square square) { shapes << square; this }
+                    def total() { shapes.sum { it.area() } }
+                    enum Kind { ROUND, ANGULAR }
+                    static class Entry { def kind = Kind.ROUND; def shape }
+                }
+            """,
+            "r/Util.groovy": """
+                package r
+                class Util { static twice(x) { x * 2 } }
+            """,
+            "r/App.groovy": """
+                package r
+                def registry = new q.Registry().add(new q.Square(side: 2))
+                println Util.twice(registry.total())
+            """
+    ]
+
+    File sourceDirectory
+    File incrementalDirectory
+    File cleanDirectory
+
+    protected void setUp() {
+        sourceDirectory = createDirectory("sources")
+        incrementalDirectory = createDirectory("incremental")
+        cleanDirectory = createDirectory("clean")
+        sources.each { name, text -> write(name, text) }
+    }
+
+    protected void tearDown() {
+        [sourceDirectory, incrementalDirectory, cleanDirectory]*.deleteDir()
+    }
+
+    void testUnchangedSourcesAreNotCompiled() {
+        assertEquals 7, compileIncrementally().size()
+        assertTrue new File(incrementalDirectory, DependencyIndex.FILE_NAME).exists()
+
+        assertEquals([], compileIncrementally())
+    }
+
+    void testChangedSourceAndDependentsAreCompiled() {
+        compileIncrementally()
+
+        write("q/Square.groovy", sources["q/Square.groovy"].replace("side * side", "side * side * 1"))
+        assertEquals(["q/Registry.groovy", "q/Square.groovy", "r/App.groovy"], compileIncrementally())
+
+        write("p/Shape.groovy", sources["p/Shape.groovy"] + "\n// changed")
+        assertEquals(["p/Base.groovy", "p/Circle.groovy", "p/Shape.groovy", "q/Registry.groovy",
+                "q/Square.groovy", "r/App.groovy"], compileIncrementally())
+
+        write("r/Util.groovy", sources["r/Util.groovy"].replace("x * 2", "x + x"))
+        assertEquals(["r/App.groovy", "r/Util.groovy"], compileIncrementally())
+    }
+
+    void testClassesAreTheSameAsThoseOfACleanCompilation() {
+        compileIncrementally()
+        sources.each { name, text ->
+            write(name, change(text))
+            compileIncrementally()
+            compileAll()
+            assertSameClasses()
+            write(name, text)
+        }
+    }
+
+    void testRemovedSourcesAreDeleted() {
+        compileIncrementally()
+        assertTrue new File(incrementalDirectory, "r/Util.class").exists()
+
+        new File(sourceDirectory, "r/Util.groovy").delete()
+        write("r/App.groovy", sources["r/App.groovy"].replace("Util.twice", "2 * "))
+        assertEquals(["r/App.groovy"], compileIncrementally())
+        assertFalse new File(incrementalDirectory, "r/Util.class").exists()
+        compileAll()
+        assertSameClasses()
+    }
+
+    void testUsingARemovedSourceFails() {
+        compileIncrementally()
+        new File(sourceDirectory, "p/Circle.groovy").delete()
+        shouldFail(MultipleCompilationErrorsException) { compileIncrementally() }
+        // the index of the last successful compilation is kept
+        shouldFail(MultipleCompilationErrorsException) { compileIncrementally() }
+
+        write("p/Circle.groovy", sources["p/Circle.groovy"])
+        assertEquals(["p/Circle.groovy", "q/Registry.groovy", "q/Square.groovy", "r/App.groovy"], compileIncrementally())
+    }
+
+    void testAllSourcesAreCompiledIfASourceIsAdded() {
+        compileIncrementally()
+        write("q/Registry2.groovy", "package q\nclass Registry2 extends Registry {}")
+        assertEquals 8, compileIncrementally().size()
+    }
+
+    void testAllSourcesAreCompiledIfASourceDeclaresANewClass() {
+        write("p/Foo.groovy", "package p\nclass Foo { def name() { 'p.Foo' } }")
+        write("q/A.groovy", "package q\nimport p.*\nclass A { static name() { new Foo().name() } }")
+        write("q/B.groovy", "package q\nclass B {}")
+        compileIncrementally()
+
+        // q.Foo hides p.Foo in A, which does not change itself
+        write("q/B.groovy", "package q\nclass B {}\nclass Foo { def name() { 'q.Foo' } }")
+        assertEquals 10, compileIncrementally().size()
+        compileAll()
+        assertSameClasses()
+
+        def loader = new GroovyClassLoader()
+        loader.addClasspath(incrementalDirectory.path)
+        assertEquals "q.Foo", loader.loadClass("q.A").name()
+
+        assertEquals([], compileIncrementally())
+    }
+
+    void testAllSourcesAreCompiledIfTheConfigurationChanges() {
+        compileIncrementally()
+        assertEquals 7, compileIncrementally { it.scriptBaseClass = "groovy.lang.Script" }.size()
+        assertEquals 0, compileIncrementally { it.scriptBaseClass = "groovy.lang.Script" }.size()
+    }
+
+    void testMissingClassFilesAreGeneratedAgain() {
+        compileIncrementally()
+        new File(incrementalDirectory, "q/Registry\$Entry.class").delete()
+        assertEquals(["q/Registry.groovy", "r/App.groovy"], compileIncrementally())
+        compileAll()
+        assertSameClasses()
+    }
+
+    void testDependencyIndex() {
+        def index = new DependencyIndex("configuration")
+        index.addSource("A.groovy", "a")
+        index.addClass("A.groovy", "A")
+        index.addSource("B.groovy", "b")
+        index.addClass("B.groovy", "B")
+        index.addDependency("B.groovy", "A")
+        index.addDependency("B.groovy", "java.lang.String")
+        index.addSource("C.groovy", "c")
+        index.addClass("C.groovy", "C")
+        index.addDependency("C.groovy", "B")
+
+        def file = new File(incrementalDirectory, DependencyIndex.FILE_NAME)
+        index.save(file)
+        assertEquals(["groovyc index 1", "configuration configuration",
+                "source A.groovy", "fingerprint a", "class A",
+                "source B.groovy", "fingerprint b", "class B", "uses A",
+                "source C.groovy", "fingerprint c", "class C", "uses B"], file.readLines())
+
+        def loaded = DependencyIndex.load(file)
+        assertEquals "configuration", loaded.configuration
+        assertEquals(["A.groovy", "B.groovy", "C.groovy"], loaded.sources)
+        assertEquals(["A.groovy", "B.groovy", "C.groovy"] as Set, loaded.getDependents(["A.groovy"]))
+        assertEquals(["B.groovy", "C.groovy"] as Set, loaded.getDependents(["B.groovy"]))
+        assertEquals(["C.groovy"] as Set, loaded.getDependents(["C.groovy"]))
+
+        file.text = "something else"
+        assertNull DependencyIndex.load(file)
+    }
+
+    private List compileIncrementally(Closure configure = {}) {
+        def configuration = new CompilerConfiguration()
+        configuration.targetDirectory = incrementalDirectory
+        configuration.incremental = true
+        configure(configuration)
+        compile(configuration)
+    }
+
+    private List compileAll() {
+        cleanDirectory.deleteDir()
+        cleanDirectory.mkdirs()
+        def configuration = new CompilerConfiguration()
+        configuration.targetDirectory = cleanDirectory
+        compile(configuration)
+    }
+
+    // returns the names of the compiled sources, relative to the source directory
+    private List compile(CompilerConfiguration configuration) {
+        def unit = new CompilationUnit(configuration)
+        def files = []
+        sourceDirectory.eachFileRecurse { if (it.name.endsWith(".groovy")) files << it }
+        unit.addSources(files.sort() as File[])
+        unit.compile()
+        unit.AST.modules.collect { it.context.name.substring(sourceDirectory.path.length() + 1).replace(File.separator, "/") }.sort()
+    }
+
+    private void assertSameClasses() {
+        def classes = classFiles(cleanDirectory)
+        assertEquals classes.keySet(), classFiles(incrementalDirectory).keySet()
+        classes.each { name, file ->
+            assertEquals name, trace(file), trace(new File(incrementalDirectory, name))
+        }
+    }
+
+    private Map classFiles(File directory) {
+        def files = [:]
+        directory.eachFileRecurse { file ->
+            if (file.name.endsWith(".class")) files[file.path.substring(directory.path.length() + 1)] = file
+        }
+        files
+    }
+
+    private String trace(File file) {
+        def writer = new StringWriter()
+        new ClassReader(file.readBytes()).accept(new TraceClassVisitor(new PrintWriter(writer)), false)
+        // the time stamps of the classes differ from one compilation to the next
+        writer.toString().replaceAll(/\d{13}/, "TIMESTAMP")
+    }
+
+    // adds an import and a member to the last class of a source, or a method to a script
+    private String change(String text) {
+        int end = text.lastIndexOf("}")
+        if (end == -1) {
+            text += "\ndef added() { 1 }\n"
+        } else {
+            def member = text.contains("interface") ? "String ADDED = 'added'" : "def added() { name }"
+            text = text.substring(0, end) + "; $member }" + text.substring(end + 1)
+        }
+        text.replaceFirst(/(package \w+)/, "\$1\nimport java.util.List")
+    }
+
+    private void write(String name, String text) {
+        def file = new File(sourceDirectory, name)
+        file.parentFile.mkdirs()
+        file.text = text
+    }
+
+    private File createDirectory(String name) {
+        def directory = File.createTempFile("incremental", name)
+        directory.delete()
+        directory.mkdirs()
+        directory
+    }
+}
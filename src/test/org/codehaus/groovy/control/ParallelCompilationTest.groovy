@@ -0,0 +1,166 @@
+package org.codehaus.groovy.control
+
+import org.objectweb.asm.ClassReader
+import org.objectweb.asm.util.TraceClassVisitor
+
+/**
+ * Checks that parsing, converting and generating classes on several threads
+ * gives the same result as doing it one after the other.
+ */
+class ParallelCompilationTest extends GroovyTestCase {
+
+    def sources = (0..<40).collect { i ->
+        def next = (i + 1) % 40
+        ["Source${i}.groovy", """
+            package p${i % 3}
+            class Source${i} {
+                def next = new p${next % 3}.Source${next}()
+                String name = "source $i"
+                // reads a property of a class of a later source
+                def nameOf(p${next % 3}.Source${next} other) { other.name }
+                def twice(int x) { x * 2 + ${i} }
+                class Inner${i} { def closure = { it * ${i} } }
+            }
+        """]
+    }
+
+    void testClassesAreGeneratedInTheSameOrder() {
+        def sequential = compile(sources, 1)
+        def parallel = compile(sources, 4)
+
+        assertEquals sequential.ast.modules*.description, parallel.ast.modules*.description
+        assertEquals sources.collect { it[0] }, parallel.ast.modules*.description
+        assertEquals sequential.classes*.name, parallel.classes*.name
+        sequential.classes.eachWithIndex { groovyClass, i ->
+            assertEquals groovyClass.name, trace(groovyClass.bytes), trace(parallel.classes[i].bytes)
+        }
+    }
+
+    void testErrorsAreReportedInTheSameOrder() {
+        def broken = new ArrayList(sources)
+        [7, 13, 31].each { i -> broken[i] = ["Broken${i}.groovy", "class Broken${i} { def x( }"] }
+
+        def sequential = failingCompilation(broken, 1)
+        def parallel = failingCompilation(broken, 4)
+
+        assertEquals sequential.errorCount, parallel.errorCount
+        assertEquals messages(sequential), messages(parallel)
+        assert messages(parallel)[0].contains("Broken7.groovy")
+    }
+
+    void testBytecodeDoesNotDependOnTheNumberOfThreads() {
+        def twoThreads = compile(sources, 2)
+        def eightThreads = compile(sources, 8)
+
+        assertEquals twoThreads.classes*.name, eightThreads.classes*.name
+        twoThreads.classes.eachWithIndex { groovyClass, i ->
+            assertEquals groovyClass.name, trace(groovyClass.bytes), trace(eightThreads.classes[i].bytes)
+        }
+    }
+
+    void testClassesAreReportedInTheOrderOfGeneration() {
+        def generated = []
+        def unit = createUnit(sources, 4)
+        unit.classgenCallback = { visitor, classNode -> generated << classNode.name } as CompilationUnit.ClassgenCallback
+        unit.compile(Phases.CLASS_GENERATION)
+
+        assertEquals unit.classes*.name, generated
+        assertEquals compile(sources, 1).classes*.name, generated
+    }
+
+    void testClassGenerationErrorsAreReportedInTheSameOrder() {
+        def broken = new ArrayList(sources)
+        [5, 23].each { i -> broken[i] = ["Source${i}.groovy", "package p${i % 3}; class Source${i} { void x() { return ${i} } }"] }
+
+        def sequential = failingCompilation(broken, 1)
+        def parallel = failingCompilation(broken, 4)
+
+        // the stack traces of the messages differ, the generation runs on another thread
+        assertEquals messages(sequential)*.readLines()*.getAt(0..1), messages(parallel)*.readLines()*.getAt(0..1)
+        assertEquals 1, parallel.errorCount
+        assert messages(parallel)[0].contains("Source5.groovy")
+    }
+
+    void testClassFilesAreWritten() {
+        def directory = File.createTempFile("parallel", "compilation")
+        directory.delete()
+        directory.mkdirs()
+        try {
+            def unit = createUnit(sources, 4)
+            unit.configuration.targetDirectory = directory
+            unit.compile(Phases.OUTPUT)
+
+            unit.classes.each { groovyClass ->
+                def file = new File(directory, groovyClass.name.replace('.', File.separator) + ".class")
+                assertTrue file.path, Arrays.equals(groovyClass.bytes, file.readBytes())
+            }
+        } finally {
+            directory.deleteDir()
+        }
+    }
+
+    void testProgressIsReportedInTheOrderOfTheSources() {
+        def converted = []
+        def unit = createUnit(sources, 4)
+        unit.progressCallback = { context, phase ->
+            if (context instanceof SourceUnit) converted << context.name
+        } as CompilationUnit.ProgressCallback
+        unit.compile(Phases.CONVERSION)
+
+        assertEquals sources.collect { it[0] }, converted
+    }
+
+    void testConfiguration() {
+        def configuration = new CompilerConfiguration()
+        assertEquals 1, configuration.parallelism
+
+        def properties = new Properties()
+        properties.setProperty("groovy.compile.parallelism", "8")
+        configuration.configure(properties)
+        assertEquals 8, configuration.parallelism
+        assertEquals 8, new CompilerConfiguration(configuration).parallelism
+
+        configuration.parallelism = 0
+        assertEquals 1, configuration.parallelism
+    }
+
+    private CompilationUnit createUnit(List sources, int parallelism) {
+        def configuration = new CompilerConfiguration()
+        configuration.parallelism = parallelism
+        def unit = new CompilationUnit(configuration)
+        sources.each { name, text -> unit.addSource(name, new ByteArrayInputStream(text.getBytes("UTF-8"))) }
+        unit
+    }
+
+    private CompilationUnit compile(List sources, int parallelism) {
+        def unit = createUnit(sources, parallelism)
+        unit.compile(Phases.CLASS_GENERATION)
+        unit
+    }
+
+    private ErrorCollector failingCompilation(List sources, int parallelism) {
+        def unit = createUnit(sources, parallelism)
+        try {
+            unit.compile(Phases.CLASS_GENERATION)
+            fail("compilation should have failed")
+        } catch (MultipleCompilationErrorsException e) {
+            assertSame unit.errorCollector, e.errorCollector
+        }
+        unit.errorCollector
+    }
+
+    private String trace(byte[] bytes) {
+        def writer = new StringWriter()
+        new ClassReader(bytes).accept(new TraceClassVisitor(new PrintWriter(writer)), false)
+        // the time stamps of the classes differ from one compilation to the next
+        writer.toString().replaceAll(/\d{13}/, "TIMESTAMP")
+    }
+
+    private List messages(ErrorCollector collector) {
+        collector.errors.collect { message ->
+            def writer = new StringWriter()
+            message.write(new PrintWriter(writer))
+            writer.toString()
+        }
+    }
+}
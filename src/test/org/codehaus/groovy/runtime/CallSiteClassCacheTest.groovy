@@ -0,0 +1,111 @@
+package org.codehaus.groovy.runtime
+
+import org.codehaus.groovy.reflection.ReflectionCache
+import org.codehaus.groovy.runtime.callsite.CallSiteClassCache
+import org.codehaus.groovy.runtime.callsite.CallSiteGenerator
+
+class CallSiteClassCacheTest extends GroovyTestCase {
+
+    File root
+    File oldDirectory
+
+    protected void setUp() {
+        super.setUp()
+        def dir = CallSiteClassCache.directory
+        oldDirectory = dir?.parentFile
+        root = File.createTempFile("callsites", "")
+        root.delete()
+        CallSiteClassCache.directory = root
+    }
+
+    protected void tearDown() {
+        CallSiteClassCache.directory = oldDirectory
+        root.deleteDir()
+        super.tearDown()
+    }
+
+    void testRoundTrip() {
+        assert CallSiteClassCache.isEnabled()
+        assertNull CallSiteClassCache.get("key")
+
+        byte[] bytes = [1, 2, 3, 4]
+        CallSiteClassCache.put("key", bytes)
+        assertEquals bytes as List, CallSiteClassCache.get("key") as List
+        assertNull CallSiteClassCache.get("other key")
+    }
+
+    void testEntriesAreKeptPerRuntime() {
+        def dir = CallSiteClassCache.directory
+        assertEquals root, dir.parentFile
+        assert dir.name.contains(System.getProperty("java.version"))
+    }
+
+    void testCorruptedEntriesAreIgnored() {
+        CallSiteClassCache.put("key", [1, 2, 3, 4] as byte[])
+        def file = entryFor("key")
+        def content = file.readBytes()
+        content[-1] = 5
+        file.withOutputStream { it << content }
+
+        assertNull CallSiteClassCache.get("key")
+
+        file.withOutputStream { it << (content[0..-3] as byte[]) }
+        assertNull CallSiteClassCache.get("key")
+    }
+
+    void testEntriesOfOtherKeysAreIgnored() {
+        CallSiteClassCache.put("key", [1, 2, 3, 4] as byte[])
+        def file = entryFor("key")
+
+        // pretend the file name of another key collides with this entry
+        CallSiteClassCache.put("other key", [5] as byte[])
+        def other = entryFor("other key")
+        other.withOutputStream { it << file.readBytes() }
+
+        assertNull CallSiteClassCache.get("other key")
+    }
+
+    void testDisabledCache() {
+        CallSiteClassCache.directory = null
+        assertFalse CallSiteClassCache.isEnabled()
+        CallSiteClassCache.put("key", [1] as byte[])
+        assertNull CallSiteClassCache.get("key")
+        assertFalse root.exists()
+    }
+
+    void testGeneratedSitesAreStoredOnce() {
+        def method = ReflectionCache.getCachedClass(CacheTarget).methods.find { it.name == "twice" }
+        def first = CallSiteGenerator.compilePojoMethod(method)
+        def second = CallSiteGenerator.compilePojoMethod(method)
+
+        // the second class gets a new name, but is loaded from the entry of the first
+        assertTrue first.declaringClass.name != second.declaringClass.name
+        assertEquals first.declaringClass.superclass, second.declaringClass.superclass
+        def keys = entries().collect { readKey(it) }.findAll { it.contains(CacheTarget.name) }
+        assertEquals 1, keys.size()
+        assertFalse keys[0].contains(first.declaringClass.name)
+    }
+
+    // other threads may generate call sites meanwhile, so look for the entry by its key
+    private File entryFor(String key) {
+        def file = entries().find { readKey(it) == key }
+        assertNotNull file
+        file
+    }
+
+    private String readKey(File file) {
+        file.withDataInputStream { input ->
+            input.readInt()
+            input.readInt()
+            input.readUTF()
+        }
+    }
+
+    private List<File> entries() {
+        CallSiteClassCache.directory.listFiles().findAll { it.name.endsWith(".class") }
+    }
+}
+
+class CacheTarget {
+    int twice(int value) { value * 2 }
+}
@@ -0,0 +1,109 @@
+package org.codehaus.groovy.runtime
+
+import groovy.jmx.builder.JmxBuilder
+import java.lang.management.ManagementFactory
+import javax.management.ObjectName
+import org.codehaus.groovy.runtime.callsite.CallSiteStatistics
+import org.codehaus.groovy.runtime.metaclass.MetaClassStatistics
+
+class CallSiteStatisticsTest extends GroovyTestCase {
+
+    MetaClassStatistics statistics = GroovySystem.metaClassRegistry.statistics
+
+    protected void setUp() {
+        super.setUp()
+        statistics.reset()
+        statistics.enabled = true
+    }
+
+    protected void tearDown() {
+        statistics.enabled = false
+        statistics.reset()
+        super.tearDown()
+    }
+
+    void testDisabledStatisticsAreNotCollected() {
+        statistics.enabled = false
+        for (receiver in [[1], "ab", [a: 1]])
+          receiver.size()
+        assertEquals 0, statistics.selectionCount
+        assertEquals 0, statistics.siteCount
+    }
+
+    void testSelectionsAndMegamorphicCalls() {
+        def receivers = [[1], "ab", [a: 1], [1, 2] as Set, new StringBuilder("abc"), [1, 2, 3] as int[]]
+        callSize(receivers + receivers)
+
+        statistics.enabled = false
+        assert statistics.selectionCount >= 4
+        assert statistics.megamorphicCallCount > 0
+        assert statistics.megamorphicSiteCount >= 1
+
+        def hot = CallSiteStatistics.getHotSites(1)[0]
+        assertEquals "size", hot.name
+        assertEquals getClass().name, hot.owner
+        assertEquals receivers.size(), hot.receiverClassCount
+
+        def unstable = statistics.getUnstableCallSites(1)
+        assertEquals 1, unstable.length
+        assert unstable[0].contains(" size: ")
+    }
+
+    void testChosenMethods() {
+        def target = new StatisticsTarget()
+        for (int i = 0; i < 3; i++) {
+            target.overloaded(i)
+            target.overloaded("a")
+        }
+        assert statistics.chosenMethodCount > 0
+    }
+
+    void testMetaClassNumbers() {
+        assert statistics.classInfoSize > 0
+        assert statistics.classInfoFullSize >= statistics.classInfoSize
+        assert statistics.metaClassCount >= statistics.metaClassImplCount
+        assert statistics.metaClassImplCount > 0
+    }
+
+    void testRegistration() {
+        def server = ManagementFactory.platformMBeanServer
+        def name = statistics.register(server)
+        try {
+            assertEquals new ObjectName(MetaClassStatistics.OBJECT_NAME), name
+            assertEquals true, server.getAttribute(name, "Enabled")
+            assert server.getAttribute(name, "ClassInfoSize") > 0
+            def sites = server.invoke(name, "getHotCallSites", [5] as Object[], ["int"] as String[])
+            assert sites instanceof String[]
+
+            // registering again replaces the bean
+            statistics.register(server)
+        } finally {
+            server.unregisterMBean(name)
+        }
+    }
+
+    void testExportWithJmxBuilder() {
+        def jmx = new JmxBuilder()
+        def name = new ObjectName("org.codehaus.groovy.test:type=MetaClassStatistics")
+        jmx.export {
+            bean(target: statistics, name: name)
+        }
+        try {
+            assertEquals true, jmx.MBeanServer.getAttribute(name, "Enabled")
+        } finally {
+            jmx.MBeanServer.unregisterMBean(name)
+        }
+    }
+
+    private callSize(List receivers) {
+        def sizes = []
+        for (receiver in receivers)
+          sizes << receiver.size()
+        sizes
+    }
+}
+
+class StatisticsTarget {
+    def overloaded(int i) { i }
+    def overloaded(String s) { s }
+}
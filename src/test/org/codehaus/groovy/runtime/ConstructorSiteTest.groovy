@@ -0,0 +1,86 @@
+package org.codehaus.groovy.runtime
+
+import org.codehaus.groovy.reflection.ReflectionCache
+import org.codehaus.groovy.runtime.callsite.CallSiteGenerator
+
+class ConstructorSiteTest extends GroovyTestCase {
+
+    void testConstructorSitesAreGenerated() {
+        for (int i = 0; i < 3; i++) {
+            def target = new CtorTarget("name", i)
+            assertEquals "name", target.name
+            assertEquals i, target.count
+        }
+        def constructor = findConstructor(CtorTarget, String, int)
+        assert CallSiteGenerator.isCompilable(constructor)
+        assert constructor.hasConstructorSiteConstructor()
+    }
+
+    void testArgumentsOfOtherTypesFallBack() {
+        def results = ["a", 1, "b", 2L, null].collect { create(it) }
+        assertEquals(["string a", "int 1", "string b", "long 2", "string null"], results.collect { it.name })
+    }
+
+    void testManyArguments() {
+        for (int i = 0; i < 3; i++) {
+            def target = new CtorTarget(1, 2, 3, 4, 5)
+            assertEquals 15, target.count
+        }
+    }
+
+    void testJdkConstructors() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals new java.awt.Point(1, 2), new java.awt.Point(1, 2)
+            assertEquals "abc", new StringBuilder("abc").toString()
+        }
+    }
+
+    void testExceptionsAreNotWrapped() {
+        for (int i = 0; i < 2; i++) {
+            shouldFail(IllegalStateException) {
+                new CtorTarget(true)
+            }
+        }
+    }
+
+    void testAbstractClassesAreNotCompiled() {
+        assertFalse CallSiteGenerator.isCompilable(findConstructor(AbstractCtorTarget))
+        Class type = AbstractCtorTarget
+        shouldFail {
+            type.newInstance()
+        }
+    }
+
+    private create(value) {
+        new CtorTarget(value)
+    }
+
+    private findConstructor(Class type, Class... params) {
+        ReflectionCache.getCachedClass(type).constructors.find {
+            it.nativeParameterTypes as List == params as List
+        }
+    }
+}
+
+class CtorTarget {
+    String name
+    int count
+
+    CtorTarget(String name, int count) {
+        this.name = name
+        this.count = count
+    }
+
+    CtorTarget(String s) { name = "string $s" }
+
+    CtorTarget(int i) { name = "int $i" }
+
+    CtorTarget(long l) { name = "long $l" }
+
+    CtorTarget(int a, int b, int c, int d, int e) { count = a + b + c + d + e }
+
+    CtorTarget(boolean fail) { throw new IllegalStateException() }
+}
+
+abstract class AbstractCtorTarget {
+}
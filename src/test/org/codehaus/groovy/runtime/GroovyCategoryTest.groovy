@@ -33,6 +33,32 @@ class GroovyCategoryTest extends GroovyTestCase {
         } catch (IllegalArgumentException e) {
         }
     }
+
+    void testCachedSelectionFollowsCategoryScope() {
+        def results = []
+        3.times {
+            results << " HeLlO".trim()
+            use(Category3) {
+                results << " HeLlO".trim()
+                use(Category4) {
+                    results << " HeLlO".trim()
+                }
+                results << " HeLlO".trim()
+            }
+            results << " HeLlO".trim()
+        }
+        assertEquals(["HeLlO", " HELLO!", " hello?", " HELLO!", "HeLlO"] * 3, results)
+    }
+
+    void testNonCategoryMethodsInsideUse() {
+        use(Category1) {
+            3.times {
+                assertEquals "HELLO", "HeLlO".upper()
+                assertEquals "hello", "HeLlO".toLowerCase()
+                assertEquals 5, "HeLlO".size()
+            }
+        }
+    }
 }
 
 class Category1 {
@@ -41,4 +67,12 @@ class Category1 {
 
 class Category2 {
     static String lower(String message) {return message.toLowerCase()}
-}
\ No newline at end of file
+}
+
+class Category3 {
+    static String trim(String message) {message.toUpperCase() + "!"}
+}
+
+class Category4 {
+    static String trim(String message) {message.toLowerCase() + "?"}
+}
@@ -0,0 +1,74 @@
+package org.codehaus.groovy.runtime
+
+class LazyIterableTest extends GroovyTestCase {
+
+    void testStagesAreAppliedInOnePass() {
+        def calls = []
+        def view = (1..10).lazy()
+                .findAll { calls << "findAll $it"; it % 2 == 0 }
+                .collect { calls << "collect $it"; it * 10 }
+        assert calls.isEmpty()
+        assertEquals 20, view.first()
+        assertEquals(["findAll 1", "findAll 2", "collect 2"], calls*.toString())
+        assertEquals([20, 40, 60, 80, 100], view.toList())
+    }
+
+    void testTakeDoesNotReadFurther() {
+        def read = []
+        def source = (1..100).iterator()
+        def iterator = [hasNext: { source.hasNext() }, next: { def v = source.next(); read << v; v }] as Iterator
+        assertEquals([2, 4, 6], iterator.lazy().findAll { it % 2 == 0 }.take(3).toList())
+        assertEquals((1..6).toList(), read)
+        assertEquals([], [1, 2, 3].lazy().take(0).toList())
+        assertEquals([1, 2, 3], [1, 2, 3].lazy().take(5).toList())
+    }
+
+    void testDropAndWhile() {
+        def list = [1, 2, 3, 4, 5, 1, 2]
+        assertEquals([4, 5, 1, 2], list.lazy().drop(3).toList())
+        assertEquals([], list.lazy().drop(10).toList())
+        assertEquals([1, 2, 3], list.lazy().takeWhile { it < 4 }.toList())
+        assertEquals([4, 5, 1, 2], list.lazy().dropWhile { it < 4 }.toList())
+        assertEquals([5, 1], list.lazy().drop(1).dropWhile { it < 5 }.take(2).toList())
+    }
+
+    void testGrepAndUnique() {
+        def words = ["apple", "avocado", "banana", "apple", "cherry", "Avocado"]
+        assertEquals(["apple", "avocado", "apple"], words.lazy().grep(~/a.*/).toList())
+        assertEquals(["apple", "avocado"], words.lazy().grep(~/a.*/).unique().toList())
+        assertEquals(["apple", "avocado", "banana", "cherry"], words.lazy().unique { it.toLowerCase() }.toList())
+        assertEquals(["apple", "banana", "cherry"], words.lazy().unique { a, b -> a[0].toLowerCase() <=> b[0].toLowerCase() }.toList())
+    }
+
+    void testUniqueAgreesWithCollectionUnique() {
+        def values = [1, 1L, 1.0G, 2.5d, 2.5G, "a", 'a' as char, 97, null, 3G, null, -0.0d, 0]
+        assertEquals(values.clone().unique(), values.lazy().unique().toList())
+        def mixed = ["x", "${'x'}", 1, 1.0d]
+        assertEquals(mixed.clone().unique(), mixed.lazy().unique().toList())
+        assertEquals(mixed.clone().unique(), mixed.lazy().unique { it }.toList())
+    }
+
+    void testViewsCanBeReused() {
+        def view = [3, 1, 3, 2].lazy().unique().drop(1)
+        assertEquals([1, 2], view.toList())
+        assertEquals([1, 2], view.toList())
+        assertEquals 3, view.inject(0) { sum, i -> sum + i }
+
+        def once = [1, 2, 3].iterator().lazy()
+        assertEquals([1, 2, 3], once.toList())
+        assertEquals([], once.toList())
+    }
+
+    void testOtherSources() {
+        int[] array = [5, 6, 7]
+        assertEquals([6, 7], array.lazy().drop(1).toList())
+        assertEquals(["b"], "abc".lazy().grep("b").toList())
+        def sum = 0
+        for (i in (1..5).lazy().findAll { it > 3 }) sum += i
+        assertEquals 9, sum
+        assertEquals 8, (1..10).lazy().collect { it * 2 }.find { it > 7 }
+        shouldFail(NoSuchElementException) {
+            [].lazy().first()
+        }
+    }
+}
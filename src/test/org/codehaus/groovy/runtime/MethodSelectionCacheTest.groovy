@@ -0,0 +1,45 @@
+package org.codehaus.groovy.runtime
+
+import org.codehaus.groovy.runtime.metaclass.MetaMethodIndex
+
+class MethodSelectionCacheTest extends GroovyTestCase {
+
+    void testAlternatingArgumentTypes() {
+        def o = new Overloaded()
+        def args = ["s", 1, 2L, 1.0G, [a: 1], [1], "t", 3]
+        def expected = ["String", "Integer", "Long", "Number", "Object", "Object", "String", "Integer"]
+        5.times {
+            assertEquals expected, args.collect { o.invokeMethod("m", it) }
+            assertEquals expected, args.collect { o.m(it) }
+        }
+    }
+
+    void testMoreArgumentTypesThanCacheSlots() {
+        def o = new Overloaded()
+        def args = (1..MetaMethodIndex.CACHE_SIZE + 2).collect { [it as String, it as Integer, it as Long][it % 3] }
+        3.times {
+            assertEquals args.collect { it.getClass().simpleName }, args.collect { o.invokeMethod("m", it) }
+        }
+    }
+
+    void testAddToCacheKeepsMostRecentFirst() {
+        def cache = null
+        (1..MetaMethodIndex.CACHE_SIZE + 1).each {
+            cache = MetaMethodIndex.addToCache(cache, new MetaMethodIndex.CacheEntry([Integer] as Class[], null))
+        }
+        assertEquals 1, cache.length
+
+        def entry = new MetaMethodIndex.CacheEntry([String] as Class[], null)
+        cache = MetaMethodIndex.addToCache(cache, entry)
+        assertSame entry, cache[0]
+        assertEquals Math.min(2, MetaMethodIndex.CACHE_SIZE), cache.length
+    }
+}
+
+class Overloaded {
+    def m(String s) { "String" }
+    def m(Integer i) { "Integer" }
+    def m(Long l) { "Long" }
+    def m(Number n) { "Number" }
+    def m(Object o) { "Object" }
+}
@@ -0,0 +1,116 @@
+package org.codehaus.groovy.runtime
+
+import java.awt.Point
+
+class PropertyAccessorTest extends GroovyTestCase {
+
+    void testGettersAndSettersUseGeneratedAccessors() {
+        def metaClass = GroovySystem.metaClassRegistry.getMetaClass(AccessorBean)
+        def count = metaClass.getMetaProperty("count")
+        assertNotNull count.getter.propertyAccessor
+        assertNotNull count.setter.propertyAccessor
+
+        def bean = new AccessorBean()
+        for (int i = 0; i < 3; i++) {
+            bean.name = "bean $i"
+            bean.count = i
+            bean.big = i
+            assertEquals "bean $i".toString(), bean.name
+            assertEquals i, bean.count
+            assertEquals((long) i, bean.big)
+        }
+
+        assertEquals 2, InvokerHelper.getProperty(bean, "count")
+        InvokerHelper.setProperty(bean, "count", 7 as byte)
+        assertEquals 7, count.getProperty(bean)
+        count.setProperty(bean, 8L)
+        assertEquals 8, bean.count
+    }
+
+    void testPublicFieldsUseGeneratedAccessors() {
+        def field = GroovySystem.metaClassRegistry.getMetaClass(AccessorBean).getMetaProperty("publicInt")
+        assertNotNull field.propertyAccessor
+
+        def bean = new AccessorBean()
+        for (int i = 0; i < 3; i++) {
+            bean.publicInt = i
+            bean.publicList = [i]
+            assertEquals i, bean.publicInt
+            assertEquals([i], bean.publicList)
+        }
+        assertEquals "constant", bean.CONSTANT
+        shouldFail(ReadOnlyPropertyException) {
+            bean.CONSTANT = "changed"
+        }
+
+        def point = new Point(1, 2)
+        point.x = 3
+        assertEquals 3, point.x
+        assertEquals 2, point.y
+    }
+
+    void testStaticProperties() {
+        AccessorBean.shared = "one"
+        assertEquals "one", AccessorBean.shared
+        assertEquals "one", new AccessorBean().shared
+        AccessorBean.shared = null
+    }
+
+    void testExceptionsFromAccessors() {
+        def bean = new AccessorBean()
+        for (int i = 0; i < 2; i++) {
+            shouldFail(IllegalStateException) {
+                bean.failing
+            }
+            shouldFail(IllegalArgumentException) {
+                bean.failing = 1
+            }
+        }
+        shouldFail {
+            bean.count = null
+        }
+    }
+
+    void testAccessorsNameThePropertyTheyCanNotAccess() {
+        def beanMetaClass = GroovySystem.metaClassRegistry.getMetaClass(AccessorBean)
+        def bean = new AccessorBean()
+
+        def message = shouldFail(GroovyRuntimeException) {
+            beanMetaClass.getMetaProperty("count").getter.propertyAccessor.setProperty(bean, 1)
+        }
+        assertEquals "Cannot set read-only property: count for class: ${AccessorBean.name}", message
+
+        message = shouldFail(GroovyRuntimeException) {
+            beanMetaClass.getMetaProperty("count").setter.propertyAccessor.getProperty(bean)
+        }
+        assertEquals "Cannot get write-only property: count for class: ${AccessorBean.name}", message
+
+        message = shouldFail(GroovyRuntimeException) {
+            beanMetaClass.getMetaProperty("CONSTANT").propertyAccessor.setProperty(null, "changed")
+        }
+        assertEquals "Cannot set read-only property: CONSTANT for class: ${AccessorBean.name}", message
+    }
+
+    void testReceiverOfOtherClassFallsBack() {
+        def receivers = [new AccessorBean(count: 1), new OtherAccessorBean(count: "other"), new AccessorBean(count: 3)]
+        assertEquals([1, "other", 3], receivers.collect { it.count })
+    }
+}
+
+class AccessorBean {
+    public static final String CONSTANT = "constant"
+    static String shared
+    String name
+    int count
+    long big
+    public int publicInt
+    public List publicList
+
+    def getFailing() { throw new IllegalStateException() }
+
+    void setFailing(value) { throw new IllegalArgumentException() }
+}
+
+class OtherAccessorBean {
+    String count
+}
@@ -0,0 +1,100 @@
+package org.codehaus.groovy.runtime.callsite
+
+class PolymorphicCallSiteTest extends GroovyTestCase {
+
+    void testMixedReceivers() {
+        def items = [1, "a", 2L, 3.0G, [1], new PicA(), new PicB(), 'b' as char, 4.5d, [a:1]]
+        def expected = items.collect { it.toString() }
+        3.times {
+            assertEquals expected, items.collect { it.toString() }
+        }
+    }
+
+    void testMegamorphicFallbackKeepsArgumentDispatch() {
+        def receivers = [new PicA(), new PicB(), new PicC(), new PicD(), new PicE(), new PicF()]
+        3.times {
+            assertEquals(['A1', 'B1', 'C1', 'D1', 'E1', 'F1'], receivers.collect { it.name(1) })
+            assertEquals(['Ax', 'Bx', 'Cx', 'Dx', 'Ex', 'Fx'], receivers.collect { it.name("x") })
+        }
+    }
+
+    void testPrimitiveArguments() {
+        def receivers = [new PicA(), new PicB(), new PicC(), new PicD(), new PicE(), new PicF()]
+        3.times {
+            assertEquals(['A2', 'B2', 'C2', 'D2', 'E2', 'F2'], receivers.collect { callName(it, 2) })
+            assertEquals(['Atrue', 'Btrue'], receivers[0..1].collect { callName(it, true) })
+        }
+    }
+
+    void testMetaClassChangeAfterSiteBecamePolymorphic() {
+        def receivers = [new PicA(), new PicB()]
+        assertEquals(['A1', 'B1'], receivers.collect { it.name(1) })
+
+        PicB.metaClass.name = { Integer i -> "changed$i" }
+        try {
+            receivers = [new PicA(), new PicB()]
+            assertEquals(['A1', 'changed1'], receivers.collect { it.name(1) })
+        } finally {
+            GroovySystem.metaClassRegistry.removeMetaClass(PicB)
+        }
+    }
+
+    void testChainGrowsToMaxEntriesThenBecomesMegamorphic() {
+        def receivers = [new PicA(), new PicB(), new PicC(), new PicD(), new PicE(), new PicF()]
+        def callSites = new CallSiteArray(PolymorphicCallSiteTest, ["name"] as String[])
+
+        callSites.array[0].call(receivers[0], 1)
+        assertFalse callSites.array[0] instanceof PolymorphicCallSite
+
+        for (i in 1..<PolymorphicCallSite.MAX_ENTRIES) {
+            assertEquals receivers[i].name(1), callSites.array[0].call(receivers[i], 1)
+            PolymorphicCallSite site = callSites.array[0]
+            assertEquals i + 1, site.entryCount
+            assertFalse site.isMegamorphic()
+        }
+
+        PolymorphicCallSite site = callSites.array[0]
+        receivers.each { assertEquals it.name(1), site.call(it, 1) }
+        assertSame site, callSites.array[0]
+        assertEquals PolymorphicCallSite.MAX_ENTRIES, site.entryCount
+        assertTrue site.isMegamorphic()
+    }
+
+    void testHitsAndMissesAreCountedOnlyWhileStatisticsAreEnabled() {
+        def receivers = [new PicA(), new PicB(), new PicC(), new PicD(), new PicE(), new PicF()]
+        def callSites = new CallSiteArray(PolymorphicCallSiteTest, ["name"] as String[])
+        receivers.each { callSites.array[0].call(it, 1) }
+        PolymorphicCallSite site = callSites.array[0]
+        assertTrue site.isMegamorphic()
+
+        receivers.each { site.call(it, 2) }
+        assertEquals 0, site.hitCount
+        assertEquals 0, site.missCount
+
+        def enabled = CallSiteStatistics.isEnabled()
+        CallSiteStatistics.setEnabled(true)
+        try {
+            receivers.each { site.call(it, 2) }
+            assertEquals PolymorphicCallSite.MAX_ENTRIES, site.hitCount
+            assertEquals receivers.size() - PolymorphicCallSite.MAX_ENTRIES, site.missCount
+
+            site.call(receivers[0], "x")
+            assertEquals PolymorphicCallSite.MAX_ENTRIES + 1, site.hitCount
+            assertEquals receivers.size() - PolymorphicCallSite.MAX_ENTRIES, site.missCount
+        } finally {
+            CallSiteStatistics.setEnabled(enabled)
+            CallSiteStatistics.reset()
+        }
+    }
+
+    private callName(receiver, int i) { receiver.name(i) }
+
+    private callName(receiver, boolean b) { receiver.name(b) }
+}
+
+class PicA { def name(x) { "A$x" } }
+class PicB { def name(x) { "B$x" } }
+class PicC { def name(x) { "C$x" } }
+class PicD { def name(x) { "D$x" } }
+class PicE { def name(x) { "E$x" } }
+class PicF { def name(x) { "F$x" } }
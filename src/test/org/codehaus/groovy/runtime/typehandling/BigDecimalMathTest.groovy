@@ -0,0 +1,96 @@
+package org.codehaus.groovy.runtime.typehandling
+
+/**
+ * Compares the results of BigDecimalMath, which uses scaled longs for small operands,
+ * with plain BigDecimal arithmetic. Results have to be equal in value and scale.
+ */
+class BigDecimalMathTest extends GroovyTestCase {
+
+    def math = BigDecimalMath.INSTANCE
+
+    def edgeCases = [
+            0, 1, -1, 7, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE,
+            999999999999999999L, -999999999999999999L, 1000000000000000000L,
+            (short) 12, (byte) -3, new BigInteger("123456789012345678901234567890"),
+            new BigDecimal("0.0"), new BigDecimal("0.000"), new BigDecimal("1E+2"), new BigDecimal("-5E-20"),
+            new BigDecimal("0.5"), new BigDecimal("-0.5"), new BigDecimal("2.50"), new BigDecimal("0.0000000001"),
+            new BigDecimal("99999999999999999.9"), new BigDecimal("0.999999999999999999"),
+            new BigDecimal("9999999999999999999.9"), new BigDecimal("1.0000000000000000000001")
+    ]
+
+    void testEdgeCases() {
+        for (left in edgeCases) {
+            for (right in edgeCases) {
+                assertSameResults(left, right)
+            }
+        }
+    }
+
+    void testRandomOperands() {
+        def random = new Random(4711)
+        def numbers = (0..<400).collect { randomDecimal(random) }
+        for (int i = 0; i < 20000; i++) {
+            assertSameResults(numbers[random.nextInt(numbers.size())], numbers[random.nextInt(numbers.size())])
+        }
+    }
+
+    void testRoundingOfDivision() {
+        assertEquals new BigDecimal("0.6666666667"), math.divideImpl(2, 3)
+        assertEquals new BigDecimal("-0.6666666667"), math.divideImpl(-2, 3)
+        assertEquals new BigDecimal("0.0000000001"), math.divideImpl(new BigDecimal("0.5"), 5000000000)
+        assertEquals 0, math.divideImpl(new BigDecimal("0.2"), 5000000000).signum()
+        assertEquals new BigDecimal("0.0000000001"), math.divideImpl(new BigDecimal("0.25"), 5000000000)
+        assertEquals new BigDecimal("1E+2"), math.divideImpl(new BigDecimal("100.0"), 1)
+    }
+
+    void testDivisionByZero() {
+        shouldFail(ArithmeticException) { math.divideImpl(1, 0) }
+        shouldFail(ArithmeticException) { math.divideImpl(new BigDecimal("1.5"), new BigDecimal("0.00")) }
+    }
+
+    private void assertSameResults(Number left, Number right) {
+        def bigLeft = toBigDecimal(left)
+        def bigRight = toBigDecimal(right)
+        assertIdentical("$left + $right", bigLeft.add(bigRight), math.addImpl(left, right))
+        assertIdentical("$left - $right", bigLeft.subtract(bigRight), math.subtractImpl(left, right))
+        assertIdentical("$left * $right", bigLeft.multiply(bigRight), math.multiplyImpl(left, right))
+        if (bigRight.signum() != 0) {
+            assertIdentical("$left / $right", divide(bigLeft, bigRight), math.divideImpl(left, right))
+        }
+    }
+
+    private void assertIdentical(String expression, BigDecimal expected, Number actual) {
+        assertTrue(expression, actual instanceof BigDecimal)
+        assertTrue("$expression: expected $expected but was $actual",
+                expected.unscaledValue() == actual.unscaledValue() && expected.scale() == actual.scale())
+    }
+
+    private BigDecimal toBigDecimal(Number number) {
+        number instanceof BigDecimal ? number : new BigDecimal(number.toString())
+    }
+
+    // the division of BigDecimalMath before scaled longs were used
+    private BigDecimal divide(BigDecimal left, BigDecimal right) {
+        int scale = Math.max(Math.max(left.scale(), right.scale()), BigDecimalMath.MAX_DIVISION_SCALE)
+        BigDecimal number = left.divide(right, scale, BigDecimal.ROUND_HALF_UP)
+        if (number.signum() == 0) return number.setScale(0)
+        try {
+            while (true) {
+                number = number.setScale(number.scale() - 1)
+            }
+        } catch (ArithmeticException e) {
+            return number
+        }
+    }
+
+    private Number randomDecimal(Random random) {
+        int digits = 1 + random.nextInt(21)
+        def unscaled = new StringBuilder(random.nextBoolean() ? "-" : "")
+        digits.times { unscaled << random.nextInt(10) }
+        switch (random.nextInt(4)) {
+            case 0: return new BigInteger(unscaled.toString()).longValue()
+            case 1: return random.nextInt(1000) - 500
+            default: return new BigDecimal(new BigInteger(unscaled.toString()), random.nextInt(24) - 2)
+        }
+    }
+}
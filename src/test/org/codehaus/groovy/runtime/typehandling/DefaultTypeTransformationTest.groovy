@@ -0,0 +1,59 @@
+package org.codehaus.groovy.runtime.typehandling
+
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * castToType caches how one class is cast to another, the results must still
+ * depend on the values and on constructors added later on.
+ */
+class DefaultTypeTransformationTest extends GroovyTestCase {
+
+    void testSameClassesWithDifferentValues() {
+        assert castToType("a", Character) == ('a' as char)
+        shouldFail(GroovyCastException) { castToType("ab", Character) }
+        assert castToType("b", char) == ('b' as char)
+
+        assert castToType(1, Boolean) == true
+        assert castToType(0, Boolean) == false
+
+        assert castToType(5, Long) == 5L
+        assert castToType(5, Long).class == Long
+        assert castToType(1.5, BigInteger) == 1G
+        assert castToType(1.5d, BigInteger) == 1G
+        assert castToType(2, double) == 2d
+        shouldFail(GroovyRuntimeException) { castToType(BigInteger.TEN.pow(400), double) }
+    }
+
+    void testCollections() {
+        def list = [1, 2, 2]
+        assert castToType(list, List).is(list)
+        assert castToType(list, Set) == [1, 2] as Set
+        assert castToType(list, HashSet).class == HashSet
+        assert castToType([1, 2] as int[], List) == [1, 2]
+        assert castToType([1, 2] as Integer[], LinkedList).class == LinkedList
+        assert castToType([1, 2], int[]) == [1, 2] as int[]
+    }
+
+    void testNumberWithoutOwnConversion() {
+        shouldFail(GroovyCastException) { castToType("no number", AtomicInteger) }
+        shouldFail(GroovyCastException) { castToType(5, AtomicInteger) }
+    }
+
+    void testConstructorAddedAfterFirstCast() {
+        try {
+            shouldFail(GroovyCastException) { castToType([1, 2], CastTarget) }
+            CastTarget.metaClass.constructor = { int a, int b -> new CastTarget(sum: a + b) }
+            assert castToType([1, 2], CastTarget).sum == 3
+        } finally {
+            GroovySystem.metaClassRegistry.removeMetaClass(CastTarget)
+        }
+    }
+
+    private castToType(Object object, Class type) {
+        DefaultTypeTransformation.castToType(object, type)
+    }
+}
+
+class CastTarget {
+    int sum
+}
@@ -0,0 +1,39 @@
+package org.codehaus.groovy.util
+
+class ManagedDoubleKeyMapTest extends GroovyTestCase {
+
+  def map
+
+  void setUp() {
+    def manager = ReferenceManager.createIdlingManager(null)
+    def bundle = new ReferenceBundle(manager, ReferenceType.HARD)
+    map = new ManagedDoubleKeyMap(bundle)
+  }
+
+  void testPutAndGet() {
+    map.put("a", "b", 1)
+    map.put("b", "a", 2)
+    assert map.get("a", "b") == 1
+    assert map.get("b", "a") == 2
+    assert map.get("a", "a") == null
+  }
+
+  void testKeysWithTheSameHash() {
+    def keys = (0..<5).collect { new SameHash(name: "key$it") }
+    keys.eachWithIndex { key, i -> map.put(key, key, i) }
+    keys.eachWithIndex { key, i -> assert map.get(key, key) == i }
+    assert map.size() == 5
+  }
+
+  void testRemove() {
+    map.put("a", "b", 1)
+    map.remove("a", "b")
+    assert map.get("a", "b") == null
+  }
+}
+
+class SameHash {
+  String name
+  int hashCode() { 42 }
+  boolean equals(Object o) { is(o) }
+}